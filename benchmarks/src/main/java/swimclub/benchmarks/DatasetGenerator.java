@@ -0,0 +1,185 @@
+package swimclub.benchmarks;
+
+import swimclub.utilities.FileHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Generates synthetic .dat files in the same layout as src/main/resources.
+ * The data is derived from a fixed seed, so a given member count always produces byte-identical files
+ * and benchmark results can be compared between runs.
+ *
+ * Usage from the command line:
+ * java -cp target/benchmarks.jar swimclub.benchmarks.DatasetGenerator <directory> <memberCount>
+ */
+public class DatasetGenerator {
+    public static final String MEMBERS_FILE = "members.dat";
+    public static final String PAYMENTS_FILE = "payments.dat";
+    public static final String REMINDERS_FILE = "reminders.dat";
+    public static final String PAYMENT_RATES_FILE = "paymentRates.dat";
+    public static final String TEAMS_FILE = "teams.dat";
+    public static final String COMPETITION_RESULTS_FILE = "competitionResults.dat";
+    public static final String STAFF_FILE = "staff.dat";
+    public static final String TRAINING_RESULTS_FILE = "trainingResults.dat";
+
+    private static final long SEED = 20241206L;
+    private static final int MEMBERS_PER_TEAM = 1000;
+
+    private static final String[] FIRST_NAMES = {
+            "Rasmus", "Esben", "Victor", "Martin", "Søren", "Mette", "Anne", "Jens", "Ida", "Freja",
+            "Mads", "Sofie", "Niels", "Karen", "Lærke", "Oliver", "Emma", "Åse", "Bjørn", "Kasper"
+    };
+    private static final String[] LAST_NAMES = {
+            "Jensen", "Nielsen", "Hansen", "Pedersen", "Andersen", "Christensen", "Larsen", "Sørensen",
+            "Rasmussen", "Jørgensen", "Petersen", "Madsen", "Kristensen", "Olsen", "Thomsen", "Møller"
+    };
+    private static final String[] CITIES = {
+            "København", "Aarhus", "Odense", "Aalborg", "Valby", "Amager", "Frederiksberg", "Roskilde"
+    };
+    private static final String[] STREETS = {
+            "Bartholinsgade", "Nørrebrogade", "Vesterbrogade", "Amagerbrogade", "Østerbrogade", "Strøget"
+    };
+    private static final String[] REGIONS = {"Indre By", "Nørrebro", "Vesterbro", "Amager", "Østerbro"};
+    private static final String[] ACTIVITIES = {"CRAWL", "BREASTSTROKE", "BUTTERFLY", "BACKCRAWL"};
+    private static final String[] PAYMENT_STATUSES = {"COMPLETE", "COMPLETE", "COMPLETE", "PENDING", "FAILED"};
+
+    /**
+     * Writes a complete dataset for the given number of members into a directory.
+     *
+     * @param directory   The directory to write the .dat files into (created if missing).
+     * @param memberCount The number of members to generate.
+     * @throws IOException If a file cannot be written.
+     */
+    public static void generate(Path directory, int memberCount) throws IOException {
+        Files.createDirectories(directory);
+        Random random = new Random(SEED);
+        int teamCount = Math.max(1, memberCount / MEMBERS_PER_TEAM);
+
+        try (BufferedWriter members = writer(directory, MEMBERS_FILE);
+             BufferedWriter payments = writer(directory, PAYMENTS_FILE);
+             BufferedWriter training = writer(directory, TRAINING_RESULTS_FILE)) {
+            for (int id = 1; id <= memberCount; id++) {
+                String first = pick(random, FIRST_NAMES);
+                String last = pick(random, LAST_NAMES);
+                int age = 6 + random.nextInt(75);
+                String level = age > 18 ? "SENIOR" : "JUNIOR";
+                String category = random.nextInt(3) == 0 ? "COMPETITIVE" : "EXERCISE";
+                String status = random.nextInt(5) == 0 ? "PASSIVE" : "ACTIVE";
+                String activity = pick(random, ACTIVITIES);
+                String paymentStatus = pick(random, PAYMENT_STATUSES);
+                int phone = 20000000 + random.nextInt(79999999);
+
+                members.write(id + ";" + first + " " + last + ";" + first.toLowerCase() + id + "@example.dk;"
+                        + pick(random, CITIES) + ";" + pick(random, STREETS) + " " + (1 + random.nextInt(200)) + ";"
+                        + pick(random, REGIONS) + ";" + (1000 + random.nextInt(9000)) + ";" + age + ";" + phone + ";"
+                        + level + " " + category + ";" + status + ";" + activity + ";" + paymentStatus + ";"
+                        + "Team" + (id % teamCount));
+                members.newLine();
+
+                payments.write(id + ";" + id + ";" + (level.equals("JUNIOR") ? "1000.0" : "1600.0") + ";2024-"
+                        + String.format("%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28)) + ";" + paymentStatus);
+                payments.newLine();
+
+                training.write(id + ";" + level + ";" + activity + ";" + (25 + random.nextInt(9000) / 100.0) + ";"
+                        + String.format("%02d-%02d-2024", 1 + random.nextInt(28), 1 + random.nextInt(12)));
+                training.newLine();
+            }
+        }
+
+        try (BufferedWriter staff = writer(directory, STAFF_FILE);
+             BufferedWriter teams = writer(directory, TEAMS_FILE)) {
+            for (int team = 0; team < teamCount; team++) {
+                int coachId = team + 1;
+                staff.write(coachId + ";Team" + team + ";Coach " + coachId + ";coach" + coachId + "@example.dk;"
+                        + "København;Bartholinsgade;Indre By;1356;40;" + (30000000 + coachId) + ";COACH");
+                staff.newLine();
+
+                StringBuilder line = new StringBuilder("Team" + team + ";SENIOR_COMPETITIVE;" + coachId + ";");
+                for (int id = team == 0 ? teamCount : team; id <= memberCount; id += teamCount) {
+                    line.append(id).append(',');
+                }
+                if (line.charAt(line.length() - 1) == ',') {
+                    line.deleteCharAt(line.length() - 1);
+                }
+                teams.write(line.toString());
+                teams.newLine();
+            }
+        }
+
+        try (BufferedWriter rates = writer(directory, PAYMENT_RATES_FILE)) {
+            rates.write("Junior Rate: 1000.0");
+            rates.newLine();
+            rates.write("Senior Rate: 1600.0");
+            rates.newLine();
+        }
+        writer(directory, REMINDERS_FILE).close();
+        writer(directory, COMPETITION_RESULTS_FILE).close();
+    }
+
+    /**
+     * Creates a FileHandler that reads and writes the dataset in the given directory.
+     *
+     * @param directory The dataset directory.
+     * @return A FileHandler for the dataset.
+     */
+    public static FileHandler fileHandler(Path directory) {
+        return new FileHandler(
+                path(directory, MEMBERS_FILE), path(directory, PAYMENTS_FILE), path(directory, REMINDERS_FILE),
+                path(directory, PAYMENT_RATES_FILE), path(directory, TEAMS_FILE),
+                path(directory, COMPETITION_RESULTS_FILE), path(directory, STAFF_FILE),
+                path(directory, TRAINING_RESULTS_FILE)
+        );
+    }
+
+    /**
+     * Resolves a dataset file name against a directory.
+     *
+     * @param directory The dataset directory.
+     * @param fileName  The file name.
+     * @return The file path as a string.
+     */
+    public static String path(Path directory, String fileName) {
+        return directory.resolve(fileName).toString();
+    }
+
+    /**
+     * Returns a cached dataset directory for the given size, generating it on first use.
+     * Datasets are kept under java.io.tmpdir so repeated forks do not regenerate large files.
+     *
+     * @param memberCount The number of members.
+     * @return The dataset directory.
+     * @throws IOException If the dataset cannot be generated.
+     */
+    public static Path cachedDataset(int memberCount) throws IOException {
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "swimclub-bench", "members-" + memberCount);
+        Path marker = directory.resolve(".complete");
+        if (!Files.exists(marker)) {
+            generate(directory, memberCount);
+            Files.createFile(marker);
+        }
+        return directory;
+    }
+
+    private static BufferedWriter writer(Path directory, String fileName) throws IOException {
+        return Files.newBufferedWriter(directory.resolve(fileName), StandardCharsets.UTF_8);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DatasetGenerator <directory> <memberCount>");
+            System.exit(1);
+        }
+        generate(Paths.get(args[0]), Integer.parseInt(args[1]));
+        System.out.println("Generated " + args[1] + " members in " + args[0]);
+    }
+}
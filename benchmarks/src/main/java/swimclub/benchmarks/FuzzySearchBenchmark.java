@@ -0,0 +1,69 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.models.Member;
+import swimclub.repositories.MemberRepository;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MemberRepository#fuzzySearch(String, int)} on a club of half a million members, for the
+ * typos the front desk makes: a misspelled surname, a misspelled full name and a misspelled first name.
+ * The generated first names and surnames are each shared by tens of thousands of members, so these are the
+ * broad queries whose candidate pruning matters most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FuzzySearchBenchmark {
+
+    @Param({"500000"})
+    public int members;
+
+    private MemberRepository memberRepository;
+    private String misspelledSurname;
+    private String misspelledName;
+    private String misspelledFirstName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        memberRepository = new MemberRepository(DatasetGenerator.fileHandler(DatasetGenerator.cachedDataset(members)));
+        Member probe = memberRepository.findAll().get(members / 2);
+        String[] words = probe.getName().split(" ");
+        misspelledSurname = dropLetter(words[words.length - 1]);  // e.g. "Jensen" -> "Jesen"
+        misspelledName = swapLetters(probe.getName());            // e.g. "Rasmus Jensen" -> "Rsamus Jensen"
+        misspelledFirstName = dropLetter(words[0]);               // e.g. "Mads" -> "Mas"
+    }
+
+    @Benchmark
+    public List<Member> misspelledSurname() {
+        return memberRepository.fuzzySearch(misspelledSurname, 10);
+    }
+
+    @Benchmark
+    public List<Member> misspelledFullName() {
+        return memberRepository.fuzzySearch(misspelledName, 10);
+    }
+
+    @Benchmark
+    public List<Member> misspelledFirstName() {
+        return memberRepository.fuzzySearch(misspelledFirstName, 10);
+    }
+
+    private static String dropLetter(String word) {
+        return word.substring(0, 2) + word.substring(3);
+    }
+
+    private static String swapLetters(String word) {
+        char[] letters = word.toCharArray();
+        char swap = letters[1];
+        letters[1] = letters[2];
+        letters[2] = swap;
+        return new String(letters);
+    }
+}
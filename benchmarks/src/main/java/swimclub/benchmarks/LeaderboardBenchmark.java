@@ -0,0 +1,50 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import swimclub.models.ActivityType;
+import swimclub.models.MembershipLevel;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.TrainingResultsRepository;
+import swimclub.utilities.FileHandler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one refresh of all eight top 5 boards (four disciplines, junior and senior),
+ * which is what the coach menu does for each leaderboard view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LeaderboardBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int members;
+
+    private TrainingResultsRepository trainingResultsRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dataset = DatasetGenerator.cachedDataset(members);
+        FileHandler fileHandler = DatasetGenerator.fileHandler(dataset);
+        MemberRepository memberRepository = new MemberRepository(fileHandler);
+        trainingResultsRepository = new TrainingResultsRepository(fileHandler,
+                DatasetGenerator.path(dataset, DatasetGenerator.TRAINING_RESULTS_FILE), memberRepository);
+        trainingResultsRepository.loadResults(memberRepository);
+    }
+
+    @Benchmark
+    public void top5AllBoards(Blackhole blackhole) {
+        for (ActivityType activityType : ActivityType.values()) {
+            for (MembershipLevel level : MembershipLevel.values()) {
+                blackhole.consume(trainingResultsRepository.getTopResults(activityType, level, 5));
+            }
+        }
+    }
+}
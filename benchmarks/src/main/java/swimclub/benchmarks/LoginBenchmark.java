@@ -0,0 +1,40 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.utilities.PasswordUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures password verification, the cost of a login, in logins per second on one thread (one core).
+ * Run it with the iteration counts under consideration to pick the PBKDF2 cost: the throughput times the
+ * number of cores must cover the peak login burst.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"100000", "310000", "600000"})
+    public int iterations;
+
+    private String salt;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordUtils.setIterations(iterations);
+        salt = PasswordUtils.generateSalt();
+        hash = PasswordUtils.hashPassword(PASSWORD, salt);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return PasswordUtils.validatePassword(PASSWORD, salt, hash);
+    }
+}
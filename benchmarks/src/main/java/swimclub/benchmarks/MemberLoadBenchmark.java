@@ -0,0 +1,37 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.models.Member;
+import swimclub.utilities.FileHandler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full load of members.dat through {@link FileHandler#loadMembers()}.
+ * Run with "-prof gc" to record allocation per load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MemberLoadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int members;
+
+    private FileHandler fileHandler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fileHandler = DatasetGenerator.fileHandler(DatasetGenerator.cachedDataset(members));
+    }
+
+    @Benchmark
+    public List<Member> loadMembers() {
+        return fileHandler.loadMembers();
+    }
+}
@@ -0,0 +1,67 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.models.Member;
+import swimclub.repositories.MemberRepository;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MemberRepository#search(String)} for the three kinds of query the front desk uses:
+ * a member ID, a name and a phone number, plus {@link MemberRepository#fuzzySearch(String, int)} for a
+ * misspelled name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MemberSearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int members;
+
+    private MemberRepository memberRepository;
+    private String idQuery;
+    private String nameQuery;
+    private String phoneQuery;
+    private String misspelledQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        memberRepository = new MemberRepository(DatasetGenerator.fileHandler(DatasetGenerator.cachedDataset(members)));
+        Member probe = memberRepository.findAll().get(members / 2);
+        idQuery = String.valueOf(probe.getMemberId());
+        nameQuery = probe.getName();
+        phoneQuery = String.valueOf(probe.getPhoneNumber());
+        // Swap the second and third letter, e.g. "Jensen" -> "Jnesen"
+        char[] name = probe.getName().toCharArray();
+        char swap = name[1];
+        name[1] = name[2];
+        name[2] = swap;
+        misspelledQuery = new String(name);
+    }
+
+    @Benchmark
+    public List<Member> searchById() {
+        return memberRepository.search(idQuery);
+    }
+
+    @Benchmark
+    public List<Member> searchByName() {
+        return memberRepository.search(nameQuery);
+    }
+
+    @Benchmark
+    public List<Member> searchByPhone() {
+        return memberRepository.search(phoneQuery);
+    }
+
+    @Benchmark
+    public List<Member> fuzzySearchByMisspelledName() {
+        return memberRepository.fuzzySearch(misspelledQuery, 10);
+    }
+}
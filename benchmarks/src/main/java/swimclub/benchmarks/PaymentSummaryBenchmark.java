@@ -0,0 +1,68 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.models.Member;
+import swimclub.repositories.MemberFeeCounters;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.PaymentRepository;
+import swimclub.services.BillingReport;
+import swimclub.services.PaymentService;
+import swimclub.utilities.FileHandler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the treasurer dashboard query: {@link PaymentService#getPaymentSummary(MemberFeeCounters)} reads the
+ * maintained counters, {@link PaymentService#getPaymentSummary(List)} recomputes the summary from the members.
+ * Also measures a dry billing run, which computes every member's fee in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PaymentSummaryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int members;
+
+    private PaymentService paymentService;
+    private List<Member> memberList;
+    private MemberFeeCounters feeCounters;
+    private MemberRepository memberRepository;
+    private FileHandler fileHandler;
+    private String paymentFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dataset = DatasetGenerator.cachedDataset(members);
+        fileHandler = DatasetGenerator.fileHandler(dataset);
+        memberRepository = new MemberRepository(fileHandler);
+        paymentFile = DatasetGenerator.path(dataset, DatasetGenerator.PAYMENTS_FILE);
+        PaymentRepository paymentRepository = new PaymentRepository(DatasetGenerator.path(dataset, DatasetGenerator.REMINDERS_FILE));
+        paymentRepository.loadPayments(paymentFile, memberRepository);
+        paymentService = new PaymentService(paymentRepository, fileHandler);
+        memberList = memberRepository.findAll();
+        feeCounters = memberRepository.getFeeCounters();
+    }
+
+    @Benchmark
+    public String paymentSummary() {
+        return paymentService.getPaymentSummary(feeCounters);
+    }
+
+    @Benchmark
+    public String paymentSummaryRecomputed() {
+        return paymentService.getPaymentSummary(memberList);
+    }
+
+    @Benchmark
+    public BillingReport billingRunDryRun() {
+        return paymentService.runBilling(memberRepository, fileHandler, paymentFile, LocalDate.of(2025, 1, 1), true);
+    }
+}
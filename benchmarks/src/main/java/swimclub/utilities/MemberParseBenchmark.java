@@ -0,0 +1,46 @@
+package swimclub.utilities;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import swimclub.benchmarks.DatasetGenerator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of single members.dat lines through {@link FileHandler#parseMember(String)}.
+ * Lives in the swimclub.utilities package because the parser is package-private.
+ * The score is per parsed line; run with "-prof gc" to see bytes allocated per line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MemberParseBenchmark {
+    private static final int LINES = 1024;
+
+    private FileHandler fileHandler;
+    private String[] lines;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dataset = DatasetGenerator.cachedDataset(LINES);
+        fileHandler = DatasetGenerator.fileHandler(dataset);
+        List<String> allLines = Files.readAllLines(dataset.resolve(DatasetGenerator.MEMBERS_FILE), StandardCharsets.UTF_8);
+        lines = allLines.toArray(new String[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parseMember(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(fileHandler.parseMember(line));
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package swimclub;
 
+import swimclub.utilities.AtomicFileWriter;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.StartupLoader;
+import swimclub.utilities.WriteBehindPersistence;
 import swimclub.controllers.*;
 import swimclub.repositories.*;
 import swimclub.services.*;
 import swimclub.ui.UserInterface;
 
+import java.util.concurrent.CompletableFuture;
+
 public class Main {
     public static void main(String[] args) {
         // File paths for various data files
@@ -19,26 +24,71 @@ public class Main {
         String trainingResultsFilePath = "src/main/resources/trainingResults.dat";
         String authFilePath = "src/main/resources/users.dat";
 
+        // Read the durability level before anything is started, so a typo stops the program with a clear message
+        AtomicFileWriter.Durability durability;
+        try {
+            durability = AtomicFileWriter.Durability.parse(
+                    System.getProperty("swimclub.durability", AtomicFileWriter.Durability.RENAME.name()));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid -Dswimclub.durability: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        // File saves are queued and written in the background; pending writes are flushed on any exit
+        WriteBehindPersistence persistence = new WriteBehindPersistence();
+        persistence.setDurability(durability);
+        Runtime.getRuntime().addShutdownHook(new Thread(persistence::close, "write-behind-flush"));
+
         // Initialize FileHandler for managing file operations
         FileHandler fileHandler = new FileHandler(
                 memberFilePath, paymentFilePath, reminderFilePath, paymentRatesFilePath,
-                teamsFilePath, competitionResultsFilePath, staffFilePath, trainingResultsFilePath
+                teamsFilePath, competitionResultsFilePath, staffFilePath, trainingResultsFilePath, persistence
         );
 
-        // Initialize the repositories
-        MemberRepository memberRepository = new MemberRepository(fileHandler);
-        PaymentRepository paymentRepository = new PaymentRepository(reminderFilePath);
-        CompetitionResultRepository competitionResultRepository = new CompetitionResultRepository(fileHandler, competitionResultsFilePath);
-        StaffRepository staffRepository = new StaffRepository(fileHandler);
-        TrainingResultsRepository trainingResultsRepository = new TrainingResultsRepository(fileHandler, trainingResultsFilePath, memberRepository);
-        UserRepository userRepository = new UserRepository(authFilePath);  // Use UserRepository for user management
-        AuthRepository authRepository = new AuthRepository(authFilePath);
-
-        // Load data from the repositories
-        memberRepository.reloadMembers();
-        paymentRepository.loadPayments(paymentFilePath, memberRepository);
-        competitionResultRepository.loadResults(memberRepository);
-        trainingResultsRepository.loadResults(memberRepository);
+        // Clean up saves interrupted by a crash before anything is read
+        fileHandler.recoverInterruptedSaves();
+        AtomicFileWriter.recover(authFilePath).forEach(System.err::println);
+
+        // Load the data files. Members and staff have no dependencies; payments, results and teams
+        // only need the members (and teams also the staff), so they are loaded in parallel afterwards.
+        StartupLoader startupLoader = new StartupLoader();
+        CompletableFuture<MemberRepository> members = startupLoader.stage("members",
+                () -> new MemberRepository(fileHandler)); // Replays members.dat and its log once
+        CompletableFuture<StaffRepository> staff = startupLoader.stage("staff",
+                () -> new StaffRepository(fileHandler));
+        CompletableFuture<PaymentRepository> payments = startupLoader.stage("payments", () -> {
+            PaymentRepository repository = new PaymentRepository(reminderFilePath, persistence);
+            repository.loadPayments(paymentFilePath, members.join());
+            return repository;
+        }, members);
+        CompletableFuture<CompetitionResultRepository> competitionResults = startupLoader.stage("competition results", () -> {
+            CompetitionResultRepository repository = new CompetitionResultRepository(fileHandler, competitionResultsFilePath);
+            repository.loadResults(members.join());
+            return repository;
+        }, members);
+        CompletableFuture<TrainingResultsRepository> trainingResults = startupLoader.stage("training results", () -> {
+            TrainingResultsRepository repository = new TrainingResultsRepository(fileHandler, trainingResultsFilePath, members.join());
+            repository.loadResults(members.join());
+            return repository;
+        }, members);
+        CompletableFuture<TeamRepository> teams = startupLoader.stage("teams", () -> {
+            TeamRepository repository = new TeamRepository(fileHandler);
+            repository.loadTeams(members.join(), staff.join());
+            return repository;
+        }, members, staff);
+
+        // The user repositories may prompt for an admin account, so they stay on the main thread
+        UserRepository userRepository = new UserRepository(authFilePath, persistence);  // Single cached user store
+        AuthRepository authRepository = new AuthRepository(userRepository);
+
+        startupLoader.awaitAll(); // Wait for the loads and print the time spent per stage
+        MemberRepository memberRepository = members.join();
+        StaffRepository staffRepository = staff.join();
+        PaymentRepository paymentRepository = payments.join();
+        CompetitionResultRepository competitionResultRepository = competitionResults.join();
+        TrainingResultsRepository trainingResultsRepository = trainingResults.join();
+        TeamRepository teamRepository = teams.join();
 
         // Initialize services
         MemberService memberService = new MemberService(memberRepository);
@@ -46,9 +96,12 @@ public class Main {
         CompetitionResultService competitionResultService = new CompetitionResultService(competitionResultRepository);
         TrainingResultsService trainingResultsService = new TrainingResultsService(trainingResultsRepository);
 
-        // Initialize the necessary repositories for teams and staff
-        TeamRepository teamRepository = new TeamRepository(fileHandler);
-        teamRepository.loadTeams(memberRepository, staffRepository);
+        // Fire overdue payment reminders in the background while the application runs
+        ReminderScheduler reminderScheduler = new ReminderScheduler(paymentRepository,
+                batch -> batch.forEach(reminder -> System.out.println("\nOverdue payment notice - " + reminder)));
+        reminderScheduler.start();
+
+        // Initialize the service for teams
         TeamService teamService = new TeamService(teamRepository);
 
         // Initialize services for staff and authentication
@@ -76,10 +129,14 @@ public class Main {
         // Start the User Interface
         userInterface.start();
 
-        // After user interaction, save the updated data
-        fileHandler.saveMembers(memberRepository.findAll());
+        // After user interaction, stop the reminders and save the updated data
+        reminderScheduler.close();
+        if (!memberRepository.saveMembers()) { // Append members changed during the session to the member log
+            System.err.println("Warning: some member changes could not be saved; see the errors above.");
+        }
         fileHandler.savePayments(paymentRepository.findAll(), paymentFilePath);
         fileHandler.saveTeams(teamController.getAllTeams());
         fileHandler.saveCompetitionResults(competitionResultRepository.getAllResults(), competitionResultsFilePath);
+        persistence.close(); // Durability barrier: wait until every queued write is on disk
     }
 }
@@ -15,8 +15,7 @@ import java.util.List;
 public class AdminController {
     private final AuthService authService;
     private final UserRepository userRepository;
-    private String loggedInUsername;
-    private String loggedInPassword;
+    private String sessionToken; // Token of the current login session, null when logged out
 
     public AdminController(AuthService authService, UserRepository userRepository) {
         this.authService = authService;
@@ -32,52 +31,36 @@ public class AdminController {
      * @throws IllegalArgumentException if authentication fails.
      */
     public User login(String username, String password) {
-        // Authenticate the user
+        // Authenticate the user; a failed login throws
         User user = authService.authenticate(username, password);
-        if (user == null) {
-            throw new IllegalArgumentException("Invalid username or password.");
-        }
 
-        // Store the logged-in user's details for future reference
-        loggedInUsername = username;
-        loggedInPassword = password;
+        // Start a session for the privileged operations that follow; the password is not kept
+        authService.logout(sessionToken);
+        sessionToken = authService.startSession(user);
 
         return user;
     }
 
     /**
-     * Registers a new user in the system with the given username, password, and role.
-     *
-     * @param username The username for the new user.
-     * @param password The password for the new user.
-     * @param role     The role for the new user.
+     * Ends the current login session.
      */
-    public void register(String username, String password, Role role) {
-        // Validate input for the new user
-        Validator.validateUsername(username); // Validate username
-        Validator.validatePassword(password); // Validate password
-        Validator.validateRole(role); // Validate role
-
-        // Register the user
-        authService.registerUser(username, password, role);
+    public void logout() {
+        authService.logout(sessionToken);
+        sessionToken = null;
     }
 
     /**
      * Adds a new user to the system. Only an Admin user can perform this operation.
      *
-     * @param loggedInUsername The username of the logged-in admin.
-     * @param loggedInPassword The password of the logged-in admin.
+     * @param sessionToken     The session token of the logged-in admin.
      * @param username         The username of the new user to add.
      * @param password         The password of the new user.
      * @param role             The role of the new user.
      * @throws IllegalArgumentException if the logged-in user is not an admin or if the user already exists.
      */
-    public void addUser(String loggedInUsername, String loggedInPassword, String username, String password, Role role) {
-        // Authenticate the logged-in admin user
-        User adminUser = authService.authenticate(loggedInUsername, loggedInPassword);
-        if (adminUser == null || !adminUser.getRole().equals(Role.ADMIN)) {
-            throw new IllegalArgumentException("Only an Admin can add users.");
-        }
+    public void addUser(String sessionToken, String username, String password, Role role) {
+        // Check the session of the logged-in admin user
+        authService.requireRole(sessionToken, Role.ADMIN);
 
         // Validate input for the new user
         Validator.validateUsername(username); // Validate username
@@ -91,19 +74,15 @@ public class AdminController {
     /**
      * Updates an existing user's details (password or role). Only an Admin can perform this operation.
      *
-     * @param loggedInUsername The username of the logged-in admin.
-     * @param loggedInPassword The password of the logged-in admin.
+     * @param sessionToken     The session token of the logged-in admin.
      * @param username         The username of the user to update.
      * @param newPassword      The new password for the user (optional).
      * @param newRole          The new role for the user (optional).
      * @throws IllegalArgumentException if the logged-in user is not an admin or if the user does not exist.
      */
-    public void updateUser(String loggedInUsername, String loggedInPassword, String username, String newPassword, Role newRole) {
-        // Authenticate the logged-in admin user
-        User adminUser = authService.authenticate(loggedInUsername, loggedInPassword);
-        if (adminUser == null || !adminUser.getRole().equals(Role.ADMIN)) {
-            throw new IllegalArgumentException("Only an Admin can update users.");
-        }
+    public void updateUser(String sessionToken, String username, String newPassword, Role newRole) {
+        // Check the session of the logged-in admin user
+        authService.requireRole(sessionToken, Role.ADMIN);
 
         // Validate username
         Validator.validateUsername(username);
@@ -115,23 +94,22 @@ public class AdminController {
     /**
      * Deletes an existing user. Only an Admin can perform this operation.
      *
-     * @param loggedInUsername The username of the logged-in admin.
-     * @param loggedInPassword The password of the logged-in admin.
+     * @param sessionToken     The session token of the logged-in admin.
      * @param username         The username of the user to delete.
      * @throws IllegalArgumentException if the logged-in user is not an admin or if the user does not exist.
      */
-    public void deleteUser(String loggedInUsername, String loggedInPassword, String username) {
-        // Authenticate the logged-in admin user
-        User adminUser = authService.authenticate(loggedInUsername, loggedInPassword);
-        if (adminUser == null || !adminUser.getRole().equals(Role.ADMIN)) {
-            throw new IllegalArgumentException("Only an Admin can delete users.");
-        }
+    public void deleteUser(String sessionToken, String username) {
+        // Check the session of the logged-in admin user
+        authService.requireRole(sessionToken, Role.ADMIN);
 
         // Validate username
         Validator.validateUsername(username);
 
         // Delete the user from the repository
-        userRepository.deleteUser(username);
+        if (!userRepository.deleteUser(username)) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        authService.endSessions(username);
     }
 
     /**
@@ -140,7 +118,7 @@ public class AdminController {
      * @return A list of all users.
      */
     public void listUsers() {
-        // Load all users from the repository and display them
+        // Display the cached users; the user file is only read again if it changed
         for (User user : userRepository.loadUsers()) {
             System.out.println("Username: " + user.getUsername() + ", Role: " + user.getRole());
         }
@@ -157,20 +135,11 @@ public class AdminController {
     }
 
     /**
-     * Returns the currently logged-in username.
-     *
-     * @return The logged-in username.
-     */
-    public String getLoggedInUsername() {
-        return loggedInUsername;
-    }
-
-    /**
-     * Returns the currently logged-in password.
+     * Returns the token of the current login session.
      *
-     * @return The logged-in password.
+     * @return The session token, or null when no one is logged in.
      */
-    public String getLoggedInPassword() {
-        return loggedInPassword;
+    public String getSessionToken() {
+        return sessionToken;
     }
 }
@@ -61,9 +61,8 @@ public class MemberController {
             // Parse the age safely
             int age = parseAge(ageStr);
 
-            // Generate the next available member ID
-            int memberId = memberRepository.getNextMemberId();
-            String memberIdString = String.valueOf(memberId); // Convert memberId to String
+            // The member ID is allocated by MemberService.registerMember
+            String memberIdString = "0";
 
             // Dynamically create a JuniorMember or SeniorMember based on age
             Member newMember;
@@ -79,9 +78,6 @@ public class MemberController {
             memberService.registerMember(newMember);
             returnMember = newMember;
 
-            // Reload members to immediately reflect the changes
-            memberRepository.reloadMembers();
-
             System.out.println("Member registered successfully.");
         } catch (IllegalArgumentException e) {
             System.out.println("Error: " + e.getMessage());
@@ -158,9 +154,6 @@ public class MemberController {
             // Save the updated member using the MemberService
             memberService.updateMember(memberToUpdate);
 
-            // Reload members to immediately reflect the changes
-            memberRepository.reloadMembers();
-
             System.out.println("Member updated successfully.");
         } catch (IllegalArgumentException e) {
             System.out.println("Error: " + e.getMessage());
@@ -185,9 +178,6 @@ public class MemberController {
         memberService.deleteMember(memberId);
         memberRepository.delete(member);
 
-        // Reload members to immediately reflect the changes
-        memberRepository.reloadMembers();
-
         System.out.println("Member deleted successfully.");
         return true;
     }
@@ -293,4 +283,13 @@ public class MemberController {
         // Save the updated member data to the repository
         memberRepository.saveMembers();
     }
- }
\ No newline at end of file
+
+    /**
+     * Indicates whether members have been changed without being written to file yet.
+     *
+     * @return true if there are unsaved member changes.
+     */
+    public boolean hasUnsavedChanges() {
+        return memberRepository.hasUnsavedChanges();
+    }
+ }
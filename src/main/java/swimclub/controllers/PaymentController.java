@@ -2,11 +2,16 @@ package swimclub.controllers;
 
 import swimclub.models.Member;
 import swimclub.models.PaymentStatus;
+import swimclub.models.Reminder;
 import swimclub.repositories.MemberRepository;
+import swimclub.services.BillingReport;
 import swimclub.services.PaymentService;
+import swimclub.services.ReminderRunReport;
+import swimclub.services.ReminderTemplate;
 import swimclub.utilities.FileHandler;
 import swimclub.utilities.Validator;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -110,8 +115,7 @@ public class PaymentController {
      * @return A list of members with a payment status of COMPLETE.
      */
     public List<Member> getMembersPaidList() {
-        List<Member> members = memberRepository.findAll();
-        return paymentService.getMembersPaidList(members);
+        return memberRepository.findByPaymentStatus(PaymentStatus.COMPLETE); // Answered by the bitmap index
     }
 
     // === GET MEMBERS BY PAYMENT STATUS ===
@@ -122,24 +126,36 @@ public class PaymentController {
      * @return A list of members with the specified payment status.
      */
     public List<Member> getMembersByPaymentStatus(PaymentStatus paymentStatus) {
-        List<Member> members = memberRepository.findAll();
-        if (paymentStatus == PaymentStatus.COMPLETE) {
-            return paymentService.getMembersPaidList(members);
-        } else if (paymentStatus == PaymentStatus.PENDING) {
-            return paymentService.getMembersPendingList(members);
+        if (paymentStatus == PaymentStatus.COMPLETE || paymentStatus == PaymentStatus.PENDING) {
+            return memberRepository.findByPaymentStatus(paymentStatus); // Answered by the bitmap index
         } else {
             System.out.println("Invalid payment status.");
             return new ArrayList<>();
         }
     }
 
+    // === BILLING RUN ===
+    /**
+     * Bills every eligible member for the year and displays the report.
+     *
+     * @param dryRun If true, only shows what would be billed.
+     * @return The report of the run.
+     */
+    public BillingReport runBilling(boolean dryRun) {
+        BillingReport report = paymentService.runBilling(memberRepository, paymentFileHandler, paymentFilePath,
+                LocalDate.now(), dryRun);
+        System.out.println("\n--- Billing Run ---");
+        System.out.println(report.getSummary());
+        return report;
+    }
+
     // === VIEW PAYMENT SUMMARY ===
     /**
      * Retrieves and displays the payment summary.
      */
     public void viewPaymentSummary() {
-        List<Member> members = memberRepository.findAll();  // Get all members
-        String summary = paymentService.getPaymentSummary(members);  // Get the summary from the service
+        // Read from the counters the member repository maintains, without scanning the members
+        String summary = paymentService.getPaymentSummary(memberRepository.getFeeCounters());
         System.out.println("\n--- Payment Summary ---");
         System.out.println(summary);  // Display the summary
     }
@@ -158,10 +174,37 @@ public class PaymentController {
     }
 
     /**
-     * View all reminders for payments.
+     * Set a payment reminder for a member, due on a given date.
+     *
+     * @param memberId         The ID of the member.
+     * @param reminderMessage  The reminder message.
+     * @param dueDate          The date the reminder is due.
+     */
+    public void setPaymentReminder(int memberId, String reminderMessage, LocalDate dueDate) {
+        paymentService.setPaymentReminder(memberId, reminderMessage, dueDate);
+        System.out.println("Reminder set for Member ID: " + memberId);
+    }
+
+    /**
+     * Set a reminder for every member with a pending payment that has no reminder yet.
+     *
+     * @param templateText The message template, see {@link ReminderTemplate}.
+     * @param dueDate      The due date of the new reminders.
+     * @return The report of the run.
+     */
+    public ReminderRunReport setRemindersForPendingMembers(String templateText, LocalDate dueDate) {
+        ReminderRunReport report = paymentService.setRemindersForPendingMembers(memberRepository,
+                new ReminderTemplate(templateText), dueDate);
+        System.out.println("\n--- Bulk Reminders ---");
+        System.out.println(report.getSummary());
+        return report;
+    }
+
+    /**
+     * View all reminders for payments, earliest due date first.
      */
     public void viewAllReminders() {
-        List<String> reminders = paymentService.getAllReminders();
+        List<Reminder> reminders = paymentService.getAllReminders();
         if (reminders.isEmpty()) {
             System.out.println("No reminders set.");
         } else {
@@ -170,6 +213,20 @@ public class PaymentController {
         }
     }
 
+    /**
+     * View the reminders of a member, earliest due date first.
+     *
+     * @param memberId The ID of the member.
+     */
+    public void viewRemindersForMember(int memberId) {
+        List<Reminder> reminders = paymentService.getRemindersForMember(memberId);
+        if (reminders.isEmpty()) {
+            System.out.println("No reminders set for Member ID: " + memberId);
+        } else {
+            reminders.forEach(System.out::println);
+        }
+    }
+
     /**
      * Remove a specific reminder for a member.
      *
@@ -180,6 +237,16 @@ public class PaymentController {
         paymentService.removeReminder(memberId, reminderMessage);
     }
 
+    /**
+     * Remove the reminder of a member due on a given date.
+     *
+     * @param memberId The ID of the member.
+     * @param dueDate  The due date of the reminder to remove.
+     */
+    public void removePaymentReminder(int memberId, LocalDate dueDate) {
+        paymentService.removeReminder(memberId, dueDate);
+    }
+
     /**
      * Clear all reminders.
      */
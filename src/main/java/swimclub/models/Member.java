@@ -1,7 +1,10 @@
 package swimclub.models;
 
+import swimclub.utilities.Money;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Abstract base class representing a member.
@@ -26,6 +29,8 @@ public abstract class Member {
     private Team team; // Reference to the team this member belongs to
     private double time;
     private String date;
+    private boolean dirty;               // True if a persisted field changed since the member was last saved
+    private MemberChangeListener changeListener; // Notified when a persisted field changes (the repository)
 
     // -----------------------------------------------------------------------------------------------------
     // Constructor
@@ -167,7 +172,10 @@ public abstract class Member {
      * @param memberId  The unique ID of the member.
      */
     public void setMemberId(int memberId) {
-        this.memberId = memberId;
+        if (this.memberId != memberId) {
+            this.memberId = memberId;
+            markDirty();
+        }
     }
 
     /**
@@ -176,7 +184,10 @@ public abstract class Member {
      * @param name The new name of the member.
      */
     public void setName(String name) {
-        this.name = name;
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            markDirty();
+        }
     }
 
     /**
@@ -185,7 +196,10 @@ public abstract class Member {
      * @param email The new email address of the member.
      */
     public void setEmail(String email) {
-        this.email = email;
+        if (!Objects.equals(this.email, email)) {
+            this.email = email;
+            markDirty();
+        }
     }
     /**
      * Updates the street of the member.
@@ -193,7 +207,10 @@ public abstract class Member {
      * @param city The new address of the member
      */
     public void setCity(String city) {
-        this.city = city;
+        if (!Objects.equals(this.city, city)) {
+            this.city = city;
+            markDirty();
+        }
     }
 
 
@@ -203,7 +220,10 @@ public abstract class Member {
      * @param street The new address of the member
      */
     public void setStreet(String street) {
-        this.street = street;
+        if (!Objects.equals(this.street, street)) {
+            this.street = street;
+            markDirty();
+        }
     }
     /**
      * Updates the street of the member.
@@ -211,7 +231,10 @@ public abstract class Member {
      * @param region The new address of the member
      */
     public void setRegion(String region) {
-        this.region = region;
+        if (!Objects.equals(this.region, region)) {
+            this.region = region;
+            markDirty();
+        }
     }
 
     /**
@@ -220,7 +243,10 @@ public abstract class Member {
      * @param zipcode The new age of the member.
      */
     public void setZipcode(int zipcode) {
-        this.zipcode = zipcode;
+        if (this.zipcode != zipcode) {
+            this.zipcode = zipcode;
+            markDirty();
+        }
     }
 
     /**
@@ -229,20 +255,31 @@ public abstract class Member {
      * @param membershipType The new membership type of the member.
      */
     public void setMembershipType(MembershipType membershipType) {
-        this.membershipType = membershipType;
+        if (!Objects.equals(this.membershipType, membershipType)) {
+            this.membershipType = membershipType;
+            markDirty();
+        }
     }
 
     public void setMembershipStatus(MembershipStatus membershipStatus) {
-        this.membershipStatus = membershipStatus;
-
+        if (!Objects.equals(this.membershipStatus, membershipStatus)) {
+            this.membershipStatus = membershipStatus;
+            markDirty();
+        }
     }
 
     public void setActivityType(ActivityType activityType) {
-        this.activityType = activityType;
+        if (!Objects.equals(this.activityType, activityType)) {
+            this.activityType = activityType;
+            markDirty();
+        }
     }
 
     public void setPaymentStatus(PaymentStatus paymentStatus) {
-        this.paymentStatus = paymentStatus;
+        if (!Objects.equals(this.paymentStatus, paymentStatus)) {
+            this.paymentStatus = paymentStatus;
+            markDirty();
+        }
     }
 
     public void setTime(double time) {
@@ -259,7 +296,10 @@ public abstract class Member {
      * @param age The new age of the member.
      */
     public void setAge(int age) {
-        this.age = age;
+        if (this.age != age) {
+            this.age = age;
+            markDirty();
+        }
     }
 
     /**
@@ -268,7 +308,10 @@ public abstract class Member {
      * @param phoneNumber The new phone number of the member.
      */
     public void setPhoneNumber(int phoneNumber) {
-        this.phoneNumber = phoneNumber;
+        if (this.phoneNumber != phoneNumber) {
+            this.phoneNumber = phoneNumber;
+            markDirty();
+        }
     }
     /**
      * Sets the team for the member.
@@ -276,7 +319,10 @@ public abstract class Member {
      * @param teamName The team to assign.
      */
     public void setTeamName(String teamName) {
-        this.teamName = teamName;
+        if (!Objects.equals(this.teamName, teamName)) {
+            this.teamName = teamName;
+            markDirty();
+        }
     }
 
     // -----------------------------------------------------------------------------------------------------
@@ -292,15 +338,28 @@ public abstract class Member {
         updatePaymentStatus(); // Update the payment status based on the current payments
     }
 
+    /**
+     * Adds a stored payment to the member's payment history without recalculating the payment status.
+     * Used by the payment repository when payments are loaded or saved; the repository decides the status.
+     *
+     * @param payment The payment to add.
+     */
+    public void attachPayment(Payment payment) {
+        payments.add(payment);
+    }
+
     /**
      * Calculates the total amount paid by the member.
-     * @return The total amount paid.
+     * @return The total amount paid, in kroner.
      */
     public double calculateTotalPaid() {
-        return payments.stream()
-                .filter(payment -> payment.getPaymentStatus() == PaymentStatus.COMPLETE)
-                .mapToDouble(Payment::getAmountPerYear)
-                .sum();
+        long totalOre = 0; // Summed in øre, so the total is exact
+        for (Payment payment : payments) {
+            if (payment.getPaymentStatus() == PaymentStatus.COMPLETE) {
+                totalOre += payment.getAmountPerYearOre();
+            }
+        }
+        return Money.toKroner(totalOre);
     }
 
     /**
@@ -311,11 +370,49 @@ public abstract class Member {
      */
     private void updatePaymentStatus() {
         if (payments.stream().anyMatch(payment -> payment.getPaymentStatus() == PaymentStatus.PENDING)) {
-            paymentStatus = PaymentStatus.PENDING;
+            setPaymentStatus(PaymentStatus.PENDING);
         } else if (payments.stream().allMatch(payment -> payment.getPaymentStatus() == PaymentStatus.COMPLETE)) {
-            paymentStatus = PaymentStatus.COMPLETE;
+            setPaymentStatus(PaymentStatus.COMPLETE);
         } else {
-            paymentStatus = PaymentStatus.FAILED;
+            setPaymentStatus(PaymentStatus.FAILED);
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------
+    // Change Tracking
+    // -----------------------------------------------------------------------------------------------------
+
+    /**
+     * @return true if a persisted field has changed since the member was loaded or last saved.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks the member as saved. Called by the repository after the record has been written.
+     */
+    public void clearDirty() {
+        this.dirty = false;
+    }
+
+    /**
+     * Registers the listener notified when a persisted field changes.
+     *
+     * @param changeListener The listener, or null to stop notifications.
+     */
+    public void setChangeListener(MemberChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Flags the member as changed and notifies the listener.
+     * Only fields written to members.dat are tracked; e.g. time and date are not.
+     */
+    private void markDirty() {
+        dirty = true;
+        if (changeListener != null) {
+            changeListener.memberChanged(this);
         }
     }
 
@@ -0,0 +1,16 @@
+package swimclub.models;
+
+/**
+ * Receives a notification when a persisted field of a member changes.
+ * The MemberRepository registers itself on every member it manages, so it knows which records
+ * have to be written on the next save.
+ */
+public interface MemberChangeListener {
+
+    /**
+     * Called after a persisted field of the member has been changed through a setter.
+     *
+     * @param member The member that changed.
+     */
+    void memberChanged(Member member);
+}
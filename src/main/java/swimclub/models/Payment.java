@@ -1,5 +1,7 @@
 package swimclub.models;
 
+import swimclub.utilities.Money;
+
 import java.time.LocalDate;
 
 public class Payment {
@@ -7,7 +9,7 @@ public class Payment {
     private PaymentStatus paymentStatus;   // COMPLETE, PENDING, FAILED
     private Member member;                 // Member associated with the payment
     private LocalDate paymentDate;         // Date of payment
-    private double amountPerYear;          // Annual membership fee
+    private long amountPerYearOre;         // Annual membership fee in øre (see Money)
 
     /**
      * Constructor for Payment.
@@ -16,12 +18,12 @@ public class Payment {
      * @param paymentStatus Status of the payment (COMPLETE, PENDING, FAILED).
      * @param member        Member associated with the payment.
      * @param paymentDate   Date of the payment.
-     * @param amountPerYear Annual membership fee.
+     * @param amountPerYearOre Annual membership fee in øre.
      * @throws IllegalArgumentException If amount is not positive.
      * @throws NullPointerException     If member or paymentDate is null.
      */
-    public Payment(int paymentId, PaymentStatus paymentStatus, Member member, LocalDate paymentDate, double amountPerYear) {
-        if (amountPerYear <= 0) {
+    public Payment(int paymentId, PaymentStatus paymentStatus, Member member, LocalDate paymentDate, long amountPerYearOre) {
+        if (amountPerYearOre <= 0) {
             throw new IllegalArgumentException("Amount per year must be positive.");
         }
 
@@ -36,7 +38,7 @@ public class Payment {
         this.paymentId = paymentId;
         this.paymentStatus = paymentStatus;
         this.member = member;
-        this.amountPerYear = amountPerYear;
+        this.amountPerYearOre = amountPerYearOre;
         this.paymentDate = paymentDate;
     }
     /**
@@ -74,10 +76,18 @@ public class Payment {
     /**
      * Gets the annual membership fee for the payment.
      *
-     * @return The annual fee amount.
+     * @return The annual fee amount in øre.
+     */
+    public long getAmountPerYearOre() {
+        return amountPerYearOre;
+    }
+    /**
+     * Gets the annual membership fee for the payment in kroner, for display.
+     *
+     * @return The annual fee amount in kroner.
      */
     public double getAmountPerYear() {
-        return amountPerYear;
+        return Money.toKroner(amountPerYearOre);
     }
     /**
      * Sets the payment ID.
@@ -123,14 +133,14 @@ public class Payment {
     /**
      * Sets the annual membership fee.
      *
-     * @param amountPerYear The annual fee amount to set.
+     * @param amountPerYearOre The annual fee amount to set, in øre.
      * @throws IllegalArgumentException If the amount is not positive.
      */
-    public void setAmountPerYear(double amountPerYear) {
-        if (amountPerYear <= 0) {
+    public void setAmountPerYearOre(long amountPerYearOre) {
+        if (amountPerYearOre <= 0) {
             throw new IllegalArgumentException("Amount per year must be positive");
         }
-        this.amountPerYear = amountPerYear;
+        this.amountPerYearOre = amountPerYearOre;
     }
 
     /**
@@ -144,7 +154,7 @@ public class Payment {
                 "Payment ID: " + paymentId +
                 ", Member: " + member.getName() +
                 ", Payment Date: " + paymentDate +
-                ", Amount: " + amountPerYear + " DKK " +
+                ", Amount: " + Money.format(amountPerYearOre) + " DKK " +
                 ", Status: " + paymentStatus +
                 "}";
     }
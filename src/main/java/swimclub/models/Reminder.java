@@ -0,0 +1,68 @@
+package swimclub.models;
+
+import java.time.LocalDate;
+
+/**
+ * A payment reminder for a member, due on a given date.
+ * A member has at most one reminder per due date; the pair (member ID, due date) identifies the reminder.
+ */
+public class Reminder {
+    private final int memberId;        // Member the reminder is for
+    private final LocalDate dueDate;   // Date the reminder fires
+    private final String message;      // Text of the reminder
+
+    /**
+     * Constructor for Reminder.
+     *
+     * @param memberId The member the reminder is for.
+     * @param dueDate  The date the reminder is due.
+     * @param message  The text of the reminder; line breaks are replaced by spaces.
+     * @throws IllegalArgumentException If the message is empty.
+     * @throws NullPointerException     If the due date is null.
+     */
+    public Reminder(int memberId, LocalDate dueDate, String message) {
+        if (dueDate == null) {
+            throw new NullPointerException("Due date cannot be null");
+        }
+        if (message == null || message.trim().isEmpty()) {
+            throw new IllegalArgumentException("Reminder cannot be null or empty.");
+        }
+        this.memberId = memberId;
+        this.dueDate = dueDate;
+        this.message = message.replace('\r', ' ').replace('\n', ' '); // Stored as one line
+    }
+
+    /**
+     * @return The ID of the member the reminder is for.
+     */
+    public int getMemberId() {
+        return memberId;
+    }
+
+    /**
+     * @return The date the reminder is due.
+     */
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * @return The text of the reminder.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @param date The date to compare with, normally today.
+     * @return true if the reminder is due on or before that date.
+     */
+    public boolean isDue(LocalDate date) {
+        return !dueDate.isAfter(date);
+    }
+
+    @Override
+    public String toString() {
+        return "Reminder for Member ID: " + memberId + " (due " + dueDate + "): " + message;
+    }
+}
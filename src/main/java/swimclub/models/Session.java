@@ -0,0 +1,70 @@
+package swimclub.models;
+
+import java.time.Instant;
+
+/**
+ * A login session. The role is captured when the user logs in, so privileged operations can be checked
+ * against the session without verifying the password again. The session token itself is not stored here.
+ */
+public class Session {
+    private final String username;      // The user who logged in
+    private final Role role;            // The role of the user at login
+    private final Instant createdAt;    // When the user logged in
+    private volatile Instant lastUsed;  // When the session was last validated
+
+    /**
+     * Constructs a new session.
+     *
+     * @param username  The user who logged in.
+     * @param role      The role of the user at login.
+     * @param createdAt When the user logged in.
+     */
+    public Session(String username, Role role, Instant createdAt) {
+        this.username = username;
+        this.role = role;
+        this.createdAt = createdAt;
+        this.lastUsed = createdAt;
+    }
+
+    /**
+     * @return The username of the logged-in user.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return The role of the user at login.
+     */
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * @return When the user logged in.
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return When the session was last used.
+     */
+    public Instant getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * Records that the session was used.
+     *
+     * @param now The current time.
+     */
+    public void touch(Instant now) {
+        this.lastUsed = now;
+    }
+
+    @Override
+    public String toString() {
+        return "Session{username='" + username + "', role=" + role + ", createdAt=" + createdAt + '}';
+    }
+}
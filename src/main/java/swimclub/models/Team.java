@@ -1,7 +1,9 @@
 package swimclub.models;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a Team in the swim club.
@@ -11,7 +13,7 @@ public class Team {
     private String teamName; // Name of the team
     private TeamType teamType; // Type of the team (Junior Competitive, Senior Competitive)
     private Coach coach;
-    private List<Member> members; // List of members in the team
+    private Set<Member> members; // Members of the team in the order they joined; O(1) membership checks
 
     /**
      * Constructor for creating a team.
@@ -22,7 +24,7 @@ public class Team {
     public Team(String teamName, TeamType teamType, Coach coach) {
         this.teamName = teamName;
         this.teamType = teamType;
-        this.members = new ArrayList<>();
+        this.members = new LinkedHashSet<>();
         this.coach = coach;
     }
 
@@ -32,9 +34,7 @@ public class Team {
      * @param member The member to add.
      */
     public void addMember(Member member) {
-        if (!members.contains(member)) {
-            members.add(member);
-        } else {
+        if (!members.add(member)) {
             throw new IllegalArgumentException("Member is already part of the team.");
         }
     }
@@ -45,13 +45,28 @@ public class Team {
      * @param member The member to remove.
      */
     public void removeMember(Member member) {
-        if (members.contains(member)) {
-            members.remove(member);
-        } else {
+        if (!members.remove(member)) {
             throw new IllegalArgumentException("Member is not part of the team.");
         }
     }
 
+    /**
+     * Checks whether a member is on the team.
+     *
+     * @param member The member to check.
+     * @return true if the member is part of the team.
+     */
+    public boolean hasMember(Member member) {
+        return members.contains(member);
+    }
+
+    /**
+     * @return The number of members on the team.
+     */
+    public int getMemberCount() {
+        return members.size();
+    }
+
     /**
      * Gets the list of members in the team.
      *
@@ -3,20 +3,25 @@ package swimclub.repositories;
 import swimclub.models.Role;
 import swimclub.models.User;
 import swimclub.utilities.PasswordUtils;
+import swimclub.utilities.WriteBehindPersistence;
 
-import java.io.*;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Repository class responsible for handling authentication and user management.
- * This class stores users in memory and persists them to a file. It provides methods for
- * adding users, authenticating users, and loading/saving the user database.
+ * The users themselves are held by a {@link UserRepository}, the single cached user store, so this class and
+ * the admin functions always see the same users. It provides methods for adding and authenticating users.
+ * A login with an unknown username is checked against a dummy hash made with the current iteration count, so
+ * it takes as long as a login of a known user. This does not cover users whose password is still stored as a
+ * legacy SHA-256 hash: those verify in microseconds, so response times can reveal them until their next
+ * successful login re-hashes the password.
  */
 public class AuthRepository {
-    private final Map<String, User> userDatabase; // In-memory storage for users
-    private final String filePath; // Path to the .dat file for storing users
+    private static final String UNKNOWN_USER_SALT = PasswordUtils.generateSalt();
+    private static final Map<Integer, String> UNKNOWN_USER_HASHES = new ConcurrentHashMap<>(); // Iteration count -> dummy hash
+    private final UserRepository userRepository; // Cached user store backed by the user file
 
     /**
      * Constructor for AuthRepository.
@@ -26,29 +31,33 @@ public class AuthRepository {
      * @param filePath The path to the file for storing and loading users.
      */
     public AuthRepository(String filePath) {
-        this.filePath = filePath;
-        this.userDatabase = new HashMap<>();
-        loadUsers(); // Load users from the file on initialization
+        this(new UserRepository(filePath));
+    }
 
-        // If no admin user exists, prompt to create one
-        if (!isAdminExist()) {
-            System.out.println("No admin user found. Please create one.");
-            createAdminUser();
-        }
+    /**
+     * Constructor for AuthRepository with a write-behind queue for the user file.
+     *
+     * @param filePath    The path to the file for storing and loading users.
+     * @param persistence The queue performing the user file writes.
+     */
+    public AuthRepository(String filePath, WriteBehindPersistence persistence) {
+        this(new UserRepository(filePath, persistence));
     }
 
     /**
-     * Checks if an admin user exists in the database.
+     * Constructor for AuthRepository working on a shared user store.
+     * If no users exist with the ADMIN role, it prompts for the creation of an admin user.
      *
-     * @return true if an admin user exists, false otherwise.
+     * @param userRepository The user store.
      */
-    private boolean isAdminExist() {
-        for (User user : userDatabase.values()) {
-            if (user.getRole() == Role.ADMIN) {  // Check for the admin role
-                return true;
-            }
+    public AuthRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+
+        // If no admin user exists, prompt to create one
+        if (!userRepository.hasAdmin()) {
+            System.out.println("No admin user found. Please create one.");
+            createAdminUser();
         }
-        return false;
     }
 
     /**
@@ -97,16 +106,14 @@ public class AuthRepository {
      * @throws IllegalArgumentException If the username already exists.
      */
     public void addUser(User user) {
-        if (userDatabase.containsKey(user.getUsername())) {
-            throw new IllegalArgumentException("Username is already taken.");
-        }
-        userDatabase.put(user.getUsername(), user);
-        saveUsers(); // Save users to the file after adding a new one
+        userRepository.addUser(user); // Saves users to the file after adding a new one
     }
 
     /**
      * Authenticates a user by their username and password.
      * Verifies that the password matches the stored hashed password using a salt.
+     * A password stored with an older hash scheme or cost is re-hashed with the current one after a
+     * successful login, since that is the only time the plaintext is available.
      *
      * @param username The username of the user to authenticate.
      * @param password The password entered by the user.
@@ -114,60 +121,49 @@ public class AuthRepository {
      */
     public User authenticate(String username, String password) {
         User user = getUserByUsername(username);
-        if (user != null && PasswordUtils.validatePassword(password, user.getSalt(), user.getHashedPassword())) {
-            return user; // Authentication success
+        if (user == null) {
+            // Spend the same time as for a known user, so response times do not reveal which usernames exist
+            PasswordUtils.validatePassword(password, UNKNOWN_USER_SALT, unknownUserHash());
+            return null; // Authentication failed
+        }
+        if (!PasswordUtils.validatePassword(password, user.getSalt(), user.getHashedPassword())) {
+            return null; // Authentication failed
+        }
+        if (PasswordUtils.needsRehash(user.getHashedPassword())) {
+            userRepository.updateUser(username, password, null);
         }
-        return null; // Authentication failed
+        return user; // Authentication success
     }
 
     /**
-     * Retrieves a user by their username.
+     * Gets the hash an unknown username is checked against, made with the current iteration count, so the
+     * check costs as much as for a known user after {@link PasswordUtils#setIterations(int)} too. One hash is
+     * computed per iteration count, on first use.
      *
-     * @param username The username to search for.
-     * @return The User object if found, null otherwise.
+     * @return The dummy hash for the current iteration count.
      */
-    public User getUserByUsername(String username) {
-        return userDatabase.get(username);
+    private static String unknownUserHash() {
+        return UNKNOWN_USER_HASHES.computeIfAbsent(PasswordUtils.getIterations(),
+                iterations -> PasswordUtils.hashPassword("", UNKNOWN_USER_SALT));
     }
 
     /**
-     * Loads users from the .dat file into the in-memory database.
-     * Each line in the file is expected to contain a username, hashed password, salt, and role.
+     * Retrieves a user by their username.
+     *
+     * @param username The username to search for.
+     * @return The User object if found, null otherwise.
      */
-    public void loadUsers() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length == 4) { // Ensure 4 fields exist: username, hashedPassword, salt, and role
-                    String username = parts[0];
-                    String hashedPassword = parts[1];
-                    String salt = parts[2];
-                    Role role = Role.valueOf(parts[3].toUpperCase()); // Assuming the role is stored as a string
-                    userDatabase.put(username, new User(username, hashedPassword, salt, role));
-                }
-            }
-        } catch (FileNotFoundException e) {
-            System.out.println("User file not found. Starting with an empty user database.");
-        } catch (IOException e) {
-            System.err.println("Error loading users: " + e.getMessage());
-        }
+    public User getUserByUsername(String username) {
+        return userRepository.getUserByUsername(username);
     }
 
     /**
-     * Saves the in-memory user database to the .dat file.
+     * Saves the users to the .dat file, e.g. after a User object was changed.
      * Each user's data is saved in a line with the following format:
      * username;hashedPassword;salt;role
      */
     public void saveUsers() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (User user : userDatabase.values()) {
-                writer.write(user.getUsername() + ";" + user.getHashedPassword() + ";" + user.getSalt() + ";" + user.getRole());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving users: " + e.getMessage());
-        }
+        userRepository.saveUsers();
     }
 
     /**
@@ -176,27 +172,10 @@ public class AuthRepository {
      * @param username   The username of the user to update.
      * @param newPassword The new password for the user (or null to keep the current password).
      * @param newRole    The new role for the user (or null to keep the current role).
+     * @throws IllegalArgumentException If the user does not exist.
      */
     public void updateUser(String username, String newPassword, Role newRole) {
-        User user = getUserByUsername(username);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found.");
-        }
-
-        // Update password if a new one is provided
-        if (newPassword != null && !newPassword.isEmpty()) {
-            String salt = PasswordUtils.generateSalt();
-            String hashedPassword = PasswordUtils.hashPassword(newPassword, salt);
-            user = new User(username, hashedPassword, salt, user.getRole()); // Create a new User with updated password
-        }
-
-        // Update role if a new one is provided
-        if (newRole != null) {
-            user = new User(user.getUsername(), user.getHashedPassword(), user.getSalt(), newRole); // Update the role
-        }
-
-        // Save updated user information in the repository
-        saveUsers(); // Persist changes
+        userRepository.updateUser(username, newPassword, newRole);
     }
 
     /**
@@ -205,9 +184,7 @@ public class AuthRepository {
      * @param username The username of the user to delete.
      */
     public void deleteUser(String username) {
-        if (userDatabase.containsKey(username)) {
-            userDatabase.remove(username);
-            saveUsers(); // Save updated user list
+        if (userRepository.deleteUser(username)) {
             System.out.println("User '" + username + "' has been deleted.");
         } else {
             System.out.println("User not found.");
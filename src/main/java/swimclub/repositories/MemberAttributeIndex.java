@@ -0,0 +1,264 @@
+package swimclub.repositories;
+
+import swimclub.models.*;
+import swimclub.utilities.CompactBitmap;
+
+import java.util.*;
+
+/**
+ * Bitmap indexes over the enum attributes of members: membership status, payment status, membership level,
+ * membership category and activity type.
+ * Every indexed member gets a row number, and each attribute value has a {@link CompactBitmap} of the rows
+ * holding it. A filter such as "ACTIVE and JUNIOR and PENDING" is answered by intersecting three bitmaps
+ * instead of inspecting every member object. Rows are handed out in indexing order and not reused, so
+ * results come back in the same order as the member list.
+ */
+public class MemberAttributeIndex {
+
+    /**
+     * The indexed attribute values of a member, captured so the member can be removed from the right
+     * bitmaps after an attribute has changed.
+     */
+    private static final class Entry {
+        private final int row;
+        private final MembershipStatus membershipStatus;
+        private final PaymentStatus paymentStatus;
+        private final MembershipLevel level;
+        private final MembershipCategory category;
+        private final ActivityType activityType;
+
+        private Entry(int row, Member member) {
+            this.row = row;
+            this.membershipStatus = member.getMembershipStatus();
+            this.paymentStatus = member.getPaymentStatus();
+            MembershipType type = member.getMembershipType();
+            this.level = type == null ? null : type.getLevel();
+            this.category = type == null ? null : type.getCategory();
+            this.activityType = member.getActivityType();
+        }
+
+        private boolean matches(Member member) {
+            MembershipType type = member.getMembershipType();
+            return membershipStatus == member.getMembershipStatus()
+                    && paymentStatus == member.getPaymentStatus()
+                    && level == (type == null ? null : type.getLevel())
+                    && category == (type == null ? null : type.getCategory())
+                    && activityType == member.getActivityType();
+        }
+    }
+
+    private final Map<MembershipStatus, CompactBitmap> byMembershipStatus = bitmaps(MembershipStatus.class);
+    private final Map<PaymentStatus, CompactBitmap> byPaymentStatus = bitmaps(PaymentStatus.class);
+    private final Map<MembershipLevel, CompactBitmap> byLevel = bitmaps(MembershipLevel.class);
+    private final Map<MembershipCategory, CompactBitmap> byCategory = bitmaps(MembershipCategory.class);
+    private final Map<ActivityType, CompactBitmap> byActivityType = bitmaps(ActivityType.class);
+    private final CompactBitmap allRows = new CompactBitmap(); // Every row currently in use
+    private final Map<Member, Entry> entries = new IdentityHashMap<>(); // Indexed values of each member (by identity)
+    private Member[] rows = new Member[16]; // Member at each row, null for removed members
+    private int nextRow;                    // Next row number to hand out
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Indexes a member. A member that is already indexed is re-indexed under a new row.
+     *
+     * @param member The member to index.
+     */
+    public void add(Member member) {
+        remove(member);
+        if (nextRow == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        Entry entry = new Entry(nextRow++, member);
+        rows[entry.row] = member;
+        entries.put(member, entry);
+        allRows.add(entry.row);
+        setBits(entry, true);
+    }
+
+    /**
+     * Removes a member from the index.
+     *
+     * @param member The member to remove.
+     */
+    public void remove(Member member) {
+        Entry entry = entries.remove(member);
+        if (entry == null) {
+            return;
+        }
+        rows[entry.row] = null;
+        allRows.remove(entry.row);
+        setBits(entry, false);
+    }
+
+    /**
+     * Moves an indexed member to the bitmaps of its current attribute values. The member keeps its row.
+     * Members that are not indexed are ignored.
+     *
+     * @param member The member that may have changed.
+     */
+    public void update(Member member) {
+        Entry entry = entries.get(member);
+        if (entry == null || entry.matches(member)) {
+            return;
+        }
+        setBits(entry, false);
+        Entry updated = new Entry(entry.row, member);
+        entries.put(member, updated);
+        setBits(updated, true);
+    }
+
+    /**
+     * Replaces the index content with the given members. Row numbers start again from zero.
+     *
+     * @param members The members to index.
+     */
+    public void rebuild(Collection<Member> members) {
+        for (Map<?, CompactBitmap> index : List.of(byMembershipStatus, byPaymentStatus, byLevel, byCategory, byActivityType)) {
+            index.values().forEach(CompactBitmap::clear);
+        }
+        allRows.clear();
+        entries.clear();
+        rows = new Member[Math.max(16, members.size())];
+        nextRow = 0;
+        for (Member member : members) {
+            add(member);
+        }
+    }
+
+    // ---------------------------
+    // Bitmaps
+    // ---------------------------
+
+    /**
+     * @return The rows of members with the given membership status. The bitmap must not be modified.
+     */
+    public CompactBitmap rows(MembershipStatus membershipStatus) {
+        return byMembershipStatus.get(membershipStatus);
+    }
+
+    /**
+     * @return The rows of members with the given payment status. The bitmap must not be modified.
+     */
+    public CompactBitmap rows(PaymentStatus paymentStatus) {
+        return byPaymentStatus.get(paymentStatus);
+    }
+
+    /**
+     * @return The rows of members with the given membership level. The bitmap must not be modified.
+     */
+    public CompactBitmap rows(MembershipLevel level) {
+        return byLevel.get(level);
+    }
+
+    /**
+     * @return The rows of members with the given membership category. The bitmap must not be modified.
+     */
+    public CompactBitmap rows(MembershipCategory category) {
+        return byCategory.get(category);
+    }
+
+    /**
+     * @return The rows of members with the given activity type. The bitmap must not be modified.
+     */
+    public CompactBitmap rows(ActivityType activityType) {
+        return byActivityType.get(activityType);
+    }
+
+    /**
+     * @return The rows of all indexed members. The bitmap must not be modified.
+     */
+    public CompactBitmap allRows() {
+        return allRows;
+    }
+
+    /**
+     * Resolves rows to members.
+     *
+     * @param bitmap The rows to resolve.
+     * @return The members in row order.
+     */
+    public List<Member> members(CompactBitmap bitmap) {
+        List<Member> members = new ArrayList<>(bitmap.cardinality());
+        bitmap.forEach(row -> members.add(rows[row]));
+        return members;
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * Finds the members matching all given attribute values. A null argument matches any value.
+     *
+     * @param membershipStatus The membership status, or null.
+     * @param paymentStatus    The payment status, or null.
+     * @param level            The membership level, or null.
+     * @param category         The membership category, or null.
+     * @param activityType     The activity type, or null.
+     * @return The matching members in row order.
+     */
+    public List<Member> find(MembershipStatus membershipStatus, PaymentStatus paymentStatus,
+                             MembershipLevel level, MembershipCategory category, ActivityType activityType) {
+        List<CompactBitmap> filters = new ArrayList<>();
+        if (membershipStatus != null) {
+            filters.add(rows(membershipStatus));
+        }
+        if (paymentStatus != null) {
+            filters.add(rows(paymentStatus));
+        }
+        if (level != null) {
+            filters.add(rows(level));
+        }
+        if (category != null) {
+            filters.add(rows(category));
+        }
+        if (activityType != null) {
+            filters.add(rows(activityType));
+        }
+        if (filters.isEmpty()) {
+            return members(allRows);
+        }
+        return members(CompactBitmap.and(filters.toArray(new CompactBitmap[0])));
+    }
+
+    /**
+     * @return The number of indexed members.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private static <E extends Enum<E>> Map<E, CompactBitmap> bitmaps(Class<E> type) {
+        Map<E, CompactBitmap> bitmaps = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            bitmaps.put(value, new CompactBitmap());
+        }
+        return bitmaps;
+    }
+
+    private void setBits(Entry entry, boolean set) {
+        setBit(byMembershipStatus, entry.membershipStatus, entry.row, set);
+        setBit(byPaymentStatus, entry.paymentStatus, entry.row, set);
+        setBit(byLevel, entry.level, entry.row, set);
+        setBit(byCategory, entry.category, entry.row, set);
+        setBit(byActivityType, entry.activityType, entry.row, set);
+    }
+
+    private static <E> void setBit(Map<E, CompactBitmap> index, E value, int row, boolean set) {
+        if (value == null) {
+            return; // Members without a value are only found through allRows
+        }
+        if (set) {
+            index.get(value).add(row);
+        } else {
+            index.get(value).remove(row);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package swimclub.repositories;
+
+import swimclub.models.Member;
+import swimclub.models.MembershipStatus;
+import swimclub.models.PaymentStatus;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Materialized member counts per fee band and payment status, kept up to date as members are added,
+ * removed or changed. The payment summary only needs these counts: the fee of every member in a band is
+ * the same, so the collected and expected totals are a handful of multiplications instead of a pass over
+ * all members. Because the counts hold no amounts, a change of the payment rates needs no update here.
+ */
+public class MemberFeeCounters {
+
+    /**
+     * The groups of members that pay the same membership fee.
+     */
+    public enum FeeBand {
+        PASSIVE,  // Passive members, fixed fee
+        JUNIOR,   // Active members under 18, junior rate
+        SENIOR,   // Active members aged 18-59, senior rate
+        VETERAN,  // Active members aged 60 and over, discounted senior rate
+        NONE;     // No membership status, no fee
+
+        /**
+         * @param member The member.
+         * @return The fee band the member currently belongs to.
+         */
+        public static FeeBand of(Member member) {
+            if (member.getMembershipStatus() == MembershipStatus.PASSIVE) {
+                return PASSIVE;
+            }
+            if (member.getMembershipStatus() == MembershipStatus.ACTIVE) {
+                if (member.getAge() < 18) {
+                    return JUNIOR;
+                }
+                return member.getAge() < 60 ? SENIOR : VETERAN;
+            }
+            return NONE;
+        }
+    }
+
+    private static final FeeBand[] BANDS = FeeBand.values();
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final int NO_CELL = -1; // A member without payment status is not counted
+
+    private final int[] counts = new int[BANDS.length * STATUSES.length]; // Members per band and status
+    private final Map<Member, Integer> cells = new IdentityHashMap<>();  // Counter each member is counted in
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Counts a member. A member that is already counted is counted again under its current values.
+     *
+     * @param member The member to count.
+     */
+    public void add(Member member) {
+        remove(member);
+        int cell = cellOf(member);
+        cells.put(member, cell);
+        increment(cell, 1);
+    }
+
+    /**
+     * Stops counting a member.
+     *
+     * @param member The member to remove.
+     */
+    public void remove(Member member) {
+        Integer cell = cells.remove(member);
+        if (cell != null) {
+            increment(cell, -1);
+        }
+    }
+
+    /**
+     * Moves a counted member to the counter of its current fee band and payment status.
+     * Members that are not counted are ignored.
+     *
+     * @param member The member that may have changed.
+     */
+    public void update(Member member) {
+        Integer cell = cells.get(member);
+        if (cell == null) {
+            return;
+        }
+        int current = cellOf(member);
+        if (cell != current) {
+            increment(cell, -1);
+            cells.put(member, current);
+            increment(current, 1);
+        }
+    }
+
+    /**
+     * Replaces the counts with those of the given members.
+     *
+     * @param members The members to count.
+     */
+    public void rebuild(Collection<Member> members) {
+        cells.clear();
+        Arrays.fill(counts, 0);
+        for (Member member : members) {
+            add(member);
+        }
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * @param band   The fee band.
+     * @param status The payment status.
+     * @return The number of members in the band with that payment status.
+     */
+    public int getCount(FeeBand band, PaymentStatus status) {
+        return counts[band.ordinal() * STATUSES.length + status.ordinal()];
+    }
+
+    /**
+     * @param status The payment status.
+     * @return The number of members with that payment status.
+     */
+    public int getCount(PaymentStatus status) {
+        int count = 0;
+        for (FeeBand band : BANDS) {
+            count += getCount(band, status);
+        }
+        return count;
+    }
+
+    /**
+     * @param band The fee band.
+     * @return The number of members in the band that have a payment status.
+     */
+    public int getCount(FeeBand band) {
+        int count = 0;
+        for (PaymentStatus status : STATUSES) {
+            count += getCount(band, status);
+        }
+        return count;
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private static int cellOf(Member member) {
+        PaymentStatus status = member.getPaymentStatus();
+        return status == null ? NO_CELL : FeeBand.of(member).ordinal() * STATUSES.length + status.ordinal();
+    }
+
+    private void increment(int cell, int delta) {
+        if (cell != NO_CELL) {
+            counts[cell] += delta;
+        }
+    }
+}
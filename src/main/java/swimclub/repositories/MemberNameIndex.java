@@ -0,0 +1,255 @@
+package swimclub.repositories;
+
+import swimclub.models.Member;
+import swimclub.utilities.TextNormalizer;
+
+import java.util.*;
+
+/**
+ * Prefix index over member names.
+ * Names are split into tokens normalized by {@link TextNormalizer} (case and diacritics folded, so
+ * "København" is found by "kobenhavn" and "KØB"). The tokens are kept in a sorted map, so all members with a
+ * token starting with a prefix are found by walking one key range instead of scanning every member.
+ * The index is maintained incrementally by the repository when members are saved, updated, renamed or deleted.
+ */
+public class MemberNameIndex {
+
+    /**
+     * Ranks of a match, best first.
+     */
+    private static final int RANK_EXACT = 0;        // Whole name equals the query
+    private static final int RANK_NAME_PREFIX = 1;  // Whole name starts with the query
+    private static final int RANK_ALL_TOKENS = 2;   // Every query word is a complete word of the name
+    private static final int RANK_TOKEN_PREFIX = 3; // Every query word starts a word of the name
+
+    /**
+     * The indexed form of a member's name, captured when the member was indexed so the old tokens
+     * can be removed after the name has changed.
+     */
+    private static final class Entry {
+        private final String name;
+        private final String normalizedName;
+        private final List<String> tokens;
+
+        private Entry(String name) {
+            this.name = name;
+            this.normalizedName = TextNormalizer.normalize(name);
+            this.tokens = TextNormalizer.tokens(name);
+        }
+    }
+
+    private final TreeMap<String, Set<Member>> postings; // Normalized token -> members whose name contains it
+    private final Map<Member, Entry> entries;            // Indexed name of each member (by identity)
+
+    /**
+     * Creates an empty name index.
+     */
+    public MemberNameIndex() {
+        this.postings = new TreeMap<>();
+        this.entries = new IdentityHashMap<>();
+    }
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Indexes a member under its current name. A member that is already indexed is re-indexed.
+     *
+     * @param member The member to index.
+     */
+    public void add(Member member) {
+        remove(member);
+        Entry entry = new Entry(member.getName());
+        entries.put(member, entry);
+        for (String token : entry.tokens) {
+            postings.computeIfAbsent(token, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(member);
+        }
+    }
+
+    /**
+     * Removes a member from the index.
+     *
+     * @param member The member to remove.
+     */
+    public void remove(Member member) {
+        Entry entry = entries.remove(member);
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens) {
+            Set<Member> members = postings.get(token);
+            if (members != null) {
+                members.remove(member);
+                if (members.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-indexes a member if its name has changed since it was indexed.
+     *
+     * @param member The member that may have been renamed.
+     */
+    public void update(Member member) {
+        Entry entry = entries.get(member);
+        if (entry != null && Objects.equals(entry.name, member.getName())) {
+            return; // Name unchanged, nothing to do
+        }
+        add(member);
+    }
+
+    /**
+     * Replaces the index content with the given members.
+     *
+     * @param members The members to index.
+     */
+    public void rebuild(Collection<Member> members) {
+        postings.clear();
+        entries.clear();
+        for (Member member : members) {
+            add(member);
+        }
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * Finds members whose name matches the query.
+     * Every word of the query must be the start of a word in the name, in any order; "jen ras" finds
+     * "Rasmus Jensen". Results are ranked: exact name, name starting with the query, whole-word matches,
+     * then prefix matches. Ties are ordered by name and member ID.
+     *
+     * @param query The name or name prefix to search for.
+     * @return The matching members, best match first.
+     */
+    public List<Member> search(String query) {
+        List<String> queryTokens = TextNormalizer.tokens(query);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String normalizedQuery = String.join(" ", queryTokens);
+
+        Set<Member> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Set<Member> members : prefixRange(driver(queryTokens)).values()) {
+            candidates.addAll(members);
+        }
+
+        List<Member> results = new ArrayList<>();
+        Map<Member, Integer> ranks = new IdentityHashMap<>();
+        for (Member member : candidates) {
+            Entry entry = entries.get(member);
+            int rank = rank(entry, queryTokens, normalizedQuery);
+            if (rank >= 0) {
+                results.add(member);
+                ranks.put(member, rank);
+            }
+        }
+
+        results.sort(Comparator.<Member>comparingInt(ranks::get)
+                .thenComparing(member -> entries.get(member).normalizedName)
+                .thenComparingInt(Member::getMemberId));
+        return results;
+    }
+
+    /**
+     * Estimates the number of matches without ranking them: the members indexed under a word starting with
+     * the most selective query word. Never less than the actual number of matches.
+     *
+     * @param query The name or name prefix to search for.
+     * @return An upper bound for the number of members {@link #search(String)} returns.
+     */
+    public int estimate(String query) {
+        List<String> queryTokens = TextNormalizer.tokens(query);
+        if (queryTokens.isEmpty()) {
+            return 0;
+        }
+        int estimate = 0;
+        for (Set<Member> members : prefixRange(driver(queryTokens)).values()) {
+            estimate += members.size();
+        }
+        return estimate;
+    }
+
+    /**
+     * Tests a single name against a query with the same rules as {@link #search(String)}.
+     *
+     * @param name  The name to test.
+     * @param query The name or name prefix.
+     * @return true if every query word starts a word of the name.
+     */
+    public static boolean matches(String name, String query) {
+        List<String> queryTokens = TextNormalizer.tokens(query);
+        return !queryTokens.isEmpty()
+                && rank(new Entry(name), queryTokens, String.join(" ", queryTokens)) >= 0;
+    }
+
+    /**
+     * @return The number of indexed members.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    /**
+     * @return The longest query word; it has the narrowest key range, so its members are the only candidates.
+     */
+    private static String driver(List<String> queryTokens) {
+        String driver = queryTokens.get(0);
+        for (String token : queryTokens) {
+            if (token.length() > driver.length()) {
+                driver = token;
+            }
+        }
+        return driver;
+    }
+
+    /**
+     * @return All postings whose token starts with the given prefix.
+     */
+    private SortedMap<String, Set<Member>> prefixRange(String prefix) {
+        return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    /**
+     * Ranks a candidate against the query.
+     *
+     * @return The rank, or -1 if some query word does not start a word of the name.
+     */
+    private static int rank(Entry entry, List<String> queryTokens, String normalizedQuery) {
+        boolean allWhole = true;
+        for (String queryToken : queryTokens) {
+            boolean prefixMatch = false;
+            boolean wholeMatch = false;
+            for (String token : entry.tokens) {
+                if (token.startsWith(queryToken)) {
+                    prefixMatch = true;
+                    if (token.length() == queryToken.length()) {
+                        wholeMatch = true;
+                        break;
+                    }
+                }
+            }
+            if (!prefixMatch) {
+                return -1;
+            }
+            allWhole &= wholeMatch;
+        }
+
+        if (entry.normalizedName.equals(normalizedQuery)) {
+            return RANK_EXACT;
+        }
+        if (entry.normalizedName.startsWith(normalizedQuery)) {
+            return RANK_NAME_PREFIX;
+        }
+        return allWhole ? RANK_ALL_TOKENS : RANK_TOKEN_PREFIX;
+    }
+}
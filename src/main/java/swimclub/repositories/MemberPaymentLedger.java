@@ -0,0 +1,120 @@
+package swimclub.repositories;
+
+import swimclub.models.Payment;
+import swimclub.models.PaymentStatus;
+import swimclub.utilities.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The payments of one member together with running totals per payment status, in øre (see {@link Money}).
+ * The totals are adjusted whenever a payment is added or changes status, so a member's balance is read
+ * in O(1) and the payment history in O(k) for k payments, without looking at other members' payments.
+ */
+public class MemberPaymentLedger {
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private final int memberId;
+    private final List<Payment> payments = new ArrayList<>();       // In the order they were recorded
+    private final long[] totalsByStatus = new long[STATUSES.length]; // Sum of amounts in øre, indexed by status ordinal
+
+    /**
+     * Creates an empty ledger.
+     *
+     * @param memberId The member the ledger belongs to.
+     */
+    public MemberPaymentLedger(int memberId) {
+        this.memberId = memberId;
+    }
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Records a payment and adds its amount to the total of its status.
+     *
+     * @param payment The payment to record.
+     */
+    void add(Payment payment) {
+        payments.add(payment);
+        adjust(payment.getPaymentStatus(), payment.getAmountPerYearOre());
+    }
+
+    /**
+     * Moves a payment's amount from the total of its old status to the total of its new status.
+     *
+     * @param payment   The payment whose status changed; it must already hold the new status.
+     * @param oldStatus The status the payment had before.
+     */
+    void statusChanged(Payment payment, PaymentStatus oldStatus) {
+        adjust(oldStatus, -payment.getAmountPerYearOre());
+        adjust(payment.getPaymentStatus(), payment.getAmountPerYearOre());
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * @return The ID of the member the ledger belongs to.
+     */
+    public int getMemberId() {
+        return memberId;
+    }
+
+    /**
+     * @return The member's payments in the order they were recorded (read-only view).
+     */
+    public List<Payment> getPayments() {
+        return Collections.unmodifiableList(payments);
+    }
+
+    /**
+     * @return The number of payments.
+     */
+    public int getPaymentCount() {
+        return payments.size();
+    }
+
+    /**
+     * @param status The payment status.
+     * @return The sum of the amounts of the member's payments with that status, in øre.
+     */
+    public long getTotal(PaymentStatus status) {
+        return status == null ? 0 : totalsByStatus[status.ordinal()];
+    }
+
+    /**
+     * @return The sum of the amounts of all the member's payments, whatever their status, in øre.
+     */
+    public long getTotal() {
+        return Money.sum(totalsByStatus);
+    }
+
+    /**
+     * @return The amount the member has paid (payments with status COMPLETE), in øre.
+     */
+    public long getCompletedTotal() {
+        return getTotal(PaymentStatus.COMPLETE);
+    }
+
+    /**
+     * @return The amount still pending (payments with status PENDING), in øre.
+     */
+    public long getPendingTotal() {
+        return getTotal(PaymentStatus.PENDING);
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private void adjust(PaymentStatus status, long amount) {
+        if (status != null) {
+            totalsByStatus[status.ordinal()] += amount;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package swimclub.repositories;
+
+import swimclub.models.Member;
+
+import java.util.*;
+
+/**
+ * Hash index of members by phone number, so a phone number search at the front desk does not scan all
+ * members. Several members may share a number, e.g. children registered with a parent's phone.
+ */
+public class MemberPhoneIndex {
+    private final Map<Integer, Set<Member>> membersByPhone = new HashMap<>();      // Phone number -> members with it
+    private final Map<Member, Integer> indexedPhones = new IdentityHashMap<>();     // Phone number each member is indexed under
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Indexes a member under its current phone number. A member that is already indexed is re-indexed.
+     *
+     * @param member The member to index.
+     */
+    public void add(Member member) {
+        remove(member);
+        int phoneNumber = member.getPhoneNumber();
+        indexedPhones.put(member, phoneNumber);
+        membersByPhone.computeIfAbsent(phoneNumber, key -> new LinkedHashSet<>()).add(member);
+    }
+
+    /**
+     * Removes a member from the index.
+     *
+     * @param member The member to remove.
+     */
+    public void remove(Member member) {
+        Integer phoneNumber = indexedPhones.remove(member);
+        if (phoneNumber == null) {
+            return;
+        }
+        Set<Member> members = membersByPhone.get(phoneNumber);
+        members.remove(member);
+        if (members.isEmpty()) {
+            membersByPhone.remove(phoneNumber);
+        }
+    }
+
+    /**
+     * Re-indexes an indexed member if its phone number has changed. Members that are not indexed are ignored.
+     *
+     * @param member The member that may have a new phone number.
+     */
+    public void update(Member member) {
+        Integer phoneNumber = indexedPhones.get(member);
+        if (phoneNumber != null && phoneNumber != member.getPhoneNumber()) {
+            add(member);
+        }
+    }
+
+    /**
+     * Replaces the index content with the given members.
+     *
+     * @param members The members to index.
+     */
+    public void rebuild(Collection<Member> members) {
+        membersByPhone.clear();
+        indexedPhones.clear();
+        for (Member member : members) {
+            add(member);
+        }
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * Finds the members with the given phone number.
+     *
+     * @param phoneNumber The phone number.
+     * @return The members with that number, in the order they were indexed; empty if there are none.
+     */
+    public List<Member> find(int phoneNumber) {
+        Set<Member> members = membersByPhone.get(phoneNumber);
+        return members == null ? new ArrayList<>() : new ArrayList<>(members);
+    }
+}
@@ -0,0 +1,218 @@
+package swimclub.repositories;
+
+import swimclub.models.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Describes a member lookup: conditions, an optional sort order and an optional limit.
+ * Conditions are combined with AND. Conditions on the member ID, name, zip code and the enum attributes
+ * can be answered by an index; any other field can be filtered with {@link #where(String, Predicate)}.
+ * A query is run with {@link MemberRepository#query(MemberQuery)}, which picks the most selective index;
+ * {@link MemberRepository#explain(MemberQuery)} shows the choice.
+ *
+ * <pre>
+ * List&lt;Member&gt; juniorsOwing = memberRepository.query(new MemberQuery()
+ *         .membershipStatus(MembershipStatus.ACTIVE)
+ *         .level(MembershipLevel.JUNIOR)
+ *         .paymentStatus(PaymentStatus.PENDING)
+ *         .orderBy("name", Comparator.comparing(Member::getName))
+ *         .limit(20));
+ * </pre>
+ */
+public class MemberQuery {
+
+    /**
+     * A condition without an index, described for {@link MemberRepository#explain(MemberQuery)}.
+     */
+    static final class Filter {
+        final String description;
+        final Predicate<Member> predicate;
+
+        Filter(String description, Predicate<Member> predicate) {
+            this.description = description;
+            this.predicate = predicate;
+        }
+    }
+
+    // Indexed conditions, null when not set
+    Integer memberId;
+    String namePrefix;
+    Integer zipcodeFrom;
+    Integer zipcodeTo;
+    MembershipStatus membershipStatus;
+    PaymentStatus paymentStatus;
+    MembershipLevel level;
+    MembershipCategory category;
+    ActivityType activityType;
+
+    final List<Filter> filters = new ArrayList<>(); // Conditions checked on each candidate
+    Comparator<Member> order;                        // Null keeps the order of the chosen index
+    String orderDescription;
+    int limit = -1;                                  // -1 for no limit
+
+    // ---------------------------
+    // Indexed Conditions
+    // ---------------------------
+
+    /**
+     * Matches the member with the given ID.
+     */
+    public MemberQuery memberId(int memberId) {
+        this.memberId = memberId;
+        return this;
+    }
+
+    /**
+     * Matches members whose name contains a word starting with each word of the prefix,
+     * ignoring case and diacritics (same rules as the member search).
+     */
+    public MemberQuery namePrefix(String namePrefix) {
+        if (namePrefix == null || namePrefix.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name prefix cannot be empty.");
+        }
+        this.namePrefix = namePrefix;
+        return this;
+    }
+
+    /**
+     * Matches members with the given zip code.
+     */
+    public MemberQuery zipcode(int zipcode) {
+        return zipcodeBetween(zipcode, zipcode);
+    }
+
+    /**
+     * Matches members with a zip code in the given range, both ends inclusive.
+     */
+    public MemberQuery zipcodeBetween(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Zip code range is empty: " + from + "-" + to);
+        }
+        this.zipcodeFrom = from;
+        this.zipcodeTo = to;
+        return this;
+    }
+
+    /**
+     * Matches members with the given membership status.
+     */
+    public MemberQuery membershipStatus(MembershipStatus membershipStatus) {
+        this.membershipStatus = Objects.requireNonNull(membershipStatus);
+        return this;
+    }
+
+    /**
+     * Matches members with the given payment status.
+     */
+    public MemberQuery paymentStatus(PaymentStatus paymentStatus) {
+        this.paymentStatus = Objects.requireNonNull(paymentStatus);
+        return this;
+    }
+
+    /**
+     * Matches members with the given membership level.
+     */
+    public MemberQuery level(MembershipLevel level) {
+        this.level = Objects.requireNonNull(level);
+        return this;
+    }
+
+    /**
+     * Matches members with the given membership category.
+     */
+    public MemberQuery category(MembershipCategory category) {
+        this.category = Objects.requireNonNull(category);
+        return this;
+    }
+
+    /**
+     * Matches members with the given activity type.
+     */
+    public MemberQuery activityType(ActivityType activityType) {
+        this.activityType = Objects.requireNonNull(activityType);
+        return this;
+    }
+
+    // ---------------------------
+    // Other Conditions
+    // ---------------------------
+
+    /**
+     * Matches members for which the predicate holds. The predicate is checked on every candidate
+     * the chosen index returns, or on every member if no index applies.
+     *
+     * @param description Describes the condition in {@link MemberRepository#explain(MemberQuery)}.
+     * @param predicate   The condition.
+     */
+    public MemberQuery where(String description, Predicate<Member> predicate) {
+        filters.add(new Filter(description, Objects.requireNonNull(predicate)));
+        return this;
+    }
+
+    /**
+     * Matches members aged between min and max, both inclusive.
+     */
+    public MemberQuery ageBetween(int min, int max) {
+        return where("age between " + min + " and " + max,
+                member -> member.getAge() >= min && member.getAge() <= max);
+    }
+
+    /**
+     * Matches members living in the given city (case-insensitive).
+     */
+    public MemberQuery city(String city) {
+        return where("city = " + city, member -> city.equalsIgnoreCase(member.getCity()));
+    }
+
+    /**
+     * Matches members on the given team (case-insensitive).
+     */
+    public MemberQuery teamName(String teamName) {
+        return where("team = " + teamName, member -> teamName.equalsIgnoreCase(member.getTeamName()));
+    }
+
+    // ---------------------------
+    // Order and Limit
+    // ---------------------------
+
+    /**
+     * Sorts the result. Without an order the result comes in the order of the chosen index:
+     * best match first for a name prefix, by zip code for a zip code range, otherwise registration order.
+     *
+     * @param description Describes the order in {@link MemberRepository#explain(MemberQuery)}.
+     * @param comparator  The sort order.
+     */
+    public MemberQuery orderBy(String description, Comparator<Member> comparator) {
+        this.order = Objects.requireNonNull(comparator);
+        this.orderDescription = description;
+        return this;
+    }
+
+    /**
+     * Returns at most the given number of members.
+     */
+    public MemberQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative.");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    /**
+     * @return true if any enum attribute condition is set.
+     */
+    boolean hasAttributeConditions() {
+        return membershipStatus != null || paymentStatus != null || level != null
+                || category != null || activityType != null;
+    }
+}
@@ -0,0 +1,150 @@
+package swimclub.repositories;
+
+import swimclub.models.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * How a {@link MemberQuery} is executed: the access path that produces the candidate members, the
+ * conditions checked on each candidate, and the sort and limit applied at the end.
+ * Created by {@link MemberRepository#plan(MemberQuery)}; {@link #explain()} describes the plan.
+ */
+public class MemberQueryPlan {
+
+    /**
+     * Where the candidate members come from.
+     */
+    public enum AccessPath {
+        ID_LOOKUP,          // Primary-key index, at most one member
+        NAME_INDEX,         // Name prefix index
+        ZIPCODE_INDEX,      // Sorted zip code index
+        ATTRIBUTE_BITMAPS,  // Intersection of the enum attribute bitmaps
+        FULL_SCAN           // Every member
+    }
+
+    private final MemberQuery query;
+    private final AccessPath accessPath;
+    private final String accessDescription;         // The indexed conditions the access path answers
+    private final int estimatedRows;                // Candidates the access path is expected to return
+    private final int totalRows;                    // Members in the repository
+    private final List<String> alternatives;        // Other access paths considered, with their estimates
+    private final List<MemberQuery.Filter> filters; // Conditions checked on each candidate
+    private final Supplier<List<Member>> candidates;
+
+    MemberQueryPlan(MemberQuery query, AccessPath accessPath, String accessDescription, int estimatedRows,
+                    int totalRows, List<String> alternatives, List<MemberQuery.Filter> filters,
+                    Supplier<List<Member>> candidates) {
+        this.query = query;
+        this.accessPath = accessPath;
+        this.accessDescription = accessDescription;
+        this.estimatedRows = estimatedRows;
+        this.totalRows = totalRows;
+        this.alternatives = alternatives;
+        this.filters = filters;
+        this.candidates = candidates;
+    }
+
+    // ---------------------------
+    // Execution
+    // ---------------------------
+
+    /**
+     * Runs the plan.
+     *
+     * @return The matching members, sorted and limited as the query asks.
+     */
+    public List<Member> execute() {
+        List<Member> results = new ArrayList<>();
+        boolean stopAtLimit = query.order == null && query.limit >= 0; // Unsorted: the first matches will do
+        if (stopAtLimit && query.limit == 0) {
+            return results;
+        }
+        for (Member member : candidates.get()) {
+            if (matchesFilters(member)) {
+                results.add(member);
+                if (stopAtLimit && results.size() == query.limit) {
+                    break;
+                }
+            }
+        }
+        if (query.order != null) {
+            results.sort(query.order);
+        }
+        if (query.limit >= 0 && results.size() > query.limit) {
+            results = new ArrayList<>(results.subList(0, query.limit));
+        }
+        return results;
+    }
+
+    // ---------------------------
+    // Inspection
+    // ---------------------------
+
+    /**
+     * @return The chosen access path.
+     */
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    /**
+     * @return The number of candidates the access path is expected to return.
+     */
+    public int getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    /**
+     * Describes the plan, one step per line, e.g.
+     * <pre>
+     * Access: ATTRIBUTE_BITMAPS membershipStatus = ACTIVE AND level = JUNIOR (estimated 12 of 500 members)
+     * Considered: FULL_SCAN (500)
+     * Filter: age between 10 and 14
+     * Order: name
+     * Limit: 5
+     * </pre>
+     *
+     * @return The plan description.
+     */
+    public String explain() {
+        StringBuilder explain = new StringBuilder();
+        explain.append("Access: ").append(accessPath);
+        if (!accessDescription.isEmpty()) {
+            explain.append(' ').append(accessDescription);
+        }
+        explain.append(" (estimated ").append(estimatedRows).append(" of ").append(totalRows).append(" members)");
+        if (!alternatives.isEmpty()) {
+            explain.append("\nConsidered: ").append(String.join(", ", alternatives));
+        }
+        for (MemberQuery.Filter filter : filters) {
+            explain.append("\nFilter: ").append(filter.description);
+        }
+        if (query.order != null) {
+            explain.append("\nOrder: ").append(query.orderDescription);
+        }
+        if (query.limit >= 0) {
+            explain.append("\nLimit: ").append(query.limit);
+        }
+        return explain.toString();
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private boolean matchesFilters(Member member) {
+        for (MemberQuery.Filter filter : filters) {
+            if (!filter.predicate.test(member)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,29 +1,52 @@
 package swimclub.repositories;
 
-import swimclub.models.Member;
-import swimclub.models.MembershipLevel;
-import swimclub.models.MembershipType;
+import swimclub.models.*;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.CompactBitmap;
+import swimclub.utilities.IdSequence;
+import swimclub.utilities.IntIndex;
+import swimclub.utilities.MemberLog;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
-public class MemberRepository {
+public class MemberRepository implements MemberChangeListener {
     private List<Member> members;
     private final FileHandler fileHandler;
+    private final MemberLog memberLog; // Write-ahead log of mutations since the last snapshot
+    private final IdSequence memberIds; // Hands out member IDs; never reuses the ID of a deleted member
+    private IntIndex<Member> membersById; // Primary-key index kept in sync with the members list
+    private final Set<Member> dirtyMembers = new LinkedHashSet<>(); // Members changed since they were last written
+    private final Set<Member> unsavedDeletes = new LinkedHashSet<>(); // Deleted members whose delete record is not yet written
+    private final MemberNameIndex nameIndex = new MemberNameIndex(); // Normalized prefix index over member names
+    private final MemberTrigramIndex trigramIndex = new MemberTrigramIndex(); // Fuzzy index over name, email and address
+    private final MemberAttributeIndex attributeIndex = new MemberAttributeIndex(); // Bitmaps over enum attributes
+    private final MemberZipcodeIndex zipcodeIndex = new MemberZipcodeIndex(); // Sorted index over zip codes
+    private final MemberPhoneIndex phoneIndex = new MemberPhoneIndex(); // Hash index over phone numbers
+    private final MemberFeeCounters feeCounters = new MemberFeeCounters(); // Members per fee band and payment status
 
     // ===========================
     // Constructor and Initialization
     // ===========================
 
     /**
-     * Constructor for MemberRepository, initializes the file handler and loads members from the file.
+     * Constructor for MemberRepository, initializes the file handler and loads members from the
+     * members.dat snapshot plus any mutations logged after it.
      *
      * @param fileHandler The file handler used to load and save members.
      */
     public MemberRepository(FileHandler fileHandler) {
         this.fileHandler = fileHandler;
-        this.members = fileHandler.loadMembers(); // Load members from file at startup
+        this.memberLog = new MemberLog(fileHandler);
+        this.memberIds = IdSequence.forDataFile(fileHandler.getMemberFilePath());
+        this.members = memberLog.load(); // Replay snapshot and log at startup
+        rebuildIndex();
+        trackChanges();
     }
 
     // ===============================
@@ -31,46 +54,67 @@ public class MemberRepository {
     // ===============================
 
     /**
-     * Get the next available member ID based on the highest existing ID.
-     * If there are no members, it starts from 1.
+     * Allocate the next member ID from the member ID sequence.
+     * IDs only increase, so the ID of a deleted member is never handed out again. Each call allocates
+     * a new ID; call it once per registration.
      *
-     * @return The next available member ID as an integer.
+     * @return The allocated member ID.
      */
     public int getNextMemberId() {
-        if (members.isEmpty()) {
-            return 1; // If no members, start with ID 1
-        }
-
-        int maxId = members.stream()
-                .mapToInt(Member::getMemberId)
-                .max()
-                .orElse(0); // Find the highest ID, default to 0 if no members
+        return memberIds.next();
+    }
 
-        return maxId + 1; // Return the next available ID
+    /**
+     * Allocate a block of consecutive member IDs, e.g. for a bulk import.
+     *
+     * @param count The number of IDs to allocate.
+     * @return The first ID of the block.
+     */
+    public int reserveMemberIds(int count) {
+        return memberIds.reserve(count);
     }
 
     /**
-     * Save a new member to the repository and persist the change to the file.
+     * Save a new member to the repository and append the insert to the member log.
+     * If the log cannot be written, the member stays unsaved and is written by the next {@link #saveMembers()}.
      *
      * @param member The member to be saved.
      */
     public void save(Member member) {
         ensureCorrectMembershipLevel(member); // Ensure the member has the correct membership level
+        memberIds.observe(member.getMemberId()); // Members saved with an explicit ID raise the sequence too
         members.add(member); // Add the member to the list
-        fileHandler.saveMembers(members); // Save the updated list to the file
-        reloadMembers(); // Reload to keep the in-memory list updated
+        membersById.put(member.getMemberId(), member);
+        indexMember(member);
+        member.setChangeListener(this);
+        appendOrKeepDirty(MemberLog.Mutation.INSERT, member); // Persist as a single log record
+        compactIfNeeded();
     }
 
     /**
-     * Delete a member from the repository and persist the change to the file.
+     * Delete a member from the repository and append the delete to the member log.
+     * If the log cannot be written, the delete is kept and written by the next {@link #saveMembers()}.
      *
      * @param member The member to delete.
      * @return True if the member was deleted, false otherwise.
      */
     public boolean delete(Member member) {
-        boolean isDeleted = fileHandler.deleteMember(member); // Delete the member from file
+        int id = member.getMemberId();
+        boolean isDeleted = members.removeIf(m -> m.getMemberId() == id); // Remove from in-memory list
         if (isDeleted) {
-            members.remove(member); // Remove from in-memory list
+            Member removed = membersById.remove(id);
+            if (removed != null) {
+                unindexMember(removed);
+                removed.setChangeListener(null);
+                markSaved(removed); // A deleted member has nothing left to write
+            }
+            try {
+                memberLog.append(MemberLog.Mutation.DELETE, member);
+            } catch (IOException e) {
+                System.err.println("Error appending to member log, keeping the delete unsaved: " + e.getMessage());
+                markDeleteUnsaved(member);
+            }
+            compactIfNeeded();
         }
         return isDeleted;
     }
@@ -81,43 +125,93 @@ public class MemberRepository {
 
     /**
      * Search for members by their ID, name, or phone number.
-     * The search is case-insensitive for name and exact for ID and phone number.
+     * A numeric query is matched exactly against member IDs and phone numbers. Any other query is looked up
+     * in the name index: names are matched by word prefix, ignoring case and diacritics, and ranked with
+     * exact name matches first.
      *
-     * @param query The search query (ID, name, or phone number).
+     * @param query The search query (ID, name, name prefix, or phone number).
      * @return A list of members matching the query.
      */
     public List<Member> search(String query) {
-        return members.stream()
-                .filter(member -> {
-                    // Match ID (converted to String for comparison)
-                    String memberId = String.valueOf(member.getMemberId());
-                    if (memberId.equalsIgnoreCase(query)) {
-                        return true;
-                    }
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-                    // Match name (case-insensitive)
-                    if (member.getName().equalsIgnoreCase(query)) {
-                        return true;
-                    }
+        Integer number = parseNumber(trimmed);
+        if (number == null) {
+            return nameIndex.search(trimmed);
+        }
 
-                    // Match phone number (converted to String for comparison)
-                    String phoneNumber = String.valueOf(member.getPhoneNumber());
-                    return phoneNumber.equalsIgnoreCase(query);
-                })
-                .toList(); // Collect matching members into a list
+        List<Member> results = new ArrayList<>();
+        Member byId = membersById.get(number);
+        if (byId != null) {
+            results.add(byId);
+        }
+        for (Member member : phoneIndex.find(number)) {
+            if (member != byId) {
+                results.add(member);
+            }
+        }
+        return results;
     }
 
     /**
-     * Find a member by their ID.
+     * Search for members whose name, email, street or city is close to the query, tolerating typos.
+     * Candidates are found through the trigram index and verified with a bounded edit distance.
+     *
+     * @param query The possibly misspelled search text.
+     * @param limit The maximum number of results.
+     * @return The closest matches, best first.
+     */
+    public List<Member> fuzzySearch(String query, int limit) {
+        return trigramIndex.search(query, limit);
+    }
+
+    /**
+     * Find members by payment status using the bitmap index.
+     *
+     * @param paymentStatus The payment status to filter by.
+     * @return The members with that payment status, in registration order.
+     */
+    public List<Member> findByPaymentStatus(PaymentStatus paymentStatus) {
+        return query(new MemberQuery().paymentStatus(paymentStatus));
+    }
+
+    /**
+     * Find members by membership status using the bitmap index.
+     *
+     * @param membershipStatus The membership status to filter by.
+     * @return The members with that membership status, in registration order.
+     */
+    public List<Member> findByMembershipStatus(MembershipStatus membershipStatus) {
+        return query(new MemberQuery().membershipStatus(membershipStatus));
+    }
+
+    /**
+     * Find members matching all given attribute values by intersecting their bitmaps,
+     * e.g. ACTIVE, PENDING and JUNIOR. A null argument matches any value.
+     *
+     * @param membershipStatus The membership status, or null.
+     * @param paymentStatus    The payment status, or null.
+     * @param level            The membership level, or null.
+     * @param category         The membership category, or null.
+     * @param activityType     The activity type, or null.
+     * @return The matching members, in registration order.
+     */
+    public List<Member> findMatching(MembershipStatus membershipStatus, PaymentStatus paymentStatus,
+                                     MembershipLevel level, MembershipCategory category, ActivityType activityType) {
+        return attributeIndex.find(membershipStatus, paymentStatus, level, category, activityType);
+    }
+
+    /**
+     * Find a member by their ID using the primary-key index.
      *
      * @param id The ID of the member.
      * @return The found member, or null if no member found.
      */
     public Member findById(int id) {
-        Optional<Member> member = members.stream()
-                .filter(m -> m.getMemberId() == id)
-                .findFirst();
-        return member.orElse(null); // Return null if the member is not found
+        return membersById.get(id); // Return null if the member is not found
     }
 
     /**
@@ -129,6 +223,211 @@ public class MemberRepository {
         return members;
     }
 
+    /**
+     * Parses a query consisting only of digits.
+     *
+     * @param query The trimmed query.
+     * @return The number, or null if the query is not a plain non-negative integer.
+     */
+    private static Integer parseNumber(String query) {
+        for (int i = 0; i < query.length(); i++) {
+            if (!Character.isDigit(query.charAt(i))) {
+                return null;
+            }
+        }
+        try {
+            return Integer.parseInt(query);
+        } catch (NumberFormatException e) {
+            return null; // Too long to be an ID or phone number
+        }
+    }
+
+    // ================================
+    // Member Queries
+    // ================================
+
+    /**
+     * Runs a member query, using the most selective index that applies.
+     *
+     * @param query The query to run.
+     * @return The matching members, sorted and limited as the query asks.
+     */
+    public List<Member> query(MemberQuery query) {
+        return plan(query).execute();
+    }
+
+    /**
+     * Describes how a query would be run: the chosen index, the alternatives considered and the
+     * conditions left to check on each candidate.
+     *
+     * @param query The query to explain.
+     * @return The plan description.
+     */
+    public String explain(MemberQuery query) {
+        return plan(query).explain();
+    }
+
+    /**
+     * Plans a query. Every index that can answer one of the query's conditions is costed by the number
+     * of candidates it would return, and the cheapest one is chosen; all other conditions are checked on
+     * the candidates. Without a usable index the plan is a full scan.
+     *
+     * @param query The query to plan.
+     * @return The plan, ready to execute.
+     */
+    public MemberQueryPlan plan(MemberQuery query) {
+        MemberQueryPlan.AccessPath bestPath = MemberQueryPlan.AccessPath.FULL_SCAN;
+        int bestEstimate = members.size();
+        Supplier<List<Member>> bestCandidates = () -> members;
+        List<String> alternatives = new ArrayList<>();
+
+        if (query.memberId != null) {
+            Member member = membersById.get(query.memberId);
+            List<Member> candidates = member == null ? List.of() : List.of(member);
+            alternatives.add(MemberQueryPlan.AccessPath.FULL_SCAN + " (" + bestEstimate + ")");
+            bestPath = MemberQueryPlan.AccessPath.ID_LOOKUP; // At most one candidate; nothing beats it
+            bestEstimate = candidates.size();
+            bestCandidates = () -> candidates;
+        } else {
+            List<MemberQueryPlan.AccessPath> paths = new ArrayList<>();
+            List<Integer> estimates = new ArrayList<>();
+            List<Supplier<List<Member>>> suppliers = new ArrayList<>();
+
+            if (query.namePrefix != null) {
+                paths.add(MemberQueryPlan.AccessPath.NAME_INDEX);
+                estimates.add(nameIndex.estimate(query.namePrefix));
+                suppliers.add(() -> nameIndex.search(query.namePrefix));
+            }
+            if (query.zipcodeFrom != null) {
+                paths.add(MemberQueryPlan.AccessPath.ZIPCODE_INDEX);
+                estimates.add(zipcodeIndex.countInRange(query.zipcodeFrom, query.zipcodeTo));
+                suppliers.add(() -> zipcodeIndex.findInRange(query.zipcodeFrom, query.zipcodeTo));
+            }
+            if (query.hasAttributeConditions()) {
+                CompactBitmap rows = attributeRows(query); // The intersection is exact and cheap, so it is the estimate
+                paths.add(MemberQueryPlan.AccessPath.ATTRIBUTE_BITMAPS);
+                estimates.add(rows.cardinality());
+                suppliers.add(() -> attributeIndex.members(rows));
+            }
+            paths.add(MemberQueryPlan.AccessPath.FULL_SCAN);
+            estimates.add(members.size());
+            suppliers.add(() -> members);
+
+            int best = 0;
+            for (int i = 1; i < paths.size(); i++) {
+                if (estimates.get(i) < estimates.get(best)) {
+                    best = i;
+                }
+            }
+            for (int i = 0; i < paths.size(); i++) {
+                if (i != best) {
+                    alternatives.add(paths.get(i) + " (" + estimates.get(i) + ")");
+                }
+            }
+            bestPath = paths.get(best);
+            bestEstimate = estimates.get(best);
+            bestCandidates = suppliers.get(best);
+        }
+
+        // Conditions the chosen path does not answer are checked on each candidate
+        List<String> answered = new ArrayList<>();
+        List<MemberQuery.Filter> filters = new ArrayList<>();
+        if (query.memberId != null) {
+            int id = query.memberId;
+            addCondition(bestPath == MemberQueryPlan.AccessPath.ID_LOOKUP, "memberId = " + id,
+                    member -> member.getMemberId() == id, answered, filters);
+        }
+        if (query.namePrefix != null) {
+            String prefix = query.namePrefix;
+            addCondition(bestPath == MemberQueryPlan.AccessPath.NAME_INDEX, "name matches '" + prefix + "'",
+                    member -> MemberNameIndex.matches(member.getName(), prefix), answered, filters);
+        }
+        if (query.zipcodeFrom != null) {
+            int from = query.zipcodeFrom;
+            int to = query.zipcodeTo;
+            addCondition(bestPath == MemberQueryPlan.AccessPath.ZIPCODE_INDEX,
+                    from == to ? "zipcode = " + from : "zipcode between " + from + " and " + to,
+                    member -> member.getZipcode() >= from && member.getZipcode() <= to, answered, filters);
+        }
+        boolean bitmaps = bestPath == MemberQueryPlan.AccessPath.ATTRIBUTE_BITMAPS;
+        if (query.membershipStatus != null) {
+            MembershipStatus status = query.membershipStatus;
+            addCondition(bitmaps, "membershipStatus = " + status,
+                    member -> member.getMembershipStatus() == status, answered, filters);
+        }
+        if (query.paymentStatus != null) {
+            PaymentStatus status = query.paymentStatus;
+            addCondition(bitmaps, "paymentStatus = " + status,
+                    member -> member.getPaymentStatus() == status, answered, filters);
+        }
+        if (query.level != null) {
+            MembershipLevel level = query.level;
+            addCondition(bitmaps, "level = " + level,
+                    member -> member.getMembershipType() != null && member.getMembershipType().getLevel() == level,
+                    answered, filters);
+        }
+        if (query.category != null) {
+            MembershipCategory category = query.category;
+            addCondition(bitmaps, "category = " + category,
+                    member -> member.getMembershipType() != null && member.getMembershipType().getCategory() == category,
+                    answered, filters);
+        }
+        if (query.activityType != null) {
+            ActivityType activityType = query.activityType;
+            addCondition(bitmaps, "activityType = " + activityType,
+                    member -> member.getActivityType() == activityType, answered, filters);
+        }
+        filters.addAll(query.filters);
+
+        return new MemberQueryPlan(query, bestPath, String.join(" AND ", answered), bestEstimate, members.size(),
+                alternatives, filters, bestCandidates);
+    }
+
+    /**
+     * Intersects the bitmaps of the query's enum attribute conditions.
+     */
+    private CompactBitmap attributeRows(MemberQuery query) {
+        List<CompactBitmap> bitmaps = new ArrayList<>();
+        if (query.membershipStatus != null) {
+            bitmaps.add(attributeIndex.rows(query.membershipStatus));
+        }
+        if (query.paymentStatus != null) {
+            bitmaps.add(attributeIndex.rows(query.paymentStatus));
+        }
+        if (query.level != null) {
+            bitmaps.add(attributeIndex.rows(query.level));
+        }
+        if (query.category != null) {
+            bitmaps.add(attributeIndex.rows(query.category));
+        }
+        if (query.activityType != null) {
+            bitmaps.add(attributeIndex.rows(query.activityType));
+        }
+        return CompactBitmap.and(bitmaps.toArray(new CompactBitmap[0]));
+    }
+
+    /**
+     * Records an indexed condition either as answered by the access path or as a filter on the candidates.
+     */
+    private static void addCondition(boolean answeredByIndex, String description, Predicate<Member> predicate,
+                                     List<String> answered, List<MemberQuery.Filter> filters) {
+        if (answeredByIndex) {
+            answered.add(description);
+        } else {
+            filters.add(new MemberQuery.Filter(description, predicate));
+        }
+    }
+
+    /**
+     * Gets the member counts per fee band and payment status. The counts are kept up to date as members
+     * are saved, deleted and changed, so payment summaries do not have to scan the members.
+     *
+     * @return The live counters (not a copy).
+     */
+    public MemberFeeCounters getFeeCounters() {
+        return feeCounters;
+    }
+
     // ==============================
     // Membership Level Management
     // ==============================
@@ -141,6 +440,7 @@ public class MemberRepository {
     public void ensureCorrectMembershipLevel(Member member) {
         MembershipLevel correctLevel = (member.getAge() > 18) ? MembershipLevel.SENIOR : MembershipLevel.JUNIOR;
         member.getMembershipType().setLevel(correctLevel);  // Set the correct level
+        attributeIndex.update(member); // The level is changed in place, without a change notification
     }
 
     // ===========================
@@ -148,10 +448,135 @@ public class MemberRepository {
     // ===========================
 
     /**
-     * Reload the list of members from the file to ensure that the in-memory list is up-to-date.
+     * Reload the list of members from the snapshot and member log to ensure that the in-memory list is up-to-date.
      */
     public void reloadMembers() {
-        this.members = fileHandler.loadMembers(); // Reload members from the file
+        this.members = memberLog.load(); // Replay snapshot and log
+        rebuildIndex();
+        trackChanges();
+    }
+
+    /**
+     * Rebuilds the primary-key index from the current members list.
+     */
+    private void rebuildIndex() {
+        IntIndex<Member> index = new IntIndex<>(members.size());
+        int highestId = 0;
+        for (Member member : members) {
+            index.put(member.getMemberId(), member);
+            highestId = Math.max(highestId, member.getMemberId());
+        }
+        this.membersById = index;
+        memberIds.observe(highestId); // A members.dat older than its .seq file may hold higher IDs
+        nameIndex.rebuild(members);
+        trigramIndex.rebuild(members);
+        attributeIndex.rebuild(members);
+        zipcodeIndex.rebuild(members);
+        phoneIndex.rebuild(members);
+        feeCounters.rebuild(members);
+    }
+
+    /**
+     * Adds a new member to the secondary indexes.
+     */
+    private void indexMember(Member member) {
+        nameIndex.add(member);
+        trigramIndex.add(member);
+        attributeIndex.add(member);
+        zipcodeIndex.add(member);
+        phoneIndex.add(member);
+        feeCounters.add(member);
+    }
+
+    /**
+     * Removes a deleted member from the secondary indexes.
+     */
+    private void unindexMember(Member member) {
+        nameIndex.remove(member);
+        trigramIndex.remove(member);
+        attributeIndex.remove(member);
+        zipcodeIndex.remove(member);
+        phoneIndex.remove(member);
+        feeCounters.remove(member);
+    }
+
+    /**
+     * Brings the secondary indexes up to date after a member changed. Each index only does work if a
+     * field it covers has changed.
+     */
+    private void reindexMember(Member member) {
+        nameIndex.update(member);
+        trigramIndex.update(member);
+        attributeIndex.update(member);
+        zipcodeIndex.update(member);
+        phoneIndex.update(member);
+        feeCounters.update(member);
+    }
+
+    /**
+     * Registers the repository as change listener on all loaded members and marks them as saved.
+     */
+    private synchronized void trackChanges() {
+        dirtyMembers.clear();
+        for (Member member : members) {
+            member.clearDirty();
+            member.setChangeListener(this);
+        }
+    }
+
+    /**
+     * Records that a member has been written, so it is not written again until it changes.
+     *
+     * @param member The member that was written.
+     */
+    private synchronized void markSaved(Member member) {
+        dirtyMembers.remove(member);
+        member.clearDirty();
+    }
+
+    /**
+     * Records that a member's record could not be written, so it is written again with the next save.
+     *
+     * @param member The inserted or updated member.
+     */
+    private synchronized void markUnsaved(Member member) {
+        dirtyMembers.add(member);
+    }
+
+    /**
+     * Records that a member's delete record could not be written, so it is written with the next save.
+     *
+     * @param member The deleted member.
+     */
+    private synchronized void markDeleteUnsaved(Member member) {
+        unsavedDeletes.add(member);
+    }
+
+    /**
+     * Appends an insert or update record for a member and marks it as saved. If the record cannot be
+     * written, the member is kept as changed, so the next save writes it again instead of losing it.
+     *
+     * @param mutation The kind of mutation.
+     * @param member   The inserted or updated member.
+     */
+    private void appendOrKeepDirty(MemberLog.Mutation mutation, Member member) {
+        try {
+            memberLog.append(mutation, member);
+        } catch (IOException e) {
+            System.err.println("Error appending to member log, keeping the change unsaved: " + e.getMessage());
+            markUnsaved(member);
+            return;
+        }
+        markSaved(member);
+    }
+
+    /**
+     * Folds the member log into a new members.dat snapshot once it has grown past its threshold.
+     */
+    private void compactIfNeeded() {
+        if (memberLog.needsCompaction()) {
+            compact(); // On failure the log is kept and compaction is retried after the next change
+        }
     }
 
     // ================================
@@ -180,15 +605,92 @@ public class MemberRepository {
         existingMember.setEmail(updatedMember.getEmail());
         existingMember.setPhoneNumber(updatedMember.getPhoneNumber());
 
-        // Save updated list to the file
-        fileHandler.saveMembers(members);
+        // Append the updated record to the member log
+        appendOrKeepDirty(MemberLog.Mutation.UPDATE, existingMember);
+        compactIfNeeded();
+    }
+
+    // ================================
+    // Change Tracking
+    // ================================
 
-        // Reload members from the file to keep in-memory list updated
-        reloadMembers();
+    /**
+     * Called by a member when one of its persisted fields changes.
+     *
+     * @param member The changed member.
+     */
+    @Override
+    public synchronized void memberChanged(Member member) {
+        dirtyMembers.add(member);
+        reindexMember(member);
     }
 
+    /**
+     * @return true if any member has changed since it was last written.
+     */
+    public synchronized boolean hasUnsavedChanges() {
+        return !dirtyMembers.isEmpty() || !unsavedDeletes.isEmpty();
+    }
+
+    /**
+     * @return The number of members changed or deleted since they were last written.
+     */
+    public synchronized int getUnsavedChangeCount() {
+        return dirtyMembers.size() + unsavedDeletes.size();
+    }
+
+    /**
+     * Persists the members that changed since they were last written.
+     * Each changed member is appended to the member log as one update record, in a single write; unchanged
+     * members are not serialized again. The log is folded into members.dat once it passes its threshold.
+     * A batch large enough to pass the threshold on its own (e.g. after a billing run) is written as a
+     * new snapshot directly instead of going through the log first.
+     * Deletes whose record could not be written earlier are appended first. If the log cannot be written,
+     * every change is kept and written again by the next save.
+     *
+     * @return true if every change is on disk, false if changes are still unsaved.
+     */
+    public synchronized boolean saveMembers() {
+        if (!hasUnsavedChanges()) {
+            return true;
+        }
+        if (memberLog.needsCompaction(getUnsavedChangeCount()) && compact()) {
+            return true;
+        }
+        try {
+            memberLog.appendAll(MemberLog.Mutation.DELETE, unsavedDeletes);
+            unsavedDeletes.clear();
+            memberLog.appendAll(MemberLog.Mutation.UPDATE, dirtyMembers);
+        } catch (IOException e) {
+            System.err.println("Error appending to member log, keeping the changes unsaved: " + e.getMessage());
+            return false;
+        }
+        for (Member member : dirtyMembers) {
+            member.clearDirty();
+        }
+        dirtyMembers.clear();
+        compactIfNeeded();
+        return true;
+    }
 
-    public void saveMembers() {
-        fileHandler.saveMembers(members); // Save the updated list to the file
+    /**
+     * Writes all members to a fresh members.dat snapshot and clears the member log.
+     * If the snapshot cannot be written, the log and the unsaved changes are kept.
+     *
+     * @return true if the snapshot was written and the log cleared.
+     */
+    public synchronized boolean compact() {
+        try {
+            memberLog.compact(members);
+        } catch (IOException e) {
+            System.err.println("Error compacting member log, keeping the log: " + e.getMessage());
+            return false;
+        }
+        dirtyMembers.clear();
+        unsavedDeletes.clear(); // The snapshot no longer holds the deleted members
+        for (Member member : members) {
+            member.clearDirty();
+        }
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,512 @@
+package swimclub.repositories;
+
+import swimclub.models.Member;
+import swimclub.utilities.TextNormalizer;
+
+import java.util.*;
+
+/**
+ * Trigram index for fuzzy member search over name, email, street and city.
+ * Every word of those fields is normalized by {@link TextNormalizer} and kept once in a vocabulary, with the
+ * members using it. The vocabulary words are padded ("$jensen$"), cut into three-letter grams and indexed
+ * by word length, so a query word is only compared with words whose length is within the edit bound.
+ * Among those, a word is only checked with a bounded edit distance if it shares enough grams with the query
+ * word: an edit changes at most three grams, so a word within k edits shares all but 3k of them.
+ * Club members share most of their words (first names, surnames, streets, cities), so a misspelled query
+ * costs time proportional to the similar words and their members, not to the club size.
+ */
+public class MemberTrigramIndex {
+
+    private static final char PAD = '$';
+    private static final int MAX_EDITS = 2; // Largest edit bound any query gets, see maxDistance
+
+    /**
+     * A member's searchable text, captured when the member was indexed so its words can be released
+     * after a field has changed. Entries are ordered like the results (name, then member ID) by the
+     * name and ID as indexed, so the order stays stable while the member object changes.
+     */
+    private static final class Entry {
+        private final Member member;
+        private final String name;                     // Name as indexed, the primary sort key
+        private final int memberId;                    // Member ID as indexed, the secondary sort key
+        private final long sequence;                   // Indexing order, to tell apart members sharing both
+        private final List<String> rawFields;          // Field values as indexed, to detect changes
+        private final List<List<String>> fieldTokens;  // Normalized words of each field
+        private final Set<String> words;               // Distinct words of all fields
+
+        private Entry(Member member, long sequence) {
+            this.member = member;
+            this.name = member.getName();
+            this.memberId = member.getMemberId();
+            this.sequence = sequence;
+            this.rawFields = fieldsOf(member);
+            this.fieldTokens = new ArrayList<>(rawFields.size());
+            this.words = new HashSet<>();
+            for (String field : rawFields) {
+                List<String> tokens = TextNormalizer.tokens(field);
+                fieldTokens.add(tokens);
+                words.addAll(tokens);
+            }
+        }
+    }
+
+    /**
+     * A distinct normalized word and the members that use it, in result order.
+     */
+    private static final class Word {
+        private final String text;
+        private final Set<String> grams;       // Distinct padded trigrams
+        private final NavigableSet<Entry> members = new TreeSet<>(ENTRY_ORDER);
+
+        private Word(String text) {
+            this.text = text;
+            this.grams = new HashSet<>();
+            addGrams(text, grams);
+        }
+    }
+
+    /**
+     * The vocabulary words of one length.
+     */
+    private static final class LengthBucket {
+        private final Map<String, Set<Word>> postings = new HashMap<>(); // Gram -> words containing it
+        private final Set<Word> fewGrams = new HashSet<>();              // Words that can match sharing no gram
+
+        private boolean isEmpty() {
+            return postings.isEmpty() && fewGrams.isEmpty();
+        }
+    }
+
+    /**
+     * The members using any of several words, navigated in result order.
+     */
+    private static final class WordUnion {
+        private final List<Word> words;
+
+        private WordUnion(List<Word> words) {
+            this.words = words;
+        }
+
+        /**
+         * @return The first member at or after the given one (the very first for null), or null if none.
+         */
+        private Entry ceiling(Entry from) {
+            Entry best = null;
+            for (Word word : words) {
+                Entry next = from == null ? word.members.first() : word.members.ceiling(from);
+                if (next != null && (best == null || ENTRY_ORDER.compare(next, best) < 0)) {
+                    best = next;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * @return The first member after the given one, or null if none.
+         */
+        private Entry higher(Entry after) {
+            Entry best = null;
+            for (Word word : words) {
+                Entry next = word.members.higher(after);
+                if (next != null && (best == null || ENTRY_ORDER.compare(next, best) < 0)) {
+                    best = next;
+                }
+            }
+            return best;
+        }
+    }
+
+    // Result order among members with the same number of edits: name, then member ID
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.<Entry, String>comparing(entry -> entry.name,
+                    Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(entry -> entry.memberId)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final Map<String, Word> words;            // Vocabulary: normalized word -> its members
+    private final Map<Integer, LengthBucket> buckets; // Word length -> vocabulary words of that length
+    private final Map<Member, Entry> entries;         // Indexed text of each member (by identity)
+    private long nextSequence;
+
+    /**
+     * Creates an empty trigram index.
+     */
+    public MemberTrigramIndex() {
+        this.words = new HashMap<>();
+        this.buckets = new HashMap<>();
+        this.entries = new IdentityHashMap<>();
+    }
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Indexes a member. A member that is already indexed is re-indexed.
+     *
+     * @param member The member to index.
+     */
+    public void add(Member member) {
+        remove(member);
+        Entry entry = new Entry(member, nextSequence++);
+        entries.put(member, entry);
+        for (String text : entry.words) {
+            Word word = words.get(text);
+            if (word == null) {
+                word = new Word(text);
+                words.put(text, word);
+                addToBucket(word);
+            }
+            word.members.add(entry);
+        }
+    }
+
+    /**
+     * Removes a member from the index.
+     *
+     * @param member The member to remove.
+     */
+    public void remove(Member member) {
+        Entry entry = entries.remove(member);
+        if (entry == null) {
+            return;
+        }
+        for (String text : entry.words) {
+            Word word = words.get(text);
+            if (word != null) {
+                word.members.remove(entry);
+                if (word.members.isEmpty()) {
+                    words.remove(text);
+                    removeFromBucket(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-indexes a member if one of its searchable fields has changed since it was indexed.
+     *
+     * @param member The member that may have changed.
+     */
+    public void update(Member member) {
+        Entry entry = entries.get(member);
+        if (entry != null && entry.rawFields.equals(fieldsOf(member))) {
+            return; // Searchable text unchanged
+        }
+        add(member);
+    }
+
+    /**
+     * Replaces the index content with the given members.
+     *
+     * @param members The members to index.
+     */
+    public void rebuild(Collection<Member> members) {
+        words.clear();
+        buckets.clear();
+        entries.clear();
+        for (Member member : members) {
+            add(member);
+        }
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * Finds the members whose name, email, street or city is within a small edit distance of the query.
+     * Short queries allow one edit, longer ones two. A query of several words is compared word by word with
+     * every run of as many consecutive words of a field, and the edits of all its words count against the
+     * one bound, so "jensn" matches "Rasmus Jensen" and "rasmus jensn" matches the full name.
+     *
+     * @param query The possibly misspelled search text.
+     * @param limit The maximum number of results.
+     * @return The closest matches, best first (fewest edits, then name and member ID).
+     */
+    public List<Member> search(String query, int limit) {
+        List<String> queryTokens = TextNormalizer.tokens(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        int maxDistance = maxDistance(String.join(" ", queryTokens));
+
+        // Candidate words: the vocabulary words close to each query word
+        List<Map<String, Integer>> similar = new ArrayList<>(queryTokens.size());
+        for (String token : queryTokens) {
+            Map<String, Integer> matches = similarWords(token, maxDistance);
+            if (matches.isEmpty()) {
+                return new ArrayList<>(); // Every query word needs a counterpart
+            }
+            similar.add(matches);
+        }
+
+        // The close words of each query word, by their distance
+        List<List<List<Word>>> levels = new ArrayList<>(similar.size());
+        for (Map<String, Integer> matches : similar) {
+            List<List<Word>> byDistance = new ArrayList<>(maxDistance + 1);
+            for (int distance = 0; distance <= maxDistance; distance++) {
+                byDistance.add(new ArrayList<>());
+            }
+            for (Map.Entry<String, Integer> match : matches.entrySet()) {
+                byDistance.get(match.getValue()).add(words.get(match.getKey()));
+            }
+            levels.add(byDistance);
+        }
+
+        // Members are taken by total distance, and within a distance in result order, until the limit is
+        // reached. For each way of splitting the distance over the query words, the members using a close
+        // word for every query word are found by intersecting the sorted member sets of those words.
+        List<Member> results = new ArrayList<>(limit);
+        for (int total = 0; total <= maxDistance && results.size() < limit; total++) {
+            List<Entry> found = new ArrayList<>();
+            for (int[] split : splits(levels, total)) {
+                List<WordUnion> unions = new ArrayList<>(split.length);
+                for (int i = 0; i < split.length; i++) {
+                    unions.add(new WordUnion(levels.get(i).get(split[i])));
+                }
+                found.addAll(intersect(unions, similar, total, maxDistance, limit - results.size()));
+            }
+            found.sort(ENTRY_ORDER);
+            Entry previous = null;
+            for (Entry entry : found) {
+                if (entry != previous && results.size() < limit) {
+                    results.add(entry.member); // Found through more than one split only once
+                }
+                previous = entry;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return The number of indexed members.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    /**
+     * @return The searchable fields of a member, in a fixed order.
+     */
+    private static List<String> fieldsOf(Member member) {
+        return Arrays.asList(member.getName(), member.getEmail(), member.getStreet(), member.getCity());
+    }
+
+    /**
+     * Adds the padded trigrams of a word to a set.
+     */
+    private static void addGrams(String token, Set<String> grams) {
+        String padded = PAD + token + PAD;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+    }
+
+    /**
+     * @return The number of edits allowed for a query of this length.
+     */
+    private static int maxDistance(String normalizedQuery) {
+        return normalizedQuery.length() <= 4 ? 1 : MAX_EDITS;
+    }
+
+    private void addToBucket(Word word) {
+        LengthBucket bucket = buckets.computeIfAbsent(word.text.length(), length -> new LengthBucket());
+        for (String gram : word.grams) {
+            bucket.postings.computeIfAbsent(gram, key -> new HashSet<>()).add(word);
+        }
+        if (word.grams.size() <= 3 * MAX_EDITS) {
+            bucket.fewGrams.add(word);
+        }
+    }
+
+    private void removeFromBucket(Word word) {
+        LengthBucket bucket = buckets.get(word.text.length());
+        if (bucket == null) {
+            return;
+        }
+        for (String gram : word.grams) {
+            Set<Word> posting = bucket.postings.get(gram);
+            if (posting != null) {
+                posting.remove(word);
+                if (posting.isEmpty()) {
+                    bucket.postings.remove(gram);
+                }
+            }
+        }
+        bucket.fewGrams.remove(word);
+        if (bucket.isEmpty()) {
+            buckets.remove(word.text.length());
+        }
+    }
+
+    /**
+     * Finds the vocabulary words within the edit bound of a query word.
+     * Only words whose length differs by at most the bound are looked at. Of those, a word is verified if it
+     * shares at least max(query grams, word grams) - 3 * bound grams with the query word; words with so few
+     * grams that this threshold is not positive are always verified.
+     *
+     * @return Each close word with its edit distance.
+     */
+    private Map<String, Integer> similarWords(String token, int maxDistance) {
+        Set<String> queryGrams = new HashSet<>();
+        addGrams(token, queryGrams);
+        Map<String, Integer> matches = new HashMap<>();
+        for (int length = token.length() - maxDistance; length <= token.length() + maxDistance; length++) {
+            LengthBucket bucket = buckets.get(length);
+            if (bucket == null) {
+                continue;
+            }
+            Map<Word, int[]> shared = new HashMap<>();
+            for (String gram : queryGrams) {
+                Set<Word> posting = bucket.postings.get(gram);
+                if (posting != null) {
+                    for (Word word : posting) {
+                        shared.computeIfAbsent(word, key -> new int[1])[0]++;
+                    }
+                }
+            }
+            for (Map.Entry<Word, int[]> candidate : shared.entrySet()) {
+                Word word = candidate.getKey();
+                if (candidate.getValue()[0] >= Math.max(queryGrams.size(), word.grams.size()) - 3 * maxDistance) {
+                    verify(token, word, maxDistance, matches);
+                }
+            }
+            if (queryGrams.size() <= 3 * maxDistance) {
+                for (Word word : bucket.fewGrams) {
+                    if (!shared.containsKey(word)) {
+                        verify(token, word, maxDistance, matches);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void verify(String token, Word word, int maxDistance, Map<String, Integer> matches) {
+        int distance = boundedDistance(token, word.text, maxDistance);
+        if (distance <= maxDistance) {
+            matches.put(word.text, distance);
+        }
+    }
+
+    /**
+     * Lists the ways of splitting a total distance over the query words, skipping those that give a query
+     * word a distance none of its close words has.
+     *
+     * @return Arrays holding the distance of each query word.
+     */
+    private static List<int[]> splits(List<List<List<Word>>> levels, int total) {
+        List<int[]> splits = new ArrayList<>();
+        addSplits(levels, new int[levels.size()], 0, total, splits);
+        return splits;
+    }
+
+    private static void addSplits(List<List<List<Word>>> levels, int[] split, int index, int remaining,
+                                  List<int[]> splits) {
+        if (index == split.length - 1) {
+            if (remaining < levels.get(index).size() && !levels.get(index).get(remaining).isEmpty()) {
+                split[index] = remaining;
+                splits.add(split.clone());
+            }
+            return;
+        }
+        for (int distance = 0; distance <= remaining; distance++) {
+            if (!levels.get(index).get(distance).isEmpty()) {
+                split[index] = distance;
+                addSplits(levels, split, index + 1, remaining - distance, splits);
+            }
+        }
+    }
+
+    /**
+     * Walks the members that use a word of every union, in result order, by repeatedly moving to the
+     * first member at or after the current candidate in each union until all agree. The members found
+     * are checked against the whole query, since their words may be in different fields or out of order.
+     *
+     * @return Up to max members whose best distance is exactly the total, in result order.
+     */
+    private static List<Entry> intersect(List<WordUnion> unions, List<Map<String, Integer>> similar,
+                                         int total, int maxDistance, int max) {
+        List<Entry> found = new ArrayList<>();
+        Entry candidate = unions.get(0).ceiling(null);
+        while (candidate != null && found.size() < max) {
+            Entry aligned = candidate;
+            for (WordUnion union : unions) {
+                aligned = union.ceiling(candidate);
+                if (aligned != candidate) {
+                    break;
+                }
+            }
+            if (aligned != candidate) {
+                candidate = aligned; // Skip ahead to the next member a union contains
+                continue;
+            }
+            if (bestDistance(candidate, similar, maxDistance) == total) {
+                found.add(candidate); // A smaller distance was already taken at that distance
+            }
+            candidate = unions.get(0).higher(candidate);
+        }
+        return found;
+    }
+
+    /**
+     * Compares the query word by word with each run of consecutive words in each field.
+     *
+     * @param similar The close vocabulary words of each query word, with their distances.
+     * @return The smallest total edit distance found, or maxDistance + 1 if none is within the bound.
+     */
+    private static int bestDistance(Entry entry, List<Map<String, Integer>> similar, int maxDistance) {
+        int best = maxDistance + 1;
+        for (List<String> tokens : entry.fieldTokens) {
+            for (int start = 0; start + similar.size() <= tokens.size(); start++) {
+                int total = 0;
+                for (int i = 0; i < similar.size() && total < best; i++) {
+                    Integer distance = similar.get(i).get(tokens.get(start + i));
+                    total = distance == null ? best : total + distance;
+                }
+                best = Math.min(best, total);
+                if (best == 0) {
+                    return 0;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Levenshtein distance that gives up once the bound is exceeded.
+     *
+     * @return The edit distance, or bound + 1 if it is larger than the bound.
+     */
+    static int boundedDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > bound) {
+                return bound + 1; // Every alignment already needs too many edits
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], bound + 1);
+    }
+}
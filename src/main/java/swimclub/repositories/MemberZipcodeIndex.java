@@ -0,0 +1,110 @@
+package swimclub.repositories;
+
+import swimclub.models.Member;
+
+import java.util.*;
+
+/**
+ * Sorted index of members by zip code, answering single zip codes and zip code ranges
+ * (e.g. 2000-2999 for Frederiksberg) without scanning all members.
+ */
+public class MemberZipcodeIndex {
+    private final TreeMap<Integer, Set<Member>> membersByZipcode = new TreeMap<>(); // Zip code -> members living there
+    private final Map<Member, Integer> indexedZipcodes = new IdentityHashMap<>();    // Zip code each member is indexed under
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Indexes a member under its current zip code. A member that is already indexed is re-indexed.
+     *
+     * @param member The member to index.
+     */
+    public void add(Member member) {
+        remove(member);
+        int zipcode = member.getZipcode();
+        indexedZipcodes.put(member, zipcode);
+        membersByZipcode.computeIfAbsent(zipcode, key -> new LinkedHashSet<>()).add(member);
+    }
+
+    /**
+     * Removes a member from the index.
+     *
+     * @param member The member to remove.
+     */
+    public void remove(Member member) {
+        Integer zipcode = indexedZipcodes.remove(member);
+        if (zipcode == null) {
+            return;
+        }
+        Set<Member> members = membersByZipcode.get(zipcode);
+        members.remove(member);
+        if (members.isEmpty()) {
+            membersByZipcode.remove(zipcode);
+        }
+    }
+
+    /**
+     * Re-indexes an indexed member if its zip code has changed. Members that are not indexed are ignored.
+     *
+     * @param member The member that may have moved.
+     */
+    public void update(Member member) {
+        Integer zipcode = indexedZipcodes.get(member);
+        if (zipcode != null && zipcode != member.getZipcode()) {
+            add(member);
+        }
+    }
+
+    /**
+     * Replaces the index content with the given members.
+     *
+     * @param members The members to index.
+     */
+    public void rebuild(Collection<Member> members) {
+        membersByZipcode.clear();
+        indexedZipcodes.clear();
+        for (Member member : members) {
+            add(member);
+        }
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * Finds the members with a zip code in the given range.
+     *
+     * @param from The lowest zip code, inclusive.
+     * @param to   The highest zip code, inclusive.
+     * @return The members ordered by zip code.
+     */
+    public List<Member> findInRange(int from, int to) {
+        List<Member> members = new ArrayList<>();
+        if (from <= to) {
+            for (Set<Member> atZipcode : membersByZipcode.subMap(from, true, to, true).values()) {
+                members.addAll(atZipcode);
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Counts the members with a zip code in the given range without collecting them.
+     *
+     * @param from The lowest zip code, inclusive.
+     * @param to   The highest zip code, inclusive.
+     * @return The number of members in the range.
+     */
+    public int countInRange(int from, int to) {
+        int count = 0;
+        if (from <= to) {
+            for (Set<Member> atZipcode : membersByZipcode.subMap(from, true, to, true).values()) {
+                count += atZipcode.size();
+            }
+        }
+        return count;
+    }
+}
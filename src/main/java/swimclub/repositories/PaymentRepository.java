@@ -3,18 +3,27 @@ package swimclub.repositories;
 import swimclub.models.Member;
 import swimclub.models.Payment;
 import swimclub.models.PaymentStatus;
+import swimclub.models.Reminder;
+import swimclub.utilities.IdSequence;
+import swimclub.utilities.IntIndex;
+import swimclub.utilities.RecordReader;
+import swimclub.utilities.WriteBehindPersistence;
 
 import java.io.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Logger;
 
 public class PaymentRepository {
     private static final Logger LOGGER = Logger.getLogger(PaymentRepository.class.getName());
+    private static final PaymentStatus[] PAYMENT_STATUSES = PaymentStatus.values(); // Constants matched by the record parser
     private final List<Payment> payments;  // List to store payments
-    private final List<String> reminders; // List to store reminders
-    private final String reminderFilePath; // Path to the reminders file
+    private final IntIndex<Payment> paymentsById; // Primary-key index kept in sync with the payments list
+    private final IntIndex<MemberPaymentLedger> ledgersByMember; // Payments and running totals per member ID
+    private final ReminderStore reminders; // Reminders ordered by due date and indexed by member
+    private IdSequence paymentIds = IdSequence.inMemory(); // Hands out payment IDs; stored next to the payment file once loaded
 
     // ===========================
     // Constructor and Initialization
@@ -26,12 +35,25 @@ public class PaymentRepository {
      * @param reminderFilePath The file path where reminders are saved and loaded.
      */
     public PaymentRepository(String reminderFilePath) {
+        this(reminderFilePath, WriteBehindPersistence.synchronous());
+    }
+
+    /**
+     * Constructor for PaymentRepository with a write-behind queue for the reminder file.
+     * Reminder changes are appended to the reminder file directly; the queue's durability level is used
+     * when the file is compacted.
+     *
+     * @param reminderFilePath The file path where reminders are saved and loaded.
+     * @param persistence      The queue whose pending writes are flushed before the reminders are loaded.
+     */
+    public PaymentRepository(String reminderFilePath, WriteBehindPersistence persistence) {
         this.payments = new ArrayList<>();
-        this.reminders = new ArrayList<>();
-        this.reminderFilePath = reminderFilePath;
+        this.paymentsById = new IntIndex<>();
+        this.ledgersByMember = new IntIndex<>();
 
         // Load reminders at initialization
-        loadReminders();
+        persistence.flush();
+        this.reminders = new ReminderStore(reminderFilePath, persistence.getDurability());
     }
 
     // ===========================
@@ -39,83 +61,106 @@ public class PaymentRepository {
     // ===========================
 
     /**
-     * Saves a payment reminder.
+     * Saves a payment reminder. A reminder for the same member and due date is replaced.
      *
-     * @param reminder The reminder string to save.
+     * @param reminder The reminder to save.
+     * @throws IllegalArgumentException If the reminder is null.
      */
-    public void saveReminder(String reminder) {
-        if (reminder == null || reminder.isEmpty()) {
+    public void saveReminder(Reminder reminder) {
+        if (reminder == null) {
             throw new IllegalArgumentException("Reminder cannot be null or empty.");
         }
-        reminders.add(reminder);
-        saveRemindersToFile();
+        reminders.put(reminder);
         LOGGER.info("Reminder saved: " + reminder);
     }
 
     /**
-     * Gets all reminders as a list of strings.
+     * Saves a batch of reminders with a single write, skipping members that already have a reminder.
+     *
+     * @param batch The reminders to save, at most one per member is kept.
+     * @return The reminders saved.
+     */
+    public List<Reminder> saveRemindersForMembersWithout(Collection<Reminder> batch) {
+        List<Reminder> saved = reminders.putAllForMembersWithout(batch);
+        LOGGER.info("Reminders saved: " + saved.size() + " of " + batch.size());
+        return saved;
+    }
+
+    /**
+     * Gets all reminders, earliest due date first.
      *
      * @return List of reminders.
      */
-    public List<String> getReminders() {
-        return new ArrayList<>(reminders); // Return a copy to prevent external modification
+    public List<Reminder> getReminders() {
+        return reminders.findAll();
     }
 
     /**
-     * Removes a specific reminder.
+     * Gets the reminders of a member, earliest due date first.
      *
-     * @param reminder The reminder to remove.
+     * @param memberId The member ID.
+     * @return List of reminders for the member.
+     */
+    public List<Reminder> getRemindersForMember(int memberId) {
+        return reminders.findByMember(memberId);
+    }
+
+    /**
+     * Removes the reminder of a member due on a date.
+     *
+     * @param memberId The member ID.
+     * @param dueDate  The due date.
      * @return true if the reminder was found and removed, false otherwise.
      */
-    public boolean removeReminder(String reminder) {
-        boolean removed = reminders.remove(reminder);
-        if (removed) {
-            saveRemindersToFile();
-        }
-        return removed;
+    public boolean removeReminder(int memberId, LocalDate dueDate) {
+        return reminders.remove(memberId, dueDate) != null;
     }
 
     /**
-     * Clears all reminders.
+     * Removes the earliest reminder of a member with the given text.
+     *
+     * @param memberId The member ID.
+     * @param message  The reminder text.
+     * @return true if the reminder was found and removed, false otherwise.
      */
-    public void clearReminders() {
-        reminders.clear();
-        saveRemindersToFile();
-        LOGGER.info("All reminders cleared.");
+    public boolean removeReminder(int memberId, String message) {
+        return reminders.remove(memberId, message) != null;
     }
 
-    // ===========================
-    // File Handling for Reminders
-    // ===========================
+    /**
+     * Returns the reminders due on or before a date, earliest first, without removing them.
+     *
+     * @param date     The date, normally today.
+     * @param maxCount The largest number of reminders to return.
+     * @return The due reminders.
+     */
+    public List<Reminder> peekDueReminders(LocalDate date, int maxCount) {
+        return reminders.peekDue(date, maxCount);
+    }
 
     /**
-     * Saves all reminders to the file.
+     * Removes reminders once they have been fired. Reminders replaced in the meantime are kept.
+     *
+     * @param fired The fired reminders.
+     * @return The number of reminders removed.
      */
-    private void saveRemindersToFile() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(reminderFilePath))) {
-            for (String reminder : reminders) {
-                writer.write(reminder);
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            LOGGER.severe("Error saving reminders to file: " + e.getMessage());
-        }
+    public int removeFiredReminders(List<Reminder> fired) {
+        return reminders.removeAll(fired);
     }
 
     /**
-     * Loads reminders from the file.
+     * @return The earliest due date of any reminder, or null if there are no reminders.
      */
-    private void loadReminders() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(reminderFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                reminders.add(line);
-            }
-        } catch (FileNotFoundException e) {
-            LOGGER.info("Reminder file not found, starting with an empty list.");
-        } catch (IOException e) {
-            LOGGER.severe("Error loading reminders from file: " + e.getMessage());
-        }
+    public LocalDate getNextReminderDueDate() {
+        return reminders.getNextDueDate();
+    }
+
+    /**
+     * Clears all reminders.
+     */
+    public void clearReminders() {
+        reminders.clear();
+        LOGGER.info("All reminders cleared.");
     }
 
     // ===========================
@@ -134,15 +179,42 @@ public class PaymentRepository {
         }
 
         // Check for duplicate payment ID
-        if (payments.stream().anyMatch(p -> p.getPaymentId() == payment.getPaymentId())) {
+        if (paymentsById.putIfAbsent(payment.getPaymentId(), payment) != null) {
             LOGGER.warning("Duplicate payment attempt for Payment ID: " + payment.getPaymentId());
             return;
         }
 
         payments.add(payment);
+        paymentIds.observe(payment.getPaymentId());
+        recordForMember(payment);
         LOGGER.info("Payment added successfully with ID: " + payment.getPaymentId());
     }
 
+    /**
+     * Saves a batch of new payments, e.g. the payments created by a billing run.
+     * Payments whose ID is already taken are skipped.
+     *
+     * @param newPayments The payments to save.
+     * @return The number of payments saved.
+     */
+    public int saveAll(List<Payment> newPayments) {
+        int saved = 0;
+        int highestId = 0;
+        for (Payment payment : newPayments) {
+            if (paymentsById.putIfAbsent(payment.getPaymentId(), payment) != null) {
+                LOGGER.warning("Duplicate payment attempt for Payment ID: " + payment.getPaymentId());
+                continue;
+            }
+            payments.add(payment);
+            recordForMember(payment);
+            highestId = Math.max(highestId, payment.getPaymentId());
+            saved++;
+        }
+        paymentIds.observe(highestId);
+        LOGGER.info(saved + " payments added.");
+        return saved;
+    }
+
     /**
      * Loads payments from a file and associates them with members.
      *
@@ -150,38 +222,86 @@ public class PaymentRepository {
      * @param memberRepository The member repository to link payments with members.
      */
     public void loadPayments(String filePath, MemberRepository memberRepository) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Payment payment = parsePayment(line, memberRepository);
+        IdSequence loadedIds = IdSequence.forDataFile(filePath);
+        loadedIds.observe(paymentIds.peek() - 1); // Keep IDs already handed out before the load
+        paymentIds = loadedIds;
+        int highestId = 0;
+        try (RecordReader reader = RecordReader.open(filePath)) {
+            while (reader.next()) {
+                Payment payment = parsePayment(reader, memberRepository);
                 if (payment != null) {
                     payments.add(payment);
-                    Member member = payment.getMember();
-                    if (member != null) {
-                        member.setPaymentStatus(payment.getPaymentStatus());
-                    }
+                    paymentsById.put(payment.getPaymentId(), payment);
+                    highestId = Math.max(highestId, payment.getPaymentId());
+                    recordForMember(payment);
+                    payment.getMember().setPaymentStatus(payment.getPaymentStatus()); // The last payment decides
                 }
             }
         } catch (IOException e) {
             LOGGER.severe("Error loading payments: " + e.getMessage());
         }
+        paymentIds.observe(highestId); // Payment IDs read from the file are taken, even without a stored mark
+    }
+
+    /**
+     * Adds a payment to its member's ledger and payment history.
+     *
+     * @param payment The payment, already added to the payments list.
+     */
+    private void recordForMember(Payment payment) {
+        Member member = payment.getMember();
+        if (member == null) {
+            return;
+        }
+        int memberId = member.getMemberId();
+        MemberPaymentLedger ledger = ledgersByMember.get(memberId);
+        if (ledger == null) {
+            ledger = new MemberPaymentLedger(memberId);
+            ledgersByMember.put(memberId, ledger);
+        }
+        ledger.add(payment);
+        member.attachPayment(payment);
+    }
+
+    /**
+     * Changes the status of a stored payment and moves its amount between the member's running totals.
+     * Payment statuses must be changed through this method for the totals to stay correct.
+     *
+     * @param payment   The stored payment.
+     * @param newStatus The new status.
+     * @throws IllegalArgumentException If the payment is not stored in this repository.
+     */
+    public void updatePaymentStatus(Payment payment, PaymentStatus newStatus) {
+        if (payment == null || paymentsById.get(payment.getPaymentId()) != payment) {
+            throw new IllegalArgumentException("Payment is not stored in this repository.");
+        }
+        PaymentStatus oldStatus = payment.getPaymentStatus();
+        if (oldStatus == newStatus) {
+            return;
+        }
+        payment.setPaymentStatus(newStatus);
+        if (payment.getMember() != null) {
+            MemberPaymentLedger ledger = ledgersByMember.get(payment.getMember().getMemberId());
+            if (ledger != null) {
+                ledger.statusChanged(payment, oldStatus);
+            }
+        }
     }
 
     /**
-     * Parses a payment from a string and associates it with a member.
+     * Parses a payment from the current record of a RecordReader and associates it with a member.
      *
-     * @param line             The string containing payment details.
+     * @param reader           The reader positioned on a record with payment details.
      * @param memberRepository The repository to find members by ID.
-     * @return A Payment object parsed from the string or null if parsing fails.
+     * @return A Payment object parsed from the record or null if parsing fails.
      */
-    private Payment parsePayment(String line, MemberRepository memberRepository) {
-        String[] parts = line.split(";");
+    private Payment parsePayment(RecordReader reader, MemberRepository memberRepository) {
         try {
-            int paymentId = Integer.parseInt(parts[0]);
-            int memberId = Integer.parseInt(parts[1]);
-            double amount = Double.parseDouble(parts[2]);
-            LocalDate paymentDate = LocalDate.parse(parts[3]);
-            PaymentStatus status = PaymentStatus.valueOf(parts[4].toUpperCase());
+            int paymentId = reader.parseInt(0);
+            int memberId = reader.parseInt(1);
+            long amount = reader.parseMoney(2); // In øre; also reads older decimal text
+            LocalDate paymentDate = reader.parseLocalDate(3);
+            PaymentStatus status = reader.parseEnum(4, PAYMENT_STATUSES);
 
             Member member = memberRepository.findById(memberId);
             if (member == null) {
@@ -190,7 +310,7 @@ public class PaymentRepository {
 
             return new Payment(paymentId, status, member, paymentDate, amount);
         } catch (Exception e) {
-            LOGGER.severe("Error parsing payment: " + line + " - " + e.getMessage());
+            LOGGER.severe("Error parsing payment: " + reader.line() + " - " + e.getMessage());
             return null;
         }
     }
@@ -200,15 +320,34 @@ public class PaymentRepository {
     // ===========================
 
     /**
-     * Fetches all payments for a specific member ID.
+     * Fetches all payments for a specific member ID from the member's ledger, in O(k) for k payments.
      *
      * @param memberId The member ID to fetch payments for.
      * @return List of payments for the specified member ID.
      */
     public List<Payment> findPaymentsByMemberId(int memberId) {
-        return payments.stream()
-                .filter(payment -> payment.getMember().getMemberId() == memberId)
-                .toList();
+        return new ArrayList<>(getLedger(memberId).getPayments());
+    }
+
+    /**
+     * Gets a member's payment ledger: the member's payments and running totals per payment status.
+     *
+     * @param memberId The member ID.
+     * @return The ledger; an empty ledger if the member has no payments.
+     */
+    public MemberPaymentLedger getLedger(int memberId) {
+        MemberPaymentLedger ledger = ledgersByMember.get(memberId);
+        return ledger != null ? ledger : new MemberPaymentLedger(memberId);
+    }
+
+    /**
+     * Finds a payment by its ID using the primary-key index.
+     *
+     * @param paymentId The payment ID.
+     * @return The payment, or null if no payment has that ID.
+     */
+    public Payment findById(int paymentId) {
+        return paymentsById.get(paymentId);
     }
 
     /**
@@ -221,14 +360,22 @@ public class PaymentRepository {
     }
 
     /**
-     * Gets the next available payment ID.
+     * Allocates the next payment ID from the payment ID sequence.
+     * IDs only increase, so the ID of a removed payment is never handed out again.
      *
-     * @return The next available payment ID.
+     * @return The allocated payment ID.
      */
     public int getNextPaymentId() {
-        return payments.stream()
-                .mapToInt(Payment::getPaymentId)
-                .max()
-                .orElse(0) + 1;
+        return paymentIds.next();
+    }
+
+    /**
+     * Allocates a block of consecutive payment IDs at once, e.g. for a billing run.
+     *
+     * @param count The number of IDs to allocate.
+     * @return The first ID of the block.
+     */
+    public int reservePaymentIds(int count) {
+        return paymentIds.reserve(count);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,358 @@
+package swimclub.repositories;
+
+import swimclub.models.Reminder;
+import swimclub.utilities.AtomicFileWriter;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Payment reminders ordered by due date and indexed by member.
+ * The reminders are kept in a sorted set ordered by (due date, member ID), which serves as a priority queue
+ * that also supports removal in O(log n), and in a per-member map keyed by due date for lookups.
+ * reminders.dat is an append-only log: adding a reminder appends an "A" record and removing one appends an
+ * "R" tombstone, so no change rewrites the whole file. The file is compacted to the live reminders once the
+ * tombstones outnumber them. Reminders stored as free text by earlier versions have no due date; each is
+ * given its own, starting the day after they are first loaded (see {@link #legacyDueDate}).
+ */
+public class ReminderStore {
+    private static final Logger LOGGER = Logger.getLogger(ReminderStore.class.getName());
+    private static final char ADD = 'A';
+    private static final char REMOVE = 'R';
+    private static final int MIN_COMPACTION_RECORDS = 100; // Smaller logs are never compacted
+    private static final Pattern LEGACY_REMINDER = Pattern.compile("Reminder for Member ID: (\\d+): (.*)");
+    private static final Comparator<Reminder> DUE_ORDER =
+            Comparator.comparing(Reminder::getDueDate).thenComparingInt(Reminder::getMemberId);
+
+    private final String filePath;
+    private final AtomicFileWriter.Durability durability;   // Used when the log is compacted
+    private final TreeSet<Reminder> byDueDate = new TreeSet<>(DUE_ORDER);            // Time-ordered queue
+    private final Map<Integer, TreeMap<LocalDate, Reminder>> byMember = new HashMap<>(); // Member -> due date -> reminder
+    private int recordCount; // Records in the file, live or not
+
+    /**
+     * Opens the reminder store and loads the reminders from the file.
+     *
+     * @param filePath   The reminder file.
+     * @param durability The durability level used when the file is compacted.
+     */
+    public ReminderStore(String filePath, AtomicFileWriter.Durability durability) {
+        this.filePath = filePath;
+        this.durability = durability;
+        load();
+    }
+
+    // ---------------------------
+    // Changes
+    // ---------------------------
+
+    /**
+     * Adds a reminder. A reminder for the same member and due date is replaced.
+     *
+     * @param reminder The reminder to add.
+     * @return The replaced reminder, or null.
+     */
+    public synchronized Reminder put(Reminder reminder) {
+        Reminder replaced = index(reminder);
+        append(List.of(addRecord(reminder)));
+        return replaced;
+    }
+
+    /**
+     * Adds the reminders of members that have no reminder yet, with one write for the batch.
+     * A reminder is skipped if its member already has a reminder, due on any date, or an earlier
+     * reminder in the batch.
+     *
+     * @param batch The reminders to add.
+     * @return The reminders added, in batch order.
+     */
+    public synchronized List<Reminder> putAllForMembersWithout(Collection<Reminder> batch) {
+        List<Reminder> added = new ArrayList<>();
+        List<String> records = new ArrayList<>();
+        for (Reminder reminder : batch) {
+            if (!byMember.containsKey(reminder.getMemberId())) {
+                index(reminder);
+                added.add(reminder);
+                records.add(addRecord(reminder));
+            }
+        }
+        if (!records.isEmpty()) {
+            append(records);
+        }
+        return added;
+    }
+
+    /**
+     * Removes the reminder of a member due on a date.
+     *
+     * @param memberId The member ID.
+     * @param dueDate  The due date.
+     * @return The removed reminder, or null if there was none.
+     */
+    public synchronized Reminder remove(int memberId, LocalDate dueDate) {
+        Reminder removed = unindex(memberId, dueDate);
+        if (removed != null) {
+            append(List.of(removeRecord(removed)));
+            compactIfNeeded();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the earliest reminder of a member with the given text.
+     *
+     * @param memberId The member ID.
+     * @param message  The exact reminder text.
+     * @return The removed reminder, or null if the member has no reminder with that text.
+     */
+    public synchronized Reminder remove(int memberId, String message) {
+        TreeMap<LocalDate, Reminder> reminders = byMember.get(memberId);
+        if (reminders != null) {
+            for (Reminder reminder : reminders.values()) {
+                if (reminder.getMessage().equals(message)) {
+                    return remove(memberId, reminder.getDueDate());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes reminders that have been fired, with one write for the batch.
+     * A reminder is only removed if it is still the stored one; a reminder that was replaced or removed
+     * in the meantime is skipped.
+     *
+     * @param fired The reminders to remove, normally a batch returned by {@link #peekDue(LocalDate, int)}.
+     * @return The number of reminders removed.
+     */
+    public synchronized int removeAll(Collection<Reminder> fired) {
+        List<String> tombstones = new ArrayList<>(fired.size());
+        for (Reminder reminder : fired) {
+            if (get(reminder.getMemberId(), reminder.getDueDate()) == reminder) {
+                unindex(reminder.getMemberId(), reminder.getDueDate());
+                tombstones.add(removeRecord(reminder));
+            }
+        }
+        if (!tombstones.isEmpty()) {
+            append(tombstones);
+            compactIfNeeded();
+        }
+        return tombstones.size();
+    }
+
+    /**
+     * Removes all reminders and empties the file.
+     */
+    public synchronized void clear() {
+        byDueDate.clear();
+        byMember.clear();
+        compact();
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * @param memberId The member ID.
+     * @param dueDate  The due date.
+     * @return The reminder of the member due on that date, or null.
+     */
+    public synchronized Reminder get(int memberId, LocalDate dueDate) {
+        TreeMap<LocalDate, Reminder> reminders = byMember.get(memberId);
+        return reminders == null ? null : reminders.get(dueDate);
+    }
+
+    /**
+     * @param memberId The member ID.
+     * @return The reminders of the member, earliest due date first.
+     */
+    public synchronized List<Reminder> findByMember(int memberId) {
+        TreeMap<LocalDate, Reminder> reminders = byMember.get(memberId);
+        return reminders == null ? new ArrayList<>() : new ArrayList<>(reminders.values());
+    }
+
+    /**
+     * Returns the reminders due on or before a date, earliest first, without removing them.
+     * Remove them with {@link #removeAll(Collection)} once they have been handled, so a failure in
+     * between leaves them in the store.
+     *
+     * @param date     The date, normally today.
+     * @param maxCount The largest number of reminders to return.
+     * @return The due reminders, at most maxCount; empty if none is due.
+     */
+    public synchronized List<Reminder> peekDue(LocalDate date, int maxCount) {
+        List<Reminder> due = new ArrayList<>();
+        for (Reminder reminder : byDueDate) {
+            if (due.size() >= maxCount || !reminder.isDue(date)) {
+                break;
+            }
+            due.add(reminder);
+        }
+        return due;
+    }
+
+    /**
+     * @return All reminders, earliest due date first.
+     */
+    public synchronized List<Reminder> findAll() {
+        return new ArrayList<>(byDueDate);
+    }
+
+    /**
+     * @return The earliest due date of any reminder, or null if there are no reminders.
+     */
+    public synchronized LocalDate getNextDueDate() {
+        return byDueDate.isEmpty() ? null : byDueDate.first().getDueDate();
+    }
+
+    /**
+     * @return The number of reminders.
+     */
+    public synchronized int size() {
+        return byDueDate.size();
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private Reminder index(Reminder reminder) {
+        Reminder replaced = unindex(reminder.getMemberId(), reminder.getDueDate());
+        byDueDate.add(reminder);
+        byMember.computeIfAbsent(reminder.getMemberId(), id -> new TreeMap<>()).put(reminder.getDueDate(), reminder);
+        return replaced;
+    }
+
+    private Reminder unindex(int memberId, LocalDate dueDate) {
+        TreeMap<LocalDate, Reminder> reminders = byMember.get(memberId);
+        if (reminders == null) {
+            return null;
+        }
+        Reminder removed = reminders.remove(dueDate);
+        if (removed != null) {
+            byDueDate.remove(removed);
+            if (reminders.isEmpty()) {
+                byMember.remove(memberId);
+            }
+        }
+        return removed;
+    }
+
+    private static String addRecord(Reminder reminder) {
+        return ADD + ";" + reminder.getMemberId() + ";" + reminder.getDueDate() + ";" + reminder.getMessage();
+    }
+
+    private static String removeRecord(Reminder reminder) {
+        return REMOVE + ";" + reminder.getMemberId() + ";" + reminder.getDueDate();
+    }
+
+    /**
+     * Appends records to the log with a single write.
+     */
+    private void append(List<String> records) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true))) {
+            for (String record : records) {
+                writer.write(record);
+                writer.newLine();
+            }
+            recordCount += records.size();
+        } catch (IOException e) {
+            LOGGER.severe("Error appending to reminder file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the file with the live reminders once the tombstones and replaced records outnumber them.
+     */
+    private void compactIfNeeded() {
+        if (recordCount >= MIN_COMPACTION_RECORDS && recordCount > 2 * byDueDate.size()) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        List<String> records = new ArrayList<>(byDueDate.size());
+        for (Reminder reminder : byDueDate) {
+            records.add(addRecord(reminder));
+        }
+        try {
+            AtomicFileWriter.writeLines(filePath, records, durability);
+            recordCount = records.size();
+        } catch (IOException e) {
+            LOGGER.severe("Error compacting reminder file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Picks the due date of a free-text reminder from an earlier version. Reminders are keyed by member and
+     * due date, so a member's legacy reminders get consecutive days and none replaces another. The first is
+     * due the day after the migration, so staff see the converted reminders before any notice is sent.
+     *
+     * @param memberId The member the reminder is for.
+     * @param today    The day the file is migrated.
+     * @return The first free due date for the member after today.
+     */
+    private LocalDate legacyDueDate(int memberId, LocalDate today) {
+        LocalDate dueDate = today.plusDays(1);
+        TreeMap<LocalDate, Reminder> reminders = byMember.get(memberId);
+        while (reminders != null && reminders.containsKey(dueDate)) {
+            dueDate = dueDate.plusDays(1);
+        }
+        return dueDate;
+    }
+
+    /**
+     * Replays the reminder file. Free-text reminders from earlier versions are converted, and the file is
+     * then rewritten in the record format.
+     */
+    private void load() {
+        boolean legacyFound = false;
+        LocalDate today = LocalDate.now();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                recordCount++;
+                try {
+                    if (line.length() > 1 && line.charAt(1) == ';' && (line.charAt(0) == ADD || line.charAt(0) == REMOVE)) {
+                        String[] fields = line.split(";", 4);
+                        int memberId = Integer.parseInt(fields[1]);
+                        LocalDate dueDate = LocalDate.parse(fields[2]);
+                        if (line.charAt(0) == ADD) {
+                            index(new Reminder(memberId, dueDate, fields[3]));
+                        } else {
+                            unindex(memberId, dueDate);
+                        }
+                    } else {
+                        Matcher legacy = LEGACY_REMINDER.matcher(line);
+                        if (legacy.matches()) {
+                            int memberId = Integer.parseInt(legacy.group(1));
+                            index(new Reminder(memberId, legacyDueDate(memberId, today), legacy.group(2)));
+                            legacyFound = true;
+                        } else {
+                            LOGGER.warning("Skipped unreadable reminder: " + line);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warning("Skipped unreadable reminder: " + line + " - " + e.getMessage());
+                }
+            }
+        } catch (FileNotFoundException e) {
+            LOGGER.info("Reminder file not found, starting with no reminders.");
+            return;
+        } catch (IOException e) {
+            LOGGER.severe("Error loading reminders from file: " + e.getMessage());
+            return;
+        }
+        if (legacyFound) {
+            compact(); // Store the converted reminders in the record format
+        }
+    }
+}
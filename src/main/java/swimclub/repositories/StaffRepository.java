@@ -2,14 +2,17 @@ package swimclub.repositories;
 
 import swimclub.models.Coach;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.IdSequence;
+import swimclub.utilities.IntIndex;
 import java.util.ArrayList;
 
 import java.util.List;
-import java.util.Optional;
 
 public class StaffRepository {
     private final FileHandler fileHandler;
     private List<Coach> coachList;
+    private IntIndex<Coach> coachesById; // Primary-key index kept in sync with the coach list
+    private final IdSequence coachIds; // Hands out coach IDs; never reuses the ID of a deleted coach
 
     /**
      * Constructor for StaffRepository that initializes the list of coaches
@@ -19,20 +22,19 @@ public class StaffRepository {
      */
     public StaffRepository(FileHandler fileHandler) {
         this.fileHandler = fileHandler;
+        this.coachIds = IdSequence.forDataFile(fileHandler.getStaffFilePath());
         this.coachList = fileHandler.loadCoaches(); // Load coaches from the file
+        rebuildIndex();
     }
 
     /**
-     * Finds a coach by their unique coach ID.
+     * Finds a coach by their unique coach ID using the primary-key index.
      *
      * @param coachId The ID of the coach to find.
      * @return The Coach object if found, otherwise null.
      */
     public Coach findCoachById(int coachId) {
-        Optional<Coach> coach = coachList.stream()
-                .filter(c -> c.getCoachId() == coachId)
-                .findFirst();
-        return coach.orElse(null); // Return null if the coach is not found
+        return coachesById.get(coachId); // Return null if the coach is not found
     }
 
     /**
@@ -69,31 +71,13 @@ public class StaffRepository {
     }
 
     /**
-     * Generates the next available coach ID by checking the highest ID in the current list.
-     * If the list is empty, returns 1 as the first ID.
+     * Allocates the next coach ID from the coach ID sequence.
+     * IDs only increase, so the ID of a deleted coach is never handed out again.
      *
-     * @return The next available coach ID.
+     * @return The allocated coach ID.
      */
     public int getNextCoachId() {
-        // Check if coachList is null or empty
-        if (coachList == null) {
-            coachList = new ArrayList<>();  // Initialize the list if it's null
-        }
-
-        if (coachList.isEmpty()) {
-            return 1; // If no coaches, return 1 as the next coach ID
-        }
-
-        // Find the maximum coach ID from the existing list
-        int maxId = 0;
-        for (Coach coach : coachList) {
-            if (coach.getCoachId() > maxId) {
-                maxId = coach.getCoachId(); // Update maxId if the current coach ID is greater
-            }
-        }
-
-        // Return the next ID, which is one more than the max ID
-        return maxId + 1;
+        return coachIds.next();
     }
 
     /**
@@ -105,6 +89,7 @@ public class StaffRepository {
     public boolean deleteCoach(Coach coach) {
         boolean isRemoved = coachList.remove(coach);
         if (isRemoved) {
+            coachesById.remove(coach.getCoachId());
             fileHandler.deleteCoach(coach); // Delete the coach using the file handler
         }
         return isRemoved; // Return whether the coach was successfully removed
@@ -117,6 +102,8 @@ public class StaffRepository {
      */
     public void addCoach(Coach coach) {
         coachList.add(coach); // Add the coach to the list
+        coachesById.put(coach.getCoachId(), coach);
+        coachIds.observe(coach.getCoachId());
         fileHandler.saveCoaches(coachList); // Save the updated list of coaches to the file
     }
 
@@ -126,4 +113,18 @@ public class StaffRepository {
     public void saveCoachList() {
         fileHandler.saveCoaches(coachList); // Save the list of coaches to the file
     }
+
+    /**
+     * Rebuilds the primary-key index from the current coach list.
+     */
+    private void rebuildIndex() {
+        IntIndex<Coach> index = new IntIndex<>(coachList.size());
+        int highestId = 0;
+        for (Coach coach : coachList) {
+            index.put(coach.getCoachId(), coach);
+            highestId = Math.max(highestId, coach.getCoachId());
+        }
+        this.coachesById = index;
+        coachIds.observe(highestId); // New coaches are numbered after every coach in staff.dat
+    }
 }
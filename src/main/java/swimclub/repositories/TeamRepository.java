@@ -2,9 +2,13 @@ package swimclub.repositories;
 
 import swimclub.models.Team;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.TeamLoadReport;
 import swimclub.models.Member;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Repository class for managing teams in the swim club.
@@ -13,7 +17,9 @@ import java.util.List;
  */
 public class TeamRepository {
     private final List<Team> teams; // List to store all teams
+    private final Map<String, Team> teamsByName; // Index on the normalized (lower-case) team name
     private final FileHandler fileHandler; // FileHandler for team persistence
+    private TeamLoadReport lastLoadReport; // Outcome of the last load, null before the first
 
     /**
      * Constructor to initialize the TeamRepository.
@@ -24,6 +30,7 @@ public class TeamRepository {
     public TeamRepository(FileHandler fileHandler) {
         this.fileHandler = fileHandler;
         this.teams = new ArrayList<>();  // Initialize the teams list
+        this.teamsByName = new HashMap<>();
     }
 
     /**
@@ -34,6 +41,7 @@ public class TeamRepository {
      */
     public void addTeam(Team team) {
         teams.add(team);  // Add the team to the list
+        teamsByName.putIfAbsent(normalize(team.getTeamName()), team); // First team with a name wins, as before
     }
 
     /**
@@ -44,10 +52,10 @@ public class TeamRepository {
      * @return The Team object if found, otherwise null.
      */
     public Team findTeamByName(String teamName) {
-        return teams.stream()
-                .filter(team -> team.getTeamName().equalsIgnoreCase(teamName))
-                .findFirst()
-                .orElse(null);  // Return null if no team is found with the given name
+        if (teamName == null) {
+            return null;
+        }
+        return teamsByName.get(normalize(teamName));  // Return null if no team is found with the given name
     }
 
     /**
@@ -68,8 +76,14 @@ public class TeamRepository {
      * @return true if the team was removed, false if no team was found with the given name.
      */
     public boolean removeTeam(String teamName) {
-        return teams.removeIf(team -> team.getTeamName().equalsIgnoreCase(teamName));
-        // Return true if any team was removed; false otherwise
+        if (teamName == null) {
+            return false;
+        }
+        String key = normalize(teamName); // The list is matched like the index, so both drop the same teams
+        if (teamsByName.remove(key) == null) {
+            return false; // No team with the given name
+        }
+        return teams.removeIf(team -> normalize(team.getTeamName()).equals(key));
     }
 
     // ---------------------------
@@ -84,13 +98,25 @@ public class TeamRepository {
      * @param staffRepository The StaffRepository to link coaches to the teams.
      */
     public void loadTeams(MemberRepository memberRepository, StaffRepository staffRepository) {
-        List<Member> allMembers = memberRepository.findAll();  // Get all members from the member repository
-        List<Team> loadedTeams = fileHandler.loadTeams(allMembers, staffRepository);  // Load teams using fileHandler
-
-        if (loadedTeams != null) {
-            this.teams.clear();  // Clear the current list of teams
-            this.teams.addAll(loadedTeams);  // Add the loaded teams to the repository
+        TeamLoadReport report = new TeamLoadReport();
+        // Single-pass join against the repositories' primary-key indexes
+        List<Team> loadedTeams = fileHandler.loadTeams(memberRepository::findById, staffRepository::findCoachById, report);
+        this.lastLoadReport = report;
+        if (report.hasProblems()) {
+            System.err.println(report.getSummary());
         }
+
+        this.teams.clear();  // Clear the current list of teams
+        this.teams.addAll(loadedTeams);  // Add the loaded teams to the repository
+        rebuildIndex();
+    }
+
+    /**
+     * @return The report of the last {@link #loadTeams(MemberRepository, StaffRepository)} call, listing
+     *         unresolved member and coach references; null if teams have not been loaded.
+     */
+    public TeamLoadReport getLastLoadReport() {
+        return lastLoadReport;
     }
 
     /**
@@ -100,4 +126,28 @@ public class TeamRepository {
     public void saveTeams() {
         fileHandler.saveTeams(teams);  // Save the teams list using the FileHandler
     }
+
+    // ---------------------------
+    // Index helpers
+    // ---------------------------
+
+    /**
+     * Rebuilds the team name index from the current list of teams.
+     */
+    private void rebuildIndex() {
+        teamsByName.clear();
+        for (Team team : teams) {
+            teamsByName.putIfAbsent(normalize(team.getTeamName()), team);
+        }
+    }
+
+    /**
+     * Normalizes a team name for case-insensitive lookup.
+     *
+     * @param teamName The team name.
+     * @return The lower-case form of the name.
+     */
+    private static String normalize(String teamName) {
+        return teamName.toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
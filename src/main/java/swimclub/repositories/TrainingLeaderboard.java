@@ -0,0 +1,147 @@
+package swimclub.repositories;
+
+import swimclub.models.ActivityType;
+import swimclub.models.MembershipLevel;
+import swimclub.models.TrainingResults;
+
+import java.util.*;
+
+/**
+ * Incrementally maintained leaderboards for training results.
+ * There is one board per discipline (ActivityType) and membership level, each kept sorted by time
+ * (best time first, ties in insertion order). Boards are updated when results are added or changed,
+ * so reading the top K results never copies or sorts the full result list.
+ */
+public class TrainingLeaderboard {
+
+    /**
+     * A result as it was placed on a board. The time, discipline and level are captured when the
+     * result is indexed, so the entry can still be found after the result object has been modified.
+     */
+    private static final class Entry {
+        private final TrainingResults result;
+        private final ActivityType activityType;
+        private final MembershipLevel level;
+        private final double time;
+        private final long sequence;
+
+        private Entry(TrainingResults result, long sequence) {
+            this.result = result;
+            this.activityType = result.getActivityType();
+            this.level = result.getLevel();
+            this.time = result.getTime();
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Comparator<Entry> BEST_TIME_FIRST =
+            Comparator.<Entry>comparingDouble(entry -> entry.time).thenComparingLong(entry -> entry.sequence);
+
+    private final Map<ActivityType, Map<MembershipLevel, TreeSet<Entry>>> boards; // Sorted board per discipline and level
+    private final Map<TrainingResults, Entry> entries; // Current entry of each indexed result (by identity)
+    private long nextSequence;                           // Insertion counter used to break ties
+
+    /**
+     * Creates an empty set of leaderboards.
+     */
+    public TrainingLeaderboard() {
+        this.boards = new EnumMap<>(ActivityType.class);
+        for (ActivityType activityType : ActivityType.values()) {
+            Map<MembershipLevel, TreeSet<Entry>> levels = new EnumMap<>(MembershipLevel.class);
+            for (MembershipLevel level : MembershipLevel.values()) {
+                levels.put(level, new TreeSet<>(BEST_TIME_FIRST));
+            }
+            boards.put(activityType, levels);
+        }
+        this.entries = new IdentityHashMap<>();
+    }
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Places a result on the board for its discipline and level.
+     * Results without a discipline or level are not ranked.
+     *
+     * @param result The result to add.
+     */
+    public void add(TrainingResults result) {
+        if (result.getActivityType() == null || result.getLevel() == null) {
+            return;
+        }
+        remove(result); // A result is only ranked once
+        Entry entry = new Entry(result, nextSequence++);
+        entries.put(result, entry);
+        boards.get(entry.activityType).get(entry.level).add(entry);
+    }
+
+    /**
+     * Re-ranks a result after its time, discipline or level has changed.
+     *
+     * @param result The modified result.
+     */
+    public void update(TrainingResults result) {
+        add(result);
+    }
+
+    /**
+     * Removes a result from its board.
+     *
+     * @param result The result to remove.
+     */
+    public void remove(TrainingResults result) {
+        Entry entry = entries.remove(result);
+        if (entry != null) {
+            boards.get(entry.activityType).get(entry.level).remove(entry);
+        }
+    }
+
+    /**
+     * Replaces the contents of all boards with the given results.
+     *
+     * @param results All training results.
+     */
+    public void rebuild(List<TrainingResults> results) {
+        for (Map<MembershipLevel, TreeSet<Entry>> levels : boards.values()) {
+            for (TreeSet<Entry> board : levels.values()) {
+                board.clear();
+            }
+        }
+        entries.clear();
+        for (TrainingResults result : results) {
+            add(result);
+        }
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * Returns the best results for a discipline and level, fastest first.
+     * Only the first {@code limit} entries of the board are visited.
+     *
+     * @param activityType The discipline.
+     * @param level        The membership level.
+     * @param limit        The maximum number of results to return.
+     * @return Up to {@code limit} results, fastest first.
+     */
+    public List<TrainingResults> top(ActivityType activityType, MembershipLevel level, int limit) {
+        List<TrainingResults> top = new ArrayList<>(Math.max(0, Math.min(limit, 16)));
+        Iterator<Entry> iterator = boards.get(activityType).get(level).iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            top.add(iterator.next().result);
+        }
+        return top;
+    }
+
+    /**
+     * @param activityType The discipline.
+     * @param level        The membership level.
+     * @return The number of results ranked on the board.
+     */
+    public int size(ActivityType activityType, MembershipLevel level) {
+        return boards.get(activityType).get(level).size();
+    }
+}
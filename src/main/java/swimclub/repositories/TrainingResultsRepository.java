@@ -1,12 +1,14 @@
 package swimclub.repositories;
 
 import swimclub.models.ActivityType;
-import swimclub.models.CompetitionResults;
 import swimclub.models.Member;
+import swimclub.models.MembershipLevel;
 import swimclub.models.TrainingResults;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.TrainingResultsColumns;
 import swimclub.utilities.Validator;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,6 +21,7 @@ public class TrainingResultsRepository {
     private final FileHandler fileHandler;
     private final String trainingResultsFilePath;
     private final MemberRepository memberRepository;
+    private final TrainingLeaderboard leaderboard; // Per-discipline boards kept in sync with the results list
 
     /**
      * Constructor to initialize the repository with file handler and file path.
@@ -30,6 +33,7 @@ public class TrainingResultsRepository {
     public TrainingResultsRepository(FileHandler filehandler, String trainingResultsFilePath, MemberRepository memberRepository) {
         this.memberRepository = memberRepository;
         this.results = new ArrayList<>();
+        this.leaderboard = new TrainingLeaderboard();
         this.fileHandler = filehandler;
         this.trainingResultsFilePath = trainingResultsFilePath;
     }
@@ -54,19 +58,24 @@ public class TrainingResultsRepository {
         return null;
     }
 
+    /**
+     * Updates the time and date of an existing result for the same member and discipline,
+     * re-ranks it on the leaderboard and saves the results to the file.
+     *
+     * @param updatedResults The result holding the new time and date.
+     * @throws RuntimeException If no result exists for the member and discipline.
+     */
     public void updateResults(TrainingResults updatedResults){
-        TrainingResults existingResults = findResultsByMemberAndActivity(updatedResults.getMember().getMemberId(),updatedResults.getMember().getActivityType());
+        TrainingResults existingResults = findResultsByMemberAndActivity(updatedResults.getMember().getMemberId(), updatedResults.getActivityType());
 
         if (existingResults == null) {
             throw new RuntimeException("Member not found for ID " + updatedResults.getMember().getMemberId());
         }
         existingResults.setTime(updatedResults.getTime());
         existingResults.setDate(updatedResults.getDate());
+        leaderboard.update(existingResults);
 
         fileHandler.saveTrainingResults(results);
-
-    loadResults(memberRepository);
-
     }
 
     /**
@@ -79,6 +88,7 @@ public class TrainingResultsRepository {
     public void addResults(TrainingResults result) {
         Validator.validateTrainingResult(result);
         results.add(result);
+        leaderboard.add(result);
         fileHandler.saveTrainingResults(results);
     }
 
@@ -116,6 +126,7 @@ public class TrainingResultsRepository {
         for (TrainingResults result : resultsToAdd) {
             Validator.validateTrainingResult(result); // Validate each result
             results.add(result);  // Add the result to the in-memory list
+            leaderboard.add(result);
         }
 
         // Save the updated list to the file
@@ -132,6 +143,65 @@ public class TrainingResultsRepository {
         results.clear();  // Clear the existing results list
         // Load the results from the file and populate the results list
         results.addAll(fileHandler.loadTrainingResults(trainingResultsFilePath, memberRepository));
+        leaderboard.rebuild(results);
+    }
+
+    /**
+     * Returns the best training results for a discipline and membership level, fastest first.
+     * The answer is read from the maintained leaderboard, so only {@code limit} results are visited.
+     *
+     * @param activityType The discipline.
+     * @param level        The membership level (Junior or Senior).
+     * @param limit        The maximum number of results to return.
+     * @return Up to {@code limit} results, fastest first.
+     */
+    public List<TrainingResults> getTopResults(ActivityType activityType, MembershipLevel level, int limit) {
+        return leaderboard.top(activityType, level, limit);
+    }
+
+    // ---------------------------
+    // Column File
+    // ---------------------------
+
+    /**
+     * Exports the current results to a binary column file for analytics.
+     * The text file stays the primary store; the column file can be regenerated at any time.
+     *
+     * @param columnFilePath The path of the column file to write.
+     */
+    public void exportColumns(String columnFilePath) {
+        try {
+            TrainingResultsColumns.write(columnFilePath, results);
+        } catch (IOException e) {
+            System.err.println("Error exporting training results: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converts the training results text file directly into a column file, without loading the results
+     * into the repository.
+     *
+     * @param columnFilePath The path of the column file to write.
+     * @return The number of rows written, or -1 if the conversion failed.
+     */
+    public int importColumnsFromText(String columnFilePath) {
+        try {
+            return TrainingResultsColumns.importText(trainingResultsFilePath, columnFilePath);
+        } catch (IOException e) {
+            System.err.println("Error converting training results: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Memory-maps a column file so it can be scanned without creating TrainingResults objects.
+     *
+     * @param columnFilePath The path of the column file.
+     * @return The mapped columns; the caller closes them.
+     * @throws IOException If the file cannot be opened or is not a valid column file.
+     */
+    public TrainingResultsColumns mapColumns(String columnFilePath) throws IOException {
+        return TrainingResultsColumns.map(columnFilePath);
     }
 
     /**
@@ -2,17 +2,35 @@ package swimclub.repositories;
 
 import swimclub.models.Role;
 import swimclub.models.User;
+import swimclub.utilities.PasswordUtils;
+import swimclub.utilities.WriteBehindPersistence;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Repository class responsible for handling user data, including loading, saving, and modifying users.
- * Users are stored in a file and managed in memory.
+ * Users are stored in a file and cached in memory, keyed by username. Every change is written through to
+ * the file. Before each access the file's modification time and size are compared with those seen at the
+ * last load or save, and the file is read again only if it was changed by something else.
+ * This is the single user store; AuthRepository works on the same instance.
  */
 public class UserRepository {
     private final String userFilePath;
+    private final WriteBehindPersistence persistence; // Performs the user file writes
+    private final Map<String, User> users = new LinkedHashMap<>(); // Username -> user, in file order
+    private FileTime loadedModifiedTime; // Modification time of the file as last loaded or saved, null if missing
+    private long loadedSize = -1;        // Size of the file as last loaded or saved
+    private boolean ownWritePending;     // A save was submitted whose result has not been stamped yet
 
     /**
      * Constructor to initialize the UserRepository.
@@ -20,91 +38,213 @@ public class UserRepository {
      * @param userFilePath The path to the file where users are stored.
      */
     public UserRepository(String userFilePath) {
-        this.userFilePath = userFilePath;
+        this(userFilePath, WriteBehindPersistence.synchronous());
     }
 
     /**
-     * Loads users from the .dat file into memory.
-     * The file is expected to contain users in the format: username;hashedPassword;salt;role.
+     * Constructor to initialize the UserRepository with a write-behind queue for the user file.
      *
-     * @return A list of users loaded from the file.
+     * @param userFilePath The path to the file where users are stored.
+     * @param persistence  The queue performing the user file writes.
      */
-    public List<User> loadUsers() {
-        List<User> users = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(userFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length == 4) {
-                    String username = parts[0];
-                    String hashedPassword = parts[1];
-                    String salt = parts[2];
-                    Role role = Role.valueOf(parts[3].toUpperCase());
-                    // Create the User object and add it to the list
-                    users.add(new User(username, hashedPassword, salt, role));
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading users: " + e.getMessage());
-        }
-        return users;
+    public UserRepository(String userFilePath, WriteBehindPersistence persistence) {
+        this.userFilePath = userFilePath;
+        this.persistence = persistence;
+        persistence.flush();
+        reload();
     }
 
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
     /**
-     * Saves the list of users back to the .dat file, storing each user's username, hashed password, salt, and role.
+     * Returns all users.
+     * The file is only read again if it changed since it was last loaded or saved.
      *
-     * @param users The list of users to save.
+     * @return A list of the users, in file order.
      */
-    public void saveUsers(List<User> users) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(userFilePath))) {
-            for (User user : users) {
-                // Write username, hashed password, salt, and role
-                writer.write(user.getUsername() + ";" + user.getHashedPassword() + ";" + user.getSalt() + ";" + user.getRole());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving users: " + e.getMessage());
-        }
+    public synchronized List<User> loadUsers() {
+        refreshIfChanged();
+        return new ArrayList<>(users.values());
     }
 
     /**
      * Gets a user by their username.
-     * Searches the list of users in memory and returns the User object if found.
      *
      * @param username The username of the user to retrieve.
      * @return The User object if found, or null if no user is found with the specified username.
      */
-    public User getUserByUsername(String username) {
-        List<User> users = loadUsers();
-        for (User user : users) {
-            if (user.getUsername().equals(username)) {
-                return user; // Return the user if found
+    public synchronized User getUserByUsername(String username) {
+        refreshIfChanged();
+        return users.get(username);
+    }
+
+    /**
+     * @return true if at least one user has the ADMIN role.
+     */
+    public synchronized boolean hasAdmin() {
+        refreshIfChanged();
+        for (User user : users.values()) {
+            if (user.getRole() == Role.ADMIN) {
+                return true;
             }
         }
-        return null; // Return null if user not found
+        return false;
+    }
+
+    // ---------------------------
+    // Changes (written through to the file)
+    // ---------------------------
+
+    /**
+     * Adds a new user to the repository and saves the users.
+     *
+     * @param user The User object to add to the repository.
+     * @throws IllegalArgumentException If the username is already taken.
+     */
+    public synchronized void addUser(User user) {
+        refreshIfChanged();
+        if (users.containsKey(user.getUsername())) {
+            throw new IllegalArgumentException("Username is already taken.");
+        }
+        users.put(user.getUsername(), user);
+        saveUsers();
+    }
+
+    /**
+     * Updates an existing user's password and/or role and saves the users.
+     *
+     * @param username    The username of the user to update.
+     * @param newPassword The new password for the user (null or empty to keep the current password).
+     * @param newRole     The new role for the user (or null to keep the current role).
+     * @throws IllegalArgumentException If the user does not exist.
+     */
+    public synchronized void updateUser(String username, String newPassword, Role newRole) {
+        User user = getUserByUsername(username);
+        if (user == null) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        if (newPassword != null && !newPassword.isEmpty()) {
+            String salt = PasswordUtils.generateSalt();
+            user.setPassword(PasswordUtils.hashPassword(newPassword, salt));
+            user.setSalt(salt);
+        }
+        if (newRole != null) {
+            user.setRole(newRole);
+        }
+        saveUsers();
     }
 
     /**
-     * Deletes a user by their username.
-     * The user will be removed from the in-memory list and the updated list will be saved back to the file.
+     * Deletes a user by their username and saves the users.
      *
      * @param username The username of the user to delete.
+     * @return true if the user existed.
      */
-    public void deleteUser(String username) {
-        List<User> users = loadUsers();
-        users.removeIf(user -> user.getUsername().equals(username)); // Remove user by username
-        saveUsers(users); // Save the updated list of users to the file
+    public synchronized boolean deleteUser(String username) {
+        refreshIfChanged();
+        if (users.remove(username) == null) {
+            return false;
+        }
+        saveUsers();
+        return true;
     }
 
     /**
-     * Adds a new user to the repository.
-     * The user is added to the in-memory list and the updated list is saved to the file.
+     * Replaces all users with the given list and saves them.
      *
-     * @param user The User object to add to the repository.
+     * @param newUsers The list of users to save.
+     */
+    public synchronized void saveUsers(List<User> newUsers) {
+        users.clear();
+        for (User user : newUsers) {
+            users.put(user.getUsername(), user);
+        }
+        saveUsers();
+    }
+
+    /**
+     * Saves the cached users to the .dat file, storing each user's username, hashed password, salt, and role.
+     * Call this after changing a User object returned by the repository.
+     */
+    public synchronized void saveUsers() {
+        List<String> lines = new ArrayList<>(users.size());
+        for (User user : users.values()) {
+            // Write username, hashed password, salt, and role
+            lines.add(user.getUsername() + ";" + user.getHashedPassword() + ";" + user.getSalt() + ";" + user.getRole());
+        }
+        ownWritePending = true;
+        persistence.submitFile(userFilePath, lines, e -> System.err.println("Error saving users: " + e.getMessage()));
+    }
+
+    // ---------------------------
+    // File Handling
+    // ---------------------------
+
+    /**
+     * Reloads the users if the file's modification time or size differs from the last load or save.
+     * After a save of our own, the new file is recorded without being read again.
+     */
+    private void refreshIfChanged() {
+        if (ownWritePending) {
+            persistence.flush(); // Wait for our own save so it is not mistaken for an external change
+            ownWritePending = false;
+            stamp();
+            return;
+        }
+        FileTime modifiedTime = null;
+        long size = -1;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path(), BasicFileAttributes.class);
+            modifiedTime = attributes.lastModifiedTime();
+            size = attributes.size();
+        } catch (IOException e) {
+            // A missing or unreadable file is compared as "no file"
+        }
+        if (size != loadedSize || !Objects.equals(modifiedTime, loadedModifiedTime)) {
+            reload();
+        }
+    }
+
+    /**
+     * Reads the users from the .dat file into the cache.
+     * The file is expected to contain users in the format: username;hashedPassword;salt;role.
      */
-    public void addUser(User user) {
-        List<User> users = loadUsers();
-        users.add(user); // Add the new user to the list
-        saveUsers(users); // Save the updated list of users to the file
+    private void reload() {
+        stamp(); // Taken before reading, so a change during the read is picked up next time
+        users.clear();
+        try (BufferedReader reader = new BufferedReader(new FileReader(userFilePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(";");
+                if (parts.length == 4) {
+                    String username = parts[0];
+                    String hashedPassword = parts[1];
+                    String salt = parts[2];
+                    Role role = Role.valueOf(parts[3].toUpperCase());
+                    users.put(username, new User(username, hashedPassword, salt, role));
+                }
+            }
+        } catch (FileNotFoundException e) {
+            System.out.println("User file not found. Starting with an empty user database.");
+        } catch (IOException e) {
+            System.err.println("Error loading users: " + e.getMessage());
+        }
+    }
+
+    private void stamp() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path(), BasicFileAttributes.class);
+            loadedModifiedTime = attributes.lastModifiedTime();
+            loadedSize = attributes.size();
+        } catch (IOException e) {
+            loadedModifiedTime = null; // No file yet
+            loadedSize = -1;
+        }
+    }
+
+    private Path path() {
+        return Paths.get(userFilePath);
     }
 }
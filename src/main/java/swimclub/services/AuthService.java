@@ -1,6 +1,7 @@
 package swimclub.services;
 
 import swimclub.models.Role;
+import swimclub.models.Session;
 import swimclub.models.User;
 import swimclub.repositories.AuthRepository;
 import swimclub.utilities.PasswordUtils;
@@ -8,14 +9,25 @@ import swimclub.utilities.PasswordUtils;
 /**
  * Service class for handling authentication and user management.
  * Provides methods for authenticating users, registering new users, and managing roles.
+ * A login starts a session (see {@link SessionManager}); no password is kept after it has been verified.
  */
 public class AuthService {
     private final AuthRepository authRepository;
-    private String loggedInUsername;
-    private String loggedInPassword;
+    private final SessionManager sessionManager; // Sessions started by login
 
     public AuthService(AuthRepository authRepository) {
+        this(authRepository, new SessionManager());
+    }
+
+    /**
+     * Constructs an AuthService with the given session manager.
+     *
+     * @param authRepository The repository holding the users.
+     * @param sessionManager The session manager used for logins.
+     */
+    public AuthService(AuthRepository authRepository, SessionManager sessionManager) {
         this.authRepository = authRepository;
+        this.sessionManager = sessionManager;
     }
 
     /**
@@ -32,12 +44,70 @@ public class AuthService {
         if (user == null) {
             throw new IllegalArgumentException("Invalid username or password.");
         }
+        return user;
+    }
+
+    /**
+     * Verifies a user's password and starts a session.
+     *
+     * @param username The username of the user.
+     * @param password The password of the user.
+     * @return The session token.
+     * @throws IllegalArgumentException if authentication fails.
+     */
+    public String login(String username, String password) {
+        return startSession(authenticate(username, password));
+    }
 
-        // Store the logged-in user's details
-        loggedInUsername = username;
-        loggedInPassword = password;
+    /**
+     * Starts a session for a user whose password has just been verified with {@link #authenticate}.
+     *
+     * @param user The authenticated user.
+     * @return The session token.
+     */
+    public String startSession(User user) {
+        return sessionManager.create(user);
+    }
 
-        return user;
+    /**
+     * Ends a session.
+     *
+     * @param sessionToken The session token; unknown tokens are ignored.
+     */
+    public void logout(String sessionToken) {
+        sessionManager.invalidate(sessionToken);
+    }
+
+    /**
+     * Ends every session of a user.
+     *
+     * @param username The username.
+     */
+    public void endSessions(String username) {
+        sessionManager.invalidateUser(username);
+    }
+
+    /**
+     * Validates a session token.
+     *
+     * @param sessionToken The session token.
+     * @return The session.
+     * @throws IllegalArgumentException if the session is unknown or expired.
+     */
+    public Session getSession(String sessionToken) {
+        return sessionManager.validate(sessionToken);
+    }
+
+    /**
+     * Validates a session token and checks that the user had the given role at login.
+     *
+     * @param sessionToken The session token.
+     * @param role         The required role.
+     * @return The session.
+     * @throws IllegalArgumentException if the session is invalid or the user does not have the role.
+     */
+    public Session requireRole(String sessionToken, Role role) {
+        return sessionManager.require(sessionToken, role);
     }
 
     /**
@@ -77,25 +147,9 @@ public class AuthService {
      * @throws IllegalArgumentException if the user doesn't exist.
      */
     public void updateUser(String username, String newPassword, Role newRole) {
-        User user = authRepository.getUserByUsername(username);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found.");
-        }
-
-        // Update password if a new one is provided
-        if (newPassword != null && !newPassword.isEmpty()) {
-            String salt = PasswordUtils.generateSalt();
-            String hashedPassword = PasswordUtils.hashPassword(newPassword, salt);
-            user = new User(username, hashedPassword, salt, user.getRole()); // Create a new User with updated password
-        }
-
-        // Update role if a new one is provided
-        if (newRole != null) {
-            user = new User(user.getUsername(), user.getHashedPassword(), user.getSalt(), newRole); // Update the role
-        }
-
-        // Save updated user information in the repository
-        authRepository.saveUsers();
+        // Hash the new password if one is provided, apply the role, and save the user
+        authRepository.updateUser(username, newPassword, newRole);
+        sessionManager.invalidateUser(username); // The role captured by the user's sessions may be outdated
     }
 
     /**
@@ -111,16 +165,7 @@ public class AuthService {
 
         // Remove the user from the repository
         authRepository.deleteUser(username); // Call the repository method to delete the user
+        sessionManager.invalidateUser(username);
         System.out.println("User '" + username + "' has been deleted.");
     }
-
-    // Getter for logged-in username
-    public String getLoggedInUsername() {
-        return loggedInUsername;
-    }
-
-    // Getter for logged-in password
-    public String getLoggedInPassword() {
-        return loggedInPassword;
-    }
 }
@@ -0,0 +1,184 @@
+package swimclub.services;
+
+import swimclub.repositories.MemberFeeCounters.FeeBand;
+import swimclub.utilities.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of an annual billing run: how many members were billed, how many were skipped and why, and the
+ * billed amounts per fee band. A dry run fills in the same figures without creating any payments.
+ */
+public class BillingReport {
+    private static final FeeBand[] BANDS = FeeBand.values();
+
+    private final LocalDate billingDate;
+    private final boolean dryRun;
+    private final int[] billedPerBand = new int[BANDS.length];    // Members billed, indexed by band ordinal
+    private final long[] amountPerBand = new long[BANDS.length];  // Amount billed in øre, indexed by band ordinal
+    private int membersConsidered;
+    private int skippedAlreadyPending;
+    private int skippedNoFee;
+    private int firstPaymentId = -1;  // First ID of the reserved block, -1 if no payments were created
+    private int lastPaymentId = -1;
+    private long elapsedMillis;
+
+    BillingReport(LocalDate billingDate, boolean dryRun) {
+        this.billingDate = billingDate;
+        this.dryRun = dryRun;
+    }
+
+    // ---------------------------
+    // Recording (used by the billing run)
+    // ---------------------------
+
+    void considered(int memberCount) {
+        membersConsidered = memberCount;
+    }
+
+    void billed(FeeBand band, long feeOre) {
+        billedPerBand[band.ordinal()]++;
+        amountPerBand[band.ordinal()] += feeOre;
+    }
+
+    void skippedAlreadyPending() {
+        skippedAlreadyPending++;
+    }
+
+    void skippedNoFee() {
+        skippedNoFee++;
+    }
+
+    void paymentIds(int first, int last) {
+        firstPaymentId = first;
+        lastPaymentId = last;
+    }
+
+    void finished(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // ---------------------------
+    // Results
+    // ---------------------------
+
+    /**
+     * @return The date the payments are dated.
+     */
+    public LocalDate getBillingDate() {
+        return billingDate;
+    }
+
+    /**
+     * @return true if nothing was created or changed.
+     */
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * @return The number of members looked at.
+     */
+    public int getMembersConsidered() {
+        return membersConsidered;
+    }
+
+    /**
+     * @return The number of members billed (or that would be billed in a dry run).
+     */
+    public int getMembersBilled() {
+        int billed = 0;
+        for (int count : billedPerBand) {
+            billed += count;
+        }
+        return billed;
+    }
+
+    /**
+     * @param band The fee band.
+     * @return The number of members billed in that band.
+     */
+    public int getMembersBilled(FeeBand band) {
+        return billedPerBand[band.ordinal()];
+    }
+
+    /**
+     * @return The number of members skipped because they already had a pending payment.
+     */
+    public int getSkippedAlreadyPending() {
+        return skippedAlreadyPending;
+    }
+
+    /**
+     * @return The number of members skipped because their fee is zero (no membership status).
+     */
+    public int getSkippedNoFee() {
+        return skippedNoFee;
+    }
+
+    /**
+     * @return The total amount billed, in øre.
+     */
+    public long getTotalBilled() {
+        return Money.sum(amountPerBand);
+    }
+
+    /**
+     * @param band The fee band.
+     * @return The amount billed in that band, in øre.
+     */
+    public long getTotalBilled(FeeBand band) {
+        return amountPerBand[band.ordinal()];
+    }
+
+    /**
+     * @return The first payment ID created, or -1 if no payments were created.
+     */
+    public int getFirstPaymentId() {
+        return firstPaymentId;
+    }
+
+    /**
+     * @return The last payment ID created, or -1 if no payments were created.
+     */
+    public int getLastPaymentId() {
+        return lastPaymentId;
+    }
+
+    /**
+     * @return How long the run took, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return A multi-line summary with the totals and one line per fee band that was billed.
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder(dryRun ? "Billing run (dry run) for " : "Billing run for ")
+                .append(billingDate).append('\n')
+                .append("Members considered: ").append(membersConsidered).append('\n')
+                .append("Members billed: ").append(getMembersBilled())
+                .append(" (").append(Money.format(getTotalBilled())).append(" DKK)").append('\n')
+                .append("Skipped, already pending: ").append(skippedAlreadyPending).append('\n')
+                .append("Skipped, no fee: ").append(skippedNoFee);
+        for (FeeBand band : BANDS) {
+            int count = billedPerBand[band.ordinal()];
+            if (count > 0) {
+                summary.append("\n  ").append(band).append(": ").append(count).append(" x ")
+                        .append(Money.format(amountPerBand[band.ordinal()] / count)).append(" DKK");
+            }
+        }
+        if (firstPaymentId >= 0) {
+            summary.append("\nPayment IDs: ").append(firstPaymentId).append('-').append(lastPaymentId);
+        }
+        summary.append("\nTime: ").append(elapsedMillis).append(" ms");
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+}
@@ -12,6 +12,8 @@ import java.util.List;
  * This class provides functionality to register, update, delete, search, and manage member-related actions.
  */
 public class MemberService {
+    private static final int FUZZY_SEARCH_LIMIT = 10; // Suggestions shown when no member matches exactly
+
     private final MemberRepository repository;  // Repository to manage member data
 
     /**
@@ -149,13 +151,19 @@ public class MemberService {
 
     /**
      * Searches for members by ID, name, or phone number.
+     * If nothing matches, the closest names, emails and addresses are returned instead, so a misspelled
+     * query still finds the member.
      *
      * @param query The search query.
      * @return A list of members matching the query.
      */
     public List<Member> searchMembers(String query) {
         // Delegate to repository to search members by the provided query
-        return repository.search(query);
+        List<Member> results = repository.search(query);
+        if (results.isEmpty()) {
+            results = repository.fuzzySearch(query, FUZZY_SEARCH_LIMIT); // Fall back to typo-tolerant matching
+        }
+        return results;
     }
 
     /**
@@ -171,11 +179,8 @@ public class MemberService {
             return;
         }
 
-        // Assuming you have a PaymentRepository to fetch payments (not implemented here)
-        // List<Payment> payments = PaymentRepository.findPaymentsByMemberId(memberId); // Fetch payments from the repository
-
+        // The payment repository attaches each payment to its member when it is loaded or saved
         System.out.println("Displaying payments for member ID: " + memberId);
-        // Assuming that the PaymentRepository is implemented elsewhere:
-        // payments.forEach(payment -> System.out.println(payment));
+        member.getPayments().forEach(payment -> System.out.println(payment));
     }
 }
\ No newline at end of file
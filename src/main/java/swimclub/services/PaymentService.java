@@ -1,24 +1,34 @@
 package swimclub.services;
 
 import swimclub.models.Member;
-import swimclub.models.MembershipStatus;
 import swimclub.models.Payment;
 import swimclub.models.PaymentStatus;
+import swimclub.models.Reminder;
+import swimclub.repositories.MemberFeeCounters;
+import swimclub.repositories.MemberFeeCounters.FeeBand;
 import swimclub.repositories.MemberRepository;
 import swimclub.repositories.PaymentRepository;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.Money;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Service class for handling payment-related operations.
+ * Amounts are calculated in øre (see {@link Money}); methods returning {@code double} give kroner for display.
  */
 public class PaymentService {
+    private static final long PASSIVE_FEE = 500 * Money.ORE_PER_KRONE; // Fixed fee for passive members, in øre
+    private static final long ALREADY_PENDING = -1; // Marks members a billing run skips because they owe already
+    public static final int DEFAULT_REMINDER_DAYS = 14; // Days until a reminder without a due date is due
+
     private final PaymentRepository paymentRepository; // Repository for payment data
-    private double juniorRate; // Rate for junior members
-    private double seniorRate; // Rate for senior members
+    private long juniorRate; // Rate for junior members, in øre
+    private long seniorRate; // Rate for senior members, in øre
     private final FileHandler fileHandler; // File handler to read/write payment rates
 
     /**
@@ -39,24 +49,36 @@ public class PaymentService {
      * The fee is determined by the member's status (Active or Passive) and their age.
      *
      * @param member The member whose membership fee is being calculated
-     * @return The calculated membership fee
+     * @return The calculated membership fee in kroner
      */
     public double calculateMembershipFee(Member member) {
-        if (member.getMembershipStatus() == MembershipStatus.PASSIVE) {
-            return 500; // Passive members pay a fixed fee of 500
-        }
+        return Money.toKroner(calculateMembershipFeeOre(member));
+    }
 
-        if (member.getMembershipStatus() == MembershipStatus.ACTIVE) {
-            if (member.getAge() < 18) {
-                return juniorRate; // Active members under 18 pay the junior rate
-            } else if (member.getAge() < 60) {
-                return seniorRate; // Active members aged 18-59 pay the senior rate
-            } else {
-                return seniorRate * 0.75; // Active members 60+ receive a 25% discount on senior rate
-            }
-        }
+    /**
+     * Calculates the annual membership fee of a member in øre.
+     *
+     * @param member The member whose membership fee is being calculated
+     * @return The calculated membership fee in øre
+     */
+    public long calculateMembershipFeeOre(Member member) {
+        return getFee(FeeBand.of(member));
+    }
 
-        return 0; // Default case (unlikely to occur if member status is valid)
+    /**
+     * Gets the annual membership fee paid by every member of a fee band at the current rates.
+     *
+     * @param band The fee band
+     * @return The membership fee of the band in øre
+     */
+    public long getFee(FeeBand band) {
+        switch (band) {
+            case PASSIVE: return PASSIVE_FEE;                       // Passive members pay a fixed fee of 500
+            case JUNIOR: return juniorRate;                         // Active members under 18 pay the junior rate
+            case SENIOR: return seniorRate;                         // Active members aged 18-59 pay the senior rate
+            case VETERAN: return Money.scale(seniorRate, 75, 100);  // Active members 60+ receive a 25% discount on senior rate
+            default: return 0;                                      // Default case (unlikely to occur if member status is valid)
+        }
     }
 
     /**
@@ -64,13 +86,14 @@ public class PaymentService {
      * This includes verifying the payment amount, creating a payment object, updating the member's payment status, and saving to the file.
      *
      * @param memberId           The ID of the member making the payment
-     * @param amount             The payment amount
+     * @param amount             The payment amount in kroner, rounded to whole øre
      * @param memberRepository   Repository to find the member by ID
      * @param paymentFileHandler File handler to save payments
      * @param filePath           Path to the file where payments are stored
      */
     public void registerPayment(int memberId, double amount, MemberRepository memberRepository, FileHandler paymentFileHandler, String filePath) {
-        if (amount <= 0) {
+        long amountOre = Money.ofKroner(amount);
+        if (amountOre <= 0) {
             System.out.println("Payment amount must be greater than 0.");
             return;
         }
@@ -88,7 +111,7 @@ public class PaymentService {
                 PaymentStatus.COMPLETE,
                 member,
                 LocalDate.now(),
-                amount
+                amountOre
         );
 
         // Save the payment to the repository (in-memory storage)
@@ -100,7 +123,74 @@ public class PaymentService {
         // Save payments to file
         savePaymentsToFile(paymentFileHandler, filePath);
 
-        System.out.println("Payment of " + amount + " registered for Member ID: " + memberId);
+        System.out.println("Payment of " + Money.format(amountOre) + " registered for Member ID: " + memberId);
+    }
+
+    /**
+     * Bills every eligible member for the year in one run: the membership fee of each member is computed in
+     * parallel, a PENDING payment is created for each eligible member with IDs from one reserved block,
+     * their payment status is set to PENDING, and payments.dat and the changed members are each written
+     * once at the end. Members that already have a pending payment in the payment ledger, or whose fee is
+     * zero, are skipped. A member's PENDING payment status alone does not skip it: new members are registered
+     * as PENDING before they have been billed.
+     *
+     * @param memberRepository   Repository holding the members to bill
+     * @param paymentFileHandler File handler to save payments
+     * @param filePath           Path to the file where payments are stored
+     * @param billingDate        The date of the created payments
+     * @param dryRun             If true, only report what would be billed; nothing is created or changed
+     * @return The report of the run
+     */
+    public BillingReport runBilling(MemberRepository memberRepository, FileHandler paymentFileHandler, String filePath,
+                                    LocalDate billingDate, boolean dryRun) {
+        long start = System.nanoTime();
+        BillingReport report = new BillingReport(billingDate, dryRun);
+        Member[] members = memberRepository.findAll().toArray(new Member[0]);
+        report.considered(members.length);
+
+        // Fees only read the member and the rates, so they are computed in parallel into a primitive array
+        long[] fees = new long[members.length];
+        IntStream.range(0, members.length).parallel().forEach(i -> fees[i] = billingFee(members[i]));
+
+        int[] eligible = new int[members.length]; // Indexes of the members to bill
+        int billed = 0;
+        for (int i = 0; i < members.length; i++) {
+            if (fees[i] == ALREADY_PENDING) {
+                report.skippedAlreadyPending();
+            } else if (fees[i] == 0) {
+                report.skippedNoFee();
+            } else {
+                report.billed(FeeBand.of(members[i]), fees[i]);
+                eligible[billed++] = i;
+            }
+        }
+
+        if (!dryRun && billed > 0) {
+            int firstId = paymentRepository.reservePaymentIds(billed); // One write of the ID high-water mark
+            Payment[] payments = new Payment[billed];
+            IntStream.range(0, billed).parallel().forEach(j -> payments[j] = new Payment(
+                    firstId + j, PaymentStatus.PENDING, members[eligible[j]], billingDate, fees[eligible[j]]));
+            paymentRepository.saveAll(Arrays.asList(payments));
+            for (Payment payment : payments) {
+                updateMemberPaymentStatus(payment.getMember(), PaymentStatus.PENDING);
+            }
+            savePaymentsToFile(paymentFileHandler, filePath); // One write for all new payments
+            memberRepository.saveMembers();                   // One write for all changed members
+            report.paymentIds(firstId, firstId + billed - 1);
+        }
+        report.finished((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * @return The fee a billing run charges the member in øre, 0 if the member has no fee, or
+     * {@link #ALREADY_PENDING} if the member's ledger already holds a pending payment.
+     */
+    private long billingFee(Member member) {
+        if (paymentRepository.getLedger(member.getMemberId()).getPendingTotal() > 0) {
+            return ALREADY_PENDING;
+        }
+        return calculateMembershipFeeOre(member);
     }
 
     /**
@@ -144,22 +234,53 @@ public class PaymentService {
 
     /**
      * Retrieves the total amount of all payments for a specific member.
+     * Read from the member's running totals, so it does not depend on the number of payments.
      *
      * @param memberId The ID of the member whose total payment is being calculated
-     * @return The total payment amount for the member
+     * @return The total payment amount for the member in kroner
      */
     public double getTotalPaymentsForMember(int memberId) {
-        List<Payment> memberPayments = paymentRepository.findPaymentsByMemberId(memberId);
-        double total = 0;
-        for (Payment payment : memberPayments) {
-            total += payment.getAmountPerYear();
-        }
-        return total;
+        return Money.toKroner(paymentRepository.getLedger(memberId).getTotal());
     }
 
     /**
-     * Retrieves a summary of payments for all members.
+     * Retrieves the amount a member has paid (completed payments).
+     *
+     * @param memberId The ID of the member
+     * @return The sum of the member's completed payments in kroner
+     */
+    public double getCompletedPaymentsForMember(int memberId) {
+        return Money.toKroner(paymentRepository.getLedger(memberId).getCompletedTotal());
+    }
+
+    /**
+     * Retrieves the amount of a member's pending payments.
+     *
+     * @param memberId The ID of the member
+     * @return The sum of the member's pending payments in kroner
+     */
+    public double getPendingPaymentsForMember(int memberId) {
+        return Money.toKroner(paymentRepository.getLedger(memberId).getPendingTotal());
+    }
+
+    /**
+     * Retrieves a summary of payments for all members from the repository's fee counters.
+     * The counters are maintained as members change, so the summary costs the same for any number of
+     * members and always uses the current rates.
+     *
+     * @param counters The member counts per fee band and payment status
+     * @return A string representing the payment summary
+     */
+    public String getPaymentSummary(MemberFeeCounters counters) {
+        return formatSummary(counters.getCount(PaymentStatus.COMPLETE), counters.getCount(PaymentStatus.PENDING),
+                getExpectedTotal(counters, PaymentStatus.COMPLETE), getExpectedTotal(counters, null));
+    }
+
+    /**
+     * Retrieves a summary of payments for all members by recomputing it from the member list.
      * This includes the count of paid and pending members and the total amount of payments collected.
+     * It makes full passes over the members; use {@link #getPaymentSummary(MemberFeeCounters)} for
+     * regular reads and this method to verify the counters.
      *
      * @param memberList The list of all members
      * @return A string representing the payment summary
@@ -167,17 +288,67 @@ public class PaymentService {
     public String getPaymentSummary(List<Member> memberList) {
         int paidCount = getMembersPaidList(memberList).size();
         int pendingCount = getMembersPendingList(memberList).size();
-        double totalAmount = 0;
+        long totalAmount = 0;
+        long expectedAmount = 0;
 
         for (Member member : memberList) {
+            if (member.getPaymentStatus() == null) {
+                continue;
+            }
+            long fee = calculateMembershipFeeOre(member);
+            expectedAmount += fee;
             if (member.getPaymentStatus() == PaymentStatus.COMPLETE) {
-                totalAmount += calculateMembershipFee(member);
+                totalAmount += fee;
             }
         }
 
+        return formatSummary(paidCount, pendingCount, totalAmount, expectedAmount);
+    }
+
+    /**
+     * Checks the fee counters against a full recompute over the member list.
+     *
+     * @param counters   The member counts per fee band and payment status
+     * @param memberList The list of all members
+     * @return true if both give the same summary
+     */
+    public boolean verifyPaymentSummary(MemberFeeCounters counters, List<Member> memberList) {
+        return getPaymentSummary(counters).equals(getPaymentSummary(memberList));
+    }
+
+    /**
+     * Calculates the total of the membership fees of the members with a payment status, at the current rates.
+     *
+     * @param counters The member counts per fee band and payment status
+     * @param status   The payment status, or null for all members
+     * @return The sum of the fees in øre
+     */
+    public long getExpectedTotal(MemberFeeCounters counters, PaymentStatus status) {
+        long total = 0;
+        for (FeeBand band : FeeBand.values()) {
+            int count = status == null ? counters.getCount(band) : counters.getCount(band, status);
+            total += count * getFee(band);
+        }
+        return total;
+    }
+
+    /**
+     * Calculates the total of the membership fees of one fee band with a payment status, at the current rates.
+     *
+     * @param counters The member counts per fee band and payment status
+     * @param band     The fee band
+     * @param status   The payment status
+     * @return The sum of the fees in øre
+     */
+    public long getExpectedTotal(MemberFeeCounters counters, FeeBand band, PaymentStatus status) {
+        return counters.getCount(band, status) * getFee(band);
+    }
+
+    private static String formatSummary(int paidCount, int pendingCount, long totalAmount, long expectedAmount) {
         return "Total Members Paid: " + paidCount +
                 "\nTotal Members Pending: " + pendingCount +
-                "\nTotal Payments Collected: " + totalAmount + " DKK";
+                "\nTotal Payments Collected: " + Money.format(totalAmount) + " DKK" +
+                "\nTotal Payments Expected: " + Money.format(expectedAmount) + " DKK";
     }
 
     /**
@@ -213,26 +384,70 @@ public class PaymentService {
     }
 
     /**
-     * Sets a payment reminder for a member.
+     * Sets a payment reminder for a member, due {@link #DEFAULT_REMINDER_DAYS} days from today.
      *
      * @param memberId        The ID of the member to set the reminder for
      * @param reminderMessage The reminder message
      */
     public void setPaymentReminder(int memberId, String reminderMessage) {
-        String reminder = "Reminder for Member ID: " + memberId + ": " + reminderMessage;
-        paymentRepository.saveReminder(reminder);
-        System.out.println("Payment reminder set for Member ID: " + memberId);
+        setPaymentReminder(memberId, reminderMessage, LocalDate.now().plusDays(DEFAULT_REMINDER_DAYS));
     }
 
     /**
-     * Retrieves all payment reminders.
+     * Sets a payment reminder for a member, due on the given date.
+     * An existing reminder for the member on the same date is replaced.
+     *
+     * @param memberId        The ID of the member to set the reminder for
+     * @param reminderMessage The reminder message
+     * @param dueDate         The date the reminder is due
+     */
+    public void setPaymentReminder(int memberId, String reminderMessage, LocalDate dueDate) {
+        paymentRepository.saveReminder(new Reminder(memberId, dueDate, reminderMessage));
+        System.out.println("Payment reminder set for Member ID: " + memberId + " (due " + dueDate + ")");
+    }
+
+    /**
+     * Sets a reminder for every member with a pending payment, in one pass and with one write to the
+     * reminder file. The pending members come from the member repository's payment status index; members
+     * that already have a reminder are skipped.
+     *
+     * @param memberRepository The repository holding the members.
+     * @param template         The message template, filled in per member.
+     * @param dueDate          The due date of the new reminders.
+     * @return A report with the number of reminders created and skipped.
+     */
+    public ReminderRunReport setRemindersForPendingMembers(MemberRepository memberRepository,
+                                                           ReminderTemplate template, LocalDate dueDate) {
+        long start = System.nanoTime();
+        List<Member> pending = memberRepository.findByPaymentStatus(PaymentStatus.PENDING);
+        List<Reminder> batch = new ArrayList<>(pending.size());
+        for (Member member : pending) {
+            batch.add(new Reminder(member.getMemberId(), dueDate,
+                    template.render(member, calculateMembershipFeeOre(member), dueDate)));
+        }
+        int created = paymentRepository.saveRemindersForMembersWithout(batch).size();
+        return new ReminderRunReport(dueDate, pending.size(), created, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Retrieves all payment reminders, earliest due date first.
      *
      * @return A list of payment reminders
      */
-    public List<String> getAllReminders() {
+    public List<Reminder> getAllReminders() {
         return paymentRepository.getReminders();
     }
 
+    /**
+     * Retrieves the payment reminders of a member, earliest due date first.
+     *
+     * @param memberId The ID of the member
+     * @return A list of the member's payment reminders
+     */
+    public List<Reminder> getRemindersForMember(int memberId) {
+        return paymentRepository.getRemindersForMember(memberId);
+    }
+
     /**
      * Removes a specific reminder for a member.
      *
@@ -240,8 +455,21 @@ public class PaymentService {
      * @param message  The message of the reminder to remove
      */
     public void removeReminder(int memberId, String message) {
-        String reminder = "Reminder for Member ID: " + memberId + ": " + message;
-        if (paymentRepository.removeReminder(reminder)) {
+        reportReminderRemoval(memberId, paymentRepository.removeReminder(memberId, message));
+    }
+
+    /**
+     * Removes the reminder of a member due on a given date.
+     *
+     * @param memberId The ID of the member whose reminder is to be removed
+     * @param dueDate  The due date of the reminder to remove
+     */
+    public void removeReminder(int memberId, LocalDate dueDate) {
+        reportReminderRemoval(memberId, paymentRepository.removeReminder(memberId, dueDate));
+    }
+
+    private void reportReminderRemoval(int memberId, boolean removed) {
+        if (removed) {
             System.out.println("Reminder removed for Member ID: " + memberId);
         } else {
             System.out.println("No such reminder found for Member ID: " + memberId);
@@ -259,20 +487,20 @@ public class PaymentService {
     /**
      * Setter to update the junior membership rate.
      *
-     * @param juniorRate The new junior rate
+     * @param juniorRate The new junior rate in kroner, rounded to whole øre
      */
     public void setJuniorRate(double juniorRate) {
-        this.juniorRate = juniorRate;
+        this.juniorRate = Money.ofKroner(juniorRate);
         saveRatestoFile(); // Save the updated rates to file
     }
 
     /**
      * Setter to update the senior membership rate.
      *
-     * @param seniorRate The new senior rate
+     * @param seniorRate The new senior rate in kroner, rounded to whole øre
      */
     public void setSeniorRate(double seniorRate) {
-        this.seniorRate = seniorRate;
+        this.seniorRate = Money.ofKroner(seniorRate);
         saveRatestoFile(); // Save the updated rates to file
     }
 
@@ -287,7 +515,7 @@ public class PaymentService {
      * Updates the payment rates by loading them from the paymentRates.dat file.
      */
     public void updatePaymentRatesFromFile() {
-        double[] rates = fileHandler.loadPaymentRates();
+        long[] rates = fileHandler.loadPaymentRates();
         this.juniorRate = rates[0];
         this.seniorRate = rates[1];
     }
@@ -295,12 +523,12 @@ public class PaymentService {
     /**
      * Retrieves the current payment rates for junior and senior memberships.
      *
-     * @return An array containing the junior and senior rates
+     * @return An array containing the junior and senior rates in kroner
      */
     public double[] getPaymentRates() {
         double[] paymentRates = new double[2];
-        paymentRates[0] = this.juniorRate;
-        paymentRates[1] = this.seniorRate;
+        paymentRates[0] = Money.toKroner(this.juniorRate);
+        paymentRates[1] = Money.toKroner(this.seniorRate);
         return paymentRates;
     }
 }
\ No newline at end of file
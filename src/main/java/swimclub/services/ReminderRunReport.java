@@ -0,0 +1,72 @@
+package swimclub.services;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of a bulk reminder run: how many pending members were found, how many reminders were created and
+ * how many members were skipped because they already had a reminder.
+ */
+public class ReminderRunReport {
+    private final LocalDate dueDate;
+    private final int pendingMembers;
+    private final int created;
+    private final long elapsedMillis;
+
+    ReminderRunReport(LocalDate dueDate, int pendingMembers, int created, long elapsedMillis) {
+        this.dueDate = dueDate;
+        this.pendingMembers = pendingMembers;
+        this.created = created;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return The due date of the created reminders.
+     */
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * @return The number of members with a pending payment.
+     */
+    public int getPendingMembers() {
+        return pendingMembers;
+    }
+
+    /**
+     * @return The number of reminders created.
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    /**
+     * @return The number of pending members skipped because they already had a reminder.
+     */
+    public int getSkippedExisting() {
+        return pendingMembers - created;
+    }
+
+    /**
+     * @return How long the run took, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return A multi-line summary of the run.
+     */
+    public String getSummary() {
+        return "Reminders due " + dueDate + '\n'
+                + "Members with pending payments: " + pendingMembers + '\n'
+                + "Reminders created: " + created + '\n'
+                + "Skipped, reminder already set: " + getSkippedExisting() + '\n'
+                + "Time: " + elapsedMillis + " ms";
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+}
@@ -0,0 +1,135 @@
+package swimclub.services;
+
+import swimclub.models.Reminder;
+import swimclub.repositories.PaymentRepository;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fires payment reminders once they are due.
+ * A background thread checks the reminder queue at a fixed interval and hands the reminders due today or
+ * earlier to the notice handler in batches. A batch is removed from the store only after the handler has
+ * returned, so a failing handler leaves its reminders to be fired again at the next check. Each check only
+ * looks at the head of the time-ordered queue, so reminders that are not yet due cost nothing.
+ */
+public class ReminderScheduler implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(ReminderScheduler.class.getName());
+    public static final long DEFAULT_CHECK_INTERVAL_MINUTES = 60;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final PaymentRepository paymentRepository;
+    private final Consumer<List<Reminder>> noticeHandler; // Sends the overdue notices for a batch
+    private final Clock clock;                            // Decides what "today" is
+    private final long checkIntervalMinutes;
+    private final int batchSize;
+    private ScheduledExecutorService executor;            // Null until started, guarded by this
+
+    /**
+     * Creates a scheduler that checks every hour and fires at most {@link #DEFAULT_BATCH_SIZE} reminders per batch.
+     *
+     * @param paymentRepository The repository holding the reminders.
+     * @param noticeHandler     Receives each batch of due reminders.
+     */
+    public ReminderScheduler(PaymentRepository paymentRepository, Consumer<List<Reminder>> noticeHandler) {
+        this(paymentRepository, noticeHandler, Clock.systemDefaultZone(), DEFAULT_CHECK_INTERVAL_MINUTES, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param paymentRepository    The repository holding the reminders.
+     * @param noticeHandler        Receives each batch of due reminders.
+     * @param clock                The clock deciding which reminders are due.
+     * @param checkIntervalMinutes Minutes between checks.
+     * @param batchSize            The largest number of reminders handed to the handler at once.
+     * @throws IllegalArgumentException If the interval or batch size is not positive.
+     */
+    public ReminderScheduler(PaymentRepository paymentRepository, Consumer<List<Reminder>> noticeHandler,
+                             Clock clock, long checkIntervalMinutes, int batchSize) {
+        if (checkIntervalMinutes <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Check interval and batch size must be positive.");
+        }
+        this.paymentRepository = paymentRepository;
+        this.noticeHandler = noticeHandler;
+        this.clock = clock;
+        this.checkIntervalMinutes = checkIntervalMinutes;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts the background thread. The first check runs immediately. Calling start more than once has no effect.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "reminder-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::check, 0, checkIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Fires every reminder due today or earlier, in batches.
+     * Runs on the background thread once started, but may also be called directly.
+     * If the handler throws, the exception is passed on and the batch stays in the store.
+     *
+     * @return The number of reminders fired.
+     */
+    public int fireDue() {
+        LocalDate today = LocalDate.now(clock);
+        int fired = 0;
+        List<Reminder> batch;
+        while (!(batch = paymentRepository.peekDueReminders(today, batchSize)).isEmpty()) {
+            noticeHandler.accept(batch);
+            paymentRepository.removeFiredReminders(batch); // Only once the notices have gone out
+            fired += batch.size();
+        }
+        return fired;
+    }
+
+    /**
+     * Stops the background thread. A batch being handled is finished first.
+     */
+    @Override
+    public synchronized void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    /**
+     * Scheduled check. Errors are logged so that a failing handler does not stop later checks.
+     */
+    private void check() {
+        try {
+            int fired = fireDue();
+            if (fired > 0) {
+                LOGGER.info("Fired " + fired + " payment reminder(s).");
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error firing payment reminders", e);
+        }
+    }
+}
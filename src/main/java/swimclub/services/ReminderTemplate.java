@@ -0,0 +1,101 @@
+package swimclub.services;
+
+import swimclub.models.Member;
+import swimclub.utilities.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message template for bulk payment reminders.
+ * The template text may contain the placeholders {id}, {name}, {email}, {fee} and {dueDate}. The text is
+ * split into literal parts and placeholders once, so rendering a message is a single append per part.
+ */
+public class ReminderTemplate {
+    /**
+     * Template used when the treasurer does not enter one.
+     */
+    public static final String DEFAULT_TEXT = "Payment reminder for {name}: {fee} DKK is due {dueDate}";
+
+    private enum Field { ID, NAME, EMAIL, FEE, DUE_DATE }
+
+    private final String text;
+    private final String[] literals; // Text before each placeholder, plus the text after the last one
+    private final Field[] fields;    // Placeholder following each literal except the last
+
+    /**
+     * Parses a template.
+     *
+     * @param text The template text.
+     * @throws IllegalArgumentException If the text is empty or contains an unknown or unclosed placeholder.
+     */
+    public ReminderTemplate(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Reminder template cannot be null or empty.");
+        }
+        List<String> literalParts = new ArrayList<>();
+        List<Field> fieldParts = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = text.indexOf('{', start)) >= 0) {
+            int close = text.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in reminder template: " + text);
+            }
+            literalParts.add(text.substring(start, open));
+            fieldParts.add(field(text.substring(open + 1, close)));
+            start = close + 1;
+        }
+        literalParts.add(text.substring(start));
+        this.text = text;
+        this.literals = literalParts.toArray(new String[0]);
+        this.fields = fieldParts.toArray(new Field[0]);
+    }
+
+    /**
+     * Fills in the template for a member.
+     *
+     * @param member  The member the reminder is for.
+     * @param feeOre  The fee owed, in øre.
+     * @param dueDate The date the payment is due.
+     * @return The reminder message.
+     */
+    public String render(Member member, long feeOre, LocalDate dueDate) {
+        StringBuilder message = new StringBuilder(text.length() + 32);
+        for (int i = 0; i < fields.length; i++) {
+            message.append(literals[i]);
+            switch (fields[i]) {
+                case ID -> message.append(member.getMemberId());
+                case NAME -> message.append(member.getName());
+                case EMAIL -> message.append(member.getEmail());
+                case FEE -> message.append(Money.format(feeOre));
+                case DUE_DATE -> message.append(dueDate);
+            }
+        }
+        return message.append(literals[fields.length]).toString();
+    }
+
+    /**
+     * @return The template text.
+     */
+    public String getText() {
+        return text;
+    }
+
+    private static Field field(String name) {
+        return switch (name) {
+            case "id" -> Field.ID;
+            case "name" -> Field.NAME;
+            case "email" -> Field.EMAIL;
+            case "fee" -> Field.FEE;
+            case "dueDate" -> Field.DUE_DATE;
+            default -> throw new IllegalArgumentException("Unknown placeholder in reminder template: {" + name + "}");
+        };
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
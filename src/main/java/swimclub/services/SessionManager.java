@@ -0,0 +1,182 @@
+package swimclub.services;
+
+import swimclub.models.Role;
+import swimclub.models.Session;
+import swimclub.models.User;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory login sessions.
+ * A login creates a session and hands out an opaque random token; privileged operations validate the token
+ * instead of the password. A session ends when it has not been used for the idle timeout, when it reaches
+ * the absolute timeout, on logout, or when the user is changed or deleted.
+ *
+ * Sessions are stored under the SHA-256 digest of their token, so the lookup is a single hash probe, its
+ * timing depends on the digest rather than on how much of a guessed token is right, and the tokens
+ * themselves are never kept.
+ */
+public class SessionManager {
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    public static final Duration DEFAULT_ABSOLUTE_TIMEOUT = Duration.ofHours(8);
+    private static final int TOKEN_BYTES = 32;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>(); // Token digest -> session
+    private final SecureRandom random = new SecureRandom();
+    private final Clock clock;
+    private final Duration idleTimeout;
+    private final Duration absoluteTimeout;
+
+    /**
+     * Creates a session manager with the default timeouts.
+     */
+    public SessionManager() {
+        this(Clock.systemUTC(), DEFAULT_IDLE_TIMEOUT, DEFAULT_ABSOLUTE_TIMEOUT);
+    }
+
+    /**
+     * Creates a session manager.
+     *
+     * @param clock           The clock used for expiry.
+     * @param idleTimeout     How long a session may go unused.
+     * @param absoluteTimeout How long a session may last in total.
+     * @throws IllegalArgumentException If a timeout is not positive.
+     */
+    public SessionManager(Clock clock, Duration idleTimeout, Duration absoluteTimeout) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero() || absoluteTimeout.isNegative() || absoluteTimeout.isZero()) {
+            throw new IllegalArgumentException("Session timeouts must be positive.");
+        }
+        this.clock = clock;
+        this.idleTimeout = idleTimeout;
+        this.absoluteTimeout = absoluteTimeout;
+    }
+
+    // ---------------------------
+    // Session Lifecycle
+    // ---------------------------
+
+    /**
+     * Starts a session for an authenticated user.
+     *
+     * @param user The user who logged in.
+     * @return The session token.
+     */
+    public String create(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(digest(token), new Session(user.getUsername(), user.getRole(), clock.instant()));
+        purgeExpired(); // Keeps abandoned sessions from piling up
+        return token;
+    }
+
+    /**
+     * Validates a session token and marks the session as used.
+     *
+     * @param token The session token.
+     * @return The session.
+     * @throws IllegalArgumentException If the token is unknown or the session has expired.
+     */
+    public Session validate(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("Not logged in.");
+        }
+        String key = digest(token);
+        Session session = sessions.get(key);
+        if (session == null) {
+            throw new IllegalArgumentException("Not logged in.");
+        }
+        Instant now = clock.instant();
+        if (isExpired(session, now)) {
+            sessions.remove(key, session);
+            throw new IllegalArgumentException("Session expired. Please log in again.");
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * Validates a session token and checks the role captured at login.
+     *
+     * @param token The session token.
+     * @param role  The required role.
+     * @return The session.
+     * @throws IllegalArgumentException If the session is invalid or the user does not have the role.
+     */
+    public Session require(String token, Role role) {
+        Session session = validate(token);
+        if (session.getRole() != role) {
+            throw new IllegalArgumentException("Only an " + role + " can perform this operation.");
+        }
+        return session;
+    }
+
+    /**
+     * Ends a session. Unknown tokens are ignored.
+     *
+     * @param token The session token.
+     */
+    public void invalidate(String token) {
+        if (token != null) {
+            sessions.remove(digest(token));
+        }
+    }
+
+    /**
+     * Ends every session of a user, e.g. after the user's role was changed or the user was deleted.
+     *
+     * @param username The username.
+     * @return The number of sessions ended.
+     */
+    public int invalidateUser(String username) {
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.getUsername().equals(username));
+        return before - sessions.size();
+    }
+
+    /**
+     * Removes expired sessions.
+     *
+     * @return The number of sessions removed.
+     */
+    public int purgeExpired() {
+        Instant now = clock.instant();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> isExpired(session, now));
+        return before - sessions.size();
+    }
+
+    /**
+     * @return The number of sessions, including expired sessions not yet removed.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private boolean isExpired(Session session, Instant now) {
+        return !now.isBefore(session.getLastUsed().plus(idleTimeout))
+                || !now.isBefore(session.getCreatedAt().plus(absoluteTimeout));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e); // Every JVM provides SHA-256
+        }
+    }
+}
@@ -77,7 +77,7 @@ public class TeamService {
         }
 
         // Check if the member is already in the specified team
-        if (team.getMembers().contains(member)) {
+        if (team.hasMember(member)) {
             throw new IllegalArgumentException("Member is already part of this team.");
         }
 
@@ -102,7 +102,7 @@ public class TeamService {
         // If the team is found, attempt to remove the member
         if (team != null) {
             // If the member is not part of the team, throw an exception
-            if (!team.getMembers().contains(member)) {
+            if (!team.hasMember(member)) {
                 throw new IllegalArgumentException("Member is not part of the team.");
             }
             // Remove the member from the team and set their team to null
@@ -135,7 +135,7 @@ public class TeamService {
                 System.out.println("Team Name: " + team.getTeamName() +
                         ", Team Type: " + team.getTeamType().getDisplayName() +
                         ", Coach: " + (team.getTeamCoach() != null ? team.getTeamCoach().getName() : "None") +
-                        ", Members Count: " + team.getMembers().size());
+                        ", Members Count: " + team.getMemberCount());
             }
         }
         return true;
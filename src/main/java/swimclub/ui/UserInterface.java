@@ -3,7 +3,9 @@ package swimclub.ui;
 
 import swimclub.controllers.*;
 import swimclub.models.*;
-import swimclub.utilities.PasswordUtils;
+import swimclub.services.BillingReport;
+import swimclub.services.PaymentService;
+import swimclub.services.ReminderTemplate;
 import swimclub.utilities.Validator;
 
 import java.io.Console;
@@ -242,10 +244,6 @@ public class UserInterface {
                 password = scanner.nextLine();
             }
 
-            // Hash the password and generate a salt
-            String salt = PasswordUtils.generateSalt();  // Generate salt for password hashing
-            String hashedPassword = PasswordUtils.hashPassword(password, salt);  // Hash the password
-
             // Ask for the role of the new user
             System.out.println("Select role for the new user:");
             System.out.println("1. CHAIRMAN");
@@ -274,11 +272,8 @@ public class UserInterface {
                 }
             }
 
-            // Create the new user with the selected role
-            User newUser = new User(username, hashedPassword, salt, role);
-
-            // Add the new user to the repository
-            adminController.register(username, password, role);  // Using AdminController to register the new user
+            // Add the new user to the repository; the password is hashed there
+            adminController.addUser(adminController.getSessionToken(), username, password, role);  // Only an admin session may add users
 
             // Confirm the user was created
             System.out.println("User created successfully with role: " + role);
@@ -334,7 +329,7 @@ public class UserInterface {
 
         // Try to delete the user using AdminController
         try {
-            adminController.deleteUser(adminController.getLoggedInUsername(), adminController.getLoggedInPassword(), username);
+            adminController.deleteUser(adminController.getSessionToken(), username);
             System.out.println("User '" + username + "' has been deleted successfully.");
         } catch (IllegalArgumentException e) {
             System.out.println("Error: " + e.getMessage());
@@ -353,15 +348,7 @@ public class UserInterface {
         if (userToUpdate != null) {
             // Prompt for new details (e.g., password, role, etc.)
             System.out.print("Enter new password for the user (leave blank to keep current): ");
-            String newPassword = scanner.nextLine();
-
-            if (!newPassword.isEmpty()) {
-                // If a new password is provided, hash and update it
-                String salt = PasswordUtils.generateSalt();
-                String hashedPassword = PasswordUtils.hashPassword(newPassword, salt);
-                userToUpdate.setPassword(hashedPassword);
-                userToUpdate.setSalt(salt);
-            }
+            String newPassword = scanner.nextLine(); // Hashed by the repository when the update is saved
 
             System.out.println("Choose new role for the user:");
             System.out.println("1. CHAIRMAN");
@@ -383,12 +370,9 @@ public class UserInterface {
                 }
             }
 
-            // Update user role
-            userToUpdate.setRole(role);
-
             // Save the updated user details back to the repository
             try {
-                adminController.updateUser(adminController.getLoggedInUsername(), adminController.getLoggedInPassword(), username, newPassword, role);
+                adminController.updateUser(adminController.getSessionToken(), username, newPassword, role);
                 System.out.println("User '" + username + "' has been updated successfully.");
             } catch (IllegalArgumentException e) {
                 System.out.println("Error: " + e.getMessage());
@@ -1055,10 +1039,11 @@ public class UserInterface {
             System.out.println("4. View Payment Summary");
             System.out.println("5. Payment Reminder Manager");
             System.out.println("6. Update Payment Rates");
-            System.out.println("7. Go Back to Login");  // Option to log out
-            System.out.println("8. Exit");    // Option to exit the program
+            System.out.println("7. Run Annual Billing");
+            System.out.println("8. Go Back to Login");  // Option to log out
+            System.out.println("9. Exit");    // Option to exit the program
 
-            System.out.print("Please choose an option (1-8): ");
+            System.out.print("Please choose an option (1-9): ");
 
             try {
                 paymentOption = Integer.parseInt(scanner.nextLine()); // Read the user's input
@@ -1070,24 +1055,42 @@ public class UserInterface {
                     case 4 -> paymentController.viewPaymentSummary();  // Show payment summary
                     case 5 -> managePaymentReminders();  // Manage payment reminders
                     case 6 -> managePaymentRates();  // Update payment rates
-                    case 7 -> {
+                    case 7 -> runAnnualBilling();  // Bill every eligible member
+                    case 8 -> {
                         System.out.println("Logging out..."); // Log out the user
                         returnToLogin();  // Return to the login screen
                     }
-                    case 8 -> {
+                    case 9 -> {
                         System.out.println("Exiting program...");  // Exit the program
                         exitProgram();  // Exit the program
                     }
                     default -> System.out.println("Invalid option. Please choose a valid number.");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a number between 1 and 8.");
+                System.out.println("Invalid input. Please enter a number between 1 and 9.");
                 paymentOption = -1;  // Ensure loop continues on invalid input
             } catch (Exception e) {
                 System.err.println("An error occurred: " + e.getMessage());
                 paymentOption = -1;  // Ensure loop continues if an exception is caught
             }
-        } while (paymentOption != 7 && paymentOption != 8);  // Exit loop when option 7 (Log Out) or option 8 (Exit) is selected
+        } while (paymentOption != 8 && paymentOption != 9);  // Exit loop when option 8 (Log Out) or option 9 (Exit) is selected
+    }
+
+    /**
+     * Shows what an annual billing run would create and runs it after the user confirms.
+     */
+    private void runAnnualBilling() {
+        BillingReport preview = paymentController.runBilling(true); // Dry run first
+        if (preview.getMembersBilled() == 0) {
+            System.out.println("No members to bill.");
+            return;
+        }
+        System.out.print("Create these " + preview.getMembersBilled() + " payments? Type \"Yes\" or \"No\": ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+            paymentController.runBilling(false);
+        } else {
+            System.out.println("Billing run cancelled.");
+        }
     }
 
 
@@ -1207,9 +1210,10 @@ public class UserInterface {
         System.out.println("2. View All Reminders");
         System.out.println("3. Remove Specific Reminder");
         System.out.println("4. Clear All Reminders");
-        System.out.println("5. Exit to Payment Management");
+        System.out.println("5. Remind All Pending Members");
+        System.out.println("6. Exit to Payment Management");
 
-        System.out.print("Please choose an option (1-5): ");
+        System.out.print("Please choose an option (1-6): ");
         int reminderOption = Integer.parseInt(scanner.nextLine());
 
         switch (reminderOption) {
@@ -1217,7 +1221,8 @@ public class UserInterface {
             case 2 -> viewAllReminders();
             case 3 -> removePaymentReminder();
             case 4 -> clearAllReminders();
-            case 5 -> {
+            case 5 -> remindAllPendingMembers();
+            case 6 -> {
                 return;  // Exit to Payment Management
             }
             default -> System.out.println("Invalid option. Please choose a valid number.");
@@ -1232,8 +1237,13 @@ public class UserInterface {
         int memberId = Integer.parseInt(scanner.nextLine());
         System.out.print("Enter Reminder Message: ");
         String reminderMessage = scanner.nextLine();
+        LocalDate dueDate = promptReminderDueDate("Enter Due Date (dd-MM-yyyy, blank for "
+                + PaymentService.DEFAULT_REMINDER_DAYS + " days from today): ");
+        if (dueDate == null) {
+            dueDate = LocalDate.now().plusDays(PaymentService.DEFAULT_REMINDER_DAYS);
+        }
 
-        paymentController.setPaymentReminder(memberId, reminderMessage);
+        paymentController.setPaymentReminder(memberId, reminderMessage, dueDate);
         System.out.println("Reminder added successfully for Member ID: " + memberId);
     }
 
@@ -1246,16 +1256,64 @@ public class UserInterface {
     }
 
     /**
-     * Removes a specific reminder for a member.
+     * Removes a specific reminder for a member, identified by its due date.
      */
     private void removePaymentReminder() {
         System.out.print("Enter Member ID for the reminder to remove: ");
         int memberId = Integer.parseInt(scanner.nextLine());
-        System.out.print("Enter Reminder Message to remove: ");
-        String reminderMessage = scanner.nextLine();
+        paymentController.viewRemindersForMember(memberId);
+        LocalDate dueDate = promptReminderDueDate("Enter Due Date of the reminder to remove (dd-MM-yyyy): ");
+        if (dueDate == null) {
+            System.out.println("Operation cancelled.");
+            return;
+        }
 
-        paymentController.removePaymentReminder(memberId, reminderMessage);
-        System.out.println("Reminder removed successfully for Member ID: " + memberId);
+        paymentController.removePaymentReminder(memberId, dueDate);
+    }
+
+    /**
+     * Reads a reminder due date in dd-MM-yyyy format, asking again until the input is valid.
+     *
+     * @param prompt The prompt to display.
+     * @return The date, or null if the input was left blank.
+     */
+    private LocalDate promptReminderDueDate(String prompt) {
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+        while (true) {
+            System.out.print(prompt);
+            String dateInput = scanner.nextLine().trim();
+            if (dateInput.isEmpty()) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(dateInput, dateTimeFormatter);
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid date format. Please use dd-MM-yyyy.");
+            }
+        }
+    }
+
+    /**
+     * Sets a reminder from a message template for every member with a pending payment.
+     */
+    private void remindAllPendingMembers() {
+        System.out.println("Placeholders: {id}, {name}, {email}, {fee}, {dueDate}");
+        System.out.print("Enter Reminder Template (blank for \"" + ReminderTemplate.DEFAULT_TEXT + "\"): ");
+        String templateText = scanner.nextLine();
+        if (templateText.trim().isEmpty()) {
+            templateText = ReminderTemplate.DEFAULT_TEXT;
+        }
+        LocalDate dueDate = promptReminderDueDate("Enter Due Date (dd-MM-yyyy, blank for "
+                + PaymentService.DEFAULT_REMINDER_DAYS + " days from today): ");
+        if (dueDate == null) {
+            dueDate = LocalDate.now().plusDays(PaymentService.DEFAULT_REMINDER_DAYS);
+        }
+
+        try {
+            paymentController.setRemindersForPendingMembers(templateText, dueDate);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid template: " + e.getMessage());
+        }
     }
 
     /**
@@ -1755,6 +1813,7 @@ public class UserInterface {
      * This method returns to the login screen by invoking the login process again.
      */
     private void returnToLogin() {
+        adminController.logout();  // End the current session before the next login
         adminMenu();  // Assuming this method is the one that handles the admin login menu
     }
 }
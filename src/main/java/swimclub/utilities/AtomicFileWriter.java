@@ -0,0 +1,172 @@
+package swimclub.utilities;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replaces text files atomically.
+ * The new content is written to a temporary file next to the target ("members.dat.tmp") and then renamed
+ * over the target, so a reader or a crash only ever sees the complete old file or the complete new file.
+ * How much is forced to disk before and after the rename is controlled by a {@link Durability} level.
+ */
+public class AtomicFileWriter {
+    /**
+     * Suffix of the temporary file written before the rename.
+     */
+    public static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Suffix under which {@link #recover(String...)} keeps a temporary file it cannot vouch for.
+     */
+    public static final String UNVERIFIED_SUFFIX = ".unverified";
+
+    /**
+     * How far a save is forced to stable storage.
+     */
+    public enum Durability {
+        /**
+         * Atomic rename only. Survives a crash of the program; the operating system decides when data reaches
+         * the disk. Costs the same as an ordinary write.
+         */
+        RENAME,
+        /**
+         * Forces the temporary file to disk before the rename, so the new file is never empty or partial
+         * after a power loss.
+         */
+        FSYNC_FILE,
+        /**
+         * Also forces the directory after the rename, so the rename itself survives a power loss.
+         */
+        FSYNC_ALL;
+
+        /**
+         * Parses a durability level by name, ignoring case, e.g. from the swimclub.durability property.
+         *
+         * @param name The level name, e.g. "fsync_file".
+         * @return The durability level.
+         * @throws IllegalArgumentException If the name is not a durability level; the message lists the valid ones.
+         */
+        public static Durability parse(String name) {
+            String normalized = name == null ? "" : name.trim().toUpperCase(Locale.ROOT);
+            for (Durability durability : values()) {
+                if (durability.name().equals(normalized)) {
+                    return durability;
+                }
+            }
+            throw new IllegalArgumentException("Unknown durability level '" + name + "'; valid levels are "
+                    + Arrays.toString(values()) + ".");
+        }
+    }
+
+    private AtomicFileWriter() {
+        // Static helper
+    }
+
+    // ---------------------------
+    // Writing
+    // ---------------------------
+
+    /**
+     * Atomically replaces a file with the given lines.
+     *
+     * @param filePath   The file to replace.
+     * @param lines      The lines to write, each followed by a line separator.
+     * @param durability How far the write is forced to disk.
+     * @throws IOException If the file cannot be written; the original file is then left untouched.
+     */
+    public static void writeLines(String filePath, List<String> lines, Durability durability) throws IOException {
+        Path target = Paths.get(filePath);
+        Path temp = tempPath(target);
+
+        try (FileOutputStream out = new FileOutputStream(temp.toFile());
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+            writer.flush();
+            if (durability != Durability.RENAME) {
+                out.getFD().sync(); // Content is on disk before it becomes visible under the real name
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING); // File systems without atomic rename
+        }
+
+        if (durability == Durability.FSYNC_ALL) {
+            syncDirectory(target);
+        }
+    }
+
+    // ---------------------------
+    // Recovery
+    // ---------------------------
+
+    /**
+     * Cleans up after saves that were interrupted by a crash.
+     * A temporary file next to an existing target is a write that never got renamed; the target still holds
+     * the previous complete content, so the temporary file is deleted. If the target itself is missing, the
+     * temporary file is the only copy left, but it may have been cut off by the crash and nothing in it tells
+     * whether it is complete. It is therefore not promoted: it is renamed ("members.dat.unverified"), where the
+     * next save cannot overwrite it, and reported so it can be checked and restored by hand.
+     *
+     * @param filePaths The data files to check.
+     * @return A description of every action taken, empty if nothing had to be recovered.
+     */
+    public static List<String> recover(String... filePaths) {
+        List<String> actions = new ArrayList<>();
+        for (String filePath : filePaths) {
+            Path target = Paths.get(filePath);
+            Path temp = tempPath(target);
+            if (!Files.exists(temp)) {
+                continue;
+            }
+            try {
+                if (Files.exists(target)) {
+                    Files.delete(temp);
+                    actions.add("Discarded interrupted save of " + filePath);
+                } else {
+                    Path unverified = target.resolveSibling(target.getFileName() + UNVERIFIED_SUFFIX);
+                    Files.move(temp, unverified); // Fails rather than replacing an older unverified copy
+                    actions.add(filePath + " is missing; its interrupted save may be incomplete and was kept as "
+                            + unverified + ". Check it and rename it to " + filePath + " to restore it.");
+                }
+            } catch (IOException e) {
+                actions.add("Could not recover " + filePath + ": " + e.getMessage());
+            }
+        }
+        return actions;
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private static Path tempPath(Path target) {
+        return target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+    }
+
+    private static void syncDirectory(Path target) {
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms (e.g. Windows) cannot open a directory; the rename is still atomic there
+        }
+    }
+}
@@ -10,11 +10,23 @@ import java.io.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntFunction;
 
 /**
  * FileHandler handles saving and loading Member, Payment, Reminder, and Team data to and from a file.
  */
 public class FileHandler {
+    // Enum constants used by the record parsers (values() copies the array on every call)
+    static final MembershipCategory[] MEMBERSHIP_CATEGORIES = MembershipCategory.values();
+    static final MembershipLevel[] MEMBERSHIP_LEVELS = MembershipLevel.values();
+    static final MembershipStatus[] MEMBERSHIP_STATUSES = MembershipStatus.values();
+    static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    static final PaymentStatus[] PAYMENT_STATUSES = PaymentStatus.values();
+    static final Role[] ROLES = Role.values();
+    static final TeamType[] TEAM_TYPES = TeamType.values();
+    private static final long DEFAULT_JUNIOR_RATE = 1000 * Money.ORE_PER_KRONE; // Used when paymentRates.dat has no junior rate
+    private static final long DEFAULT_SENIOR_RATE = 1600 * Money.ORE_PER_KRONE; // Used when paymentRates.dat has no senior rate
+
     private String memberFilePath;
     private String paymentFilePath;
     private String reminderFilePath;
@@ -23,9 +35,10 @@ public class FileHandler {
     private String staffFilePath;
     private String competitionResultsFilePath;
     private String trainingResultsFilePath;
+    private final WriteBehindPersistence persistence; // Performs the file writes, possibly in the background
 
     /**
-     * Constructor for FileHandler.
+     * Constructor for FileHandler. Files are written synchronously.
      *
      * @param memberFilePath       Path to the file for saving/loading member data.
      * @param paymentFilePath      Path to the file for saving/loading payment data.
@@ -35,7 +48,22 @@ public class FileHandler {
      */
     public FileHandler(String memberFilePath, String paymentFilePath, String reminderFilePath,
                        String paymentRatesFilePath, String teamFilePath, String competitionResultsFilePath, String staffFilePath, String trainingResultsFilePath) {
+        this(memberFilePath, paymentFilePath, reminderFilePath, paymentRatesFilePath, teamFilePath,
+                competitionResultsFilePath, staffFilePath, trainingResultsFilePath, WriteBehindPersistence.synchronous());
+    }
 
+    /**
+     * Constructor for FileHandler with a write-behind queue for saves.
+     * Save methods format the data immediately and hand the write to the queue; load methods flush the
+     * queue first, so a load always sees earlier saves.
+     *
+     * @param persistence The queue performing the file writes.
+     */
+    public FileHandler(String memberFilePath, String paymentFilePath, String reminderFilePath,
+                       String paymentRatesFilePath, String teamFilePath, String competitionResultsFilePath, String staffFilePath,
+                       String trainingResultsFilePath, WriteBehindPersistence persistence) {
+
+        this.persistence = persistence;
         this.memberFilePath = memberFilePath;
         this.paymentFilePath = paymentFilePath;
         this.reminderFilePath = reminderFilePath;
@@ -51,19 +79,34 @@ public class FileHandler {
     // ---------------------------
 
     /**
-     * Saves all members to the specified file.
+     * @return The path of the members.dat snapshot file.
+     */
+    public String getMemberFilePath() {
+        return memberFilePath;
+    }
+
+    /**
+     * @return The path of the staff.dat file.
+     */
+    public String getStaffFilePath() {
+        return staffFilePath;
+    }
+
+    /**
+     * Writes a members.dat snapshot synchronously and reports failures.
+     * Members are only written through {@link MemberLog}: the snapshot is written here when the log is
+     * compacted, and every change in between is appended to the log, so members.dat is never rewritten
+     * on its own.
      *
-     * @param members List of Member objects to save.
+     * @param members The complete list of members.
+     * @throws IOException If the snapshot could not be written; members.dat is then left unchanged.
      */
-    public void saveMembers(List<Member> members) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(memberFilePath))) {
-            for (Member member : members) {
-                writer.write(formatMember(member)); // Format and save each member
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving members: " + e.getMessage());
+    public void writeMembersSnapshot(List<Member> members) throws IOException {
+        List<String> lines = new ArrayList<>(members.size());
+        for (Member member : members) {
+            lines.add(formatMember(member));
         }
+        AtomicFileWriter.writeLines(memberFilePath, lines, persistence.getDurability());
     }
 
     /**
@@ -73,11 +116,11 @@ public class FileHandler {
      */
     public List<Member> loadMembers() {
         List<Member> members = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(memberFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    Member member = parseMember(line);
+        persistence.flush(); // Read our own pending writes
+        try (RecordReader reader = RecordReader.open(memberFilePath)) {
+            while (reader.next()) {
+                if (!reader.isBlank()) {
+                    Member member = parseMember(reader, 0);
                     if (member != null) {
                         // Ensure the team name is not null or empty
                         if (member.getTeamName() == null || member.getTeamName().isEmpty()) {
@@ -93,33 +136,6 @@ public class FileHandler {
         return members;
     }
 
-    /**
-     * Deletes a member from the file based on provided memberID.
-     *
-     * @param memberToDelete The member to delete.
-     * @return true if deletion was successful, false otherwise.
-     */
-    public boolean deleteMember(Member memberToDelete) {
-        boolean memberDeleted = false;
-        List<Member> members = loadMembers(); // Load all members from file
-
-        List<Member> updatedMembers = new ArrayList<>();
-        int id = memberToDelete.getMemberId(); // Get the ID for the member to delete
-
-        for (Member member : members) {
-            if (member.getMemberId() == id) {
-                memberDeleted = true; // Mark the member as deleted
-            } else {
-                updatedMembers.add(member); // Keep all other members
-            }
-        }
-
-        if (memberDeleted) {
-            saveMembers(updatedMembers); // Save the updated list without the deleted member
-        }
-        return memberDeleted;
-    }
-
     // ---------------------------
     // Payment Related Methods
     // ---------------------------
@@ -131,14 +147,11 @@ public class FileHandler {
      * @param filePath Path to the payment file.
      */
     public void savePayments(List<Payment> payments, String filePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (Payment payment : payments) {
-                writer.write(formatPayment(payment));
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving payments: " + e.getMessage());
+        List<String> lines = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            lines.add(formatPayment(payment));
         }
+        submitLines(filePath, lines, "Error saving payments: ");
     }
 
     /**
@@ -150,10 +163,10 @@ public class FileHandler {
      */
     public List<Payment> loadPayments(String filePath, MemberRepository memberRepository) {
         List<Payment> payments = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Payment payment = parsePayment(line, memberRepository);
+        persistence.flush();
+        try (RecordReader reader = RecordReader.open(filePath)) {
+            while (reader.next()) {
+                Payment payment = parsePayment(reader, memberRepository);
                 if (payment != null) {
                     payments.add(payment);
                 }
@@ -174,14 +187,7 @@ public class FileHandler {
      * @param reminders List of reminders to save.
      */
     public void saveReminders(List<String> reminders) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(reminderFilePath))) {
-            for (String reminder : reminders) {
-                writer.write(reminder);
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving reminders: " + e.getMessage());
-        }
+        submitLines(reminderFilePath, new ArrayList<>(reminders), "Error saving reminders: ");
     }
 
     /**
@@ -191,6 +197,7 @@ public class FileHandler {
      */
     public List<String> loadReminders() {
         List<String> reminders = new ArrayList<>();
+        persistence.flush();
         try (BufferedReader reader = new BufferedReader(new FileReader(reminderFilePath))) {
             String line;
             while ((line = reader.readLine()) != null) {
@@ -220,11 +227,59 @@ public class FileHandler {
         return reminderDeleted;
     }
 
+    // ---------------------------
+    // Write-behind Methods
+    // ---------------------------
+
+    /**
+     * Checks all data files for saves that were interrupted by a crash and cleans them up.
+     * Every file is replaced atomically, so a leftover temporary file never means the data file itself
+     * is damaged. A temporary file whose data file is missing is kept aside for a manual restore, see
+     * {@link AtomicFileWriter#recover(String...)}. Should be called at startup, before anything is loaded.
+     *
+     * @return A description of every action taken, empty if nothing had to be recovered.
+     */
+    public List<String> recoverInterruptedSaves() {
+        List<String> actions = AtomicFileWriter.recover(memberFilePath, paymentFilePath, reminderFilePath,
+                paymentRatesFilePath, teamsFilePath, staffFilePath, competitionResultsFilePath, trainingResultsFilePath,
+                memberFilePath + IdSequence.FILE_SUFFIX, paymentFilePath + IdSequence.FILE_SUFFIX,
+                staffFilePath + IdSequence.FILE_SUFFIX);
+        for (String action : actions) {
+            System.err.println(action);
+        }
+        return actions;
+    }
+
+    /**
+     * Blocks until all saves submitted so far have been written to disk.
+     */
+    public void flush() {
+        persistence.flush();
+    }
+
+    /**
+     * Hands a complete file content to the write-behind queue. A pending write of the same file is
+     * replaced, so only the latest content is written.
+     *
+     * @param filePath     The file to overwrite.
+     * @param lines        The already formatted lines; the list must not be modified afterwards.
+     * @param errorMessage The prefix of the message printed if the write fails.
+     */
+    private void submitLines(String filePath, List<String> lines, String errorMessage) {
+        persistence.submitFile(filePath, lines, e -> System.err.println(errorMessage + e.getMessage()));
+    }
+
     // ---------------------------
     // Helper Methods
     // ---------------------------
 
-    private String formatMember(Member member) {
+    /**
+     * Formats a member as a single semicolon-separated line in the members.dat layout.
+     *
+     * @param member The member to format.
+     * @return The formatted line (without line separator).
+     */
+    String formatMember(Member member) {
         String teamName = (member.getTeamName() != null && !member.getTeamName().isEmpty())
                 ? member.getTeamName()
                 : "No team";  // If teamName is null or empty, use "No team"
@@ -252,49 +307,60 @@ public class FileHandler {
      * @param line A semicolon-separated string representing member details.
      * @return A Member object if parsing is successful; otherwise, null.
      */
-    private Member parseMember(String line) {
-        // Split the line into parts using semicolon as a delimiter
-        String[] parts = line.split(";");
+    Member parseMember(String line) {
+        try (RecordReader reader = RecordReader.of(line)) {
+            return reader.next() ? parseMember(reader, 0) : null;
+        } catch (IOException e) {
+            return null; // Not thrown when reading from a String
+        }
+    }
 
+    /**
+     * Parses the current record of a RecordReader into a Member object (Junior or Senior).
+     * Numeric and enum columns are parsed in place; only the text columns become Strings.
+     *
+     * @param reader The reader positioned on a member record.
+     * @param first  The index of the member ID field, allowing a record to carry a prefix (e.g. a log code).
+     * @return A Member object if parsing is successful; otherwise, null.
+     */
+    Member parseMember(RecordReader reader, int first) {
         // Validate that the line has at least 13 fields (excluding optional team name)
-        if (parts.length < 13) {
-            System.err.println("Skipping invalid member data: " + line);
+        if (reader.fieldCount() - first < 13) {
+            System.err.println("Skipping invalid member data: " + reader.line());
             return null;
         }
 
         try {
             // Parse basic member details
-            int id = Integer.parseInt(parts[0]);
-            String name = parts[1];
-            String email = parts[2];
-            String city = parts[3];
-            String street = parts[4];
-            String region = parts[5];
-            int zipcode = Integer.parseInt(parts[6]);
-            int age = Integer.parseInt(parts[7]);
-            int phoneNumber = Integer.parseInt(parts[8]);
+            int id = reader.parseInt(first);
+            String name = reader.getString(first + 1);
+            String email = reader.getString(first + 2);
+            String city = reader.getString(first + 3);
+            String street = reader.getString(first + 4);
+            String region = reader.getString(first + 5);
+            int zipcode = reader.parseInt(first + 6);
+            int age = reader.parseInt(first + 7);
+            int phoneNumber = reader.parseInt(first + 8);
 
             // Parse membership type (e.g., "SENIOR COMPETITIVE")
-            String membershipDescription = parts[9];
-            String[] membershipParts = membershipDescription.split(" ");
-
-            // Construct MembershipType from parsed values
             MembershipType membershipType = new MembershipType(
-                    MembershipCategory.valueOf(membershipParts[1].toUpperCase()), // COMPETITIVE/RECREATIONAL
-                    MembershipLevel.valueOf(membershipParts[0].toUpperCase())    // JUNIOR/SENIOR
+                    reader.parseEnumWord(first + 9, 1, MEMBERSHIP_CATEGORIES), // COMPETITIVE/EXERCISE
+                    reader.parseEnumWord(first + 9, 0, MEMBERSHIP_LEVELS)      // JUNIOR/SENIOR
             );
 
             // Parse membership status (ACTIVE/INACTIVE), activity type, and payment status
-            MembershipStatus membershipStatus = MembershipStatus.valueOf(parts[10].toUpperCase());
-            ActivityType activityType = ActivityType.valueOf(parts[11].toUpperCase());
-            PaymentStatus paymentStatus = PaymentStatus.valueOf(parts[12].toUpperCase());
+            MembershipStatus membershipStatus = reader.parseEnum(first + 10, MEMBERSHIP_STATUSES);
+            ActivityType activityType = reader.parseEnum(first + 11, ACTIVITY_TYPES);
+            PaymentStatus paymentStatus = reader.parseEnum(first + 12, PAYMENT_STATUSES);
 
             // Extract team name, which can be null or empty
-            String teamName = (parts.length > 13 && !parts[13].trim().isEmpty()) ? parts[13].trim() : "No team";
+            String teamName = (reader.fieldCount() - first > 13 && !reader.isEmpty(first + 13))
+                    ? reader.getString(first + 13).trim()
+                    : "No team";
 
             // Validate the parsed data using a Validator utility
-            Validator.validateMemberData(name, age, membershipDescription, email, city, street, region, zipcode,
-                    phoneNumber, membershipStatus, activityType.toString(), paymentStatus);
+            Validator.validateMemberData(name, age, membershipType, email, city, street, region, zipcode,
+                    phoneNumber, membershipStatus, activityType, paymentStatus);
 
             // Create the appropriate subclass of Member based on membership level (Junior/Senior)
             if (membershipType.getLevel() == MembershipLevel.JUNIOR) {
@@ -311,7 +377,7 @@ public class FileHandler {
 
         } catch (Exception e) {
             // Log an error if parsing fails and return null
-            System.err.println("Error parsing member: " + line + " - " + e.getMessage());
+            System.err.println("Error parsing member: " + reader.line() + " - " + e.getMessage());
             return null;
         }
     }
@@ -320,34 +386,37 @@ public class FileHandler {
     private String formatPayment(Payment payment) {
         return payment.getPaymentId() + ";" +
                 payment.getMember().getMemberId() + ";" +
-                payment.getAmountPerYear() + ";" +
+                Money.format(payment.getAmountPerYearOre()) + ";" +
                 payment.getPaymentDate() + ";" +
                 payment.getPaymentStatus();
     }
 
-    private Payment parsePayment(String line, MemberRepository memberRepository) {
-        String[] parts = line.split(";");
+    private Payment parsePayment(RecordReader reader, MemberRepository memberRepository) {
         try {
-            int paymentId = Integer.parseInt(parts[0]);
-            int memberId = Integer.parseInt(parts[1]);
-            double amount = Double.parseDouble(parts[2]);
-            LocalDate paymentDate = LocalDate.parse(parts[3]);
-            PaymentStatus status = PaymentStatus.valueOf(parts[4].toUpperCase());
+            int paymentId = reader.parseInt(0);
+            int memberId = reader.parseInt(1);
+            long amount = reader.parseMoney(2); // In øre; also reads older decimal text
+            LocalDate paymentDate = reader.parseLocalDate(3);
+            PaymentStatus status = reader.parseEnum(4, PAYMENT_STATUSES);
             Member member = memberRepository.findById(memberId);
 
             return new Payment(paymentId, status, member, paymentDate, amount);
         } catch (Exception e) {
-            System.err.println("Error parsing payment: " + line + " - " + e.getMessage());
+            System.err.println("Error parsing payment: " + reader.line() + " - " + e.getMessage());
             return null;
         }
     }
 
 
     /**
-     * @return a double arrayList which can be used in paymentService to load juniorRate and seniorRate.
+     * Loads the junior and senior rates. Rates are stored in kroner; both the current two-decimal format
+     * ("1600.00") and the older decimal text ("1600.0") are read.
+     *
+     * @return a long array with the junior and senior rate in øre, which paymentService loads as juniorRate and seniorRate.
      */
-    public double[] loadPaymentRates() {
-        double[] rates = new double[2];
+    public long[] loadPaymentRates() {
+        long[] rates = new long[2];
+        persistence.flush();
         try (BufferedReader reader = new BufferedReader(new FileReader(paymentRatesFilePath))) {
             String line;
             boolean foundJuniorRate = false;
@@ -357,18 +426,18 @@ public class FileHandler {
                 line = line.trim(); // cleans whitespaces in the document
                 if (line.startsWith("Junior Rate:")) {
                     try {
-                        rates[0] = Double.parseDouble(line.split(":")[1].trim()); /*turns the data into double and splits it
-                        into an array before and after ":" and then takes the second element */
+                        rates[0] = Money.parse(line.split(":")[1]); /*splits the line into an array before and after ":"
+                        and parses the second element as an amount in øre */
                         foundJuniorRate = true;
-                    } catch (NumberFormatException e) { // in case that the string can't be converted to a double.
+                    } catch (NumberFormatException e) { // in case that the string can't be converted to an amount.
                         System.out.println("Invalid format for Junior Rate. Using default value.");
                     }
                 } else if (line.startsWith("Senior Rate:")) {
                     try {
-                        rates[1] = Double.parseDouble(line.split(":")[1].trim()); /*turns the data into double and splits it
-                        into an array before and after ":" and then takes the second element */
+                        rates[1] = Money.parse(line.split(":")[1]); /*splits the line into an array before and after ":"
+                        and parses the second element as an amount in øre */
                         foundSeniorRate = true;
-                    } catch (NumberFormatException e) {  // in case that the string can't be converted to a double.
+                    } catch (NumberFormatException e) {  // in case that the string can't be converted to an amount.
                         System.out.println("Invalid format for Senior Rate. Using default value.");
                     }
                 }
@@ -376,17 +445,17 @@ public class FileHandler {
 
             // Set default values if rates were not found
             if (!foundJuniorRate) {
-                rates[0] = 1000; // Default Junior rate if no rates were found in the document.
+                rates[0] = DEFAULT_JUNIOR_RATE; // Default Junior rate if no rates were found in the document.
             }
             if (!foundSeniorRate) {
-                rates[1] = 1600; // Default Senior rate if no rates were found in the document.
+                rates[1] = DEFAULT_SENIOR_RATE; // Default Senior rate if no rates were found in the document.
             }
 
         } catch (IOException e) {
             System.out.println("Error loading payment rates from file: " + e.getMessage());
             // Default values in case of error
-            rates[0] = 1000; // default junior rate
-            rates[1] = 1600; // default senior rate
+            rates[0] = DEFAULT_JUNIOR_RATE; // default junior rate
+            rates[1] = DEFAULT_SENIOR_RATE; // default senior rate
 
         }
         return rates;
@@ -395,19 +464,14 @@ public class FileHandler {
     /**
      * This method saves the juniorRate and seniorRate from paymentService class to paymentRates.dat document.
      *
-     * @param juniorRate - the price for how much a junior member has to pay.
-     * @param seniorRate - the price for how much a senior member has to pay.
-     */
-    public void savePaymentRates(double juniorRate, double seniorRate) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(paymentRatesFilePath, false))) {
-            //false means that it overwrites everything in the file every time.
-            writer.write("Junior Rate: " + juniorRate);
-            writer.newLine();
-            writer.write("Senior Rate: " + seniorRate);
-            writer.newLine();
-        } catch (IOException e) {
-            System.out.println("Error saving payment rates: " + e.getMessage());
-        }
+     * @param juniorRate - the price for how much a junior member has to pay, in øre.
+     * @param seniorRate - the price for how much a senior member has to pay, in øre.
+     */
+    public void savePaymentRates(long juniorRate, long seniorRate) {
+        // The whole file is overwritten every time.
+        submitLines(paymentRatesFilePath,
+                List.of("Junior Rate: " + Money.format(juniorRate), "Senior Rate: " + Money.format(seniorRate)),
+                "Error saving payment rates: ");
     }
 
     // ---------------------------
@@ -420,88 +484,89 @@ public class FileHandler {
      * @param teams List of Team objects to save.
      */
     public void saveTeams(List<Team> teams) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(teamsFilePath))) {
-            for (Team team : teams) {
-                StringBuilder sb = new StringBuilder();
-                sb.append(team.getTeamName()).append(";") // Team name
-                        .append(team.getTeamType().name()).append(";"); // Team type
-
-                // Append coach ID (or "null" if no coach)
-                if (team.getTeamCoach() != null) {
-                    sb.append(team.getTeamCoach().getCoachId());
-                } else {
-                    sb.append("null");
-                }
-                sb.append(";");
-
-                // Append member IDs as a comma-separated string
-                for (Member member : team.getMembers()) {
-                    sb.append(member.getMemberId()).append(",");
-                }
+        List<String> lines = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(team.getTeamName()).append(";") // Team name
+                    .append(team.getTeamType().name()).append(";"); // Team type
+
+            // Append coach ID (or "null" if no coach)
+            if (team.getTeamCoach() != null) {
+                sb.append(team.getTeamCoach().getCoachId());
+            } else {
+                sb.append("null");
+            }
+            sb.append(";");
 
-                // Remove trailing comma after last member (if any)
-                if (team.getMembers().size() > 0) {
-                    sb.deleteCharAt(sb.length() - 1);
-                }
+            // Append member IDs as a comma-separated string
+            for (Member member : team.getMembers()) {
+                sb.append(member.getMemberId()).append(",");
+            }
 
-                // Write the team data to the file
-                writer.write(sb.toString());
-                writer.newLine();
+            // Remove trailing comma after last member (if any)
+            if (team.getMemberCount() > 0) {
+                sb.deleteCharAt(sb.length() - 1);
             }
-        } catch (IOException e) {
-            System.err.println("Error saving teams: " + e.getMessage());
+
+            // Keep the formatted team line for the write
+            lines.add(sb.toString());
         }
+        submitLines(teamsFilePath, lines, "Error saving teams: ");
     }
 
     /**
-     * Loads teams from the specified file.
+     * Loads teams from the specified file, resolving member IDs against the given members.
+     * Unresolved references are printed as a one-line summary; use
+     * {@link #loadTeams(IntFunction, IntFunction, TeamLoadReport)} to get the details.
      *
      * @param allMembers List of all members to link teams with.
      * @return List of Team objects loaded from the file.
      */
     public List<Team> loadTeams(List<Member> allMembers, StaffRepository staffRepository) {
+        IntIndex<Member> membersById = new IntIndex<>(allMembers.size()); // Built once, probed per membership
+        for (Member member : allMembers) {
+            membersById.put(member.getMemberId(), member);
+        }
+        TeamLoadReport report = new TeamLoadReport();
+        List<Team> teams = loadTeams(membersById::get, staffRepository::findCoachById, report);
+        if (report.hasProblems()) {
+            System.err.println(report.getSummary());
+        }
+        return teams;
+    }
+
+    /**
+     * Loads teams from the specified file in a single pass.
+     * Every coach and member ID is resolved with one lookup in the given ID maps, so loading costs
+     * O(teams + memberships) regardless of the club size. References that cannot be resolved, duplicate
+     * memberships and unparsable lines are recorded in the report; the rest of the team is still loaded.
+     *
+     * @param memberLookup Resolves a member ID, returning null for an unknown ID (e.g. MemberRepository::findById).
+     * @param coachLookup  Resolves a coach ID, returning null for an unknown ID (e.g. StaffRepository::findCoachById).
+     * @param report       Receives the load statistics and problems.
+     * @return List of Team objects loaded from the file.
+     */
+    public List<Team> loadTeams(IntFunction<Member> memberLookup, IntFunction<Coach> coachLookup, TeamLoadReport report) {
         List<Team> teams = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(teamsFilePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length < 3) continue; // Skip lines with insufficient data
-
-                // Extract team data
-                String teamName = parts[0];
-                TeamType teamType = TeamType.valueOf(parts[1].toUpperCase()); // Assumes TeamType enum
-
-                // Parse the coach ID safely
-                int coachId = parseInteger(parts[2]); // Parsing coachId from parts[2]
-                Coach coach = null;
-                if (coachId != -1) {
-                    // Retrieve the coach object using the parsed coachId if valid
-                    coach = staffRepository.findCoachById(coachId);
-                    if (coach == null) {
-                        System.err.println("Coach with ID " + coachId + " not found for team " + teamName);
-                    }
-                } else {
-                    System.out.println("No valid coach ID found for team " + teamName + ", assigning null coach.");
+        persistence.flush();
+        try (RecordReader reader = RecordReader.open(teamsFilePath)) {
+            int lineNumber = 0;
+            while (reader.next()) {
+                lineNumber++;
+                if (reader.isBlank()) {
+                    continue;
                 }
-
-                // Parse member IDs if any exist
-                String[] memberIds = parts.length > 3 ? parts[3].split(",") : new String[0];
-
-                // Create a new Team object with or without a coach
-                Team team = new Team(teamName, teamType, coach);
-
-                // Add members to the team
-                for (String memberId : memberIds) {
-                    if (!memberId.isEmpty()) {
-                        Member member = findMemberById(allMembers, Integer.parseInt(memberId));
-                        if (member != null) {
-                            team.addMember(member);
-                        }
-                    }
+                if (reader.fieldCount() < 3) {
+                    report.malformedLine(lineNumber, reader.line(), "expected name;type;coach;members");
+                    continue;
+                }
+                try {
+                    Team team = parseTeam(reader, lineNumber, memberLookup, coachLookup, report);
+                    teams.add(team);
+                    report.teamLoaded(team.getMemberCount());
+                } catch (IllegalArgumentException e) {
+                    report.malformedLine(lineNumber, reader.line(), e.getMessage());
                 }
-
-                // Add the team to the list
-                teams.add(team);
             }
         } catch (IOException e) {
             System.err.println("Error loading teams: " + e.getMessage());
@@ -509,31 +574,41 @@ public class FileHandler {
         return teams; // Return the loaded list of teams
     }
 
-    private int parseInteger(String value) {
-        try {
-            // If the value is "null" or empty, return -1 to signify invalid input
-            if (value == null || value.trim().isEmpty() || value.equals("null")) {
-                return -1;
-            }
-            return Integer.parseInt(value); // Parse the string to an integer
-        } catch (NumberFormatException e) {
-            System.err.println("Invalid integer value: " + value); // Log the invalid value
-            return -1; // Return -1 if parsing fails
-        }
-    }
-
     /**
-     * Helper method to find a member by ID from a list of members.
+     * Parses the team on the current record and joins its coach and members.
      *
-     * @param members List of members to search in.
-     * @param id      ID of the member to find.
-     * @return The Member object with the specified ID, or null if not found.
+     * @throws IllegalArgumentException If the team type, coach ID or a member ID cannot be parsed.
      */
-    private Member findMemberById(List<Member> members, int id) {
-        return members.stream()
-                .filter(member -> member.getMemberId() == id)
-                .findFirst()
-                .orElse(null);
+    private Team parseTeam(RecordReader reader, int lineNumber, IntFunction<Member> memberLookup,
+                           IntFunction<Coach> coachLookup, TeamLoadReport report) {
+        String teamName = reader.getString(0);
+        TeamType teamType = reader.parseEnum(1, TEAM_TYPES);
+
+        Coach coach = null;
+        if (reader.isEmpty(2) || "null".equals(reader.getString(2))) {
+            report.teamWithoutCoach(teamName);
+        } else {
+            int coachId = reader.parseInt(2);
+            coach = coachLookup.apply(coachId);
+            if (coach == null) {
+                report.unknownCoach(lineNumber, teamName, coachId);
+            }
+        }
+
+        Team team = new Team(teamName, teamType, coach);
+        if (reader.fieldCount() > 3) {
+            reader.forEachInt(3, ',', memberId -> {
+                Member member = memberLookup.apply(memberId);
+                if (member == null) {
+                    report.unknownMember(lineNumber, teamName, memberId);
+                } else if (team.hasMember(member)) {
+                    report.duplicateMember(lineNumber, teamName, memberId);
+                } else {
+                    team.addMember(member);
+                }
+            });
+        }
+        return team;
     }
 
 // // ---------------------------
@@ -548,16 +623,12 @@ public class FileHandler {
      *                of a coach, which will be formatted and written to the file.
      */
     public void saveCoaches(List<Coach> coaches) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(staffFilePath))) {
-            // Iterate through the list of coaches and write their formatted details to the file
-            for (Coach coach : coaches) {
-                writer.write(formatCoach(coach)); // Format and save each coach's information
-                writer.newLine(); // Add a new line after each coach's data
-            }
-        } catch (IOException e) {
-            // Handle potential IOExceptions that could occur during the file writing process
-            System.err.println("Error saving coaches: " + e.getMessage());
+        List<String> lines = new ArrayList<>(coaches.size());
+        // Iterate through the list of coaches and format their details for the file
+        for (Coach coach : coaches) {
+            lines.add(formatCoach(coach)); // Format each coach's information
         }
+        submitLines(staffFilePath, lines, "Error saving coaches: ");
     }
 
     /**
@@ -569,13 +640,13 @@ public class FileHandler {
      */
     public List<Coach> loadCoaches() {
         List<Coach> coaches = new ArrayList<>(); // Create an empty list to store the loaded coaches
-        try (BufferedReader reader = new BufferedReader(new FileReader(staffFilePath))) {
-            String line;
-            // Read each line from the file until the end
-            while ((line = reader.readLine()) != null) {
+        persistence.flush(); // Make sure pending saves of the staff file have been written
+        try (RecordReader reader = RecordReader.open(staffFilePath)) {
+            // Read each record from the file until the end
+            while (reader.next()) {
                 // Check if the line is not empty (ignores blank lines)
-                if (!line.trim().isEmpty()) {
-                    Coach coach = parseCoach(line); // Parse the line to create a `Coach` object
+                if (!reader.isBlank()) {
+                    Coach coach = parseCoach(reader); // Parse the record to create a `Coach` object
                     if (coach != null) {
                         coaches.add(coach); // Add the parsed coach to the list
                     }
@@ -610,40 +681,38 @@ public class FileHandler {
     }
 
     /**
-     * Parses a semicolon-separated string into a Coach object.
+     * Parses the current semicolon-separated record of a RecordReader into a Coach object.
      *
-     * @param line The string representing the coach's details, separated by semicolons.
-     * @return A Coach object with the details parsed from the string, or null if parsing fails.
+     * @param reader The reader positioned on a record with the coach's details.
+     * @return A Coach object with the details parsed from the record, or null if parsing fails.
      */
-    private Coach parseCoach(String line) {
-        String[] parts = line.split(";");
-
+    private Coach parseCoach(RecordReader reader) {
         // Ensure the expected number of fields (11 fields: coachId, teamName, email, name, city, street, region, zipcode, age, phoneNumber, role)
-        if (parts.length < 11) {
-            System.err.println("Skipping invalid coach data: " + line);
+        if (reader.fieldCount() < 11) {
+            System.err.println("Skipping invalid coach data: " + reader.line());
             return null;  // Return null if the line doesn't have the expected number of fields
         }
 
         try {
             // Parse basic coach details
-            int coachId = Integer.parseInt(parts[0]);       // Coach's unique ID
-            String teamName = parts[1];                    // Team name associated with the coach
-            String email = parts[3];                       // Coach's email address
-            String name = parts[2];                        // Coach's name
-            String city = parts[4];                        // Coach's city
-            String street = parts[5];                      // Coach's street address
-            String region = parts[6];                      // Coach's region
-            int zipcode = Integer.parseInt(parts[7]);      // Coach's zipcode
-            int age = Integer.parseInt(parts[8]);          // Coach's age
-            int phoneNumber = Integer.parseInt(parts[9]);  // Coach's phone number
+            int coachId = reader.parseInt(0);              // Coach's unique ID
+            String teamName = reader.getString(1);         // Team name associated with the coach
+            String email = reader.getString(3);            // Coach's email address
+            String name = reader.getString(2);             // Coach's name
+            String city = reader.getString(4);             // Coach's city
+            String street = reader.getString(5);           // Coach's street address
+            String region = reader.getString(6);           // Coach's region
+            int zipcode = reader.parseInt(7);              // Coach's zipcode
+            int age = reader.parseInt(8);                  // Coach's age
+            int phoneNumber = reader.parseInt(9);          // Coach's phone number
 
             // Parse the role
-            Role role = Role.valueOf(parts[10].toUpperCase());  // Convert role string to enum
+            Role role = reader.parseEnum(10, ROLES);       // Match the role column against the enum
 
             // Create a new Coach object with the parsed data
             return new Coach(coachId, teamName, name, email, city, street, region, zipcode, age, phoneNumber, role);
         } catch (Exception e) {
-            System.err.println("Error parsing coach: " + line + " - " + e.getMessage());
+            System.err.println("Error parsing coach: " + reader.line() + " - " + e.getMessage());
             return null;  // Return null if any error occurs during parsing
         }
     }
@@ -689,19 +758,16 @@ public class FileHandler {
      * @param filePath The file path where the competition results should be saved.
      */
     public void saveCompetitionResults(List<CompetitionResults> results, String filePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (CompetitionResults result : results) {
-                writer.write(result.getMember().getMemberId() + ";" +
-                        result.getActivityType() + ";" +
-                        result.getEvent() + ";" +
-                        result.getPlacement() + ";" +
-                        result.getDate() + ";" +
-                        result.getTime());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving competition results: " + e.getMessage());
+        List<String> lines = new ArrayList<>(results.size());
+        for (CompetitionResults result : results) {
+            lines.add(result.getMember().getMemberId() + ";" +
+                    result.getActivityType() + ";" +
+                    result.getEvent() + ";" +
+                    result.getPlacement() + ";" +
+                    result.getDate() + ";" +
+                    result.getTime());
         }
+        submitLines(filePath, lines, "Error saving competition results: ");
     }
 
     /**
@@ -714,19 +780,17 @@ public class FileHandler {
      */
     public List<CompetitionResults> loadCompetitionResults(String filePath, MemberRepository memberRepository) {
         List<CompetitionResults> results = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-
+        persistence.flush();
+        try (RecordReader reader = RecordReader.open(filePath)) {
+            while (reader.next()) {
                 // Parse required data
-                int memberId = Integer.parseInt(parts[0]);
-                String event = parts[1];
-                ActivityType activityType = ActivityType.valueOf(parts[2].toUpperCase()); // Assuming activity type is stored as a string
-                int placement = Integer.parseInt(parts[3]);
-                double time = Double.parseDouble(parts[4]);
-                String date = parts[5];
-                MembershipLevel level = MembershipLevel.valueOf(parts[6].toUpperCase()); // Assuming level is stored as a string
+                int memberId = reader.parseInt(0);
+                String event = reader.getString(1);
+                ActivityType activityType = reader.parseEnum(2, ACTIVITY_TYPES); // Activity type is stored as its enum name
+                int placement = reader.parseInt(3);
+                double time = reader.parseDouble(4);
+                String date = reader.getString(5);
+                MembershipLevel level = reader.parseEnum(6, MEMBERSHIP_LEVELS); // Level is stored as its enum name
 
                 // Resolve the member from MemberRepository
                 Member member = memberRepository.findById(memberId);
@@ -748,18 +812,15 @@ public class FileHandler {
      * @param results The list of training results to be saved.
      */
     public void saveTrainingResults(List<TrainingResults> results) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(trainingResultsFilePath))) {
-            for (TrainingResults result : results) {
-                writer.write(result.getMember().getMemberId() + ";" +
-                        result.getLevel() + ";" +
-                        result.getActivityType() + ";" +
-                        result.getTime() + ";" +
-                        result.getDate());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving training results: " + e.getMessage());
+        List<String> lines = new ArrayList<>(results.size());
+        for (TrainingResults result : results) {
+            lines.add(result.getMember().getMemberId() + ";" +
+                    result.getLevel() + ";" +
+                    result.getActivityType() + ";" +
+                    result.getTime() + ";" +
+                    result.getDate());
         }
+        submitLines(trainingResultsFilePath, lines, "Error saving training results: ");
     }
 
     /**
@@ -772,18 +833,17 @@ public class FileHandler {
      */
     public List<TrainingResults> loadTrainingResults(String filePath, MemberRepository memberRepository) {
         List<TrainingResults> results = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                String memberIdStr = parts[0];
-                MembershipLevel level = MembershipLevel.valueOf(parts[1]);
-                ActivityType activityType = ActivityType.valueOf(parts[2]);
-                double time = Double.parseDouble(parts[3]);
-                String date = parts[4];
+        persistence.flush();
+        try (RecordReader reader = RecordReader.open(filePath)) {
+            while (reader.next()) {
+                int memberId = reader.parseInt(0);
+                MembershipLevel level = reader.parseEnum(1, MEMBERSHIP_LEVELS);
+                ActivityType activityType = reader.parseEnum(2, ACTIVITY_TYPES);
+                double time = reader.parseDouble(3);
+                String date = reader.getString(4);
 
                 // Resolve the member from MemberRepository
-                Member member = memberRepository.findById(Integer.parseInt(memberIdStr));
+                Member member = memberRepository.findById(memberId);
                 if (member != null) {
                     results.add(new TrainingResults(member, level, activityType, time, date));
                 }
@@ -0,0 +1,166 @@
+package swimclub.utilities;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hands out record IDs from a persisted high-water mark.
+ * IDs only ever increase: an ID is never handed out twice, even after the record holding the highest
+ * ID has been deleted, so references in other files (payments, results, teams) cannot end up pointing
+ * at a different record. The high-water mark is stored in a small file next to the data file
+ * ("members.dat.seq"). Allocating is O(1): one small file write, or none at all when the stored mark is
+ * run ahead by a block size larger than one (a restart then skips the unused rest of the block, but never
+ * reuses an ID). Bulk imports reserve a whole range of IDs with a single write.
+ */
+public class IdSequence {
+    /**
+     * Suffix of the file holding the high-water mark, appended to the data file name.
+     */
+    public static final String FILE_SUFFIX = ".seq";
+
+    /**
+     * Default number of IDs covered by each write of the high-water mark. Member and coach IDs are shown
+     * to staff, so by default the mark is written per allocation and restarts leave no gaps.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1;
+
+    private final String filePath;   // Where the high-water mark is stored, null for an in-memory sequence
+    private final int blockSize;     // IDs covered by each write of the high-water mark
+    private int lastId;              // Highest ID allocated or observed, guarded by this
+    private int persistedLimit;      // Highest ID covered by the stored high-water mark, guarded by this
+
+    /**
+     * Creates a sequence stored next to a data file, continuing from its stored high-water mark.
+     *
+     * @param dataFilePath The data file whose records get the IDs.
+     * @return The sequence.
+     */
+    public static IdSequence forDataFile(String dataFilePath) {
+        return new IdSequence(dataFilePath + FILE_SUFFIX, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a sequence that is not persisted. Used when there is no data file, e.g. in tests.
+     *
+     * @return The sequence, starting at 1.
+     */
+    public static IdSequence inMemory() {
+        return new IdSequence(null, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a sequence, continuing from the high-water mark stored in the file if it exists.
+     *
+     * @param filePath  The file holding the high-water mark, or null for an in-memory sequence.
+     * @param blockSize How many IDs each write of the high-water mark covers.
+     */
+    public IdSequence(String filePath, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1.");
+        }
+        this.filePath = filePath;
+        this.blockSize = blockSize;
+        this.persistedLimit = readHighWaterMark();
+        this.lastId = persistedLimit; // IDs up to the stored mark may have been handed out before a restart
+    }
+
+    // ---------------------------
+    // Allocation
+    // ---------------------------
+
+    /**
+     * Allocates the next ID.
+     *
+     * @return An ID higher than every ID allocated or observed before.
+     */
+    public synchronized int next() {
+        return reserve(1);
+    }
+
+    /**
+     * Allocates a block of consecutive IDs at once, e.g. for a bulk import.
+     * The high-water mark is written at most once for the whole block.
+     *
+     * @param count The number of IDs to allocate.
+     * @return The first ID of the block; the block is first to first + count - 1.
+     */
+    public synchronized int reserve(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one ID must be reserved.");
+        }
+        if (count > Integer.MAX_VALUE - lastId) {
+            throw new IllegalStateException("ID sequence exhausted.");
+        }
+        int first = lastId + 1;
+        lastId += count;
+        if (lastId > persistedLimit) {
+            persist(lastId);
+        }
+        return first;
+    }
+
+    /**
+     * Records an ID that is already in use, e.g. a record read from the data file or saved with an
+     * explicit ID. Later allocations will be higher.
+     *
+     * @param id The ID in use.
+     */
+    public synchronized void observe(int id) {
+        if (id > lastId) {
+            lastId = id;
+            if (lastId > persistedLimit) {
+                persist(lastId);
+            }
+        }
+    }
+
+    /**
+     * @return The ID the next call to {@link #next()} will return, without allocating it.
+     */
+    public synchronized int peek() {
+        return lastId + 1;
+    }
+
+    // ---------------------------
+    // Persistence
+    // ---------------------------
+
+    /**
+     * Stores a high-water mark covering the given ID and the rest of its block. The mark is the highest ID
+     * that may have been handed out, so with a block size of one it is the given ID itself.
+     */
+    private void persist(int id) {
+        int limit = (int) Math.min(Integer.MAX_VALUE, (long) id + blockSize - 1);
+        if (filePath != null) {
+            try {
+                AtomicFileWriter.writeLines(filePath, List.of(String.valueOf(limit)),
+                        AtomicFileWriter.Durability.FSYNC_FILE);
+            } catch (IOException e) {
+                System.err.println("Error saving ID sequence " + filePath + ": " + e.getMessage());
+                return; // Keep the old limit, so the next allocation tries again
+            }
+        }
+        persistedLimit = limit;
+    }
+
+    /**
+     * @return The stored high-water mark, or 0 if there is none.
+     */
+    private int readHighWaterMark() {
+        if (filePath == null) {
+            return 0;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String line = reader.readLine();
+            return line == null ? 0 : Integer.parseInt(line.trim());
+        } catch (FileNotFoundException e) {
+            return 0; // First run: the loaded records are observed instead
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error reading ID sequence " + filePath + ": " + e.getMessage());
+            return 0;
+        }
+    }
+}
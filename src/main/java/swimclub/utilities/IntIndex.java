@@ -0,0 +1,195 @@
+package swimclub.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive int keys to values, used as a primary-key index by the repositories.
+ * Keys are stored in a plain int array with open addressing (linear probing), so lookups do not
+ * box the ID into an Integer and do not allocate.
+ *
+ * @param <V> The type of the indexed values.
+ */
+public class IntIndex<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;        // Keys, valid only where used[i] is true
+    private Object[] values;   // Values stored at the same slot as their key
+    private boolean[] used;    // Marks occupied slots
+    private int size;          // Number of entries
+
+    /**
+     * Creates an empty index.
+     */
+    public IntIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty index sized for the expected number of entries.
+     *
+     * @param expectedSize The number of entries expected, used to avoid rehashing during bulk loads.
+     */
+    public IntIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    // ---------------------------
+    // Lookup
+    // ---------------------------
+
+    /**
+     * Finds the value stored for a key.
+     *
+     * @param key The key to look up.
+     * @return The value, or null if the key is not indexed.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = findSlot(key);
+        return used[slot] ? (V) values[slot] : null;
+    }
+
+    /**
+     * @param key The key to check.
+     * @return true if the key is indexed.
+     */
+    public boolean containsKey(int key) {
+        return used[findSlot(key)];
+    }
+
+    /**
+     * @return The number of indexed entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    // ---------------------------
+    // Modification
+    // ---------------------------
+
+    /**
+     * Stores a value for a key, replacing any previous value.
+     *
+     * @param key   The key.
+     * @param value The value to store.
+     * @return The previous value, or null if the key was not indexed.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int slot = findSlot(key);
+        if (used[slot]) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Stores a value for a key only if the key is not indexed yet.
+     *
+     * @param key   The key.
+     * @param value The value to store.
+     * @return The existing value, or null if the value was stored.
+     */
+    public V putIfAbsent(int key, V value) {
+        V existing = get(key);
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    /**
+     * Removes a key from the index.
+     * Uses backward-shift deletion so no tombstones are left behind.
+     *
+     * @param key The key to remove.
+     * @return The removed value, or null if the key was not indexed.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = findSlot(key);
+        if (!used[slot]) {
+            return null;
+        }
+        V removed = (V) values[slot];
+        int mask = keys.length - 1;
+
+        // Shift following entries of the probe chain back into the freed slot
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (used[next]) {
+            int home = hash(keys[next]) & mask;
+            boolean between = (free <= next) ? (free < home && home <= next) : (free < home || home <= next);
+            if (!between) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[free] = false;
+        values[free] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9; // Fibonacci hashing spreads sequential IDs
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+}
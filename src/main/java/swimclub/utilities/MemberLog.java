@@ -0,0 +1,227 @@
+package swimclub.utilities;
+
+import swimclub.models.Member;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only write-ahead log of member mutations.
+ * The members.dat file holds a snapshot of all members, and every insert, update or delete made after
+ * that snapshot is appended as a single record to a log file next to it (members.dat.log).
+ * Loading replays the log on top of the snapshot, and compaction folds the log back into a fresh snapshot.
+ */
+public class MemberLog {
+    /**
+     * Number of log records after which the repository should compact the log into a new snapshot.
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    /**
+     * The kind of mutation stored in a log record.
+     */
+    public enum Mutation {
+        INSERT('I'),
+        UPDATE('U'),
+        DELETE('D');
+
+        private final char code;
+
+        Mutation(char code) {
+            this.code = code;
+        }
+
+        /**
+         * @return The single character written in front of the record.
+         */
+        public char getCode() {
+            return code;
+        }
+
+        /**
+         * Finds the mutation matching a record code.
+         *
+         * @param code The code read from the log.
+         * @return The matching mutation, or null if the code is unknown.
+         */
+        public static Mutation fromCode(char code) {
+            for (Mutation mutation : values()) {
+                if (mutation.code == code) {
+                    return mutation;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final FileHandler fileHandler; // Reads and writes the members.dat snapshot
+    private final String logFilePath;      // Path to the append-only log
+    private final int compactionThreshold; // Records allowed before compaction is due
+    private int recordCount;               // Records currently in the log
+
+    /**
+     * Creates a member log stored next to the member snapshot file of the given FileHandler.
+     *
+     * @param fileHandler The file handler owning the members.dat snapshot.
+     */
+    public MemberLog(FileHandler fileHandler) {
+        this(fileHandler, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a member log with a custom compaction threshold.
+     *
+     * @param fileHandler         The file handler owning the members.dat snapshot.
+     * @param compactionThreshold The number of records after which compaction is due.
+     */
+    public MemberLog(FileHandler fileHandler, int compactionThreshold) {
+        this.fileHandler = fileHandler;
+        this.logFilePath = fileHandler.getMemberFilePath() + ".log";
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    // ---------------------------
+    // Loading and Replay
+    // ---------------------------
+
+    /**
+     * Loads the snapshot and replays every logged mutation on top of it.
+     * Inserts and updates replace the member with the same ID, deletes remove it.
+     * A torn record at the end of the log (e.g. after a crash) is skipped.
+     *
+     * @return The current list of members.
+     */
+    public List<Member> load() {
+        Map<Integer, Member> membersById = new LinkedHashMap<>();
+        for (Member member : fileHandler.loadMembers()) {
+            membersById.put(member.getMemberId(), member);
+        }
+
+        recordCount = 0;
+        File logFile = new File(logFilePath);
+        if (logFile.exists()) {
+            try (RecordReader reader = RecordReader.open(logFilePath)) {
+                while (reader.next()) {
+                    if (reader.fieldCount() < 2 || reader.isEmpty(1)) {
+                        continue; // Skip blank or torn records
+                    }
+                    Mutation mutation = Mutation.fromCode(reader.firstChar(0));
+                    if (mutation == Mutation.DELETE) {
+                        try {
+                            membersById.remove(reader.parseInt(1));
+                        } catch (NumberFormatException e) {
+                            System.err.println("Skipping invalid member log record: " + reader.line());
+                        }
+                    } else if (mutation != null) {
+                        Member member = fileHandler.parseMember(reader, 1); // The member fields follow the code
+                        if (member != null) {
+                            membersById.put(member.getMemberId(), member);
+                        }
+                    }
+                    recordCount++;
+                }
+            } catch (IOException e) {
+                System.err.println("Error replaying member log: " + e.getMessage());
+            }
+        }
+        return new ArrayList<>(membersById.values());
+    }
+
+    // ---------------------------
+    // Appending
+    // ---------------------------
+
+    /**
+     * Appends a single mutation record to the log.
+     *
+     * @param mutation The kind of mutation.
+     * @param member   The member that was inserted, updated or deleted.
+     * @throws IOException If the record could not be written; the caller must keep the change to write it again.
+     */
+    public void append(Mutation mutation, Member member) throws IOException {
+        String payload = (mutation == Mutation.DELETE)
+                ? String.valueOf(member.getMemberId())
+                : fileHandler.formatMember(member);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(logFilePath, true))) {
+            writer.write(mutation.getCode() + ";" + payload);
+            writer.newLine();
+        }
+        recordCount++;
+    }
+
+    /**
+     * Appends one mutation record per member, opening the log once for the whole batch.
+     * Replaying a record twice has the same effect as replaying it once, so after a failure the whole batch
+     * can be appended again.
+     *
+     * @param mutation The kind of mutation.
+     * @param members  The members that were inserted, updated or deleted.
+     * @throws IOException If the records could not be written; some of them may have been written.
+     */
+    public void appendAll(Mutation mutation, Collection<Member> members) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(logFilePath, true))) {
+            for (Member member : members) {
+                String payload = (mutation == Mutation.DELETE)
+                        ? String.valueOf(member.getMemberId())
+                        : fileHandler.formatMember(member);
+                writer.write(mutation.getCode() + ";" + payload);
+                writer.newLine();
+            }
+        }
+        recordCount += members.size();
+    }
+
+    // ---------------------------
+    // Compaction
+    // ---------------------------
+
+    /**
+     * @return true if the log has grown past the compaction threshold.
+     */
+    public boolean needsCompaction() {
+        return recordCount >= compactionThreshold;
+    }
+
+    /**
+     * @param additionalRecords The number of records about to be appended.
+     * @return true if the log would grow past the compaction threshold, so writing a snapshot right away
+     * is cheaper than appending the records first.
+     */
+    public boolean needsCompaction(int additionalRecords) {
+        return recordCount + additionalRecords >= compactionThreshold;
+    }
+
+    /**
+     * Writes a fresh members.dat snapshot and truncates the log.
+     * The snapshot is written synchronously and the log is only cleared once the snapshot is on disk, so a
+     * failed snapshot or a crash in between never loses logged mutations. On failure the record count is
+     * left unchanged, so compaction is tried again.
+     *
+     * @param members The complete, current list of members.
+     * @throws IOException If the snapshot could not be written or the log could not be truncated.
+     */
+    public void compact(List<Member> members) throws IOException {
+        fileHandler.writeMembersSnapshot(members); // Throws before the log is touched
+        new FileWriter(logFilePath, false).close(); // Opening without append truncates the log
+        recordCount = 0;
+    }
+
+    /**
+     * @return The number of records currently in the log.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return The path of the log file.
+     */
+    public String getLogFilePath() {
+        return logFilePath;
+    }
+}
@@ -0,0 +1,169 @@
+package swimclub.utilities;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts of money as a primitive {@code long} number of øre (1 DKK = 100 øre).
+ * Payments, rates and totals are held in øre so that adding up any number of payments is exact and
+ * needs no boxing; kroner as {@code double} only appear at the edges, where amounts are typed in or shown.
+ * In the data files amounts are written as kroner with two decimals ("1600.00"). The parser also reads
+ * the decimal text written by earlier versions ("1600.0", "1.6E3").
+ */
+public final class Money {
+    /**
+     * Number of øre in one krone.
+     */
+    public static final long ORE_PER_KRONE = 100;
+
+    private Money() {
+    }
+
+    // ---------------------------
+    // Conversion
+    // ---------------------------
+
+    /**
+     * Converts kroner to øre, rounding half away from zero to whole øre.
+     *
+     * @param kroner The amount in kroner, e.g. typed in by a user.
+     * @return The amount in øre.
+     */
+    public static long ofKroner(double kroner) {
+        if (Double.isNaN(kroner) || Double.isInfinite(kroner)) {
+            throw new IllegalArgumentException("Invalid amount: " + kroner);
+        }
+        return Math.round(kroner * ORE_PER_KRONE);
+    }
+
+    /**
+     * Converts øre to kroner for display or for callers that still work in kroner.
+     *
+     * @param ore The amount in øre.
+     * @return The amount in kroner.
+     */
+    public static double toKroner(long ore) {
+        return ore / (double) ORE_PER_KRONE;
+    }
+
+    /**
+     * Multiplies an amount by a fraction, rounding half away from zero to whole øre, e.g. a 25% discount is
+     * {@code scale(rate, 75, 100)}.
+     *
+     * @param ore         The amount in øre.
+     * @param numerator   The numerator of the fraction.
+     * @param denominator The denominator of the fraction, greater than 0.
+     * @return The scaled amount in øre.
+     */
+    public static long scale(long ore, long numerator, long denominator) {
+        long product = Math.multiplyExact(ore, numerator);
+        long half = denominator / 2;
+        return product >= 0 ? (product + half) / denominator : (product - half) / denominator;
+    }
+
+    /**
+     * Adds up amounts held in a primitive array.
+     *
+     * @param amounts The amounts in øre.
+     * @return The sum in øre.
+     * @throws ArithmeticException If the sum does not fit in a long.
+     */
+    public static long sum(long[] amounts) {
+        long total = 0;
+        for (long amount : amounts) {
+            total = Math.addExact(total, amount);
+        }
+        return total;
+    }
+
+    // ---------------------------
+    // Text
+    // ---------------------------
+
+    /**
+     * Formats an amount as kroner with two decimals and a point, e.g. "1600.00" or "-12.50".
+     * This is the format written to the data files.
+     *
+     * @param ore The amount in øre.
+     * @return The formatted amount.
+     */
+    public static String format(long ore) {
+        long kroner = Math.abs(ore / ORE_PER_KRONE);
+        long fraction = Math.abs(ore % ORE_PER_KRONE);
+        return (ore < 0 ? "-" : "") + kroner + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * Parses an amount in kroner. Plain decimals with a point or comma ("1600", "1600.0", "1600,50") are
+     * parsed exactly without going through a double; other forms (exponents) fall back to BigDecimal.
+     * More than two decimals are rounded half away from zero to whole øre.
+     *
+     * @param text The amount in kroner.
+     * @return The amount in øre.
+     * @throws NumberFormatException If the text is not a valid amount.
+     */
+    public static long parse(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long ore = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean roundUp = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (!seenPoint) {
+                    ore = ore * 10 + (c - '0');
+                } else if (fractionDigits < 2) {
+                    ore = ore * 10 + (c - '0');
+                    fractionDigits++;
+                } else if (fractionDigits == 2) {
+                    roundUp = c >= '5'; // Only the first dropped digit decides
+                    fractionDigits++;
+                }
+            } else if ((c == '.' || c == ',') && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break; // Exponent or invalid character, use the slow path
+            }
+            if (ore > Long.MAX_VALUE / 100) {
+                break; // Too large for the fast path
+            }
+        }
+        if (i == end && digits > 0) {
+            for (int f = Math.min(fractionDigits, 2); f < 2; f++) {
+                ore *= 10;
+            }
+            if (roundUp) {
+                ore++;
+            }
+            return negative ? -ore : ore;
+        }
+        return parseSlow(text.subSequence(start, end).toString());
+    }
+
+    private static long parseSlow(String text) {
+        try {
+            return new BigDecimal(text.replace(',', '.'))
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: \"" + text + "\"");
+        }
+    }
+}
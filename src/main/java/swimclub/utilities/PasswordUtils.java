@@ -1,38 +1,144 @@
 package swimclub.utilities;
 
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
 
+/**
+ * Password hashing and verification.
+ *
+ * Hashes are versioned so the scheme can be changed without invalidating stored passwords:
+ * - Current: {@code $pbkdf2-sha256$<iterations>$<hash>}, PBKDF2 with HMAC-SHA256 and a tunable iteration count.
+ * - Legacy: a bare Base64 SHA-256 hash of salt and password, as written by earlier versions. These are still
+ *   verified; {@link #needsRehash(String)} reports them so they are replaced at the next successful login.
+ *
+ * The iteration count is read from -Dswimclub.password.iterations (default {@link #DEFAULT_ITERATIONS}). The
+ * digest, key factory and random instances are kept per thread, so hashing does not look them up every time.
+ */
 public class PasswordUtils {
+    public static final String PBKDF2_PREFIX = "$pbkdf2-sha256$";
+    public static final int DEFAULT_ITERATIONS = 600_000;  // Recommended minimum for PBKDF2-HMAC-SHA256
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
 
-    // This method generates a random salt
-    public static String generateSalt() {
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
         try {
-            SecureRandom sr = SecureRandom.getInstance("SHA1PRNG");
-            byte[] salt = new byte[16];
-            sr.nextBytes(salt);
-            return Base64.getEncoder().encodeToString(salt); // Encode the salt in Base64 format
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error generating salt", e);
+            throw new RuntimeException("Error hashing password", e);
+        }
+    });
+    private static final ThreadLocal<SecretKeyFactory> PBKDF2 = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error hashing password", e);
         }
+    });
+
+    private static volatile int iterations = Integer.getInteger("swimclub.password.iterations", DEFAULT_ITERATIONS);
+
+    // This method generates a random salt
+    public static String generateSalt() {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.get().nextBytes(salt);
+        return Base64.getEncoder().encodeToString(salt); // Encode the salt in Base64 format
     }
 
-    // This method hashes the password with a given salt
+    // This method hashes the password with a given salt, using the current scheme
     public static String hashPassword(String password, String salt) {
+        return hashPbkdf2(password, salt, iterations);
+    }
+
+    /**
+     * Checks a password against a stored hash of any supported scheme.
+     * The hashes are compared in constant time.
+     *
+     * @param inputPassword        The password entered by the user.
+     * @param storedSalt           The stored salt, Base64 encoded.
+     * @param storedHashedPassword The stored hash.
+     * @return true if the password matches.
+     */
+    public static boolean validatePassword(String inputPassword, String storedSalt, String storedHashedPassword) {
+        String hashedInputPassword;
+        if (storedHashedPassword.startsWith(PBKDF2_PREFIX)) {
+            int end = storedHashedPassword.indexOf('$', PBKDF2_PREFIX.length());
+            if (end < 0) {
+                return false;
+            }
+            int storedIterations;
+            try {
+                storedIterations = Integer.parseInt(storedHashedPassword.substring(PBKDF2_PREFIX.length(), end));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            hashedInputPassword = hashPbkdf2(inputPassword, storedSalt, storedIterations);
+        } else {
+            hashedInputPassword = hashLegacy(inputPassword, storedSalt);
+        }
+        return MessageDigest.isEqual(hashedInputPassword.getBytes(StandardCharsets.US_ASCII),
+                storedHashedPassword.getBytes(StandardCharsets.US_ASCII)); // Compare hashes
+    }
+
+    /**
+     * @param storedHashedPassword The stored hash.
+     * @return true if the hash uses an older scheme or a different iteration count than the current one.
+     */
+    public static boolean needsRehash(String storedHashedPassword) {
+        return !storedHashedPassword.startsWith(PBKDF2_PREFIX + iterations + "$");
+    }
+
+    /**
+     * @return The PBKDF2 iteration count used for new hashes.
+     */
+    public static int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Sets the PBKDF2 iteration count used for new hashes. Existing hashes keep their own count
+     * and are upgraded at the next login.
+     *
+     * @param newIterations The iteration count.
+     * @throws IllegalArgumentException If the count is not positive.
+     */
+    public static void setIterations(int newIterations) {
+        if (newIterations <= 0) {
+            throw new IllegalArgumentException("Iteration count must be positive.");
+        }
+        iterations = newIterations;
+    }
+
+    // ---------------------------
+    // Schemes
+    // ---------------------------
+
+    private static String hashPbkdf2(String password, String salt, int iterationCount) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), Base64.getDecoder().decode(salt), iterationCount, HASH_BITS);
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(Base64.getDecoder().decode(salt)); // Decode the salt back from Base64
-            byte[] hashedPassword = md.digest(password.getBytes()); // Hash the password with the salt
-            return Base64.getEncoder().encodeToString(hashedPassword); // Return the hashed password as Base64
-        } catch (NoSuchAlgorithmException e) {
+            byte[] hash = PBKDF2.get().generateSecret(spec).getEncoded();
+            return PBKDF2_PREFIX + iterationCount + "$" + Base64.getEncoder().encodeToString(hash);
+        } catch (GeneralSecurityException e) {
             throw new RuntimeException("Error hashing password", e);
+        } finally {
+            spec.clearPassword();
         }
     }
 
-    public static boolean validatePassword(String inputPassword, String storedSalt, String storedHashedPassword) {
-        String hashedInputPassword = hashPassword(inputPassword, storedSalt); // Hash the input password with the stored salt
-        return hashedInputPassword.equals(storedHashedPassword); // Compare hashes
+    /**
+     * Single SHA-256 over salt and password, the scheme of earlier versions. Only used to verify old hashes.
+     */
+    private static String hashLegacy(String password, String salt) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        md.update(Base64.getDecoder().decode(salt)); // Decode the salt back from Base64
+        byte[] hashedPassword = md.digest(password.getBytes(StandardCharsets.UTF_8)); // Hash the password with the salt
+        return Base64.getEncoder().encodeToString(hashedPassword); // Return the hashed password as Base64
     }
 }
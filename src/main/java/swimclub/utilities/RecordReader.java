@@ -0,0 +1,523 @@
+package swimclub.utilities;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.function.IntConsumer;
+
+/**
+ * Streaming reader for the semicolon-separated .dat files.
+ * The file is read in chunks into a reusable byte buffer and split into records (lines) and fields in place.
+ * Only field offsets are recorded, so numbers, enums and dates are parsed straight from the buffer
+ * without creating a String per field; Strings are only created for text columns that need them.
+ *
+ * Typical use:
+ * <pre>
+ * try (RecordReader reader = RecordReader.open(path)) {
+ *     while (reader.next()) {
+ *         int id = reader.parseInt(0);
+ *         String name = reader.getString(1);
+ *     }
+ * }
+ * </pre>
+ */
+public class RecordReader implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final char FIELD_SEPARATOR = ';';
+
+    // Powers of ten that are exact as doubles, used by the fast path of parseDouble
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;  // Source of the bytes, or null when reading a single line
+    private byte[] buffer;         // Chunk of the file currently being parsed
+    private int position;          // Start of the next unread record in the buffer
+    private int limit;             // End of the valid bytes in the buffer
+    private boolean endOfStream;   // True once the input stream has been exhausted
+
+    private int recordStart;       // Start of the current record
+    private int recordEnd;         // End of the current record (exclusive, without line separator)
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    private RecordReader(InputStream in, byte[] buffer, int limit) {
+        this.in = in;
+        this.buffer = buffer;
+        this.limit = limit;
+        this.endOfStream = (in == null);
+    }
+
+    /**
+     * Opens a file for reading records.
+     *
+     * @param filePath The path of the file.
+     * @return A reader positioned before the first record.
+     * @throws FileNotFoundException If the file does not exist.
+     */
+    public static RecordReader open(String filePath) throws FileNotFoundException {
+        return new RecordReader(new FileInputStream(filePath), new byte[DEFAULT_BUFFER_SIZE], 0);
+    }
+
+    /**
+     * Creates a reader over a single line of text, e.g. a record read from a log.
+     *
+     * @param line The record text.
+     * @return A reader positioned before the record.
+     */
+    public static RecordReader of(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return new RecordReader(null, bytes, bytes.length);
+    }
+
+    // ---------------------------
+    // Record Navigation
+    // ---------------------------
+
+    /**
+     * Advances to the next record and splits it into fields.
+     *
+     * @return true if a record was read, false at the end of the input.
+     * @throws IOException If reading from the file fails.
+     */
+    public boolean next() throws IOException {
+        int scan = position;
+        while (true) {
+            for (int i = scan; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    setRecord(position, i);
+                    position = i + 1;
+                    return true;
+                }
+            }
+            if (endOfStream) {
+                if (position < limit) {
+                    setRecord(position, limit);
+                    position = limit;
+                    return true;
+                }
+                return false;
+            }
+            scan = limit - position; // Bytes already scanned without finding a line end
+            fill();
+        }
+    }
+
+    /**
+     * @return The number of fields in the current record.
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return true if the current record contains only whitespace.
+     */
+    public boolean isBlank() {
+        for (int i = recordStart; i < recordEnd; i++) {
+            if (!isWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The current record as text, intended for error messages.
+     */
+    public String line() {
+        return new String(buffer, recordStart, recordEnd - recordStart, StandardCharsets.UTF_8);
+    }
+
+    // ---------------------------
+    // Field Parsing
+    // ---------------------------
+
+    /**
+     * @param field The field index.
+     * @return The field decoded as UTF-8 text, exactly as stored.
+     */
+    public String getString(int field) {
+        checkField(field);
+        return new String(buffer, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param field The field index.
+     * @return true if the field is empty or contains only whitespace.
+     */
+    public boolean isEmpty(int field) {
+        checkField(field);
+        return trimStart(fieldStarts[field], fieldEnds[field]) == trimEnd(fieldStarts[field], fieldEnds[field]);
+    }
+
+    /**
+     * @param field The field index.
+     * @return The first non-whitespace character of an ASCII field, or 0 if the field is empty.
+     */
+    public char firstChar(int field) {
+        checkField(field);
+        int start = trimStart(fieldStarts[field], fieldEnds[field]);
+        return start < fieldEnds[field] ? (char) buffer[start] : 0;
+    }
+
+    /**
+     * Parses a field as an int without creating a String.
+     *
+     * @param field The field index.
+     * @return The parsed value.
+     * @throws NumberFormatException If the field is not a valid int.
+     */
+    public int parseInt(int field) {
+        checkField(field);
+        return parseInt(fieldStarts[field], fieldEnds[field]);
+    }
+
+    /**
+     * Parses a field as a double. Plain decimals such as "1600.0" or "19.25" are parsed from the buffer;
+     * anything else (exponents, very long mantissas) falls back to {@link Double#parseDouble(String)}.
+     *
+     * @param field The field index.
+     * @return The parsed value.
+     * @throws NumberFormatException If the field is not a valid number.
+     */
+    public double parseDouble(int field) {
+        checkField(field);
+        int start = trimStart(fieldStarts[field], fieldEnds[field]);
+        int end = trimEnd(start, fieldEnds[field]);
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break; // Exponent or invalid character, use the slow path
+            }
+        }
+        if (i == end && digits > 0 && digits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits]; // Exact operands, correctly rounded result
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Parses a field as an amount of money in kroner and returns it in øre (see {@link Money}).
+     * Plain decimals such as "1600.00" or the older "1600.0" are parsed exactly from the buffer; anything
+     * else falls back to {@link Money#parse(CharSequence)}.
+     *
+     * @param field The field index.
+     * @return The amount in øre.
+     * @throws NumberFormatException If the field is not a valid amount.
+     */
+    public long parseMoney(int field) {
+        checkField(field);
+        int start = trimStart(fieldStarts[field], fieldEnds[field]);
+        int end = trimEnd(start, fieldEnds[field]);
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long ore = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; i < end && digits <= 15; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9' && fractionDigits < 2) {
+                ore = ore * 10 + (b - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break; // Third decimal, exponent or invalid character, use the slow path
+            }
+        }
+        if (i == end && digits > 0 && digits <= 15) {
+            for (; fractionDigits < 2; fractionDigits++) {
+                ore *= 10;
+            }
+            return negative ? -ore : ore;
+        }
+        return Money.parse(new String(buffer, start, end - start, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Parses a field as an enum constant, ignoring case, without creating a String.
+     *
+     * @param field  The field index.
+     * @param values The enum constants to match, e.g. {@code ActivityType.values()}.
+     * @param <E>    The enum type.
+     * @return The matching constant.
+     * @throws IllegalArgumentException If no constant matches.
+     */
+    public <E extends Enum<E>> E parseEnum(int field, E[] values) {
+        checkField(field);
+        return parseEnum(fieldStarts[field], fieldEnds[field], values);
+    }
+
+    /**
+     * Parses one space-separated word of a field as an enum constant, ignoring case.
+     * Used for columns such as "SENIOR COMPETITIVE" that hold two enums.
+     *
+     * @param field  The field index.
+     * @param word   The index of the word within the field.
+     * @param values The enum constants to match.
+     * @param <E>    The enum type.
+     * @return The matching constant.
+     * @throws IllegalArgumentException If the word is missing or no constant matches.
+     */
+    public <E extends Enum<E>> E parseEnumWord(int field, int word, E[] values) {
+        checkField(field);
+        int start = trimStart(fieldStarts[field], fieldEnds[field]);
+        int end = trimEnd(start, fieldEnds[field]);
+        int wordStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer[i] == ' ') {
+                if (word == 0) {
+                    return parseEnum(wordStart, i, values);
+                }
+                word--;
+                wordStart = i + 1;
+            }
+        }
+        throw new IllegalArgumentException("Missing word in field: " + getString(field));
+    }
+
+    /**
+     * Parses a field in ISO format (yyyy-MM-dd) as a date without creating a String.
+     *
+     * @param field The field index.
+     * @return The parsed date.
+     * @throws IllegalArgumentException If the field is not a valid ISO date.
+     */
+    public LocalDate parseLocalDate(int field) {
+        checkField(field);
+        int start = trimStart(fieldStarts[field], fieldEnds[field]);
+        int end = trimEnd(start, fieldEnds[field]);
+        if (end - start != 10 || buffer[start + 4] != '-' || buffer[start + 7] != '-') {
+            throw new IllegalArgumentException("Text '" + getString(field) + "' could not be parsed as a date");
+        }
+        return toDate(field, parseInt(start, start + 4), parseInt(start + 5, start + 7), parseInt(start + 8, end));
+    }
+
+    /**
+     * Parses a field in the day-first format used for training dates (dd-MM-yyyy) without creating a String.
+     *
+     * @param field The field index.
+     * @return The parsed date.
+     * @throws IllegalArgumentException If the field is not a valid dd-MM-yyyy date.
+     */
+    public LocalDate parseDayFirstDate(int field) {
+        checkField(field);
+        int start = trimStart(fieldStarts[field], fieldEnds[field]);
+        int end = trimEnd(start, fieldEnds[field]);
+        if (end - start != 10 || buffer[start + 2] != '-' || buffer[start + 5] != '-') {
+            throw new IllegalArgumentException("Text '" + getString(field) + "' could not be parsed as a dd-MM-yyyy date");
+        }
+        return toDate(field, parseInt(start + 6, end), parseInt(start + 3, start + 5), parseInt(start, start + 2));
+    }
+
+    private LocalDate toDate(int field, int year, int month, int day) {
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            // Well-formed but not a calendar date, e.g. 2024-02-30
+            throw new IllegalArgumentException("Text '" + getString(field) + "' is not a valid date: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses a field holding a separated list of ints (e.g. "1,2,3") and passes each value to a consumer.
+     * Empty entries are skipped.
+     *
+     * @param field     The field index.
+     * @param separator The separator between values.
+     * @param consumer  Receives each parsed value.
+     * @throws NumberFormatException If an entry is not a valid int.
+     */
+    public void forEachInt(int field, char separator, IntConsumer consumer) {
+        checkField(field);
+        int valueStart = fieldStarts[field];
+        int end = fieldEnds[field];
+        for (int i = valueStart; i <= end; i++) {
+            if (i == end || buffer[i] == separator) {
+                if (trimStart(valueStart, i) < trimEnd(valueStart, i)) {
+                    consumer.accept(parseInt(valueStart, i));
+                }
+                valueStart = i + 1;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private void setRecord(int start, int end) {
+        if (end > start && buffer[end - 1] == '\r') {
+            end--; // Windows line endings
+        }
+        recordStart = start;
+        recordEnd = end;
+
+        fieldCount = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer[i] == FIELD_SEPARATOR) {
+                if (fieldCount == fieldStarts.length) {
+                    fieldStarts = java.util.Arrays.copyOf(fieldStarts, fieldCount * 2);
+                    fieldEnds = java.util.Arrays.copyOf(fieldEnds, fieldCount * 2);
+                }
+                fieldStarts[fieldCount] = fieldStart;
+                fieldEnds[fieldCount] = i;
+                fieldCount++;
+                fieldStart = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Moves the unread bytes to the front of the buffer and reads more input after them.
+     * The buffer grows if a single record does not fit.
+     */
+    private void fill() throws IOException {
+        int remaining = limit - position;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+        } else if (remaining == buffer.length) {
+            buffer = java.util.Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        position = 0;
+        limit = remaining;
+
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfStream = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    private int parseInt(int start, int end) {
+        start = trimStart(start, end);
+        end = trimEnd(start, end);
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        int i = start;
+        boolean negative = false;
+        if (buffer[i] == '-' || buffer[i] == '+') {
+            negative = buffer[i] == '-';
+            i++;
+            if (i == end) {
+                throw numberFormat(start, end);
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormat(start, end);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw numberFormat(start, end);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw numberFormat(start, end);
+        }
+        return (int) value;
+    }
+
+    private <E extends Enum<E>> E parseEnum(int start, int end, E[] values) {
+        start = trimStart(start, end);
+        end = trimEnd(start, end);
+        int length = end - start;
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == length && matchesIgnoreCase(name, start)) {
+                return value;
+            }
+        }
+        String type = values.length > 0 ? values[0].getDeclaringClass().getName() : "enum";
+        throw new IllegalArgumentException("No enum constant " + type + "."
+                + new String(buffer, start, length, StandardCharsets.UTF_8));
+    }
+
+    private boolean matchesIgnoreCase(String name, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            int b = buffer[start + i];
+            if (b >= 'a' && b <= 'z') {
+                b -= 'a' - 'A';
+            }
+            if (b != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private NumberFormatException numberFormat(int start, int end) {
+        return new NumberFormatException("For input string: \""
+                + new String(buffer, start, end - start, StandardCharsets.UTF_8) + "\"");
+    }
+
+    private int trimStart(int start, int end) {
+        while (start < end && isWhitespace(buffer[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && isWhitespace(buffer[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new ArrayIndexOutOfBoundsException("Index " + field + " out of bounds for length " + fieldCount);
+        }
+    }
+}
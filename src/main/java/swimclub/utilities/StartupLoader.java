@@ -0,0 +1,139 @@
+package swimclub.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs the data loads performed at application startup.
+ * Each load is registered as a named stage together with the stages it depends on. A stage starts as soon as
+ * all of its dependencies have finished, so independent loads (e.g. payments and training results, which both
+ * only need the members) run concurrently on a bounded thread pool.
+ * The time spent in every stage is recorded and can be printed once all stages have completed.
+ */
+public class StartupLoader {
+    private static final int MAX_THREADS = 4;
+
+    private final ExecutorService executor;     // Bounded pool running the stages
+    private final List<Stage> stages;           // All registered stages, in registration order
+    private final long startNanos;              // When the loader was created
+
+    /**
+     * A registered stage and the time it took.
+     */
+    private static final class Stage {
+        private final String name;
+        private CompletableFuture<?> future;
+        private volatile long elapsedNanos;
+
+        private Stage(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Creates a loader with one thread per available processor, up to four threads.
+     */
+    public StartupLoader() {
+        this(Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates a loader with a fixed number of threads.
+     *
+     * @param threads The maximum number of stages running at the same time.
+     */
+    public StartupLoader(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Startup loader needs at least one thread.");
+        }
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "startup-loader");
+            thread.setDaemon(true); // Never keep the JVM alive because of a stuck load
+            return thread;
+        });
+        this.stages = new ArrayList<>();
+        this.startNanos = System.nanoTime();
+    }
+
+    // ---------------------------
+    // Stage Registration
+    // ---------------------------
+
+    /**
+     * Registers a stage that starts once all of its dependencies have completed.
+     *
+     * @param name         The name shown in the timing report.
+     * @param task         The load to run; its result becomes the value of the returned future.
+     * @param dependencies The stages that must complete before this one starts.
+     * @param <T>          The type of the value produced by the stage.
+     * @return A future completed with the value produced by the task.
+     */
+    public <T> CompletableFuture<T> stage(String name, Supplier<T> task, CompletableFuture<?>... dependencies) {
+        Stage stage = new Stage(name);
+        CompletableFuture<T> future = CompletableFuture.allOf(dependencies)
+                .thenApplyAsync(ignored -> {
+                    long start = System.nanoTime();
+                    try {
+                        return task.get();
+                    } finally {
+                        stage.elapsedNanos = System.nanoTime() - start;
+                    }
+                }, executor);
+        stage.future = future;
+        stages.add(stage);
+        return future;
+    }
+
+    /**
+     * Registers a stage that does not produce a value.
+     *
+     * @param name         The name shown in the timing report.
+     * @param task         The load to run.
+     * @param dependencies The stages that must complete before this one starts.
+     * @return A future completed when the task has run.
+     */
+    public CompletableFuture<Void> stage(String name, Runnable task, CompletableFuture<?>... dependencies) {
+        return stage(name, () -> {
+            task.run();
+            return null;
+        }, dependencies);
+    }
+
+    // ---------------------------
+    // Completion
+    // ---------------------------
+
+    /**
+     * Waits for all registered stages, shuts down the thread pool and prints the time spent per stage.
+     *
+     * @throws RuntimeException If any stage failed.
+     */
+    public void awaitAll() {
+        try {
+            CompletableFuture.allOf(stages.stream().map(stage -> stage.future).toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Startup failed: " + cause.getMessage(), cause);
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println(getTimingReport());
+    }
+
+    /**
+     * @return A single line listing the time spent in each completed stage and the total wall-clock time.
+     */
+    public String getTimingReport() {
+        StringBuilder report = new StringBuilder("Startup:");
+        for (Stage stage : stages) {
+            if (stage.future.isDone()) {
+                report.append(' ').append(stage.name).append(' ')
+                        .append(TimeUnit.NANOSECONDS.toMillis(stage.elapsedNanos)).append(" ms,");
+            }
+        }
+        report.append(" total ").append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).append(" ms");
+        return report.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package swimclub.utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of loading teams.dat: how many teams and memberships were loaded, and every reference that
+ * could not be resolved. Problems are collected here instead of being printed one line at a time, so the
+ * caller can decide whether to show a summary, list the details or repair the file.
+ */
+public class TeamLoadReport {
+
+    /**
+     * Kinds of problems found while loading teams.
+     */
+    public enum ProblemType {
+        UNKNOWN_MEMBER,    // A member ID that no member has
+        UNKNOWN_COACH,     // A coach ID that no coach has
+        DUPLICATE_MEMBER,  // A member listed twice on the same team
+        MALFORMED_LINE     // A line that could not be parsed; the team was skipped
+    }
+
+    /**
+     * A single problem found while loading teams.
+     */
+    public static final class Problem {
+        private final ProblemType type;
+        private final int lineNumber;
+        private final String teamName;
+        private final int referenceId;
+        private final String detail;
+
+        private Problem(ProblemType type, int lineNumber, String teamName, int referenceId, String detail) {
+            this.type = type;
+            this.lineNumber = lineNumber;
+            this.teamName = teamName;
+            this.referenceId = referenceId;
+            this.detail = detail;
+        }
+
+        /**
+         * @return The kind of problem.
+         */
+        public ProblemType getType() {
+            return type;
+        }
+
+        /**
+         * @return The line of teams.dat the problem was found on (1-based).
+         */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * @return The team the problem belongs to, or null for a line that could not be parsed.
+         */
+        public String getTeamName() {
+            return teamName;
+        }
+
+        /**
+         * @return The member or coach ID that could not be resolved, or -1 if not applicable.
+         */
+        public int getReferenceId() {
+            return referenceId;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + detail;
+        }
+    }
+
+    private final List<Problem> problems = new ArrayList<>();
+    private final List<String> teamsWithoutCoach = new ArrayList<>();
+    private int teamsLoaded;
+    private int membershipsLoaded;
+
+    // ---------------------------
+    // Recording (used by the loader)
+    // ---------------------------
+
+    void teamLoaded(int memberCount) {
+        teamsLoaded++;
+        membershipsLoaded += memberCount;
+    }
+
+    void teamWithoutCoach(String teamName) {
+        teamsWithoutCoach.add(teamName);
+    }
+
+    void unknownMember(int lineNumber, String teamName, int memberId) {
+        problems.add(new Problem(ProblemType.UNKNOWN_MEMBER, lineNumber, teamName, memberId,
+                "Member with ID " + memberId + " not found for team " + teamName));
+    }
+
+    void unknownCoach(int lineNumber, String teamName, int coachId) {
+        problems.add(new Problem(ProblemType.UNKNOWN_COACH, lineNumber, teamName, coachId,
+                "Coach with ID " + coachId + " not found for team " + teamName));
+    }
+
+    void duplicateMember(int lineNumber, String teamName, int memberId) {
+        problems.add(new Problem(ProblemType.DUPLICATE_MEMBER, lineNumber, teamName, memberId,
+                "Member with ID " + memberId + " is listed more than once on team " + teamName));
+    }
+
+    void malformedLine(int lineNumber, String line, String reason) {
+        problems.add(new Problem(ProblemType.MALFORMED_LINE, lineNumber, null, -1,
+                "Skipped malformed team line '" + line + "': " + reason));
+    }
+
+    // ---------------------------
+    // Results
+    // ---------------------------
+
+    /**
+     * @return The number of teams loaded.
+     */
+    public int getTeamsLoaded() {
+        return teamsLoaded;
+    }
+
+    /**
+     * @return The number of team memberships that were resolved to a member.
+     */
+    public int getMembershipsLoaded() {
+        return membershipsLoaded;
+    }
+
+    /**
+     * @return The names of the teams stored without a coach. This is allowed and not counted as a problem.
+     */
+    public List<String> getTeamsWithoutCoach() {
+        return Collections.unmodifiableList(teamsWithoutCoach);
+    }
+
+    /**
+     * @return All problems in file order.
+     */
+    public List<Problem> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+
+    /**
+     * @param type The kind of problem.
+     * @return The problems of that kind in file order.
+     */
+    public List<Problem> getProblems(ProblemType type) {
+        List<Problem> matching = new ArrayList<>();
+        for (Problem problem : problems) {
+            if (problem.type == type) {
+                matching.add(problem);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * @return true if any reference could not be resolved or any line could not be parsed.
+     */
+    public boolean hasProblems() {
+        return !problems.isEmpty();
+    }
+
+    /**
+     * @return A one-line summary, e.g. "Teams: 12 loaded, 240 memberships; 3 unknown members, 1 unknown coach".
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder("Teams: ")
+                .append(teamsLoaded).append(" loaded, ")
+                .append(membershipsLoaded).append(" memberships");
+        String separator = "; ";
+        for (ProblemType type : ProblemType.values()) {
+            int count = getProblems(type).size();
+            if (count > 0) {
+                summary.append(separator).append(count).append(' ').append(describe(type, count));
+                separator = ", ";
+            }
+        }
+        return summary.toString();
+    }
+
+    private static String describe(ProblemType type, int count) {
+        String plural = count == 1 ? "" : "s";
+        switch (type) {
+            case UNKNOWN_MEMBER: return "unknown member" + plural;
+            case UNKNOWN_COACH: return "unknown coach" + (count == 1 ? "" : "es");
+            case DUPLICATE_MEMBER: return "duplicate member" + plural;
+            default: return "malformed line" + plural;
+        }
+    }
+}
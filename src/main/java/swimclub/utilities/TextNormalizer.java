@@ -0,0 +1,91 @@
+package swimclub.utilities;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Folds text into a canonical form for searching.
+ * Letters are lower-cased and stripped of diacritics, and the Scandinavian letters that Unicode does not
+ * decompose are spelled out (ø becomes o, æ becomes ae), so "Søren Ærø" and "soren aero" compare equal.
+ * Anything that is not a letter or digit separates tokens.
+ */
+public class TextNormalizer {
+
+    private TextNormalizer() {
+        // Static helper
+    }
+
+    /**
+     * Normalizes text: folds case and diacritics and collapses separators to single spaces.
+     *
+     * @param text The text to normalize (may be null).
+     * @return The normalized text, empty if the text has no letters or digits.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue; // Accents split off by the decomposition
+            }
+            String folded = fold(c);
+            if (folded == null) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(folded);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Splits text into normalized tokens.
+     *
+     * @param text The text to tokenize (may be null).
+     * @return The normalized tokens in their original order.
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = normalize(text);
+        int start = 0;
+        for (int i = 0; i <= normalized.length(); i++) {
+            if (i == normalized.length() || normalized.charAt(i) == ' ') {
+                if (i > start) {
+                    tokens.add(normalized.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Folds a single lower-case character.
+     *
+     * @return The folded text, or null if the character is a separator.
+     */
+    private static String fold(char c) {
+        switch (c) {
+            case 'ø': return "o";
+            case 'æ': return "ae";
+            case 'œ': return "oe";
+            case 'ß': return "ss";
+            case 'đ': return "d";
+            case 'ł': return "l";
+            case 'þ': return "th";
+            default:
+                return Character.isLetterOrDigit(c) ? String.valueOf(c) : null;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package swimclub.utilities;
+
+import swimclub.models.ActivityType;
+import swimclub.models.MembershipLevel;
+import swimclub.models.TrainingResults;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary, column-oriented file of training results that is read through a memory mapping.
+ * Every column is stored as one contiguous block, so a scan over e.g. the times of a discipline only touches
+ * the bytes of the columns it reads and never creates a TrainingResults object.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * int magic ("SWTR"), int version, int rowCount
+ * int[rowCount]  memberId
+ * byte[rowCount] activity   (ActivityType ordinal)
+ * byte[rowCount] level      (MembershipLevel ordinal)
+ * int[rowCount]  time       (centiseconds)
+ * int[rowCount]  date       (epoch day, or NO_DATE)
+ * </pre>
+ * The text file trainingResults.dat remains the import/export format; this file is derived from it.
+ */
+public class TrainingResultsColumns implements Closeable {
+    private static final int MAGIC = 0x53575452; // "SWTR"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    private static final MembershipLevel[] MEMBERSHIP_LEVELS = MembershipLevel.values();
+
+    /**
+     * Stored in the date column when a result has no date.
+     */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    /**
+     * Receives the columns of one row during a scan.
+     */
+    public interface RowVisitor {
+        void visit(int memberId, ActivityType activityType, MembershipLevel level, int centiseconds, int epochDay);
+    }
+
+    private final FileChannel channel;   // Open channel backing the mapping
+    private final MappedByteBuffer data; // The mapped file
+    private final int rowCount;          // Number of rows in the file
+    private final int activityOffset;    // Start of the activity column
+    private final int levelOffset;       // Start of the level column
+    private final int timeOffset;        // Start of the time column
+    private final int dateOffset;        // Start of the date column
+
+    private TrainingResultsColumns(FileChannel channel, MappedByteBuffer data) throws IOException {
+        this.channel = channel;
+        this.data = data;
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a training results column file.");
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported training results column file version: " + data.getInt(4));
+        }
+        this.rowCount = data.getInt(8);
+        if (rowCount < 0) {
+            throw new IOException("Invalid row count in training results column file: " + rowCount);
+        }
+        // Computed in long, so a corrupt row count cannot overflow into offsets that pass the length check
+        long activityStart = HEADER_SIZE + (long) rowCount * Integer.BYTES;
+        long levelStart = activityStart + rowCount;
+        long timeStart = levelStart + rowCount;
+        long dateStart = timeStart + (long) rowCount * Integer.BYTES;
+        if (data.capacity() < dateStart + (long) rowCount * Integer.BYTES) {
+            throw new IOException("Training results column file is truncated.");
+        }
+        this.activityOffset = (int) activityStart; // All offsets are within the mapping, so they fit in an int
+        this.levelOffset = (int) levelStart;
+        this.timeOffset = (int) timeStart;
+        this.dateOffset = (int) dateStart;
+    }
+
+    // ---------------------------
+    // Opening and Writing
+    // ---------------------------
+
+    /**
+     * Memory-maps an existing column file for reading.
+     *
+     * @param filePath The path of the column file.
+     * @return The mapped columns; close them to release the file handle.
+     * @throws IOException If the file cannot be opened or is not a valid column file.
+     */
+    public static TrainingResultsColumns map(String filePath) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        try {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TrainingResultsColumns(channel, data);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes training results to a column file.
+     * Results whose date cannot be parsed are skipped and reported, like the rows {@link #importText} skips,
+     * so exporting the results and importing their text file give the same rows.
+     *
+     * @param filePath The path of the column file to write.
+     * @param results  The results to store.
+     * @return The number of rows written.
+     * @throws IOException If the file cannot be written.
+     */
+    public static int write(String filePath, List<TrainingResults> results) throws IOException {
+        int count = 0;
+        int[] memberIds = new int[results.size()];
+        byte[] activities = new byte[results.size()];
+        byte[] levels = new byte[results.size()];
+        int[] times = new int[results.size()];
+        int[] dates = new int[results.size()];
+        for (TrainingResults result : results) {
+            int date;
+            try {
+                date = toEpochDay(result.getDate());
+            } catch (RuntimeException e) {
+                System.err.println("Skipping training result with invalid date: " + result + " - " + e.getMessage());
+                continue;
+            }
+            memberIds[count] = result.getMember().getMemberId();
+            activities[count] = (byte) result.getActivityType().ordinal();
+            levels[count] = (byte) result.getLevel().ordinal();
+            times[count] = toCentiseconds(result.getTime());
+            dates[count] = date;
+            count++;
+        }
+        writeColumns(filePath, count, memberIds, activities, levels, times, dates);
+        return count;
+    }
+
+    /**
+     * Converts a trainingResults.dat text file into a column file without creating result objects.
+     * Rows that cannot be parsed are skipped and reported.
+     *
+     * @param textFilePath   The text file to import.
+     * @param columnFilePath The column file to write.
+     * @return The number of rows written.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static int importText(String textFilePath, String columnFilePath) throws IOException {
+        int count = 0;
+        int[] memberIds = new int[1024];
+        byte[] activities = new byte[1024];
+        byte[] levels = new byte[1024];
+        int[] times = new int[1024];
+        int[] dates = new int[1024];
+
+        try (RecordReader reader = RecordReader.open(textFilePath)) {
+            while (reader.next()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+                try {
+                    int memberId = reader.parseInt(0);
+                    MembershipLevel level = reader.parseEnum(1, MEMBERSHIP_LEVELS);
+                    ActivityType activityType = reader.parseEnum(2, ACTIVITY_TYPES);
+                    int time = toCentiseconds(reader.parseDouble(3));
+                    int date = reader.fieldCount() > 4 && !reader.isEmpty(4)
+                            ? (int) reader.parseDayFirstDate(4).toEpochDay()
+                            : NO_DATE;
+
+                    if (count == memberIds.length) {
+                        int capacity = count * 2;
+                        memberIds = Arrays.copyOf(memberIds, capacity);
+                        activities = Arrays.copyOf(activities, capacity);
+                        levels = Arrays.copyOf(levels, capacity);
+                        times = Arrays.copyOf(times, capacity);
+                        dates = Arrays.copyOf(dates, capacity);
+                    }
+                    memberIds[count] = memberId;
+                    activities[count] = (byte) activityType.ordinal();
+                    levels[count] = (byte) level.ordinal();
+                    times[count] = time;
+                    dates[count] = date;
+                    count++;
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping invalid training result: " + reader.line() + " - " + e.getMessage());
+                }
+            }
+        }
+        writeColumns(columnFilePath, count, memberIds, activities, levels, times, dates);
+        return count;
+    }
+
+    // ---------------------------
+    // Column Access
+    // ---------------------------
+
+    /**
+     * @return The number of rows.
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * @param row The row index.
+     * @return The member ID of the row.
+     */
+    public int getMemberId(int row) {
+        return data.getInt(HEADER_SIZE + checkRow(row) * Integer.BYTES);
+    }
+
+    /**
+     * @param row The row index.
+     * @return The discipline of the row.
+     */
+    public ActivityType getActivityType(int row) {
+        return ACTIVITY_TYPES[data.get(activityOffset + checkRow(row))];
+    }
+
+    /**
+     * @param row The row index.
+     * @return The membership level of the row.
+     */
+    public MembershipLevel getLevel(int row) {
+        return MEMBERSHIP_LEVELS[data.get(levelOffset + checkRow(row))];
+    }
+
+    /**
+     * @param row The row index.
+     * @return The time in hundredths of a second.
+     */
+    public int getCentiseconds(int row) {
+        return data.getInt(timeOffset + checkRow(row) * Integer.BYTES);
+    }
+
+    /**
+     * @param row The row index.
+     * @return The date as an epoch day, or {@link #NO_DATE}.
+     */
+    public int getEpochDay(int row) {
+        return data.getInt(dateOffset + checkRow(row) * Integer.BYTES);
+    }
+
+    // ---------------------------
+    // Scans
+    // ---------------------------
+
+    /**
+     * Visits every row in file order.
+     *
+     * @param visitor Receives the columns of each row.
+     */
+    public void forEach(RowVisitor visitor) {
+        for (int row = 0; row < rowCount; row++) {
+            visitor.visit(
+                    data.getInt(HEADER_SIZE + row * Integer.BYTES),
+                    ACTIVITY_TYPES[data.get(activityOffset + row)],
+                    MEMBERSHIP_LEVELS[data.get(levelOffset + row)],
+                    data.getInt(timeOffset + row * Integer.BYTES),
+                    data.getInt(dateOffset + row * Integer.BYTES));
+        }
+    }
+
+    /**
+     * Counts the rows for a discipline and level, reading only the activity and level columns.
+     *
+     * @param activityType The discipline.
+     * @param level        The membership level.
+     * @return The number of matching rows.
+     */
+    public int count(ActivityType activityType, MembershipLevel level) {
+        byte activity = (byte) activityType.ordinal();
+        byte levelOrdinal = (byte) level.ordinal();
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (data.get(activityOffset + row) == activity && data.get(levelOffset + row) == levelOrdinal) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Computes the average time for a discipline and level.
+     *
+     * @param activityType The discipline.
+     * @param level        The membership level.
+     * @return The average time in seconds, or 0 if there are no matching rows.
+     */
+    public double averageTime(ActivityType activityType, MembershipLevel level) {
+        byte activity = (byte) activityType.ordinal();
+        byte levelOrdinal = (byte) level.ordinal();
+        long total = 0;
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (data.get(activityOffset + row) == activity && data.get(levelOffset + row) == levelOrdinal) {
+                total += data.getInt(timeOffset + row * Integer.BYTES);
+                count++;
+            }
+        }
+        return count == 0 ? 0 : total / 100.0 / count;
+    }
+
+    /**
+     * Finds the rows with the fastest times for a discipline and level.
+     * Keeps a small sorted buffer of the best rows instead of sorting the whole column.
+     *
+     * @param activityType The discipline.
+     * @param level        The membership level.
+     * @param limit        The maximum number of rows to return.
+     * @return Row indices, fastest first (ties in file order).
+     */
+    public int[] topRows(ActivityType activityType, MembershipLevel level, int limit) {
+        byte activity = (byte) activityType.ordinal();
+        byte levelOrdinal = (byte) level.ordinal();
+        int[] rows = new int[Math.max(0, limit)];
+        int[] best = new int[rows.length];
+        int found = 0;
+        for (int row = 0; row < rowCount && rows.length > 0; row++) {
+            if (data.get(activityOffset + row) != activity || data.get(levelOffset + row) != levelOrdinal) {
+                continue;
+            }
+            int time = data.getInt(timeOffset + row * Integer.BYTES);
+            if (found == rows.length && time >= best[found - 1]) {
+                continue; // Not faster than the slowest kept row
+            }
+            int position = (found == rows.length) ? found - 1 : found++;
+            while (position > 0 && best[position - 1] > time) {
+                best[position] = best[position - 1];
+                rows[position] = rows[position - 1];
+                position--;
+            }
+            best[position] = time;
+            rows[position] = row;
+        }
+        return Arrays.copyOf(rows, found);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ---------------------------
+    // Helper Methods
+    // ---------------------------
+
+    private static void writeColumns(String filePath, int count, int[] memberIds, byte[] activities, byte[] levels,
+                                     int[] times, int[] dates) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeInt(memberIds[i]);
+            }
+            out.write(activities, 0, count);
+            out.write(levels, 0, count);
+            for (int i = 0; i < count; i++) {
+                out.writeInt(times[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                out.writeInt(dates[i]);
+            }
+        }
+    }
+
+    private static int toCentiseconds(double seconds) {
+        return (int) Math.round(seconds * 100);
+    }
+
+    /**
+     * Parses a date the way {@link #importText} parses the date field.
+     *
+     * @return The epoch day, or {@link #NO_DATE} for a missing date.
+     * @throws IllegalArgumentException If the date is not a valid dd-MM-yyyy date.
+     */
+    private static int toEpochDay(String date) {
+        if (date == null || date.isBlank()) {
+            return NO_DATE;
+        }
+        try (RecordReader field = RecordReader.of(date)) {
+            if (!field.next() || field.fieldCount() != 1) {
+                throw new IllegalArgumentException("Text '" + date + "' could not be parsed as a dd-MM-yyyy date");
+            }
+            return (int) field.parseDayFirstDate(0).toEpochDay();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown when reading from a String
+        }
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount + " rows");
+        }
+        return row;
+    }
+}
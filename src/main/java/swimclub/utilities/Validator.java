@@ -126,14 +126,38 @@ public class Validator {
     public static void validateMemberData(String name, int age, String membershipType,
                                           String email, String city, String street, String region, int zipcode, int phoneNumber,
                                           MembershipStatus membershipStatus, String activityType, PaymentStatus paymentStatus) throws IllegalArgumentException {
+        validateMemberData(name, age, MembershipType.fromString(membershipType), email, city, street, region, zipcode,
+                phoneNumber, membershipStatus, ActivityTypeData.fromString(activityType).toActivityType(), paymentStatus);
+    }
+
+    /**
+     * Validates the data of a member whose membership type and activity type have already been parsed.
+     * Used by the file loaders, which read these columns straight into enums.
+     *
+     * @param name             The name of the member.
+     * @param age              The age of the member.
+     * @param membershipType   The membership type of the member.
+     * @param email            The email address of the member.
+     * @param city             The city of the member.
+     * @param street           The street of the member.
+     * @param region           The region of the member.
+     * @param zipcode          The zip code of the member.
+     * @param phoneNumber      The phone number of the member.
+     * @param membershipStatus The membership status of the member.
+     * @param activityType     The preferred activity type of the member.
+     * @param paymentStatus    The payment status of the member.
+     * @throws IllegalArgumentException if any validation fails.
+     */
+    public static void validateMemberData(String name, int age, MembershipType membershipType,
+                                          String email, String city, String street, String region, int zipcode, int phoneNumber,
+                                          MembershipStatus membershipStatus, ActivityType activityType, PaymentStatus paymentStatus) throws IllegalArgumentException {
         if (!isValidName(name)) {
             throw new IllegalArgumentException("Invalid name: Name cannot be null or empty.");
         }
         if (!isValidAge(age)) {
             throw new IllegalArgumentException("Invalid age: Age must be between 0 and 120.");
         }
-        MembershipType type = MembershipType.fromString(membershipType);
-        if (!isValidMembershipType(type)) {
+        if (!isValidMembershipType(membershipType)) {
             throw new IllegalArgumentException("Invalid membership type: Must be 'junior' or 'senior' and category must be 'competitive' or 'exercise'.");
         }
         if (!isValidEmail(email)) {
@@ -148,8 +172,7 @@ public class Validator {
         if (!isValidPaymentStatus(paymentStatus)) {
             throw new IllegalArgumentException("Invalid payment status: Must be 'COMPLETE', 'PENDING', or 'FAILED'.");
         }
-        ActivityTypeData activity = ActivityTypeData.fromString(activityType);
-        if (!isValidMemberActivityType(activity)) {
+        if (activityType == null) {
             throw new IllegalArgumentException("Invalid activitytype: Must be 'Crawl', 'Backcrawl', 'Breathstroke' or 'Butterfly'");
         }
     }
@@ -0,0 +1,324 @@
+package swimclub.utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind queue for file saves.
+ * Callers submit a write for a key (normally the file path) and return immediately; a dedicated thread
+ * performs the writes. Writes submitted for the same key within the commit window replace each other,
+ * so a burst of changes to one file (e.g. assigning many members to a team) results in a single write
+ * of the latest content.
+ *
+ * Submitted tasks must not read mutable application state: they should write a snapshot taken when
+ * they were submitted. {@link #flush()} is the durability barrier; it blocks until every write submitted
+ * before the call has been performed, and reports whether they all succeeded. A replaced write only counts
+ * as performed once the write that replaced it has run. A failed write counts as failed until a later write
+ * for the same key succeeds.
+ */
+public class WriteBehindPersistence implements Closeable {
+    /**
+     * Default time a write waits for further changes to the same file before it is performed.
+     */
+    public static final long DEFAULT_COMMIT_WINDOW_MILLIS = 50;
+
+    /**
+     * The latest write for a key, with the number of submissions it stands for.
+     */
+    private static final class PendingWrite {
+        private final String key;
+        private final BooleanSupplier write; // Returns false if the write failed
+        private final int submissions;       // This write plus the writes it replaced
+        private final long sequence;         // Submission number of this write
+
+        private PendingWrite(String key, BooleanSupplier write, int submissions, long sequence) {
+            this.key = key;
+            this.write = write;
+            this.submissions = submissions;
+            this.sequence = sequence;
+        }
+    }
+
+    private final long commitWindowMillis;          // How long a batch collects writes
+    private final boolean synchronous;              // Run writes on the caller's thread
+    private final Map<String, PendingWrite> pending; // Latest write per key, guarded by this
+    private final Thread writerThread;              // Performs the writes, null when synchronous
+    private long submittedCount;                    // Writes submitted so far, guarded by this
+    private long completedCount;                    // Writes performed, or replaced by a performed write, guarded by this
+    private final Map<String, Long> failedWrites = new HashMap<>(); // Key -> submission number of its failed write, guarded by this
+    private boolean flushRequested;                 // Ends the current commit window early, guarded by this
+    private boolean closed;                         // No more writes accepted, guarded by this
+    private volatile AtomicFileWriter.Durability durability = AtomicFileWriter.Durability.RENAME; // Used by submitFile
+
+    /**
+     * Creates a write-behind queue with the default commit window.
+     */
+    public WriteBehindPersistence() {
+        this(DEFAULT_COMMIT_WINDOW_MILLIS);
+    }
+
+    /**
+     * Creates a write-behind queue.
+     *
+     * @param commitWindowMillis How long writes are collected before a batch is written.
+     */
+    public WriteBehindPersistence(long commitWindowMillis) {
+        this(commitWindowMillis, false);
+    }
+
+    private WriteBehindPersistence(long commitWindowMillis, boolean synchronous) {
+        if (commitWindowMillis < 0) {
+            throw new IllegalArgumentException("Commit window cannot be negative.");
+        }
+        this.commitWindowMillis = commitWindowMillis;
+        this.synchronous = synchronous;
+        this.pending = new LinkedHashMap<>();
+        if (synchronous) {
+            this.writerThread = null;
+        } else {
+            this.writerThread = new Thread(this::runWriter, "write-behind");
+            this.writerThread.setDaemon(true);
+            this.writerThread.start();
+        }
+    }
+
+    /**
+     * Creates an instance that performs every write immediately on the caller's thread.
+     * Used when no write-behind is wanted, e.g. in tests and tools.
+     *
+     * @return A synchronous persistence instance.
+     */
+    public static WriteBehindPersistence synchronous() {
+        return new WriteBehindPersistence(0, true);
+    }
+
+    // ---------------------------
+    // Submitting and Flushing
+    // ---------------------------
+
+    /**
+     * Queues a write. A write still pending for the same key is replaced by this one.
+     *
+     * A write that throws counts as failed; see {@link #flush()}.
+     *
+     * @param key   Identifies the target of the write, normally the file path.
+     * @param write The write to perform; it must only use data captured at submission.
+     */
+    public void submit(String key, Runnable write) {
+        submitWrite(key, () -> {
+            write.run();
+            return true;
+        });
+    }
+
+    /**
+     * Queues a complete rewrite of a text file with the given lines.
+     * A pending rewrite of the same file is replaced, so only the latest content is written.
+     * The file is replaced atomically with the configured durability level.
+     *
+     * @param filePath The file to overwrite; also the coalescing key.
+     * @param lines    The formatted lines; the list must not be modified after submission.
+     * @param onError  Receives the exception if the file cannot be written.
+     */
+    public void submitFile(String filePath, List<String> lines, Consumer<IOException> onError) {
+        submitWrite(filePath, () -> {
+            try {
+                AtomicFileWriter.writeLines(filePath, lines, durability);
+                return true;
+            } catch (IOException e) {
+                onError.accept(e);
+                return false;
+            }
+        });
+    }
+
+    private void submitWrite(String key, BooleanSupplier write) {
+        if (synchronous) {
+            long sequence;
+            synchronized (this) {
+                sequence = ++submittedCount;
+            }
+            boolean succeeded = false;
+            try {
+                succeeded = write.getAsBoolean();
+            } finally {
+                synchronized (this) {
+                    recordOutcome(key, sequence, succeeded);
+                }
+            }
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Write-behind persistence has been closed.");
+            }
+            // A replaced write is done once its replacement has run, so the replacement carries its count
+            PendingWrite replaced = pending.get(key);
+            submittedCount++;
+            pending.put(key, new PendingWrite(key, write, replaced == null ? 1 : replaced.submissions + 1, submittedCount));
+            notifyAll();
+        }
+    }
+
+    /**
+     * Blocks until all writes submitted before this call have been performed. An interrupt does not end the
+     * wait early; the thread's interrupt status is restored before returning.
+     *
+     * @return true if every write submitted before this call succeeded (or was followed by a successful write
+     * for the same key), false if any of them failed.
+     */
+    public boolean flush() {
+        synchronized (this) {
+            long target = submittedCount;
+            if (!synchronous) {
+                flushRequested = true;
+                notifyAll();
+                boolean interrupted = false;
+                while (completedCount < target && writerThread.isAlive()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true; // Keep waiting; the barrier must hold
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (long failedSequence : failedWrites.values()) {
+                if (failedSequence <= target) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sets how far file rewrites are forced to disk. Applies to writes performed after the call.
+     *
+     * @param durability The durability level.
+     */
+    public void setDurability(AtomicFileWriter.Durability durability) {
+        if (durability == null) {
+            throw new IllegalArgumentException("Durability cannot be null.");
+        }
+        this.durability = durability;
+    }
+
+    /**
+     * @return The durability level used for file rewrites.
+     */
+    public AtomicFileWriter.Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * @return The number of writes waiting to be performed.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Flushes all pending writes and stops the writer thread. Writes that failed are reported by key.
+     * Calling close more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (!flush()) {
+            synchronized (this) {
+                System.err.println("Write-behind persistence closed with failed writes: " + failedWrites.keySet());
+            }
+        }
+        if (synchronous) {
+            return;
+        }
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    // ---------------------------
+    // Writer Thread
+    // ---------------------------
+
+    private void runWriter() {
+        boolean interrupted = false; // Restored once the thread ends, so waits do not return at once meanwhile
+        while (true) {
+            List<PendingWrite> batch;
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    interrupted |= waitQuietly(0);
+                }
+                if (pending.isEmpty()) {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return; // Closed and drained
+                }
+                // Collect further writes until the window ends or a flush is requested
+                long deadline = System.currentTimeMillis() + commitWindowMillis;
+                long remaining;
+                while (!flushRequested && !closed && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    interrupted |= waitQuietly(remaining);
+                }
+                flushRequested = false;
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+
+            boolean[] succeeded = new boolean[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    succeeded[i] = batch.get(i).write.getAsBoolean();
+                } catch (RuntimeException e) {
+                    System.err.println("Error in write-behind persistence: " + e.getMessage());
+                }
+            }
+
+            synchronized (this) {
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingWrite write = batch.get(i);
+                    recordOutcome(write.key, write.sequence, succeeded[i]);
+                    completedCount += write.submissions;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Records whether a write succeeded. A success clears an earlier failure for the same key, since the
+     * newer content replaces what the failed write should have written. Called while holding the lock.
+     */
+    private void recordOutcome(String key, long sequence, boolean succeeded) {
+        if (succeeded) {
+            failedWrites.remove(key);
+        } else {
+            failedWrites.put(key, sequence);
+        }
+    }
+
+    /**
+     * Waits on this object's monitor without giving up on an interrupt.
+     *
+     * @return true if the wait was interrupted.
+     */
+    private boolean waitQuietly(long millis) {
+        try {
+            wait(millis);
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.*;
+import swimclub.models.*;
+import swimclub.utilities.FileHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberRepositoryTest {
+    private static final String TEST_MEMBER_FILE = "src/test/resources/testRepositoryMembers.txt";
+    private static final String TEST_LOG_FILE = TEST_MEMBER_FILE + ".log";
+    private static final String TEST_SEQUENCE_FILE = TEST_MEMBER_FILE + ".seq";
+
+    private FileHandler fileHandler;
+    private MemberRepository memberRepository;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        File file = new File(TEST_MEMBER_FILE);
+        file.getParentFile().mkdirs();
+        file.createNewFile();
+
+        fileHandler = new FileHandler(
+                TEST_MEMBER_FILE,
+                "src/test/resources/testRepositoryPayments.txt",
+                "src/test/resources/testRepositoryReminders.txt",
+                "src/main/resources/paymentRates.dat",
+                "src/main/resources/teams.dat",
+                "src/main/resources/competitionResults.dat",
+                "src/main/resources/staff.dat",
+                "src/main/resources/trainingResults.dat"
+        );
+        memberRepository = new MemberRepository(fileHandler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_MEMBER_FILE).delete();
+        new File(TEST_LOG_FILE).delete();
+        new File(TEST_SEQUENCE_FILE).delete();
+    }
+
+    private Member createTestMember(String id, String name) {
+        return new SeniorMember(
+                id, name, name.toLowerCase() + "@example.com", "City", "Street", "Region", 12345,
+                new MembershipType(MembershipCategory.COMPETITIVE, MembershipLevel.SENIOR),
+                MembershipStatus.ACTIVE, ActivityType.CRAWL, PaymentStatus.PENDING, 30, 12345678, "No team"
+        );
+    }
+
+    @Test
+    void testSaveAppendsSingleLogRecord() throws IOException {
+        memberRepository.save(createTestMember("1", "Alice"));
+        memberRepository.save(createTestMember("2", "Bob"));
+
+        // The snapshot is untouched, each registration is one appended record
+        assertEquals(0, Files.readAllLines(new File(TEST_MEMBER_FILE).toPath()).size());
+        assertEquals(2, Files.readAllLines(new File(TEST_LOG_FILE).toPath()).size());
+    }
+
+    @Test
+    void testReplayAppliesInsertUpdateAndDelete() {
+        Member alice = createTestMember("1", "Alice");
+        Member bob = createTestMember("2", "Bob");
+        memberRepository.save(alice);
+        memberRepository.save(bob);
+
+        Member updatedAlice = createTestMember("1", "Alicia");
+        memberRepository.update(updatedAlice);
+        memberRepository.delete(bob);
+
+        // A new repository replays the snapshot and the log
+        List<Member> replayed = new MemberRepository(fileHandler).findAll();
+        assertEquals(1, replayed.size(), "Deleted member should not be replayed.");
+        assertEquals("Alicia", replayed.get(0).getName(), "Update should be replayed.");
+    }
+
+    @Test
+    void testCompactionFoldsLogIntoSnapshot() throws IOException {
+        memberRepository.save(createTestMember("1", "Alice"));
+        memberRepository.save(createTestMember("2", "Bob"));
+
+        memberRepository.compact();
+
+        assertEquals(2, Files.readAllLines(new File(TEST_MEMBER_FILE).toPath()).size());
+        assertEquals(0, Files.readAllLines(new File(TEST_LOG_FILE).toPath()).size());
+        assertEquals(2, new MemberRepository(fileHandler).findAll().size());
+    }
+
+    @Test
+    void testFailedSnapshotKeepsLog() throws IOException {
+        memberRepository.save(createTestMember("1", "Alice"));
+        memberRepository.save(createTestMember("2", "Bob"));
+
+        // A directory in place of the temporary file makes the snapshot write fail
+        File blockedTemp = new File(TEST_MEMBER_FILE + ".tmp");
+        assertTrue(blockedTemp.mkdir());
+        try {
+            assertFalse(memberRepository.compact(), "Compaction should report the failed snapshot.");
+        } finally {
+            blockedTemp.delete();
+        }
+
+        assertEquals(2, Files.readAllLines(new File(TEST_LOG_FILE).toPath()).size(), "The log should survive.");
+        assertEquals(2, new MemberRepository(fileHandler).findAll().size(), "No member should be lost.");
+        assertTrue(memberRepository.compact(), "Compaction should succeed once the snapshot can be written.");
+        assertEquals(0, Files.readAllLines(new File(TEST_LOG_FILE).toPath()).size());
+    }
+
+    @Test
+    void testFailedLogWriteKeepsChangesUnsaved() throws IOException {
+        memberRepository.save(createTestMember("1", "Alice"));
+        Member bob = createTestMember("2", "Bob");
+        memberRepository.save(bob);
+
+        // A directory in place of the log makes every append fail
+        File log = new File(TEST_LOG_FILE);
+        assertTrue(log.delete());
+        assertTrue(log.mkdir());
+        try {
+            memberRepository.save(createTestMember("3", "Carl"));
+            memberRepository.update(createTestMember("1", "Alicia"));
+            memberRepository.delete(bob);
+            assertEquals(3, memberRepository.getUnsavedChangeCount(), "Failed writes should keep the changes.");
+            assertFalse(memberRepository.saveMembers(), "Saving should report the failed write.");
+            assertTrue(memberRepository.hasUnsavedChanges());
+        } finally {
+            log.delete();
+        }
+
+        assertTrue(memberRepository.saveMembers(), "Saving should succeed once the log can be written.");
+        assertFalse(memberRepository.hasUnsavedChanges());
+        MemberRepository replayed = new MemberRepository(fileHandler);
+        assertEquals(2, replayed.findAll().size());
+        assertEquals("Alicia", replayed.findById(1).getName());
+        assertEquals("Carl", replayed.findById(3).getName());
+        assertNull(replayed.findById(2), "The delete should be written too.");
+    }
+
+    @Test
+    void testSaveWritesOnlyChangedMembers() throws IOException {
+        memberRepository.save(createTestMember("1", "Alice"));
+        memberRepository.save(createTestMember("2", "Bob"));
+        assertFalse(memberRepository.hasUnsavedChanges());
+
+        memberRepository.findById(2).setTeamName("Sharks");
+        memberRepository.findById(2).setTeamName("Sharks"); // Unchanged value is not a change
+        assertTrue(memberRepository.hasUnsavedChanges());
+        assertEquals(1, memberRepository.getUnsavedChangeCount());
+
+        memberRepository.saveMembers();
+
+        List<String> log = Files.readAllLines(new File(TEST_LOG_FILE).toPath());
+        assertEquals(3, log.size(), "Only the changed member should be appended.");
+        assertTrue(log.get(2).startsWith("U;2;"));
+        assertFalse(memberRepository.hasUnsavedChanges());
+        assertEquals("Sharks", new MemberRepository(fileHandler).findById(2).getTeamName());
+    }
+
+    @Test
+    void testNameSearchIsPrefixRankedAndFollowsChanges() {
+        memberRepository.save(createTestMember("1", "Søren Jensen"));
+        memberRepository.save(createTestMember("2", "Sorensen Åberg"));
+        Member bob = createTestMember("3", "Bob");
+        memberRepository.save(bob);
+
+        // Case and diacritics are folded; whole-word matches rank before prefix matches
+        List<Member> found = memberRepository.search("soren");
+        assertEquals(2, found.size());
+        assertEquals(1, found.get(0).getMemberId());
+        assertEquals(1, memberRepository.search("JEN SØR").get(0).getMemberId(), "Word order does not matter.");
+        assertEquals(List.of(memberRepository.findById(2)), memberRepository.search("aberg"));
+
+        // The index follows renames and deletes
+        memberRepository.update(createTestMember("3", "Bobby Søndergaard"));
+        assertEquals(3, memberRepository.search("sond").get(0).getMemberId());
+        memberRepository.delete(bob);
+        assertTrue(memberRepository.search("bob").isEmpty());
+
+        // Numeric queries still match IDs and phone numbers exactly
+        assertEquals(2, memberRepository.search("12345678").size());
+        assertEquals(1, memberRepository.search("1").get(0).getMemberId());
+
+        // The phone number index follows changes
+        memberRepository.findById(1).setPhoneNumber(87654321);
+        assertEquals(List.of(memberRepository.findById(2)), memberRepository.search("12345678"));
+        assertEquals(List.of(memberRepository.findById(1)), memberRepository.search("87654321"));
+    }
+
+    @Test
+    void testFuzzySearchToleratesTypos() {
+        memberRepository.save(createTestMember("1", "Rasmus Jensen"));
+        memberRepository.save(createTestMember("2", "Mette Frederiksen"));
+
+        assertTrue(memberRepository.search("jensn").isEmpty());
+        assertEquals(1, memberRepository.fuzzySearch("jensn", 5).get(0).getMemberId());
+        assertEquals(1, memberRepository.fuzzySearch("rasmus jnesen", 5).get(0).getMemberId());
+        assertEquals(2, memberRepository.fuzzySearch("frederiksne", 5).get(0).getMemberId());
+        assertTrue(memberRepository.fuzzySearch("xyzzy", 5).isEmpty());
+
+        // Ties are ordered by name, short words are found without a shared gram, and edits add up across words
+        memberRepository.save(createTestMember("3", "Ida Jensen"));
+        List<Member> best = memberRepository.fuzzySearch("jensn", 1);
+        assertEquals(1, best.size());
+        assertEquals(3, best.get(0).getMemberId());
+        assertEquals(3, memberRepository.fuzzySearch("ia", 5).get(0).getMemberId());
+        assertEquals(3, memberRepository.fuzzySearch("ida jnsen", 5).get(0).getMemberId());
+        assertTrue(memberRepository.fuzzySearch("ixa jnsn", 5).isEmpty(), "Two edits are allowed in total, not per word.");
+
+        // The index follows renames through the change listener
+        memberRepository.findById(2).setName("Mette Hansen");
+        assertEquals(2, memberRepository.fuzzySearch("hansn", 5).get(0).getMemberId());
+    }
+
+    @Test
+    void testAttributeIndexFollowsChanges() {
+        memberRepository.save(createTestMember("1", "Alice"));
+        memberRepository.save(createTestMember("2", "Bob"));
+        memberRepository.save(createTestMember("3", "Carl"));
+
+        memberRepository.findById(2).setPaymentStatus(PaymentStatus.COMPLETE);
+        memberRepository.findById(3).setMembershipStatus(MembershipStatus.PASSIVE);
+
+        assertEquals(List.of(memberRepository.findById(2)), memberRepository.findByPaymentStatus(PaymentStatus.COMPLETE));
+        assertEquals(List.of(memberRepository.findById(1)), memberRepository.findMatching(
+                MembershipStatus.ACTIVE, PaymentStatus.PENDING, MembershipLevel.SENIOR, null, ActivityType.CRAWL));
+
+        memberRepository.delete(memberRepository.findById(1));
+        assertTrue(memberRepository.findMatching(MembershipStatus.ACTIVE, PaymentStatus.PENDING, null, null, null).isEmpty());
+        assertEquals(1, memberRepository.findByMembershipStatus(MembershipStatus.PASSIVE).size());
+    }
+
+    @Test
+    void testQueryPlannerPicksMostSelectiveIndex() {
+        for (int i = 1; i <= 20; i++) {
+            memberRepository.save(createTestMember(String.valueOf(i), "Member " + i));
+        }
+        memberRepository.findById(7).setPaymentStatus(PaymentStatus.FAILED);
+        memberRepository.findById(7).setZipcode(2100);
+        memberRepository.findById(8).setZipcode(2200);
+
+        MemberQuery failed = new MemberQuery().membershipStatus(MembershipStatus.ACTIVE).paymentStatus(PaymentStatus.FAILED);
+        assertEquals(MemberQueryPlan.AccessPath.ATTRIBUTE_BITMAPS, memberRepository.plan(failed).getAccessPath());
+        assertEquals(List.of(memberRepository.findById(7)), memberRepository.query(failed));
+
+        MemberQuery zipcodes = new MemberQuery().zipcodeBetween(2000, 2999).paymentStatus(PaymentStatus.PENDING)
+                .orderBy("memberId descending", Comparator.comparingInt(Member::getMemberId).reversed());
+        assertEquals(MemberQueryPlan.AccessPath.ZIPCODE_INDEX, memberRepository.plan(zipcodes).getAccessPath());
+        assertEquals(List.of(memberRepository.findById(8)), memberRepository.query(zipcodes));
+        assertTrue(memberRepository.explain(zipcodes).contains("Filter: paymentStatus = PENDING"));
+
+        MemberQuery scan = new MemberQuery().ageBetween(18, 40).limit(3);
+        assertEquals(MemberQueryPlan.AccessPath.FULL_SCAN, memberRepository.plan(scan).getAccessPath());
+        assertEquals(3, memberRepository.query(scan).size());
+
+        assertEquals(MemberQueryPlan.AccessPath.ID_LOOKUP,
+                memberRepository.plan(new MemberQuery().memberId(3).namePrefix("member")).getAccessPath());
+    }
+
+    @Test
+    void testMemberIdsAreNeverReused() {
+        int first = memberRepository.getNextMemberId();
+        memberRepository.save(createTestMember(String.valueOf(first), "Alice"));
+        Member bob = createTestMember(String.valueOf(memberRepository.getNextMemberId()), "Bob");
+        memberRepository.save(bob);
+        memberRepository.delete(bob); // The highest ID is gone
+
+        // A restarted repository continues after Bob's ID instead of handing it out again
+        MemberRepository restarted = new MemberRepository(fileHandler);
+        assertEquals(bob.getMemberId() + 1, restarted.getNextMemberId());
+        int block = restarted.reserveMemberIds(100);
+        assertEquals(bob.getMemberId() + 2, block);
+        assertEquals(block + 100, restarted.getNextMemberId());
+    }
+}
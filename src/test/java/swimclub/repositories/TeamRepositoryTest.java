@@ -0,0 +1,122 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.*;
+import swimclub.models.*;
+import swimclub.utilities.FileHandler;
+import swimclub.utilities.TeamLoadReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamRepositoryTest {
+    private static final String TEST_TEAM_FILE = "src/test/resources/testTeams.txt";
+
+    private FileHandler fileHandler;
+    private final Map<Integer, Member> members = new HashMap<>();
+    private final Map<Integer, Coach> coaches = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        new File(TEST_TEAM_FILE).getParentFile().mkdirs();
+        fileHandler = new FileHandler(
+                "src/test/resources/testTeamMembers.txt",
+                "src/test/resources/testTeamPayments.txt",
+                "src/test/resources/testTeamReminders.txt",
+                "src/main/resources/paymentRates.dat",
+                TEST_TEAM_FILE,
+                "src/main/resources/competitionResults.dat",
+                "src/main/resources/staff.dat",
+                "src/main/resources/trainingResults.dat"
+        );
+        for (int id = 1; id <= 3; id++) {
+            members.put(id, createTestMember(id));
+        }
+        coaches.put(1, new Coach(1, "Sharks", "Coach Carter", "coach@example.com", "City", "Street", "Region",
+                12345, 45, 12345678, Role.COACH));
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_TEAM_FILE).delete();
+    }
+
+    private Member createTestMember(int id) {
+        return new SeniorMember(
+                String.valueOf(id), "Swimmer " + id, "swimmer" + id + "@example.com", "City", "Street", "Region", 12345,
+                new MembershipType(MembershipCategory.COMPETITIVE, MembershipLevel.SENIOR),
+                MembershipStatus.ACTIVE, ActivityType.CRAWL, PaymentStatus.COMPLETE, 30, 12345678, "No team"
+        );
+    }
+
+    @Test
+    void testLoadReportsUnresolvedReferencesAndKeepsTheRest() throws IOException {
+        Files.write(Paths.get(TEST_TEAM_FILE), List.of(
+                "Sharks;SENIOR_COMPETITIVE;1;1,2,99,2",     // Unknown member 99, member 2 listed twice
+                "Dolphins;JUNIOR_COMPETITIVE;42;3",        // Unknown coach
+                "",
+                "Broken;SENIOR_COMPETITIVE",               // Too few fields
+                "Orcas;NO_SUCH_TYPE;1;1",                  // Unknown team type
+                "Seals;JUNIOR_COMPETITIVE;null;"           // No coach, no members: allowed
+        ));
+
+        TeamLoadReport report = new TeamLoadReport();
+        List<Team> teams = fileHandler.loadTeams(members::get, coaches::get, report);
+
+        assertEquals(List.of("Sharks", "Dolphins", "Seals"), teams.stream().map(Team::getTeamName).toList());
+        Team sharks = teams.get(0);
+        assertEquals(List.of(members.get(1), members.get(2)), sharks.getMembers(), "Resolved members are kept once.");
+        assertSame(coaches.get(1), sharks.getTeamCoach());
+        assertNull(teams.get(1).getTeamCoach(), "A team with an unknown coach is loaded without one.");
+        assertEquals(List.of(members.get(3)), teams.get(1).getMembers());
+
+        assertEquals(3, report.getTeamsLoaded());
+        assertEquals(3, report.getMembershipsLoaded());
+        assertEquals(List.of("Seals"), report.getTeamsWithoutCoach());
+
+        List<TeamLoadReport.Problem> problems = report.getProblems();
+        assertEquals(5, problems.size());
+        assertProblem(problems.get(0), TeamLoadReport.ProblemType.UNKNOWN_MEMBER, 1, "Sharks", 99);
+        assertProblem(problems.get(1), TeamLoadReport.ProblemType.DUPLICATE_MEMBER, 1, "Sharks", 2);
+        assertProblem(problems.get(2), TeamLoadReport.ProblemType.UNKNOWN_COACH, 2, "Dolphins", 42);
+        assertProblem(problems.get(3), TeamLoadReport.ProblemType.MALFORMED_LINE, 4, null, -1);
+        assertProblem(problems.get(4), TeamLoadReport.ProblemType.MALFORMED_LINE, 5, null, -1);
+        assertEquals("Teams: 3 loaded, 3 memberships; 1 unknown member, 1 unknown coach, 1 duplicate member, "
+                + "2 malformed lines", report.getSummary());
+    }
+
+    private static void assertProblem(TeamLoadReport.Problem problem, TeamLoadReport.ProblemType type, int lineNumber,
+                                      String teamName, int referenceId) {
+        assertEquals(type, problem.getType(), problem.toString());
+        assertEquals(lineNumber, problem.getLineNumber(), problem.toString());
+        assertEquals(teamName, problem.getTeamName(), problem.toString());
+        assertEquals(referenceId, problem.getReferenceId(), problem.toString());
+    }
+
+    @Test
+    void testRemoveTeamMatchesNamesLikeTheIndex() {
+        TeamRepository teamRepository = new TeamRepository(fileHandler);
+        teamRepository.addTeam(new Team("Sharks", TeamType.SENIOR_COMPETITIVE, null));
+        teamRepository.addTeam(new Team("İzmir", TeamType.SENIOR_COMPETITIVE, null)); // Dotted capital I
+        teamRepository.addTeam(new Team("izmir", TeamType.JUNIOR_COMPETITIVE, null));
+
+        assertTrue(teamRepository.removeTeam("IZMIR"));
+        // Only the team the lookup finds is removed; the other one stays both listed and findable
+        assertNull(teamRepository.findTeamByName("izmir"));
+        Team dotted = teamRepository.findTeamByName("İzmir");
+        assertNotNull(dotted);
+        assertTrue(teamRepository.getAllTeams().contains(dotted));
+        assertEquals(2, teamRepository.getAllTeams().size());
+
+        assertTrue(teamRepository.removeTeam("SHARKS"));
+        assertFalse(teamRepository.removeTeam("sharks"), "A removed team cannot be removed twice.");
+        assertFalse(teamRepository.removeTeam(null));
+        assertEquals(List.of(dotted), teamRepository.getAllTeams());
+    }
+}
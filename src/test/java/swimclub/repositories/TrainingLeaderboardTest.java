@@ -0,0 +1,85 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.*;
+import swimclub.models.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingLeaderboardTest {
+    private TrainingLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new TrainingLeaderboard();
+    }
+
+    private TrainingResults createResult(String id, ActivityType activityType, double time) {
+        Member member = new SeniorMember(
+                id, "Swimmer " + id, "swimmer" + id + "@example.com", "City", "Street", "Region", 12345,
+                new MembershipType(MembershipCategory.COMPETITIVE, MembershipLevel.SENIOR),
+                MembershipStatus.ACTIVE, activityType, PaymentStatus.COMPLETE, 30, 12345678, "No team"
+        );
+        return new TrainingResults(member, MembershipLevel.SENIOR, activityType, time, "01-02-2024");
+    }
+
+    private static List<Integer> memberIds(List<TrainingResults> results) {
+        return results.stream().map(result -> result.getMember().getMemberId()).toList();
+    }
+
+    @Test
+    void testTopFiveIsFastestFirstWithTiesInInsertionOrder() {
+        leaderboard.rebuild(List.of(
+                createResult("1", ActivityType.CRAWL, 31.0),
+                createResult("2", ActivityType.CRAWL, 29.5),
+                createResult("3", ActivityType.CRAWL, 30.0),
+                createResult("4", ActivityType.CRAWL, 29.5),  // Ties with 2, added later
+                createResult("5", ActivityType.CRAWL, 33.0),
+                createResult("6", ActivityType.CRAWL, 30.0),  // Ties with 3, added later
+                createResult("7", ActivityType.BUTTERFLY, 20.0)
+        ));
+
+        assertEquals(List.of(2, 4, 3, 6, 1),
+                memberIds(leaderboard.top(ActivityType.CRAWL, MembershipLevel.SENIOR, 5)));
+        assertEquals(6, leaderboard.size(ActivityType.CRAWL, MembershipLevel.SENIOR));
+        assertEquals(List.of(7), memberIds(leaderboard.top(ActivityType.BUTTERFLY, MembershipLevel.SENIOR, 5)),
+                "Each discipline has its own board.");
+        assertTrue(leaderboard.top(ActivityType.CRAWL, MembershipLevel.JUNIOR, 5).isEmpty(), "Each level has its own board.");
+    }
+
+    @Test
+    void testBoardWithFewerResultsThanTheLimit() {
+        leaderboard.add(createResult("1", ActivityType.BACKCRAWL, 40.0));
+        leaderboard.add(createResult("2", ActivityType.BACKCRAWL, 38.0));
+
+        assertEquals(List.of(2, 1), memberIds(leaderboard.top(ActivityType.BACKCRAWL, MembershipLevel.SENIOR, 5)));
+        assertTrue(leaderboard.top(ActivityType.BACKCRAWL, MembershipLevel.SENIOR, 0).isEmpty());
+        assertTrue(leaderboard.top(ActivityType.BREASTSTROKE, MembershipLevel.SENIOR, 5).isEmpty());
+    }
+
+    @Test
+    void testUpdateReplacesTheExistingEntry() {
+        TrainingResults first = createResult("1", ActivityType.CRAWL, 30.0);
+        TrainingResults second = createResult("2", ActivityType.CRAWL, 31.0);
+        leaderboard.add(first);
+        leaderboard.add(second);
+        leaderboard.add(first); // Adding again does not rank the result twice
+        assertEquals(2, leaderboard.size(ActivityType.CRAWL, MembershipLevel.SENIOR));
+
+        // A changed time moves the result instead of adding a second entry
+        second.setTime(28.0);
+        leaderboard.update(second);
+        assertEquals(List.of(2, 1), memberIds(leaderboard.top(ActivityType.CRAWL, MembershipLevel.SENIOR, 5)));
+        assertEquals(2, leaderboard.size(ActivityType.CRAWL, MembershipLevel.SENIOR));
+
+        // A changed discipline moves the result to the other board
+        second.setActivityType(ActivityType.BUTTERFLY);
+        leaderboard.update(second);
+        assertEquals(List.of(1), memberIds(leaderboard.top(ActivityType.CRAWL, MembershipLevel.SENIOR, 5)));
+        assertEquals(List.of(2), memberIds(leaderboard.top(ActivityType.BUTTERFLY, MembershipLevel.SENIOR, 5)));
+
+        leaderboard.remove(second);
+        assertEquals(0, leaderboard.size(ActivityType.BUTTERFLY, MembershipLevel.SENIOR));
+    }
+}
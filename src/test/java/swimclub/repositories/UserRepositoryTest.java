@@ -0,0 +1,65 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.*;
+import swimclub.models.Role;
+import swimclub.models.User;
+import swimclub.utilities.PasswordUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRepositoryTest {
+    private static final String TEST_USER_FILE = "src/test/resources/testUsers.dat";
+    private int savedIterations;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        savedIterations = PasswordUtils.getIterations();
+        PasswordUtils.setIterations(1_000); // Keeps the test fast
+        String salt = PasswordUtils.generateSalt();
+        new File(TEST_USER_FILE).getParentFile().mkdirs();
+        Files.write(Paths.get(TEST_USER_FILE),
+                List.of("admin;" + PasswordUtils.hashPassword("admin1", salt) + ";" + salt + ";ADMIN"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        PasswordUtils.setIterations(savedIterations);
+        new File(TEST_USER_FILE).delete();
+    }
+
+    @Test
+    void testAuthAndAdminShareOneCachedStore() {
+        UserRepository users = new UserRepository(TEST_USER_FILE);
+        AuthRepository auth = new AuthRepository(users);
+
+        String salt = PasswordUtils.generateSalt();
+        auth.addUser(new User("coach", PasswordUtils.hashPassword("coach1", salt), salt, Role.COACH));
+        assertNotNull(users.getUserByUsername("coach"), "A user added for login should be visible to the admin functions.");
+
+        users.updateUser("coach", "coach2", Role.TREASURER);
+        assertNull(auth.authenticate("coach", "coach1"));
+        assertEquals(Role.TREASURER, auth.authenticate("coach", "coach2").getRole(), "The update should be saved.");
+
+        assertTrue(users.deleteUser("coach"));
+        assertNull(auth.getUserByUsername("coach"));
+        assertEquals(1, new UserRepository(TEST_USER_FILE).loadUsers().size(), "Changes should be written through to the file.");
+    }
+
+    @Test
+    void testExternalChangesAreReloaded() throws IOException {
+        UserRepository users = new UserRepository(TEST_USER_FILE);
+        User admin = users.getUserByUsername("admin");
+        assertSame(admin, users.getUserByUsername("admin"), "An unchanged file should not be read again.");
+
+        Files.write(Paths.get(TEST_USER_FILE), List.of(
+                "admin;" + admin.getHashedPassword() + ";" + admin.getSalt() + ";ADMIN",
+                "chair;hash;salt;CHAIRMAN"));
+        assertEquals(Role.CHAIRMAN, users.getUserByUsername("chair").getRole(), "A changed file should be reloaded.");
+    }
+}
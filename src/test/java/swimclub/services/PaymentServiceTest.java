@@ -8,6 +8,12 @@ import swimclub.utilities.Validator;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -67,7 +73,10 @@ class PaymentServiceTest {
     @AfterEach
     void tearDown() {
         new File(TEST_MEMBER_FILE).delete();
+        new File(TEST_MEMBER_FILE + ".log").delete();
+        new File(TEST_MEMBER_FILE + ".seq").delete();
         new File(TEST_PAYMENT_FILE).delete();
+        new File(TEST_PAYMENT_FILE + ".seq").delete();
         new File(TEST_REMINDER_FILE).delete();
     }
 
@@ -110,6 +119,25 @@ class PaymentServiceTest {
         assertEquals(2100, totalPayments, "Total payments should equal the sum of all payments made by the member.");
     }
 
+    @Test
+    void testLedgerTracksTotalsByStatus() {
+        // Arrange
+        Member member = createTestMember("6", "Frank", ActivityType.CRAWL, PaymentStatus.PENDING);
+        memberRepository.save(member);
+        paymentService.registerPayment(member.getMemberId(), 1600, memberRepository, fileHandler, TEST_PAYMENT_FILE);
+        paymentService.registerPayment(member.getMemberId(), 500, memberRepository, fileHandler, TEST_PAYMENT_FILE);
+        Payment second = paymentRepository.findPaymentsByMemberId(member.getMemberId()).get(1);
+
+        // Act
+        paymentRepository.updatePaymentStatus(second, PaymentStatus.PENDING);
+
+        // Assert
+        assertEquals(1600, paymentService.getCompletedPaymentsForMember(member.getMemberId()), "Completed total should exclude the pending payment.");
+        assertEquals(500, paymentService.getPendingPaymentsForMember(member.getMemberId()), "Pending total should hold the changed payment.");
+        assertEquals(2, member.getPayments().size(), "Payments should be attached to the member.");
+        assertEquals(1600, member.calculateTotalPaid(), "Member total paid should match the completed total.");
+    }
+
     @Test
     void testInvalidPaymentThrowsException() {
         // Arrange
@@ -155,4 +183,150 @@ class PaymentServiceTest {
         assertTrue(summary.contains("Total Members Paid: 1"), "Summary should indicate 1 member has paid.");
         assertTrue(summary.contains("Total Members Pending: 1"), "Summary should indicate 1 member is pending.");
     }
+
+    @Test
+    void testPaymentSummaryCountersFollowChanges() {
+        // Arrange
+        Member member1 = createTestMember("7", "Gina", ActivityType.BACKCRAWL, PaymentStatus.COMPLETE);
+        Member member2 = createTestMember("8", "Hans", ActivityType.CRAWL, PaymentStatus.PENDING);
+        memberRepository.save(member1);
+        memberRepository.save(member2);
+        MemberFeeCounters counters = memberRepository.getFeeCounters();
+
+        // Act
+        member2.setPaymentStatus(PaymentStatus.COMPLETE);
+        member1.setAge(65);
+        paymentService.updatePaymentRatesFromFile();
+
+        // Assert
+        assertEquals(2, counters.getCount(PaymentStatus.COMPLETE), "Counters should follow the status change.");
+        assertEquals(1, counters.getCount(MemberFeeCounters.FeeBand.VETERAN, PaymentStatus.COMPLETE), "Counters should follow the age change.");
+        assertTrue(paymentService.verifyPaymentSummary(counters, memberRepository.findAll()), "Counters should match a full recompute.");
+    }
+
+    @Test
+    void testBillingRunBillsEachEligibleMemberOnce() {
+        // Arrange
+        Member paid = createTestMember("9", "Ida", ActivityType.CRAWL, PaymentStatus.COMPLETE);
+        Member registered = createTestMember("10", "Jens", ActivityType.CRAWL, PaymentStatus.PENDING); // New, never billed
+        Member owing = createTestMember("11", "Karl", ActivityType.CRAWL, PaymentStatus.PENDING);
+        memberRepository.save(paid);
+        memberRepository.save(registered);
+        memberRepository.save(owing);
+        LocalDate billingDate = LocalDate.of(2025, 1, 1);
+        paymentRepository.save(new Payment(paymentRepository.getNextPaymentId(), PaymentStatus.PENDING, owing,
+                billingDate.minusYears(1), 100000));
+
+        // Act
+        BillingReport dryRun = paymentService.runBilling(memberRepository, fileHandler, TEST_PAYMENT_FILE, billingDate, true);
+        BillingReport run = paymentService.runBilling(memberRepository, fileHandler, TEST_PAYMENT_FILE, billingDate, false);
+        BillingReport secondRun = paymentService.runBilling(memberRepository, fileHandler, TEST_PAYMENT_FILE, billingDate, false);
+
+        // Assert
+        assertEquals(2, dryRun.getMembersBilled(), "The dry run should report the members to bill.");
+        assertEquals(2, run.getMembersBilled(), "Members without a pending payment should be billed.");
+        assertEquals(1, run.getSkippedAlreadyPending(), "Only the member with a pending payment should be skipped.");
+        assertEquals(1, paymentRepository.getLedger(10).getPaymentCount(), "A PENDING status alone should not skip a member.");
+        assertEquals(1, paymentRepository.getLedger(11).getPaymentCount(), "The owing member should not be billed again.");
+        assertEquals(dryRun.getTotalBilled(), run.getTotalBilled(), "The dry run should report the billed amount.");
+        assertEquals(PaymentStatus.PENDING, paid.getPaymentStatus(), "The billed member should now be pending.");
+        assertEquals(0, secondRun.getMembersBilled(), "A second run should not bill anyone again.");
+        assertEquals(3, secondRun.getSkippedAlreadyPending());
+
+        List<Payment> stored = fileHandler.loadPayments(TEST_PAYMENT_FILE, memberRepository);
+        assertEquals(3, stored.size(), "The payments should be written to the payment file.");
+        assertTrue(stored.stream().allMatch(payment -> payment.getPaymentStatus() == PaymentStatus.PENDING));
+    }
+
+    @Test
+    void testReminderSchedulerFiresDueRemindersInBatches() {
+        LocalDate today = LocalDate.of(2025, 3, 1);
+        paymentService.setPaymentReminder(1, "Late fee", today.minusDays(3));
+        paymentService.setPaymentReminder(2, "Due today", today);
+        paymentService.setPaymentReminder(3, "Due later", today.plusDays(10));
+        paymentService.setPaymentReminder(1, "Late fee, second notice", today.minusDays(3)); // Same key, replaces
+        paymentService.removeReminder(4, today); // No such reminder
+
+        assertEquals(3, paymentService.getAllReminders().size());
+        assertEquals("Late fee, second notice", paymentService.getRemindersForMember(1).get(0).getMessage());
+
+        // Reminders survive a reload of the append-only file
+        PaymentRepository reloaded = new PaymentRepository(TEST_REMINDER_FILE);
+        assertEquals(paymentRepository.getReminders().toString(), reloaded.getReminders().toString());
+
+        List<List<Reminder>> batches = new ArrayList<>();
+        ReminderScheduler scheduler = new ReminderScheduler(reloaded, batches::add,
+                Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC), 60, 1);
+        assertEquals(2, scheduler.fireDue(), "Only the overdue and today's reminders should fire.");
+        assertEquals(2, batches.size(), "A batch size of one should give one batch per reminder.");
+        assertEquals(1, batches.get(0).get(0).getMemberId(), "The earliest due reminder should fire first.");
+        assertEquals(0, scheduler.fireDue(), "Fired reminders should not fire again.");
+        assertEquals(today.plusDays(10), reloaded.getNextReminderDueDate());
+        assertEquals(1, new PaymentRepository(TEST_REMINDER_FILE).getReminders().size(), "Fired reminders should be removed from the file.");
+    }
+
+    @Test
+    void testLegacyRemindersAreMigratedWithoutLoss() throws IOException {
+        Files.write(Paths.get(TEST_REMINDER_FILE), List.of(
+                "Reminder for Member ID: 1: First notice",
+                "Reminder for Member ID: 1: Second notice",
+                "Reminder for Member ID: 2: Only notice"
+        ));
+        LocalDate today = LocalDate.now();
+
+        PaymentRepository migrated = new PaymentRepository(TEST_REMINDER_FILE);
+        List<Reminder> first = migrated.getRemindersForMember(1);
+        assertEquals(2, first.size(), "A member's legacy reminders should not replace each other.");
+        assertNotEquals(first.get(0).getDueDate(), first.get(1).getDueDate());
+        assertEquals(3, migrated.getReminders().size());
+        assertTrue(migrated.peekDueReminders(today, 10).isEmpty(), "Migrated reminders should not be due at once.");
+
+        // The rewritten file keeps all of them
+        List<Reminder> reloaded = new PaymentRepository(TEST_REMINDER_FILE).getReminders();
+        assertEquals(migrated.getReminders().toString(), reloaded.toString());
+        assertTrue(reloaded.stream().anyMatch(reminder -> reminder.getMessage().equals("Second notice")));
+    }
+
+    @Test
+    void testFailedReminderBatchIsFiredAgain() {
+        LocalDate today = LocalDate.of(2025, 3, 1);
+        Clock clock = Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        paymentService.setPaymentReminder(1, "Late fee", today.minusDays(3));
+        paymentService.setPaymentReminder(2, "Due today", today);
+
+        ReminderScheduler failing = new ReminderScheduler(paymentRepository, batch -> {
+            throw new IllegalStateException("Mail server down");
+        }, clock, 60, 10);
+        assertThrows(IllegalStateException.class, failing::fireDue);
+        assertEquals(2, new PaymentRepository(TEST_REMINDER_FILE).getReminders().size(), "A failed batch should stay stored.");
+
+        List<Reminder> fired = new ArrayList<>();
+        assertEquals(2, new ReminderScheduler(paymentRepository, fired::addAll, clock, 60, 10).fireDue());
+        assertEquals(2, fired.size(), "The failed reminders should be fired at the next check.");
+        assertTrue(new PaymentRepository(TEST_REMINDER_FILE).getReminders().isEmpty());
+    }
+
+    @Test
+    void testBulkRemindersSkipMembersThatAlreadyHaveOne() {
+        // Arrange
+        memberRepository.save(createTestMember("11", "Karl", ActivityType.CRAWL, PaymentStatus.PENDING));
+        memberRepository.save(createTestMember("12", "Lene", ActivityType.CRAWL, PaymentStatus.PENDING));
+        memberRepository.save(createTestMember("13", "Mads", ActivityType.CRAWL, PaymentStatus.COMPLETE));
+        LocalDate dueDate = LocalDate.of(2025, 4, 1);
+        paymentService.setPaymentReminder(12, "Already reminded", dueDate.minusDays(7));
+        ReminderTemplate template = new ReminderTemplate("Dear {name}, please pay {fee} DKK by {dueDate}");
+
+        // Act
+        ReminderRunReport run = paymentService.setRemindersForPendingMembers(memberRepository, template, dueDate);
+        ReminderRunReport secondRun = paymentService.setRemindersForPendingMembers(memberRepository, template, dueDate);
+
+        // Assert
+        assertEquals(2, run.getPendingMembers());
+        assertEquals(1, run.getCreated(), "Only the pending member without a reminder should get one.");
+        assertEquals(1, run.getSkippedExisting());
+        assertEquals(0, secondRun.getCreated(), "A second run should not create duplicates.");
+        assertEquals("Dear Karl, please pay 1600.00 DKK by 2025-04-01",
+                new PaymentRepository(TEST_REMINDER_FILE).getRemindersForMember(11).get(0).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new ReminderTemplate("Hello {nickname}"));
+    }
 }
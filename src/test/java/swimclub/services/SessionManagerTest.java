@@ -0,0 +1,82 @@
+package swimclub.services;
+
+import org.junit.jupiter.api.*;
+import swimclub.models.Role;
+import swimclub.models.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionManagerTest {
+
+    /**
+     * Clock that tests move forward by hand.
+     */
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Test
+    void testSessionsExpireWhenIdleOrTooOld() {
+        MutableClock clock = new MutableClock();
+        SessionManager sessions = new SessionManager(clock, Duration.ofMinutes(30), Duration.ofHours(2));
+        String token = sessions.create(new User("admin", "hash", "salt", Role.ADMIN));
+
+        assertEquals("admin", sessions.require(token, Role.ADMIN).getUsername());
+        assertThrows(IllegalArgumentException.class, () -> sessions.require(token, Role.COACH));
+        assertThrows(IllegalArgumentException.class, () -> sessions.validate(token + "x"));
+
+        // Used every 20 minutes, the session stays alive until the absolute timeout
+        for (int i = 0; i < 5; i++) {
+            clock.advance(Duration.ofMinutes(20));
+            sessions.validate(token);
+        }
+        clock.advance(Duration.ofMinutes(20));
+        assertThrows(IllegalArgumentException.class, () -> sessions.validate(token), "The session should end after two hours.");
+
+        String idle = sessions.create(new User("coach", "hash", "salt", Role.COACH));
+        clock.advance(Duration.ofMinutes(30));
+        assertThrows(IllegalArgumentException.class, () -> sessions.validate(idle), "An idle session should expire.");
+        assertEquals(0, sessions.getSessionCount());
+    }
+
+    @Test
+    void testLogoutAndUserChangesEndSessions() {
+        SessionManager sessions = new SessionManager(Clock.systemUTC(), Duration.ofMinutes(30), Duration.ofHours(8));
+        User treasurer = new User("treasurer", "hash", "salt", Role.TREASURER);
+        String first = sessions.create(treasurer);
+        String second = sessions.create(treasurer);
+        assertNotEquals(first, second, "Every login should get its own token.");
+
+        sessions.invalidate(first);
+        assertThrows(IllegalArgumentException.class, () -> sessions.validate(first));
+        assertEquals(Role.TREASURER, sessions.validate(second).getRole());
+
+        assertEquals(1, sessions.invalidateUser("treasurer"));
+        assertThrows(IllegalArgumentException.class, () -> sessions.validate(second));
+    }
+}
@@ -0,0 +1,69 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicFileWriterTest {
+    private static final String TEST_FILE = "src/test/resources/testAtomic.txt";
+    private static final String TEST_TEMP_FILE = TEST_FILE + AtomicFileWriter.TEMP_SUFFIX;
+    private static final String TEST_UNVERIFIED_FILE = TEST_FILE + AtomicFileWriter.UNVERIFIED_SUFFIX;
+
+    @BeforeEach
+    void setUp() {
+        new File(TEST_FILE).getParentFile().mkdirs();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+        new File(TEST_TEMP_FILE).delete();
+        new File(TEST_UNVERIFIED_FILE).delete();
+    }
+
+    @Test
+    void testRecoveryNeverPromotesAnUncheckedTempFile() throws IOException {
+        // Target present: the interrupted save is discarded and the complete old content kept
+        AtomicFileWriter.writeLines(TEST_FILE, List.of("old"), AtomicFileWriter.Durability.RENAME);
+        Files.write(Paths.get(TEST_TEMP_FILE), List.of("new, cut"));
+        assertEquals(1, AtomicFileWriter.recover(TEST_FILE).size());
+        assertFalse(new File(TEST_TEMP_FILE).exists());
+        assertEquals(List.of("old"), Files.readAllLines(Paths.get(TEST_FILE)));
+
+        // Target missing: the temporary file may be torn, so it is set aside and reported, not moved into place
+        new File(TEST_FILE).delete();
+        Files.write(Paths.get(TEST_TEMP_FILE), List.of("possibly cut"));
+        List<String> actions = AtomicFileWriter.recover(TEST_FILE);
+        assertEquals(1, actions.size());
+        assertTrue(actions.get(0).contains(TEST_UNVERIFIED_FILE), "The report should name the kept copy.");
+        assertFalse(new File(TEST_FILE).exists(), "An unchecked temporary file should not become the data file.");
+        assertEquals(List.of("possibly cut"), Files.readAllLines(Paths.get(TEST_UNVERIFIED_FILE)));
+
+        // The next save does not overwrite the kept copy
+        AtomicFileWriter.writeLines(TEST_FILE, List.of("fresh"), AtomicFileWriter.Durability.RENAME);
+        assertEquals(List.of("possibly cut"), Files.readAllLines(Paths.get(TEST_UNVERIFIED_FILE)));
+        assertTrue(AtomicFileWriter.recover(TEST_FILE).isEmpty());
+    }
+
+    @Test
+    void testDurabilityIsParsedIgnoringCaseAndLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR")); // "i".toUpperCase() is the dotted "İ" here
+        try {
+            assertEquals(AtomicFileWriter.Durability.FSYNC_FILE, AtomicFileWriter.Durability.parse("fsync_file"));
+            assertEquals(AtomicFileWriter.Durability.RENAME, AtomicFileWriter.Durability.parse(" Rename "));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> AtomicFileWriter.Durability.parse("fsync"));
+        assertTrue(error.getMessage().contains("FSYNC_ALL"), "The message should list the valid levels.");
+    }
+}
@@ -0,0 +1,59 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBitmapTest {
+
+    @Test
+    void testSparseAndDenseChunksIntersect() {
+        CompactBitmap even = new CompactBitmap();
+        CompactBitmap everyThird = new CompactBitmap();
+        for (int i = 0; i < 200_000; i++) {
+            if (i % 2 == 0) {
+                even.add(i); // Dense: switches to bitmap chunks
+            }
+            if (i % 3 == 0) {
+                everyThird.add(i);
+            }
+        }
+        CompactBitmap sparse = new CompactBitmap();
+        sparse.add(6);
+        sparse.add(7);
+        sparse.add(131_076);
+
+        CompactBitmap everySixth = even.and(everyThird);
+        assertEquals(33_334, everySixth.cardinality());
+        assertTrue(everySixth.contains(199_998));
+        assertFalse(everySixth.contains(199_997));
+
+        List<Integer> values = new ArrayList<>();
+        CompactBitmap.and(even, everyThird, sparse).forEach(values::add);
+        assertEquals(List.of(6, 131_076), values);
+
+        assertEquals(100_001, even.or(sparse).cardinality());
+    }
+
+    @Test
+    void testRemoveShrinksChunks() {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (int i = 0; i < 5000; i++) {
+            bitmap.add(i);
+        }
+        bitmap.add(70_000);
+        for (int i = 0; i < 4999; i++) {
+            bitmap.remove(i);
+        }
+        bitmap.remove(70_000);
+        bitmap.remove(123); // Not present
+
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        assertEquals(List.of(4999), values);
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+}
@@ -0,0 +1,58 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdSequenceTest {
+    private static final String TEST_DATA_FILE = "src/test/resources/testSequence.txt";
+    private static final String TEST_SEQUENCE_FILE = TEST_DATA_FILE + IdSequence.FILE_SUFFIX;
+
+    @BeforeEach
+    void setUp() {
+        new File(TEST_SEQUENCE_FILE).getParentFile().mkdirs();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_SEQUENCE_FILE).delete();
+    }
+
+    @Test
+    void testRestartContinuesWithoutGaps() throws IOException {
+        IdSequence sequence = IdSequence.forDataFile(TEST_DATA_FILE);
+        assertEquals(1, sequence.next());
+        assertEquals(List.of("1"), Files.readAllLines(Paths.get(TEST_SEQUENCE_FILE)), "The mark is the last ID handed out.");
+
+        IdSequence restarted = IdSequence.forDataFile(TEST_DATA_FILE);
+        assertEquals(2, restarted.next(), "A restart should not skip an ID.");
+        assertEquals(3, restarted.next());
+
+        assertEquals(4, IdSequence.forDataFile(TEST_DATA_FILE).reserve(10));
+        IdSequence afterBlock = IdSequence.forDataFile(TEST_DATA_FILE);
+        assertEquals(14, afterBlock.peek(), "A reserved block is never handed out again.");
+
+        afterBlock.observe(20); // E.g. a record saved with an explicit ID
+        afterBlock.observe(5);  // Lower IDs do not move the sequence back
+        assertEquals(21, IdSequence.forDataFile(TEST_DATA_FILE).next());
+    }
+
+    @Test
+    void testLargerBlockSkipsOnlyTheUnusedRestOfTheBlock() throws IOException {
+        IdSequence sequence = new IdSequence(TEST_SEQUENCE_FILE, 10);
+        assertEquals(1, sequence.next());
+        assertEquals(2, sequence.next());
+        assertEquals(List.of("10"), Files.readAllLines(Paths.get(TEST_SEQUENCE_FILE)), "One write covers IDs 1 to 10.");
+        assertEquals(3, sequence.reserve(8));
+        assertEquals(List.of("10"), Files.readAllLines(Paths.get(TEST_SEQUENCE_FILE)), "A block inside the mark needs no write.");
+
+        assertEquals(11, new IdSequence(TEST_SEQUENCE_FILE, 10).next(), "A restart continues after the stored block.");
+        assertThrows(IllegalArgumentException.class, () -> sequence.reserve(0));
+    }
+}
@@ -0,0 +1,75 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIndexTest {
+
+    @Test
+    void testPutOverwriteAndRemove() {
+        IntIndex<String> index = new IntIndex<>();
+        assertNull(index.put(1, "Alice"));
+        assertNull(index.put(0, "Zero"));             // 0 is a key like any other
+        assertNull(index.put(-7, "Negative"));
+        assertEquals("Alice", index.put(1, "Alicia"), "Overwriting should return the previous value.");
+        assertEquals(3, index.size());
+
+        assertEquals("Alicia", index.get(1));
+        assertEquals("Zero", index.get(0));
+        assertEquals("Negative", index.putIfAbsent(-7, "Other"));
+        assertEquals("Negative", index.get(-7), "putIfAbsent should keep the existing value.");
+        assertNull(index.get(2));
+        assertFalse(index.containsKey(2));
+
+        assertEquals("Zero", index.remove(0));
+        assertNull(index.remove(0), "Removing a missing key should return null.");
+        assertFalse(index.containsKey(0));
+        assertEquals(2, index.size());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertNull(index.get(1));
+        assertNull(index.put(1, "Again"));
+        assertEquals("Again", index.get(1));
+    }
+
+    @Test
+    void testResizeKeepsAllEntries() {
+        IntIndex<Integer> index = new IntIndex<>(0); // Smallest table, so the bulk load resizes several times
+        for (int id = 1; id <= 10_000; id++) {
+            index.put(id, id * 2);
+        }
+        assertEquals(10_000, index.size());
+        for (int id = 1; id <= 10_000; id++) {
+            assertEquals(id * 2, index.get(id));
+        }
+        assertNull(index.get(10_001));
+    }
+
+    @Test
+    void testRemovalKeepsCollidingKeysReachable() {
+        // Many removals in a small, nearly full table form long probe chains that wrap around the end of
+        // the array; backward-shift deletion must keep every remaining key reachable
+        IntIndex<Integer> index = new IntIndex<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(64) - 32;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), index.remove(key), "remove(" + key + ") at step " + i);
+            } else {
+                assertEquals(expected.put(key, i), index.put(key, i), "put(" + key + ") at step " + i);
+            }
+            assertEquals(expected.size(), index.size());
+        }
+        for (int key = -32; key < 32; key++) {
+            assertEquals(expected.get(key), index.get(key), "get(" + key + ")");
+            assertEquals(expected.containsKey(key), index.containsKey(key));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testParseReadsCurrentAndOlderDecimalText() throws IOException {
+        assertEquals(160_000, Money.parse("1600.00"));
+        assertEquals(160_000, Money.parse("1600.0"));
+        assertEquals(160_000, Money.parse(" 1600 "));
+        assertEquals(160_050, Money.parse("1600,5"));
+        assertEquals(160_000, Money.parse("1.6E3"));
+        assertEquals(1_001, Money.parse("10.005"), "A third decimal should round half up");
+        assertEquals(-1_250, Money.parse("-12.50"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12 kr"));
+
+        try (RecordReader reader = RecordReader.of("1;2;1200.0;1200.005")) {
+            assertTrue(reader.next());
+            assertEquals(120_000, reader.parseMoney(2));
+            assertEquals(120_001, reader.parseMoney(3));
+        }
+    }
+
+    @Test
+    void testFormatAndArithmeticAreExact() {
+        assertEquals("1600.00", Money.format(160_000));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-12.50", Money.format(-1_250));
+        assertEquals(120_000, Money.scale(160_000, 75, 100));
+
+        long[] amounts = new long[100_000];
+        Arrays.fill(amounts, Money.ofKroner(0.10));
+        assertEquals(1_000_000, Money.sum(amounts), "A hundred thousand 0.10 payments should add up to exactly 10000.00");
+    }
+}
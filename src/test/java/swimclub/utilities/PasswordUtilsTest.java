@@ -0,0 +1,51 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordUtilsTest {
+    private int savedIterations;
+
+    @BeforeEach
+    void setUp() {
+        savedIterations = PasswordUtils.getIterations();
+        PasswordUtils.setIterations(1_000); // Keeps the test fast; the scheme is the same at any cost
+    }
+
+    @AfterEach
+    void tearDown() {
+        PasswordUtils.setIterations(savedIterations);
+    }
+
+    @Test
+    void testCurrentHashesAreVersionedAndVerified() {
+        String salt = PasswordUtils.generateSalt();
+        String hash = PasswordUtils.hashPassword("secret1", salt);
+
+        assertTrue(hash.startsWith(PasswordUtils.PBKDF2_PREFIX + "1000$"));
+        assertTrue(PasswordUtils.validatePassword("secret1", salt, hash));
+        assertFalse(PasswordUtils.validatePassword("secret2", salt, hash));
+        assertFalse(PasswordUtils.needsRehash(hash));
+
+        PasswordUtils.setIterations(2_000);
+        assertTrue(PasswordUtils.needsRehash(hash), "A hash with an older cost should be upgraded.");
+        assertTrue(PasswordUtils.validatePassword("secret1", salt, hash), "It should still verify with its own cost.");
+    }
+
+    @Test
+    void testLegacyHashesStillVerify() throws Exception {
+        String salt = PasswordUtils.generateSalt();
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        sha256.update(Base64.getDecoder().decode(salt));
+        String legacyHash = Base64.getEncoder().encodeToString(sha256.digest("secret1".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(PasswordUtils.validatePassword("secret1", salt, legacyHash));
+        assertFalse(PasswordUtils.validatePassword("secret2", salt, legacyHash));
+        assertTrue(PasswordUtils.needsRehash(legacyHash));
+    }
+}
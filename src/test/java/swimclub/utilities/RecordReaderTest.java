@@ -0,0 +1,84 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+import swimclub.models.ActivityType;
+import swimclub.models.MembershipLevel;
+import swimclub.models.PaymentStatus;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordReaderTest {
+    private static final String TEST_FILE = "src/test/resources/testRecordReader.txt";
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_FILE).delete();
+    }
+
+    @Test
+    void testParsesFieldsInPlace() throws IOException {
+        try (RecordReader reader = RecordReader.of("42;Søren Jensen;1600.5;2024-03-09;pending;SENIOR COMPETITIVE; 7 ")) {
+            assertTrue(reader.next());
+            assertEquals(7, reader.fieldCount());
+            assertEquals(42, reader.parseInt(0));
+            assertEquals("Søren Jensen", reader.getString(1));
+            assertEquals(1600.5, reader.parseDouble(2));
+            assertEquals(LocalDate.of(2024, 3, 9), reader.parseLocalDate(3));
+            assertEquals(PaymentStatus.PENDING, reader.parseEnum(4, PaymentStatus.values()));
+            assertEquals(MembershipLevel.SENIOR, reader.parseEnumWord(5, 0, MembershipLevel.values()));
+            assertEquals(7, reader.parseInt(6));
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void testRejectsInvalidValues() throws IOException {
+        try (RecordReader reader = RecordReader.of("12a;;SWIMMING;2147483648")) {
+            assertTrue(reader.next());
+            assertThrows(NumberFormatException.class, () -> reader.parseInt(0));
+            assertThrows(NumberFormatException.class, () -> reader.parseInt(1));
+            assertThrows(IllegalArgumentException.class, () -> reader.parseEnum(2, ActivityType.values()));
+            assertThrows(NumberFormatException.class, () -> reader.parseInt(3));
+        }
+    }
+
+    @Test
+    void testRejectsImpossibleDates() throws IOException {
+        try (RecordReader reader = RecordReader.of("2024-02-30;30-02-2024;2024-13-01;2024-02-29;29-02-2024")) {
+            assertTrue(reader.next());
+            // Well-formed but not calendar dates fail with the documented exception, not DateTimeException
+            assertThrows(IllegalArgumentException.class, () -> reader.parseLocalDate(0));
+            assertThrows(IllegalArgumentException.class, () -> reader.parseDayFirstDate(1));
+            assertThrows(IllegalArgumentException.class, () -> reader.parseLocalDate(2));
+            assertEquals(LocalDate.of(2024, 2, 29), reader.parseLocalDate(3));
+            assertEquals(LocalDate.of(2024, 2, 29), reader.parseDayFirstDate(4));
+        }
+    }
+
+    @Test
+    void testReadsRecordsAcrossBufferBoundaries() throws IOException {
+        int records = 20000; // Well beyond one 64 KB chunk
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(TEST_FILE))) {
+            for (int i = 0; i < records; i++) {
+                writer.write(i + ";CRAWL;" + (i / 100.0) + "\r\n");
+            }
+        }
+
+        int count = 0;
+        try (RecordReader reader = RecordReader.open(TEST_FILE)) {
+            while (reader.next()) {
+                assertEquals(count, reader.parseInt(0));
+                assertEquals(ActivityType.CRAWL, reader.parseEnum(1, ActivityType.values()));
+                assertEquals(count / 100.0, reader.parseDouble(2));
+                count++;
+            }
+        }
+        assertEquals(records, count);
+    }
+}
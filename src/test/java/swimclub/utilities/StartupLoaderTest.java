@@ -0,0 +1,57 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupLoaderTest {
+
+    @Test
+    void testStagesRunAfterTheirDependencies() {
+        StartupLoader loader = new StartupLoader(2);
+        CompletableFuture<Integer> members = loader.stage("members", () -> 3);
+        CompletableFuture<Integer> payments = loader.stage("payments", () -> members.join() * 2, members);
+        CompletableFuture<Integer> results = loader.stage("results", () -> members.join() + 1, members);
+
+        loader.awaitAll();
+
+        assertEquals(6, payments.join());
+        assertEquals(4, results.join());
+        String report = loader.getTimingReport();
+        assertTrue(report.contains("members") && report.contains("payments") && report.contains("results"), report);
+    }
+
+    @Test
+    void testFailingStageIsReportedWithoutBlockingOtherStages() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            StartupLoader loader = new StartupLoader(2);
+            CountDownLatch failed = new CountDownLatch(1);
+            CompletableFuture<Void> members = loader.stage("members", () -> {
+                failed.countDown();
+                throw new IllegalStateException("members.dat unreadable");
+            });
+            CompletableFuture<Void> payments = loader.stage("payments", () -> { }, members);
+            // An independent stage still runs, even one that only starts after the failure
+            CompletableFuture<String> staff = loader.stage("staff", () -> {
+                try {
+                    failed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "loaded";
+            });
+
+            RuntimeException error = assertThrows(RuntimeException.class, loader::awaitAll);
+            assertTrue(error.getMessage().contains("members.dat unreadable"), error.getMessage());
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+
+            assertEquals("loaded", staff.join(), "The independent stage should complete.");
+            assertTrue(payments.isCompletedExceptionally(), "A stage depending on the failed one should fail, not wait.");
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+import swimclub.models.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingResultsColumnsTest {
+    private static final String TEST_TEXT_FILE = "src/test/resources/testTrainingResults.txt";
+    private static final String TEST_COLUMN_FILE = "src/test/resources/testTrainingResults.col";
+
+    @BeforeEach
+    void setUp() {
+        new File(TEST_COLUMN_FILE).getParentFile().mkdirs();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_TEXT_FILE).delete();
+        new File(TEST_COLUMN_FILE).delete();
+    }
+
+    private TrainingResults createResult(String id, ActivityType activityType, double time, String date) {
+        Member member = new SeniorMember(
+                id, "Swimmer " + id, "swimmer" + id + "@example.com", "City", "Street", "Region", 12345,
+                new MembershipType(MembershipCategory.COMPETITIVE, MembershipLevel.SENIOR),
+                MembershipStatus.ACTIVE, activityType, PaymentStatus.COMPLETE, 30, 12345678, "No team"
+        );
+        return new TrainingResults(member, MembershipLevel.SENIOR, activityType, time, date);
+    }
+
+    @Test
+    void testWrittenColumnsReadBack() throws IOException {
+        assertEquals(3, TrainingResultsColumns.write(TEST_COLUMN_FILE, List.of(
+                createResult("1", ActivityType.CRAWL, 30.5, "01-02-2024"),
+                createResult("2", ActivityType.BUTTERFLY, 41.25, "15-03-2024"),
+                createResult("3", ActivityType.CRAWL, 29.99, null),        // No date
+                createResult("4", ActivityType.CRAWL, 31.0, "someday"),    // Unparseable date
+                createResult("5", ActivityType.CRAWL, 31.5, "30-02-2024")  // No such day
+        )), "Results with an invalid date should be skipped, as on import.");
+
+        try (TrainingResultsColumns columns = TrainingResultsColumns.map(TEST_COLUMN_FILE)) {
+            assertEquals(3, columns.size());
+            assertEquals(2, columns.getMemberId(1));
+            assertEquals(ActivityType.BUTTERFLY, columns.getActivityType(1));
+            assertEquals(MembershipLevel.SENIOR, columns.getLevel(1));
+            assertEquals(4125, columns.getCentiseconds(1));
+            assertEquals(LocalDate.of(2024, 3, 15).toEpochDay(), columns.getEpochDay(1));
+            assertEquals(TrainingResultsColumns.NO_DATE, columns.getEpochDay(2), "A missing date should be stored as NO_DATE.");
+            assertThrows(IndexOutOfBoundsException.class, () -> columns.getMemberId(3));
+
+            // Rows without a date still count towards the average
+            assertEquals(2, columns.count(ActivityType.CRAWL, MembershipLevel.SENIOR));
+            assertEquals((30.5 + 29.99) / 2, columns.averageTime(ActivityType.CRAWL, MembershipLevel.SENIOR), 1e-9);
+            assertEquals(0, columns.averageTime(ActivityType.CRAWL, MembershipLevel.JUNIOR), "No rows should average to 0.");
+
+            int[] visited = new int[1];
+            columns.forEach((memberId, activityType, level, centiseconds, epochDay) -> visited[0] += memberId);
+            assertEquals(1 + 2 + 3, visited[0]);
+        }
+    }
+
+    @Test
+    void testImportSkipsBadRowsAndRanksTiesInFileOrder() throws IOException {
+        Files.write(Paths.get(TEST_TEXT_FILE), List.of(
+                "1;SENIOR;CRAWL;30.5;01-02-2024",
+                "x;SENIOR;CRAWL;30.0;01-02-2024",      // Bad member ID
+                "2;SENIOR;SWIMMING;30.0;01-02-2024",   // Unknown discipline
+                "3;SENIOR;CRAWL;fast;01-02-2024",      // Bad time
+                "",
+                "4;SENIOR;CRAWL;30.5",                 // No date
+                "5;SENIOR;CRAWL;29.99;15-03-2024",
+                "6;JUNIOR;CRAWL;20.0;01-01-2024",
+                "7;SENIOR;CRAWL;30.5;02-02-2024",
+                "8;SENIOR;CRAWL;31.0;2024-02-30"       // Bad date
+        ));
+
+        assertEquals(5, TrainingResultsColumns.importText(TEST_TEXT_FILE, TEST_COLUMN_FILE), "Bad and blank rows should be skipped.");
+
+        try (TrainingResultsColumns columns = TrainingResultsColumns.map(TEST_COLUMN_FILE)) {
+            assertEquals(5, columns.size());
+            assertEquals(TrainingResultsColumns.NO_DATE, columns.getEpochDay(1));
+
+            int[] top = columns.topRows(ActivityType.CRAWL, MembershipLevel.SENIOR, 3);
+            int[] topIds = Arrays.stream(top).map(columns::getMemberId).toArray();
+            assertArrayEquals(new int[]{5, 1, 4}, topIds, "Equal times should keep their file order.");
+            assertEquals(4, columns.topRows(ActivityType.CRAWL, MembershipLevel.SENIOR, 10).length);
+            assertEquals(0, columns.topRows(ActivityType.CRAWL, MembershipLevel.SENIOR, 0).length);
+            assertEquals((30.5 + 30.5 + 29.99 + 30.5) / 4, columns.averageTime(ActivityType.CRAWL, MembershipLevel.SENIOR), 1e-9);
+        }
+    }
+
+    @Test
+    void testRejectsTruncatedAndForeignFiles() throws IOException {
+        TrainingResultsColumns.write(TEST_COLUMN_FILE, List.of(
+                createResult("1", ActivityType.CRAWL, 30.5, "01-02-2024"),
+                createResult("2", ActivityType.CRAWL, 31.5, "02-02-2024")
+        ));
+        byte[] valid = Files.readAllBytes(Paths.get(TEST_COLUMN_FILE));
+
+        Files.write(Paths.get(TEST_COLUMN_FILE), Arrays.copyOf(valid, valid.length - 1));
+        IOException truncated = assertThrows(IOException.class, () -> TrainingResultsColumns.map(TEST_COLUMN_FILE));
+        assertTrue(truncated.getMessage().contains("truncated"));
+
+        Files.write(Paths.get(TEST_COLUMN_FILE), Arrays.copyOf(valid, 8)); // Shorter than the header
+        assertThrows(IOException.class, () -> TrainingResultsColumns.map(TEST_COLUMN_FILE));
+
+        // A corrupt row count is rejected, whether negative or large enough to overflow the column offsets
+        for (int rowCount : new int[]{-1, 0x40000000}) {
+            byte[] corrupt = valid.clone();
+            ByteBuffer.wrap(corrupt).putInt(8, rowCount);
+            Files.write(Paths.get(TEST_COLUMN_FILE), corrupt);
+            assertThrows(IOException.class, () -> TrainingResultsColumns.map(TEST_COLUMN_FILE));
+        }
+
+        Files.write(Paths.get(TEST_COLUMN_FILE), "1;SENIOR;CRAWL;30.5;01-02-2024".getBytes());
+        IOException foreign = assertThrows(IOException.class, () -> TrainingResultsColumns.map(TEST_COLUMN_FILE));
+        assertTrue(foreign.getMessage().contains("Not a training results column file"));
+    }
+}
@@ -0,0 +1,151 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindPersistenceTest {
+    private static final String TEST_FILE = "src/test/resources/testWriteBehind.txt";
+
+    private WriteBehindPersistence persistence;
+
+    @BeforeEach
+    void setUp() {
+        persistence = new WriteBehindPersistence(1000); // Long window, only flush() ends it
+    }
+
+    @AfterEach
+    void tearDown() {
+        persistence.close();
+        new File(TEST_FILE).delete();
+    }
+
+    @Test
+    void testWritesToSameKeyAreCoalesced() {
+        AtomicInteger writes = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            persistence.submit("teams", writes::incrementAndGet);
+        }
+        assertEquals(1, persistence.getPendingCount());
+
+        persistence.flush();
+        assertEquals(1, writes.get(), "Only the latest write for a key should run.");
+    }
+
+    @Test
+    void testFlushWritesLatestFileContent() throws IOException {
+        persistence.submitFile(TEST_FILE, List.of("first"), e -> fail(e));
+        persistence.submitFile(TEST_FILE, List.of("second", "third"), e -> fail(e));
+
+        persistence.flush();
+        assertEquals(List.of("second", "third"), Files.readAllLines(new File(TEST_FILE).toPath()));
+        assertEquals(0, persistence.getPendingCount());
+    }
+
+    @Test
+    void testFlushWaitsForReplacementOfPendingWrite() throws InterruptedException {
+        // Keep the writer busy with another file so the next write stays pending
+        CountDownLatch busyStarted = new CountDownLatch(1);
+        CountDownLatch releaseBusy = new CountDownLatch(1);
+        persistence.submit("members", () -> {
+            busyStarted.countDown();
+            awaitQuietly(releaseBusy);
+        });
+        new Thread(persistence::flush).start();
+        assertTrue(busyStarted.await(5, TimeUnit.SECONDS));
+
+        persistence.submit("teams", () -> { });
+        Thread flusher = new Thread(persistence::flush);
+        flusher.start();
+        while (flusher.getState() != Thread.State.WAITING) {
+            Thread.sleep(1); // Let the flush take its target before the write is replaced
+        }
+
+        // Replace the pending write; its replacement blocks until released
+        CountDownLatch replacementStarted = new CountDownLatch(1);
+        CountDownLatch releaseReplacement = new CountDownLatch(1);
+        persistence.submit("teams", () -> {
+            replacementStarted.countDown();
+            awaitQuietly(releaseReplacement);
+        });
+        releaseBusy.countDown();
+        assertTrue(replacementStarted.await(5, TimeUnit.SECONDS));
+
+        flusher.join(200);
+        assertTrue(flusher.isAlive(), "Flush should wait until the replacing write has run.");
+        releaseReplacement.countDown();
+        flusher.join(5000);
+        assertFalse(flusher.isAlive());
+    }
+
+    @Test
+    void testFlushReportsFailedWriteUntilItIsReplaced() throws IOException {
+        String unwritable = "src/test/resources/missingDirectory/testWriteBehind.txt";
+        AtomicInteger errors = new AtomicInteger();
+        persistence.submitFile(unwritable, List.of("lost"), e -> errors.incrementAndGet());
+        persistence.submitFile(TEST_FILE, List.of("saved"), e -> fail(e));
+
+        assertFalse(persistence.flush(), "A failed write should be reported to the flush caller.");
+        assertEquals(1, errors.get());
+        assertEquals(List.of("saved"), Files.readAllLines(new File(TEST_FILE).toPath()));
+        assertFalse(persistence.flush(), "The failure stands until the file is written.");
+
+        persistence.submit(unwritable, () -> { }); // A later successful write for the same key
+        assertTrue(persistence.flush());
+    }
+
+    @Test
+    void testInterruptedFlushStillWaitsAndKeepsTheInterrupt() throws InterruptedException {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+        persistence.submit("members", () -> {
+            writeStarted.countDown();
+            awaitQuietly(releaseWrite);
+            writes.incrementAndGet();
+        });
+
+        boolean[] result = new boolean[2]; // Flush result, interrupt status after the flush
+        Thread flusher = new Thread(() -> {
+            result[0] = persistence.flush();
+            result[1] = Thread.currentThread().isInterrupted();
+        });
+        flusher.start();
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+        flusher.interrupt();
+        flusher.join(200);
+        assertTrue(flusher.isAlive(), "An interrupt should not end the flush before the write has run.");
+
+        releaseWrite.countDown();
+        flusher.join(5000);
+        assertFalse(flusher.isAlive());
+        assertEquals(1, writes.get());
+        assertTrue(result[0]);
+        assertTrue(result[1], "The interrupt should be restored once the flush returns.");
+    }
+
+    @Test
+    void testSynchronousFlushReportsFailedWrite() {
+        WriteBehindPersistence synchronous = WriteBehindPersistence.synchronous();
+        synchronous.submitFile("src/test/resources/missingDirectory/testWriteBehind.txt", List.of("lost"), e -> { });
+        assertFalse(synchronous.flush());
+        synchronous.submitFile(TEST_FILE, List.of("saved"), e -> fail(e));
+        assertFalse(synchronous.flush(), "Only a write for the same key clears the failure.");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}